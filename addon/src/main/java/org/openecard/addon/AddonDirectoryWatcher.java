@@ -0,0 +1,407 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Watches the add-on directory for added, replaced and removed JAR files.
+ * The watcher uses the {@code WatchService} of the file system, so that no thread is busy while nothing happens in
+ * the directory. If the file system does not support change notifications or the platform lacks
+ * {@code java.nio.file} altogether, as Android before API level 26 does, the directory is polled in a long interval.
+ * <p>Copying a JAR into the directory usually results in a burst of create and modify events. All events of a file are
+ * collected until its size and modification time did not change for a quiet period and the central directory of the
+ * JAR can be read. Only then the listener is informed exactly once.</p>
+ * <p>All listener methods are called from a single thread.</p>
+ *
+ * @author agent
+ */
+final class AddonDirectoryWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AddonDirectoryWatcher.class);
+
+    private static final long QUIET_PERIOD = 1000;
+    private static final long POLL_INTERVAL = 10000;
+    private static final int MAX_INCOMPLETE_CHECKS = 30;
+    private static final boolean WATCH_SERVICE_AVAILABLE = isWatchServiceAvailable();
+
+    /**
+     * Callback interface for the changes in the watched directory.
+     */
+    interface Listener {
+
+	/**
+	 * Called when a JAR file has been added to the directory and is completely written.
+	 *
+	 * @param file The new file.
+	 */
+	void onFileCreate(File file);
+
+	/**
+	 * Called when a known JAR file has been replaced or modified and is completely written.
+	 *
+	 * @param file The changed file.
+	 */
+	void onFileChange(File file);
+
+	/**
+	 * Called when a known JAR file has been removed from the directory.
+	 *
+	 * @param file The removed file.
+	 */
+	void onFileDelete(File file);
+
+    }
+
+    private final File dir;
+    private final Listener listener;
+    private final long quietPeriod;
+    private final long pollInterval;
+    private final boolean useWatchService;
+    private final ScheduledExecutorService scheduler;
+
+    // the following fields are only accessed from the scheduler thread after start
+    private final Set<String> knownFiles = new HashSet<>();
+    private final Map<String, PendingFile> pendingFiles = new HashMap<>();
+    private final Map<String, String> polledState = new HashMap<>();
+
+    private DirectoryWatchService watchService;
+
+    /**
+     * Creates a watcher for the given directory.
+     *
+     * @param dir Directory to watch.
+     * @param listener Listener which is informed about the changes in the directory.
+     */
+    AddonDirectoryWatcher(File dir, Listener listener) {
+	this(dir, listener, QUIET_PERIOD, POLL_INTERVAL);
+    }
+
+    AddonDirectoryWatcher(File dir, Listener listener, long quietPeriod, long pollInterval) {
+	this(dir, listener, quietPeriod, pollInterval, true);
+    }
+
+    AddonDirectoryWatcher(File dir, Listener listener, long quietPeriod, long pollInterval, boolean useWatchService) {
+	this.dir = dir;
+	this.listener = listener;
+	this.quietPeriod = quietPeriod;
+	this.pollInterval = pollInterval;
+	this.useWatchService = useWatchService && WATCH_SERVICE_AVAILABLE;
+	this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+	    @Override
+	    public Thread newThread(Runnable r) {
+		Thread t = new Thread(r, "Addon-Directory-Events");
+		t.setDaemon(true);
+		return t;
+	    }
+	});
+    }
+
+    /**
+     * Starts watching the directory.
+     * The given JAR files are considered to be known already, so no create events are issued for them. All other JAR
+     * files which are present at this point are reported as created, just like files added later on.
+     *
+     * @param knownNames Names of the JAR files in the directory which have already been processed, e.g. by an initial
+     *   scan of the directory.
+     */
+    void start(Collection<String> knownNames) {
+	if (useWatchService) {
+	    try {
+		watchService = DirectoryWatchService.register(dir, this);
+	    } catch (IOException | UnsupportedOperationException ex) {
+		logger.info("File system provides no change notifications for {}, polling every {} ms instead.", dir,
+			pollInterval);
+		logger.debug("Failed to register watch service.", ex);
+	    }
+	} else {
+	    logger.debug("No watch service available, polling add-on directory {} every {} ms.", dir, pollInterval);
+	}
+
+	// the directory must be listed after the registration, otherwise files could be missed
+	for (File f : listJars()) {
+	    final String name = f.getName();
+	    polledState.put(name, fileState(f));
+	    if (knownNames.contains(name)) {
+		knownFiles.add(name);
+	    } else {
+		// added after the initial scan, or not processed by it
+		submit(new Runnable() {
+		    @Override
+		    public void run() {
+			touch(name);
+		    }
+		});
+	    }
+	}
+
+	if (watchService != null) {
+	    logger.debug("Watching add-on directory {} for changes.", dir);
+	    watchService.start();
+	} else {
+	    scheduler.scheduleWithFixedDelay(new Runnable() {
+		@Override
+		public void run() {
+		    poll();
+		}
+	    }, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+	}
+    }
+
+    /**
+     * Stops watching the directory.
+     * Events which have not been delivered to the listener yet are discarded.
+     */
+    void stop() {
+	if (watchService != null) {
+	    watchService.stop();
+	    watchService = null;
+	}
+	scheduler.shutdownNow();
+    }
+
+    /**
+     * Records a change of the given file reported by the watch service.
+     *
+     * @param name Name of the file in the watched directory.
+     */
+    void fileChanged(final String name) {
+	if (isJarName(name)) {
+	    submit(new Runnable() {
+		@Override
+		public void run() {
+		    touch(name);
+		}
+	    });
+	}
+    }
+
+    /**
+     * Checks all files after the watch service lost events.
+     */
+    void eventsLost() {
+	logger.debug("Events of the add-on directory have been lost, checking all files.");
+	submit(new Runnable() {
+	    @Override
+	    public void run() {
+		rescan();
+	    }
+	});
+    }
+
+    private void submit(Runnable task) {
+	if (! scheduler.isShutdown()) {
+	    scheduler.execute(task);
+	}
+    }
+
+    /**
+     * Records an event for the given file and (re)starts its quiet period.
+     *
+     * @param name Name of the file in the watched directory.
+     */
+    private void touch(final String name) {
+	PendingFile pending = pendingFiles.get(name);
+	if (pending == null) {
+	    pending = new PendingFile();
+	    pendingFiles.put(name, pending);
+	} else if (pending.check != null) {
+	    pending.check.cancel(false);
+	}
+	File f = new File(dir, name);
+	pending.size = f.length();
+	pending.lastModified = f.lastModified();
+	schedule(name, pending);
+    }
+
+    private void schedule(final String name, PendingFile pending) {
+	pending.check = scheduler.schedule(new Runnable() {
+	    @Override
+	    public void run() {
+		settle(name);
+	    }
+	}, quietPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks whether a file has settled after its quiet period and informs the listener if this is the case.
+     *
+     * @param name Name of the file in the watched directory.
+     */
+    private void settle(String name) {
+	PendingFile pending = pendingFiles.get(name);
+	if (pending == null) {
+	    return;
+	}
+	File f = new File(dir, name);
+
+	if (! f.exists()) {
+	    pendingFiles.remove(name);
+	    if (knownFiles.remove(name)) {
+		notifyListener(f, false);
+	    }
+	    return;
+	}
+
+	long size = f.length();
+	long lastModified = f.lastModified();
+	if (size != pending.size || lastModified != pending.lastModified) {
+	    // still being written without us receiving an event, e.g. when the events have been coalesced
+	    pending.size = size;
+	    pending.lastModified = lastModified;
+	    schedule(name, pending);
+	    return;
+	}
+
+	if (! isCompleteJar(f)) {
+	    if (++pending.incompleteChecks < MAX_INCOMPLETE_CHECKS) {
+		schedule(name, pending);
+	    } else {
+		logger.warn("The file {} is not a readable JAR file, ignoring it.", f);
+		pendingFiles.remove(name);
+	    }
+	    return;
+	}
+
+	pendingFiles.remove(name);
+	notifyListener(f, true);
+    }
+
+    private void notifyListener(File f, boolean exists) {
+	try {
+	    if (! exists) {
+		listener.onFileDelete(f);
+	    } else if (knownFiles.add(f.getName())) {
+		listener.onFileCreate(f);
+	    } else {
+		listener.onFileChange(f);
+	    }
+	} catch (RuntimeException ex) {
+	    logger.error("Failed to process change of add-on file {}.", f, ex);
+	}
+    }
+
+    /**
+     * Checks all files after events have been lost.
+     */
+    private void rescan() {
+	Set<String> names = new HashSet<>(knownFiles);
+	for (File f : listJars()) {
+	    names.add(f.getName());
+	}
+	for (String name : names) {
+	    touch(name);
+	}
+    }
+
+    /**
+     * Compares the directory content with the previous poll and records an event for each difference.
+     */
+    private void poll() {
+	Map<String, String> current = new HashMap<>();
+	for (File f : listJars()) {
+	    current.put(f.getName(), fileState(f));
+	}
+	Set<String> names = new HashSet<>(polledState.keySet());
+	names.addAll(current.keySet());
+	for (String name : names) {
+	    String oldState = polledState.get(name);
+	    String newState = current.get(name);
+	    if (oldState == null ? newState != null : ! oldState.equals(newState)) {
+		touch(name);
+	    }
+	}
+	polledState.clear();
+	polledState.putAll(current);
+    }
+
+    private File[] listJars() {
+	File[] jars = dir.listFiles(new JARFileFilter());
+	return jars != null ? jars : new File[0];
+    }
+
+    private static boolean isWatchServiceAvailable() {
+	try {
+	    Class.forName("java.nio.file.WatchService");
+	    return true;
+	} catch (ClassNotFoundException | LinkageError ex) {
+	    return false;
+	}
+    }
+
+    private static String fileState(File f) {
+	return f.length() + ";" + f.lastModified();
+    }
+
+    private static boolean isJarName(String name) {
+	return name.toLowerCase().endsWith(".jar");
+    }
+
+    /**
+     * Checks whether the given file is a complete JAR file.
+     * A JAR which is still being written lacks the central directory at its end, so it can not be opened.
+     *
+     * @param file The file to check.
+     * @return {@code true} if the JAR can be opened and contains at least one entry, {@code false} otherwise.
+     */
+    static boolean isCompleteJar(File file) {
+	JarFile jar = null;
+	try {
+	    jar = new JarFile(file, false);
+	    return jar.entries().hasMoreElements();
+	} catch (IOException | SecurityException ex) {
+	    return false;
+	} finally {
+	    if (jar != null) {
+		try {
+		    jar.close();
+		} catch (IOException ex) {
+		    logger.debug("Failed to close JAR file {}.", file, ex);
+		}
+	    }
+	}
+    }
+
+    private static class PendingFile {
+	private ScheduledFuture<?> check;
+	private long size;
+	private long lastModified;
+	private int incompleteChecks;
+    }
+
+}
@@ -24,7 +24,10 @@ package org.openecard.addon;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import javax.annotation.Nonnull;
@@ -74,10 +77,7 @@ public class AddonManager {
     private final CardRecognition recognition;
     private final EventManager eventManager;
     private final EventHandler eventHandler;
-    private final TreeMap<AddonSpecification, TreeMap<String, IFDProtocol>> ifdProtocolCache = new TreeMap<>();
-    private final TreeMap<AddonSpecification, TreeMap<String, SALProtocol>> salProtocolCache = new TreeMap<>();
-    private final TreeMap<AddonSpecification, TreeMap<String, AppExtensionAction>> appExtActionCache = new TreeMap<>();
-    private final TreeMap<AddonSpecification, TreeMap<String, AppPluginAction>> appPluginActionCache = new TreeMap<>();
+    private final TreeMap<AddonSpecification, TreeMap<String, ProtocolPool<SALProtocol>>> salProtocolPools;
     private final Cache cache = new Cache();
 
     /**
@@ -101,6 +101,16 @@ public class AddonManager {
 	this.recognition = recognition;
 	this.eventManager = eventManager;
 	this.eventHandler = new EventHandler(eventManager);
+	this.salProtocolPools = new TreeMap<>();
+	if (cardStates != null) {
+	    // protocols dropped from the card states before they finished must go back to their pools as well
+	    cardStates.setProtocolReleaser(new CardStateMap.ProtocolReleaser() {
+		@Override
+		public void release(SALProtocol protocol) {
+		    returnSALProtocol(protocol);
+		}
+	    });
+	}
 
 	new Thread(new Runnable() {
 	    @Override
@@ -117,6 +127,8 @@ public class AddonManager {
      */
     private void loadLoadOnStartAddons() {
 	// load plugins which have an loadOnStartup = true
+	// the registries answer listAddons while they are still scanning, so wait for the complete list
+	registry.awaitInitialization();
 	Set<AddonSpecification> specs = protectedRegistry.listAddons();
 	for (AddonSpecification addonSpec : specs) {
 	    loadLoadOnStartupActions(addonSpec);
@@ -156,7 +168,11 @@ public class AddonManager {
 	if (!addonSpec.getSalActions().isEmpty()) {
 	    for (ProtocolPluginSpecification protPlugSpec : addonSpec.getSalActions()) {
 		if (protPlugSpec.isLoadOnStartup()) {
-		    getSALProtocol(addonSpec, protPlugSpec.getUri());
+		    // put the instance into the pool, so it is available when the protocol is needed
+		    SALProtocol proto = getSALProtocol(addonSpec, protPlugSpec.getUri());
+		    if (proto != null) {
+			returnSALProtocol(proto);
+		    }
 		}
 	    }
 	}
@@ -178,6 +194,11 @@ public class AddonManager {
      * @param addonSpec The {@link AddonSpecification} of the add-on to unload.
      */
     protected void unloadAddon(AddonSpecification addonSpec) {
+	// destroy all protocol instances and prevent the creation of new ones
+	for (ProtocolPool<SALProtocol> pool : removePools(salProtocolPools, addonSpec)) {
+	    pool.destroy();
+	}
+
 	Collection<Object> actionsAndProtocols = cache.getAllAddonData(addonSpec);
 	for (Object obj : actionsAndProtocols) {
 	    if (obj instanceof IFDProtocol) {
@@ -241,6 +262,15 @@ public class AddonManager {
 	return getProtectedRegistry(registry.getFileRegistry());
     }
 
+    /**
+     * Gets the routing table for the resources of the plugin actions of all registered add-ons.
+     *
+     * @return The routing table matching the currently registered add-ons.
+     */
+    ResourceRoutes getResourceRoutes() {
+	return registry.getResourceRoutes();
+    }
+
     /**
      * Register a new add-on which is located in the class path.
      *
@@ -253,30 +283,19 @@ public class AddonManager {
 
     /**
      * Get a specific IFDProtocol.
+     * IFD protocols are not pooled, every call creates and initializes a new instance.
      *
      * @param addonSpec {@link AddonSpecification} which contains the description of the {@link IFDProtocol}.
      * @param uri The {@link ProtocolPluginSpecification#uri} to identify the requested IFDProtocol.
      * @return The requested IFDProtocol object or NULL if no such object was found.
      */
     public IFDProtocol getIFDProtocol(@Nonnull AddonSpecification addonSpec, @Nonnull String uri) {
-	IFDProtocol ifdProt = cache.getIFDProtocol(addonSpec, uri);
-	// TODO: find a better way to deal with the reuse of protocol plugins
-//	if (ifdProt != null) {
-//	    // protocol cached so return it
-//	    return ifdProt;
-//	}
-
 	ProtocolPluginSpecification protoSpec = addonSpec.searchIFDActionByURI(uri);
 	String className = protoSpec.getClassName();
 	try {
 	    ClassLoader cl = registry.downloadAddon(addonSpec);
 	    IFDProtocolProxy protoFactory = new IFDProtocolProxy(className, cl);
-	    Context aCtx = new Context(this, dispatcher, eventManager, addonSpec);
-	    aCtx.setCardRecognition(recognition);
-	    aCtx.setCardStateMap(cardStates);
-	    aCtx.setEventHandle(eventHandler);
-	    aCtx.setUserConsent(userConsent);
-	    protoFactory.init(aCtx);
+	    protoFactory.init(createContext(addonSpec));
 	    cache.addIFDProtocol(addonSpec, uri, protoFactory);
 	    return protoFactory;
 	} catch (ActionInitializationException e) {
@@ -289,32 +308,35 @@ public class AddonManager {
 
     /**
      * Get a specific SALProtocol.
+     * The instance is taken from the pool of the protocol if possible. When it is not needed anymore, it should be
+     * given back with {@link #returnSALProtocol(SALProtocol)}.
      *
      * @param addonSpec {@link AddonSpecification} which contains the description of the {@link SALProtocol}.
      * @param uri The {@link ProtocolPluginSpecification#uri} to identify the requested SALProtocol.
      * @return The requested SALProtocol object or NULL if no such object was found.
      */
-    public SALProtocol getSALProtocol(@Nonnull AddonSpecification addonSpec, @Nonnull String uri) {
-	SALProtocol salProt = cache.getSALProtocol(addonSpec, uri);
-	// TODO: find a better way to deal with the reuse of protocol plugins
-//	if (salProt != null) {
-//	    // protocol cached so return it
-//	    return salProt;
-//	}
-
-	ProtocolPluginSpecification protoSpec = addonSpec.searchSALActionByURI(uri);
-	String className = protoSpec.getClassName();
+    public SALProtocol getSALProtocol(@Nonnull final AddonSpecification addonSpec, @Nonnull final String uri) {
+	ProtocolPool<SALProtocol> pool;
+	synchronized (salProtocolPools) {
+	    pool = getPool(salProtocolPools, addonSpec, uri);
+	    if (pool == null) {
+		pool = new ProtocolPool<>(addonSpec.getId(), uri, new ProtocolPool.Factory<SALProtocol>() {
+		    @Override
+		    public SALProtocol create() throws ActionInitializationException, AddonException {
+			ProtocolPluginSpecification protoSpec = addonSpec.searchSALActionByURI(uri);
+			String className = protoSpec.getClassName();
+			ClassLoader cl = registry.downloadAddon(addonSpec);
+			SALProtocolProxy protoFactory = new SALProtocolProxy(className, cl);
+			protoFactory.init(createContext(addonSpec));
+			return protoFactory;
+		    }
+		});
+		putPool(salProtocolPools, addonSpec, uri, pool);
+	    }
+	}
+
 	try {
-	    ClassLoader cl = registry.downloadAddon(addonSpec);
-	    SALProtocolProxy protoFactory = new SALProtocolProxy(className, cl);
-	    Context aCtx = new Context(this, dispatcher, eventManager, addonSpec);
-	    aCtx.setCardRecognition(recognition);
-	    aCtx.setCardStateMap(cardStates);
-	    aCtx.setEventHandle(eventHandler);
-	    aCtx.setUserConsent(userConsent);
-	    protoFactory.init(aCtx);
-	    cache.addSALProtocol(addonSpec, uri, protoFactory);
-	    return protoFactory;
+	    return pool.acquire();
 	} catch (ActionInitializationException e) {
 	    logger.error("Initialization of SAL Protocol failed", e);
 	} catch (AddonException ex) {
@@ -323,6 +345,78 @@ public class AddonManager {
 	return null;
     }
 
+    /**
+     * Gives back a SALProtocol which has been obtained by {@link #getSALProtocol(AddonSpecification, String)}.
+     * The instance must not be used after calling this method.
+     *
+     * @param protocol The protocol instance which is not needed anymore.
+     */
+    public void returnSALProtocol(@Nonnull SALProtocol protocol) {
+	returnProtocol(salProtocolPools, protocol);
+    }
+
+    /**
+     * Gets the usage figures of all protocol pools.
+     *
+     * @return List containing a statistics snapshot for each protocol which has been requested so far.
+     */
+    @Nonnull
+    public List<ProtocolPoolStatistics> getProtocolPoolStatistics() {
+	List<ProtocolPoolStatistics> result = new ArrayList<>();
+	for (ProtocolPool<SALProtocol> next : getAllPools(salProtocolPools)) {
+	    result.add(next.getStatistics());
+	}
+	return result;
+    }
+
+    private static <T extends LifecycleTrait> ProtocolPool<T> getPool(
+	    TreeMap<AddonSpecification, TreeMap<String, ProtocolPool<T>>> pools, AddonSpecification addonSpec,
+	    String uri) {
+	TreeMap<String, ProtocolPool<T>> addonPools = pools.get(addonSpec);
+	return addonPools != null ? addonPools.get(uri) : null;
+    }
+
+    private static <T extends LifecycleTrait> void putPool(
+	    TreeMap<AddonSpecification, TreeMap<String, ProtocolPool<T>>> pools, AddonSpecification addonSpec,
+	    String uri, ProtocolPool<T> pool) {
+	TreeMap<String, ProtocolPool<T>> addonPools = pools.get(addonSpec);
+	if (addonPools == null) {
+	    addonPools = new TreeMap<>();
+	    pools.put(addonSpec, addonPools);
+	}
+	addonPools.put(uri, pool);
+    }
+
+    private static <T extends LifecycleTrait> Collection<ProtocolPool<T>> removePools(
+	    TreeMap<AddonSpecification, TreeMap<String, ProtocolPool<T>>> pools, AddonSpecification addonSpec) {
+	synchronized (pools) {
+	    Map<String, ProtocolPool<T>> addonPools = pools.remove(addonSpec);
+	    return addonPools != null ? addonPools.values() : new ArrayList<ProtocolPool<T>>();
+	}
+    }
+
+    private static <T extends LifecycleTrait> List<ProtocolPool<T>> getAllPools(
+	    TreeMap<AddonSpecification, TreeMap<String, ProtocolPool<T>>> pools) {
+	List<ProtocolPool<T>> result = new ArrayList<>();
+	synchronized (pools) {
+	    for (TreeMap<String, ProtocolPool<T>> next : pools.values()) {
+		result.addAll(next.values());
+	    }
+	}
+	return result;
+    }
+
+    private static <T extends LifecycleTrait> void returnProtocol(
+	    TreeMap<AddonSpecification, TreeMap<String, ProtocolPool<T>>> pools, T protocol) {
+	for (ProtocolPool<T> next : getAllPools(pools)) {
+	    if (next.release(protocol)) {
+		return;
+	    }
+	}
+	// the add-on has been unloaded in the meantime and the instance has already been destroyed along with its pool
+	logger.debug("Returned protocol instance does not belong to any pool.");
+    }
+
     /**
      * Get a specific AppExtensionAction.
      *
@@ -343,12 +437,7 @@ public class AddonManager {
 	try {
 	    ClassLoader cl = registry.downloadAddon(addonSpec);
 	    AppExtensionActionProxy protoFactory = new AppExtensionActionProxy(className, cl);
-	    Context aCtx = new Context(this, dispatcher, eventManager, addonSpec);
-	    aCtx.setCardRecognition(recognition);
-	    aCtx.setCardStateMap(cardStates);
-	    aCtx.setEventHandle(eventHandler);
-	    aCtx.setUserConsent(userConsent);
-	    protoFactory.init(aCtx);
+	    protoFactory.init(createContext(addonSpec));
 	    cache.addAppExtensionAction(addonSpec, actionId, protoFactory);
 	    return protoFactory;
 	} catch (ActionInitializationException e) {
@@ -380,12 +469,7 @@ public class AddonManager {
 	try {
 	    ClassLoader cl = registry.downloadAddon(addonSpec);
 	    AppPluginActionProxy protoFactory = new AppPluginActionProxy(className, cl);
-	    Context aCtx = new Context(this, dispatcher, eventManager, addonSpec);
-	    aCtx.setCardRecognition(recognition);
-	    aCtx.setCardStateMap(cardStates);
-	    aCtx.setEventHandle(eventHandler);
-	    aCtx.setUserConsent(userConsent);
-	    protoFactory.init(aCtx);
+	    protoFactory.init(createContext(addonSpec));
 	    cache.addAppPluginAction(addonSpec, resourceName, protoFactory);
 	    return protoFactory;
 	} catch (ActionInitializationException e) {
@@ -396,6 +480,15 @@ public class AddonManager {
 	return null;
     }
 
+    private Context createContext(AddonSpecification addonSpec) {
+	Context aCtx = new Context(this, dispatcher, eventManager, addonSpec);
+	aCtx.setCardRecognition(recognition);
+	aCtx.setCardStateMap(cardStates);
+	aCtx.setEventHandle(eventHandler);
+	aCtx.setUserConsent(userConsent);
+	return aCtx;
+    }
+
     /**
      * Shut down the AddonManager.
      * The method unloads all installed add-ons.
@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.openecard.addon.bind.AppExtensionAction;
 import org.openecard.addon.bind.AppPluginAction;
 import org.openecard.addon.ifd.IFDProtocol;
@@ -84,6 +85,10 @@ public class AddonSelector {
 	return manager.getSALProtocol(addon, uri);
     }
 
+    public void returnSALProtocol(@Nonnull SALProtocol obj) {
+	manager.returnSALProtocol(obj);
+    }
+
     public AppExtensionAction getAppExtensionAction(@Nonnull String actionId) throws AddonNotFoundException {
 	Set<AddonSpecification> addons = manager.getRegistry().searchByActionId(actionId);
 	if (addons.isEmpty()) {
@@ -94,12 +99,34 @@ public class AddonSelector {
     }
 
     public AppPluginAction getAppPluginAction(@Nonnull String resourceName) throws AddonNotFoundException {
-	Set<AddonSpecification> addons = manager.getRegistry().searchByResourceName(resourceName);
-	if (addons.isEmpty()) {
+	ResourceRoutes.Route route = manager.getResourceRoutes().lookup(resourceName);
+	if (route == null) {
 	    throw new AddonNotFoundException("No Add-on for resource '" + resourceName + "' found.");
 	}
-	AddonSpecification addon = strategy.select(addons);
-	return manager.getAppPluginAction(addon, resourceName);
+	return getAppPluginAction(route);
+    }
+
+    /**
+     * Gets the plugin action responsible for the given resource without treating a missing add-on as an error.
+     * The resource is matched against the resource names of the plugin actions, where the most specific registered
+     * prefix of the resource wins. Use this method when a missing add-on is part of the regular control flow, e.g. when
+     * it means that a static resource is requested.
+     *
+     * @param resourceName Name of the requested resource without leading slash.
+     * @return The plugin action, or {@code null} if no add-on provides the resource or the action could not be created.
+     */
+    @Nullable
+    public AppPluginAction lookupAppPluginAction(@Nonnull String resourceName) {
+	ResourceRoutes.Route route = manager.getResourceRoutes().lookup(resourceName);
+	if (route == null) {
+	    return null;
+	}
+	return getAppPluginAction(route);
+    }
+
+    private AppPluginAction getAppPluginAction(ResourceRoutes.Route route) {
+	AddonSpecification addon = strategy.select(route.getAddons());
+	return manager.getAppPluginAction(addon, route.getResourceName());
     }
 
 }
@@ -26,23 +26,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.openecard.addon.manifest.AddonSpecification;
 import org.openecard.addon.manifest.AppExtensionSpecification;
 import org.openecard.addon.manifest.AppPluginSpecification;
 import org.openecard.addon.manifest.LocalizedString;
 import org.openecard.addon.manifest.ProtocolPluginSpecification;
 import org.openecard.common.util.FileUtils;
-import org.openecard.ws.marshal.WSMarshaller;
-import org.openecard.ws.marshal.WSMarshallerException;
-import org.openecard.ws.marshal.WSMarshallerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.xml.sax.SAXException;
 
 
 /**
@@ -56,53 +55,75 @@ public class ClasspathRegistry implements AddonRegistry {
 
     private static final Logger logger = LoggerFactory.getLogger(ClasspathRegistry.class);
 
-    private final FutureTask<ArrayList<AddonSpecification>> registeredAddons;
+    // add-on name and manifest file of the built-in add-ons
+    private static final String[][] BUILTIN_ADDONS = {
+	{ "TR-03112", "TCToken-Manifest.xml" },
+	{ "PIN-Management", "PIN-Plugin-Manifest.xml" },
+	{ "GenericCrypto", "GenericCrypto-Plugin-Manifest.xml" },
+	{ "Status", "Status-Plugin-Manifest.xml" },
+	{ "PKCS#11", "PKCS11-Manifest.xml" }
+    };
+
+    private final List<AddonSpecification> registeredAddons = new CopyOnWriteArrayList<>();
+    private final FutureTask<Void> initComplete;
+    private final AtomicInteger generation = new AtomicInteger();
 
 
     public ClasspathRegistry() {
-	registeredAddons = new FutureTask<>(new Callable<ArrayList<AddonSpecification>>() {
+	initComplete = new FutureTask<>(new Callable<Void>() {
 	    @Override
-	    public ArrayList<AddonSpecification> call() throws Exception {
-		ArrayList<AddonSpecification> addons = new ArrayList<>();
-
-		WSMarshaller marshaller = WSMarshallerFactory.createInstance();
-		marshaller.removeAllTypeClasses();
-		marshaller.addXmlTypeClass(AddonSpecification.class);
-
-		loadManifest(addons, marshaller, "TR-03112", "TCToken-Manifest.xml");
-		loadManifest(addons, marshaller, "PIN-Management", "PIN-Plugin-Manifest.xml");
-		loadManifest(addons, marshaller, "GenericCrypto", "GenericCrypto-Plugin-Manifest.xml");
-		loadManifest(addons, marshaller, "Status", "Status-Plugin-Manifest.xml");
-		loadManifest(addons, marshaller, "PKCS#11", "PKCS11-Manifest.xml");
-
-		return addons;
+	    public Void call() throws Exception {
+		final ManifestScanner scanner = new ManifestScanner("Init-Classpath-Addons", BUILTIN_ADDONS.length);
+		try {
+		    List<Future<AddonSpecification>> results = new ArrayList<>(BUILTIN_ADDONS.length);
+		    for (final String[] addon : BUILTIN_ADDONS) {
+			results.add(scanner.submit(new Callable<AddonSpecification>() {
+			    @Override
+			    public AddonSpecification call() throws Exception {
+				return loadManifest(scanner.getExtractor(), addon[0], addon[1]);
+			    }
+			}));
+		    }
+		    // register in the order of the list, each one as soon as it is available
+		    for (Future<AddonSpecification> result : results) {
+			AddonSpecification desc = result.get();
+			if (desc != null) {
+			    registerInt(desc);
+			}
+		    }
+		} finally {
+		    scanner.shutdown();
+		}
+		return null;
 	    }
 	});
-	new Thread(registeredAddons, "Init-Classpath-Addons").start();
+	new Thread(initComplete, "Init-Classpath-Addons").start();
     }
 
-    private void loadManifest(ArrayList<AddonSpecification> addons, WSMarshaller m, String addonName, String fileName) {
+    private AddonSpecification loadManifest(ManifestExtractor mEx, String addonName, String fileName) {
 	try {
 	    InputStream manifestStream = FileUtils.resolveResourceAsStream(ClasspathRegistry.class, fileName);
 	    if (manifestStream == null) {
 		logger.warn("Skipped loading internal add-on {}, because it is not available.", addonName);
-		return;
+		return null;
+	    }
+	    AddonSpecification desc = mEx.parseManifest(FileUtils.toByteArray(manifestStream), fileName);
+	    if (desc != null) {
+		logger.info("Loaded internal {} add-on.", addonName);
 	    }
-	    Document manifestDoc = m.str2doc(manifestStream);
-	    registerInt(addons, (AddonSpecification) m.unmarshal(manifestDoc));
-	    logger.info("Loaded internal {} add-on.", addonName);
+	    return desc;
 	} catch (IOException ex) {
 	    logger.warn(String.format("Failed to load internal %s add-on.", addonName), ex);
-	} catch (SAXException ex) {
-	    logger.warn(String.format("Failed to load internal %s add-on.", addonName), ex);
-	} catch (WSMarshallerException ex) {
-	    logger.warn(String.format("Failed to load internal %s add-on.", addonName), ex);
+	    return null;
 	}
     }
 
-    private ArrayList<AddonSpecification> getAddons() {
+    /**
+     * Waits until all built-in add-ons have been loaded.
+     */
+    void awaitInitialization() {
 	try {
-	    return registeredAddons.get();
+	    initComplete.get();
 	} catch (InterruptedException ex) {
 	    String msg = "Initialization of the built-in Add-ons has been interrupted.";
 	    logger.warn(msg);
@@ -114,18 +135,39 @@ public class ClasspathRegistry implements AddonRegistry {
 	}
     }
 
-    private void registerInt(ArrayList<AddonSpecification> registeredAddons, AddonSpecification desc) {
+    private List<AddonSpecification> getAddons() {
+	awaitInitialization();
+	return registeredAddons;
+    }
+
+    private void registerInt(AddonSpecification desc) {
 	registeredAddons.add(desc);
+	generation.incrementAndGet();
     }
 
     public final void register(AddonSpecification desc) {
-	registerInt(getAddons(), desc);
+	awaitInitialization();
+	registerInt(desc);
+    }
+
+    /**
+     * Gets a counter which changes whenever an add-on is registered.
+     *
+     * @return The current value of the modification counter.
+     */
+    int getGeneration() {
+	return generation.get();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>This method does not wait until all built-in add-ons are loaded. While they are loaded, only the ones which are
+     * available so far are returned.</p>
+     */
     @Override
     public Set<AddonSpecification> listAddons() {
 	Set<AddonSpecification> list = new HashSet<>();
-	list.addAll(getAddons());
+	list.addAll(registeredAddons);
 	return list;
     }
 
@@ -209,6 +251,7 @@ public class ClasspathRegistry implements AddonRegistry {
     @Override
     public Set<AddonSpecification> listInstalledAddons() {
 	// There aren't addons which are not installed so just return the output of listAddons()
+	awaitInitialization();
 	return listAddons();
     }
 
@@ -38,6 +38,8 @@ public class CombiningRegistry implements AddonRegistry {
 
     private final ClasspathRegistry classpathRegistry;
     private final FileRegistry fileRegistry;
+    private final Object routesLock = new Object();
+    private volatile ResourceRoutes routes;
 
 
     public CombiningRegistry(AddonManager manager) throws WSMarshallerException {
@@ -53,6 +55,38 @@ public class CombiningRegistry implements AddonRegistry {
 	return fileRegistry;
     }
 
+    /**
+     * Gets the routing table for the resources of all plugin actions in both registries.
+     * The table is rebuilt when an add-on has been added to or removed from one of the registries since the last call.
+     *
+     * @return The routing table matching the current content of the registries.
+     */
+    ResourceRoutes getResourceRoutes() {
+	// requests must not be routed based on the partial list of add-ons available during startup
+	awaitInitialization();
+	// the counters only grow, so their sum changes with every modification
+	long stamp = (long) classpathRegistry.getGeneration() + fileRegistry.getGeneration();
+	ResourceRoutes r = routes;
+	if (r == null || r.getStamp() != stamp) {
+	    synchronized (routesLock) {
+		r = routes;
+		if (r == null || r.getStamp() != stamp) {
+		    r = new ResourceRoutes(stamp, classpathRegistry.listAddons(), fileRegistry.listAddons());
+		    routes = r;
+		}
+	    }
+	}
+	return r;
+    }
+
+
+    /**
+     * Waits until both registries have loaded their initial set of add-ons.
+     */
+    void awaitInitialization() {
+	classpathRegistry.awaitInitialization();
+	fileRegistry.awaitInitialization();
+    }
 
     @Override
     public Set<AddonSpecification> listAddons() {
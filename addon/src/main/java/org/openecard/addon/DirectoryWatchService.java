@@ -0,0 +1,130 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import static java.nio.file.StandardWatchEventKinds.*;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Forwards the change notifications of a {@link WatchService} to the {@link AddonDirectoryWatcher}.
+ * All references to {@code java.nio.file} are kept in this class, so that the watcher can fall back to polling on
+ * platforms without that API. This class must only be loaded after checking that the API is present.
+ *
+ * @author agent
+ */
+@IgnoreJRERequirement
+final class DirectoryWatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryWatchService.class);
+
+    private final File dir;
+    private final WatchService watchService;
+    private final AddonDirectoryWatcher watcher;
+    private Thread watchThread;
+
+    private DirectoryWatchService(File dir, WatchService watchService, AddonDirectoryWatcher watcher) {
+	this.dir = dir;
+	this.watchService = watchService;
+	this.watcher = watcher;
+    }
+
+    /**
+     * Registers a watch service for the given directory.
+     * No events are delivered before {@link #start()} is called, but events occurring in the meantime are queued.
+     *
+     * @param dir Directory to watch.
+     * @param watcher Watcher which is informed about the changes.
+     * @return The registered watch service.
+     * @throws IOException Thrown in case the watch service could not be registered.
+     * @throws UnsupportedOperationException Thrown in case the file system does not support change notifications.
+     */
+    static DirectoryWatchService register(File dir, AddonDirectoryWatcher watcher) throws IOException {
+	Path path = dir.toPath();
+	WatchService ws = path.getFileSystem().newWatchService();
+	try {
+	    path.register(ws, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+	} catch (IOException | RuntimeException ex) {
+	    close(ws);
+	    throw ex;
+	}
+	return new DirectoryWatchService(dir, ws, watcher);
+    }
+
+    void start() {
+	watchThread = new Thread(new Runnable() {
+	    @Override
+	    public void run() {
+		processEvents();
+	    }
+	}, "Addon-Directory-Watcher");
+	watchThread.setDaemon(true);
+	watchThread.start();
+    }
+
+    void stop() {
+	close(watchService);
+	if (watchThread != null) {
+	    watchThread.interrupt();
+	}
+    }
+
+    private void processEvents() {
+	try {
+	    while (! Thread.currentThread().isInterrupted()) {
+		WatchKey key = watchService.take();
+		for (WatchEvent<?> event : key.pollEvents()) {
+		    if (event.kind() == OVERFLOW) {
+			watcher.eventsLost();
+		    } else {
+			watcher.fileChanged(((Path) event.context()).toString());
+		    }
+		}
+		if (! key.reset()) {
+		    logger.warn("Add-on directory {} is not accessible anymore, stopped watching it.", dir);
+		    break;
+		}
+	    }
+	} catch (InterruptedException | ClosedWatchServiceException ex) {
+	    logger.debug("Watching of the add-on directory has been stopped.");
+	}
+    }
+
+    private static void close(WatchService ws) {
+	try {
+	    ws.close();
+	} catch (IOException ex) {
+	    logger.debug("Failed to close watch service.", ex);
+	}
+    }
+
+}
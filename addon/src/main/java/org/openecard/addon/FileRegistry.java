@@ -27,23 +27,26 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
-import org.apache.commons.jci.monitor.FilesystemAlterationMonitor;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.openecard.addon.manifest.AddonSpecification;
 import org.openecard.addon.manifest.AppExtensionSpecification;
 import org.openecard.addon.manifest.AppPluginSpecification;
 import org.openecard.addon.manifest.LocalizedString;
 import org.openecard.addon.manifest.ProtocolPluginSpecification;
 import org.openecard.common.util.FileUtils;
-import org.openecard.ws.marshal.WSMarshallerException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,16 +62,20 @@ public class FileRegistry implements AddonRegistry {
 
     private static final Logger logger = LoggerFactory.getLogger(FileRegistry.class.getName());
 
-    private static final HashMap<String, AddonSpecification> registeredAddons = new HashMap<>();
-    private static final HashMap<String, File> files = new HashMap<>();
+    private static final String INDEX_DIR = "addons-index";
+
+    private static final Map<String, AddonSpecification> registeredAddons = new ConcurrentHashMap<>();
+    private static final Map<String, File> files = new ConcurrentHashMap<>();
+    private static final AtomicInteger generation = new AtomicInteger();
+    private final HashMap<String, URLClassLoader> classLoaders = new HashMap<>();
     private final AddonManager manager;
     private final Future<Void> initComplete;
 
     /**
      * Creates a new FileRegistry.
      * On the creation of the registry the add-on directory is retrieved and all existing add-ons are loaded.
-     * Furthermore a {@link FilesystemAlterationMonitor} is started to be able to register newly added add-ons and
-     * remove add-ons.
+     * Furthermore an {@link AddonDirectoryWatcher} is started to be able to register newly added add-ons and remove
+     * add-ons.
      *
      * @param manager {@link AddonManager} which takes care for the installed add-ons.
      */
@@ -111,7 +118,10 @@ public class FileRegistry implements AddonRegistry {
 	return f;
     }
 
-    private void blockUntilInit() {
+    /**
+     * Waits until the add-ons in the add-on directory have been loaded.
+     */
+    void awaitInitialization() {
 	try {
 	    initComplete.get();
 	} catch (InterruptedException ex) {
@@ -125,29 +135,35 @@ public class FileRegistry implements AddonRegistry {
 	}
     }
 
-    private HashMap<String, AddonSpecification> getAddons() {
-	blockUntilInit();
+    private Map<String, AddonSpecification> getAddons() {
+	awaitInitialization();
 	return registeredAddons;
     }
 
-    private HashMap<String, File> getFiles() {
-	blockUntilInit();
+    private Map<String, File> getFiles() {
+	awaitInitialization();
 	return files;
     }
 
     /**
-     * Starts the FilesystemAlterationMonitor.
-     * The method sets up a {@link FilesystemAlterationMonitor} and registers a {@link PluginDirectoryAlterationListener}.
-     * After the setup the monitor is started.
+     * Starts watching the add-on directory.
+     * The method sets up an {@link AddonDirectoryWatcher} which informs a {@link PluginDirectoryAlterationListener}
+     * about added and removed add-on files.
      *
      * @param addonPath Path to the directory which shall be monitored.
      */
     private void startFileMonitor(String addonPath) {
 	File f = new File(addonPath);
 	logger.debug("Starting file alteration monitor on path: {}", f.getPath());
-	FilesystemAlterationMonitor fam = new FilesystemAlterationMonitor();
-	fam.addListener(f, new PluginDirectoryAlterationListener(this, manager));
-	fam.start();
+	AddonDirectoryWatcher watcher = new AddonDirectoryWatcher(f, new PluginDirectoryAlterationListener(this, manager));
+	try {
+	    // files which have not been loaded by the initial scan are reported by the watcher
+	    watcher.start(new HashSet<>(registeredAddons.keySet()));
+	} catch (RuntimeException | LinkageError ex) {
+	    // the add-ons loaded so far remain usable, only changes of the directory are not noticed
+	    logger.error("Failed to start monitoring the add-on directory.", ex);
+	    watcher.stop();
+	}
     }
 
     /**
@@ -159,6 +175,7 @@ public class FileRegistry implements AddonRegistry {
     public void register(AddonSpecification desc, File file) {
 	registeredAddons.put(file.getName(), desc);
 	files.put(desc.getId(), file);
+	generation.incrementAndGet();
     }
 
     /**
@@ -175,16 +192,32 @@ public class FileRegistry implements AddonRegistry {
 		String id = next.getKey();
 		registeredAddons.remove(file.getName());
 		files.remove(id);
+		closeClassLoader(id);
+		generation.incrementAndGet();
 		logger.debug("Successfully removed addon {}", file.getName());
 		break;
 	    }
 	}
     }
 
+    /**
+     * Gets a counter which changes whenever an add-on is registered or unregistered.
+     *
+     * @return The current value of the modification counter.
+     */
+    int getGeneration() {
+	return generation.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This method does not wait until the add-on directory has been scanned. While the scan is running, only the
+     * add-ons which have been loaded so far are returned.</p>
+     */
     @Override
     public Set<AddonSpecification> listAddons() {
 	Set<AddonSpecification> list = new HashSet<>();
-	list.addAll(getAddons().values());
+	list.addAll(registeredAddons.values());
 	return list;
     }
 
@@ -235,18 +268,56 @@ public class FileRegistry implements AddonRegistry {
 	return matchingAddons;
     }
 
+    /**
+     * Gets the ClassLoader of the given add-on.
+     * The ClassLoader is created on the first request and reused afterwards, so that the classes of the add-on are
+     * loaded only once. It is closed when the add-on is unregistered.
+     *
+     * @param addonSpec The {@link AddonSpecification} of the add-on.
+     * @return The ClassLoader for the add-on's jar file.
+     * @throws AddonException Thrown if the add-on is not registered or its location can not be converted to a URL.
+     */
     @Override
     public ClassLoader downloadAddon(AddonSpecification addonSpec) throws AddonException {
 	String aId = addonSpec.getId();
-	// TODO: use other own classloader impl with security features
-	ClassLoader cl = getClass().getClassLoader();
-	try {
-	    URL[] url = new URL[] { files.get(aId).toURI().toURL() };
-	    URLClassLoader ucl = new URLClassLoader(url, cl);
+	synchronized (classLoaders) {
+	    URLClassLoader ucl = classLoaders.get(aId);
+	    if (ucl == null) {
+		File addonFile = files.get(aId);
+		if (addonFile == null) {
+		    throw new AddonException("Add-on '" + aId + "' is not registered.");
+		}
+		// TODO: use other own classloader impl with security features
+		ClassLoader cl = getClass().getClassLoader();
+		try {
+		    URL[] url = new URL[] { addonFile.toURI().toURL() };
+		    ucl = new URLClassLoader(url, cl);
+		    classLoaders.put(aId, ucl);
+		} catch (MalformedURLException e) {
+		    logger.error(e.getMessage(), e);
+		    throw new AddonException("Failed to convert Add-on location URI to URL.");
+		}
+	    }
 	    return ucl;
-	} catch (MalformedURLException e) {
-	    logger.error(e.getMessage(), e);
-	    throw new AddonException("Failed to convert Add-on location URI to URL.");
+	}
+    }
+
+    /**
+     * Closes and removes the cached ClassLoader of the given add-on.
+     *
+     * @param addonId ID of the add-on.
+     */
+    private void closeClassLoader(String addonId) {
+	URLClassLoader ucl;
+	synchronized (classLoaders) {
+	    ucl = classLoaders.remove(addonId);
+	}
+	if (ucl != null) {
+	    try {
+		ucl.close();
+	    } catch (IOException ex) {
+		logger.warn("Failed to close ClassLoader of Add-on {}.", addonId, ex);
+	    }
 	}
     }
 
@@ -276,23 +347,43 @@ public class FileRegistry implements AddonRegistry {
 
     /**
      * Register all add-ons which are already installed in the add-ons directory.
+     * The add-on files are processed in parallel. Manifests of add-on files which are unchanged since the last start are
+     * taken from the manifest index, so these files are not opened at all.
      *
-     * @throws WSMarshallerException Thrown if the instantiation of the marshaler for the AddonSpecification marshaling
-     * failed.
+     * @throws InterruptedException Thrown if the thread has been interrupted while waiting for the add-ons.
      */
-    private void loadExistingAddons() throws WSMarshallerException {
+    private void loadExistingAddons() throws InterruptedException {
 	try {
 	    File addonsDir = FileUtils.getAddonsDir();
 	    File[] addons = addonsDir.listFiles(new JARFileFilter());
-	    ManifestExtractor mEx = new ManifestExtractor();
+	    if (addons == null || addons.length == 0) {
+		return;
+	    }
 
-	    for (File addon : addons) {
-		AddonSpecification addonSpec = mEx.getAddonSpecificationFromFile(addon);
-		if (addonSpec != null) {
-		    register(addonSpec, addon);
-		    logger.info("Loaded external addon {}", addon.getName());
+	    final ManifestIndex index = ManifestIndex.load(new File(FileUtils.getHomeConfigDir(), INDEX_DIR));
+	    final ManifestScanner scanner = new ManifestScanner("Scan-File-Addons", addons.length);
+	    try {
+		List<Future<Void>> results = new ArrayList<>(addons.length);
+		for (final File addon : addons) {
+		    results.add(scanner.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+			    loadAddon(scanner.getExtractor(), index, addon);
+			    return null;
+			}
+		    }));
+		}
+		for (Future<Void> result : results) {
+		    try {
+			result.get();
+		    } catch (ExecutionException ex) {
+			logger.error("Failed to load add-on.", ex.getCause());
+		    }
 		}
+	    } finally {
+		scanner.shutdown();
 	    }
+	    index.save();
 	} catch (IOException ex) {
 	    logger.error("Failed to load addons directory.", ex);
 	} catch (SecurityException ex) {
@@ -300,9 +391,29 @@ public class FileRegistry implements AddonRegistry {
 	}
     }
 
+    private void loadAddon(ManifestExtractor mEx, ManifestIndex index, File addon) {
+	byte[] manifest = index.getManifest(addon);
+	if (manifest == null) {
+	    manifest = ManifestExtractor.readManifest(addon);
+	    if (manifest == null) {
+		return;
+	    }
+	    index.putManifest(addon, manifest);
+	} else {
+	    logger.debug("Took manifest of add-on {} from the index.", addon.getName());
+	}
+
+	AddonSpecification addonSpec = mEx.parseManifest(manifest, addon.getName());
+	if (addonSpec != null) {
+	    register(addonSpec, addon);
+	    logger.info("Loaded external addon {}", addon.getName());
+	}
+    }
+
     @Override
     public Set<AddonSpecification> listInstalledAddons() {
 	// This registry does not provide a AppStore based system so just return the result of listAddons() method.
+	awaitInitialization();
 	return listAddons();
     }
 
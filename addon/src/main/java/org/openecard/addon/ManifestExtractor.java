@@ -22,12 +22,14 @@
 
 package org.openecard.addon;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
+import javax.annotation.Nullable;
 import org.openecard.addon.manifest.AddonSpecification;
+import org.openecard.common.util.FileUtils;
 import org.openecard.ws.marshal.MarshallingTypeException;
 import org.openecard.ws.marshal.WSMarshaller;
 import org.openecard.ws.marshal.WSMarshallerException;
@@ -64,9 +66,24 @@ public class ManifestExtractor {
      * @return An {@link AddonSpecification} object corresponding to addon.
      */
     public AddonSpecification getAddonSpecificationFromFile(File file) {
+	byte[] manifest = readManifest(file);
+	if (manifest == null) {
+	    return null;
+	} else {
+	    return parseManifest(manifest, file.getName());
+	}
+    }
+
+    /**
+     * Reads the addon.xml file from the jar file containing the addon.
+     *
+     * @param file jar file to read the addon.xml file from.
+     * @return The content of the addon.xml file, or {@code null} if the file is no jar file or contains no addon.xml.
+     */
+    @Nullable
+    static byte[] readManifest(File file) {
 	String name = file.getName();
 	JarFile jarFile;
-	AddonSpecification abd;
 	try {
 	    jarFile = new JarFile(file);
 	} catch (IOException e) {
@@ -74,27 +91,15 @@ public class ManifestExtractor {
 	    return null;
 	}
 	try {
-	    InputStream manifestStream = getPluginEntryClass(jarFile);
-
-	    if (manifestStream == null) {
+	    ZipEntry manifest = jarFile.getEntry(MANIFEST_XML);
+	    if (manifest == null) {
 		logger.error("File {} will not be registered as plugin because it doesn't contain a addon.xml.", name);
 		return null;
 	    } else {
-		marshaller.addXmlTypeClass(AddonSpecification.class);
-		Document manifestDoc = marshaller.str2doc(manifestStream);
-		abd = (AddonSpecification) marshaller.unmarshal(manifestDoc);
+		return FileUtils.toByteArray(jarFile.getInputStream(manifest));
 	    }
 	} catch (IOException ex) {
-	    logger.error("Failed to process addon.xml entry for file " + name, ex);
-	    return null;
-	} catch (MarshallingTypeException e) {
-	    logger.error("Failed to process addon.xml entry for file " + name, e);
-	    return null;
-	} catch (SAXException e) {
-	    logger.error("Failed to process addon.xml entry for file " + name, e);
-	    return null;
-	} catch (WSMarshallerException e) {
-	    logger.error("Failed to process addon.xml entry for file " + name, e);
+	    logger.error("Failed to read addon.xml entry for file " + name, ex);
 	    return null;
 	} finally {
 	    try {
@@ -103,22 +108,24 @@ public class ManifestExtractor {
 		logger.error("Failed to close jar file.", ex);
 	    }
 	}
-	return abd;
     }
 
     /**
-     * Get the addon.xml file as InputStream object from the jar file.
+     * Parses the content of an addon.xml file.
      *
-     * @param jarFile The jar file which should contain the addon.xml file.
-     * @return A InputStream object to the addon.xml file.
-     * @throws IOException Thrown if the {@link InputStream} can't be returned.
+     * @param manifest Content of the addon.xml file.
+     * @param name Name of the addon file, used in log messages.
+     * @return An {@link AddonSpecification} object corresponding to addon, or {@code null} if the content is invalid.
      */
-    private InputStream getPluginEntryClass(JarFile jarFile) throws IOException {
-	ZipEntry manifest = jarFile.getEntry(MANIFEST_XML);
-	if (manifest == null) {
+    @Nullable
+    AddonSpecification parseManifest(byte[] manifest, String name) {
+	try {
+	    Document manifestDoc = marshaller.str2doc(new ByteArrayInputStream(manifest));
+	    return (AddonSpecification) marshaller.unmarshal(manifestDoc);
+	} catch (IOException | SAXException | WSMarshallerException ex) {
+	    logger.error("Failed to process addon.xml entry for file " + name, ex);
 	    return null;
-	} else {
-	    return jarFile.getInputStream(manifest);
 	}
     }
+
 }
@@ -0,0 +1,255 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.openecard.common.util.ByteUtils;
+import org.openecard.common.util.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Persistent index of the manifests of the add-on files.
+ * The index maps the name of an add-on file to its size, modification time and the digest of its addon.xml. The
+ * manifests themselves are stored next to the index, named by their digest. As long as size and modification time of
+ * an add-on file are unchanged, its manifest is taken from the index and the jar file does not have to be opened.
+ * <p>The index is only a cache. Missing or damaged entries lead to the manifest being read from the jar file again.</p>
+ *
+ * @author agent
+ */
+final class ManifestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManifestIndex.class);
+
+    private static final String INDEX_FILE = "index.properties";
+    private static final String MANIFEST_SUFFIX = ".xml";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final File dir;
+    private final Properties entries;
+    private final ConcurrentMap<String, String> currentEntries = new ConcurrentHashMap<>();
+
+    private ManifestIndex(File dir, Properties entries) {
+	this.dir = dir;
+	this.entries = entries;
+    }
+
+    /**
+     * Loads the index from the given directory.
+     * If the index can not be read, an empty index is returned.
+     *
+     * @param dir Directory containing the index.
+     * @return The index.
+     */
+    @Nonnull
+    static ManifestIndex load(@Nonnull File dir) {
+	Properties entries = new Properties();
+	File indexFile = new File(dir, INDEX_FILE);
+	if (indexFile.isFile()) {
+	    InputStream in = null;
+	    try {
+		in = new FileInputStream(indexFile);
+		entries.load(in);
+	    } catch (IOException ex) {
+		logger.warn("Failed to read add-on manifest index, scanning all add-on files.", ex);
+		entries.clear();
+	    } finally {
+		closeQuietly(in);
+	    }
+	}
+	return new ManifestIndex(dir, entries);
+    }
+
+    /**
+     * Gets the manifest of the given add-on file from the index.
+     * The manifest is only returned if the add-on file has not been changed since the manifest was added to the index
+     * and the stored manifest still matches its digest.
+     *
+     * @param addonFile The add-on file.
+     * @return Content of the addon.xml file, or {@code null} if the index contains no valid entry for the file.
+     */
+    @Nullable
+    byte[] getManifest(@Nonnull File addonFile) {
+	String entry = entries.getProperty(addonFile.getName());
+	if (entry == null) {
+	    return null;
+	}
+	String[] parts = entry.split(";");
+	if (parts.length != 3 || ! parts[0].equals(Long.toString(addonFile.length()))
+		|| ! parts[1].equals(Long.toString(addonFile.lastModified()))) {
+	    logger.debug("Add-on file {} has changed since it was indexed.", addonFile.getName());
+	    return null;
+	}
+
+	String digest = parts[2];
+	InputStream in = null;
+	try {
+	    in = new FileInputStream(new File(dir, digest + MANIFEST_SUFFIX));
+	    byte[] manifest = FileUtils.toByteArray(in);
+	    if (digest.equals(digest(manifest))) {
+		currentEntries.put(addonFile.getName(), entry);
+		return manifest;
+	    } else {
+		logger.warn("Indexed manifest of add-on file {} is damaged.", addonFile.getName());
+		return null;
+	    }
+	} catch (IOException ex) {
+	    logger.warn("Failed to read indexed manifest of add-on file {}.", addonFile.getName());
+	    return null;
+	} finally {
+	    closeQuietly(in);
+	}
+    }
+
+    /**
+     * Adds the manifest of the given add-on file to the index.
+     * The manifest is written immediately, the index itself when {@link #save()} is called.
+     *
+     * @param addonFile The add-on file.
+     * @param manifest Content of the addon.xml file of the add-on file.
+     */
+    void putManifest(@Nonnull File addonFile, @Nonnull byte[] manifest) {
+	String digest = digest(manifest);
+	File manifestFile = new File(dir, digest + MANIFEST_SUFFIX);
+	try {
+	    if (! manifestFile.isFile()) {
+		dir.mkdirs();
+		writeAtomic(manifestFile, manifest);
+	    }
+	    String entry = addonFile.length() + ";" + addonFile.lastModified() + ";" + digest;
+	    currentEntries.put(addonFile.getName(), entry);
+	} catch (IOException ex) {
+	    logger.warn("Failed to add manifest of add-on file {} to the index.", addonFile.getName(), ex);
+	}
+    }
+
+    /**
+     * Saves the index.
+     * Only the entries which have been read or added since the index was loaded are saved, so that entries of removed
+     * add-on files are dropped together with their manifests. Temporary files left behind by an interrupted write are
+     * removed as well.
+     */
+    void save() {
+	Properties newEntries = new Properties();
+	newEntries.putAll(currentEntries);
+	if (newEntries.equals(entries)) {
+	    logger.debug("Add-on manifest index is unchanged.");
+	} else {
+	    try {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		newEntries.store(out, "Open eCard add-on manifest index");
+		dir.mkdirs();
+		writeAtomic(new File(dir, INDEX_FILE), out.toByteArray());
+		entries.clear();
+		entries.putAll(newEntries);
+	    } catch (IOException ex) {
+		logger.warn("Failed to save the add-on manifest index.", ex);
+		return;
+	    }
+	}
+
+	// remove manifests which are not referenced anymore and leftover temporary files
+	Set<String> referenced = new HashSet<>();
+	for (String entry : currentEntries.values()) {
+	    referenced.add(entry.substring(entry.lastIndexOf(';') + 1) + MANIFEST_SUFFIX);
+	}
+	File[] files = dir.listFiles();
+	if (files != null) {
+	    for (File f : files) {
+		String name = f.getName();
+		if (name.endsWith(TMP_SUFFIX) || (name.endsWith(MANIFEST_SUFFIX) && ! referenced.contains(name))) {
+		    f.delete();
+		}
+	    }
+	}
+    }
+
+    /**
+     * Writes the data to a temporary file in the target directory and renames it to the target afterwards.
+     * {@link File#renameTo(File)} is used instead of {@code java.nio.file}, which does not exist on Android. As the
+     * rename does not replace an existing target on every platform, the target is deleted and the rename repeated if
+     * the first attempt fails.
+     *
+     * @param target The file to write.
+     * @param data The content of the file.
+     * @throws IOException Thrown in case the file could not be written or renamed.
+     */
+    private static void writeAtomic(File target, byte[] data) throws IOException {
+	File tmpFile = File.createTempFile(target.getName() + ".", TMP_SUFFIX, target.getParentFile());
+	try {
+	    OutputStream out = new FileOutputStream(tmpFile);
+	    try {
+		out.write(data);
+	    } finally {
+		closeQuietly(out);
+	    }
+	    if (! tmpFile.renameTo(target)) {
+		target.delete();
+		if (! tmpFile.renameTo(target)) {
+		    throw new IOException("Failed to rename " + tmpFile + " to " + target + ".");
+		}
+	    }
+	} finally {
+	    if (tmpFile.exists()) {
+		tmpFile.delete();
+	    }
+	}
+    }
+
+    private static String digest(byte[] data) {
+	try {
+	    MessageDigest md = MessageDigest.getInstance("SHA-256");
+	    return ByteUtils.toHexString(md.digest(data));
+	} catch (NoSuchAlgorithmException ex) {
+	    // SHA-256 is available in every Java runtime
+	    throw new IllegalStateException("SHA-256 is not available.", ex);
+	}
+    }
+
+    private static void closeQuietly(@Nullable Closeable c) {
+	if (c != null) {
+	    try {
+		c.close();
+	    } catch (IOException ignore) {
+	    }
+	}
+    }
+
+}
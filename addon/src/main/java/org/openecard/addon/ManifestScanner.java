@@ -0,0 +1,96 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openecard.ws.marshal.WSMarshallerException;
+
+
+/**
+ * Bounded thread pool for reading add-on manifests in parallel.
+ * The marshaller of a {@link ManifestExtractor} serializes all calls, so each thread of the pool uses its own
+ * extractor instance.
+ *
+ * @author agent
+ */
+final class ManifestScanner {
+
+    private static final int MAX_THREADS = 4;
+
+    private final ExecutorService pool;
+    private final ThreadLocal<ManifestExtractor> extractors = new ThreadLocal<>();
+
+    /**
+     * Creates a pool whose size is bounded by the number of tasks, the number of processors and a fixed maximum.
+     *
+     * @param name Name prefix of the threads of the pool.
+     * @param numTasks Number of tasks which are going to be submitted.
+     */
+    ManifestScanner(final String name, int numTasks) {
+	int cpus = Runtime.getRuntime().availableProcessors();
+	int numThreads = Math.max(1, Math.min(numTasks, Math.min(cpus, MAX_THREADS)));
+	pool = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+	    private final AtomicInteger num = new AtomicInteger();
+
+	    @Override
+	    public Thread newThread(Runnable r) {
+		Thread t = new Thread(r, name + "-" + num.incrementAndGet());
+		t.setDaemon(true);
+		return t;
+	    }
+	});
+    }
+
+    <T> Future<T> submit(Callable<T> task) {
+	return pool.submit(task);
+    }
+
+    /**
+     * Gets the extractor of the calling thread.
+     * This method must only be called from tasks running in this pool.
+     *
+     * @return The extractor of the calling thread.
+     * @throws WSMarshallerException Thrown in case the marshaller of the extractor could not be created.
+     */
+    ManifestExtractor getExtractor() throws WSMarshallerException {
+	ManifestExtractor mEx = extractors.get();
+	if (mEx == null) {
+	    mEx = new ManifestExtractor();
+	    extractors.set(mEx);
+	}
+	return mEx;
+    }
+
+    /**
+     * Shuts down the pool after the submitted tasks have finished.
+     */
+    void shutdown() {
+	pool.shutdown();
+    }
+
+}
@@ -25,8 +25,6 @@ package org.openecard.addon;
 import java.io.File;
 import java.io.IOException;
 import java.util.Set;
-import org.apache.commons.jci.monitor.FilesystemAlterationListener;
-import org.apache.commons.jci.monitor.FilesystemAlterationObserver;
 import org.openecard.addon.manifest.AddonSpecification;
 import org.openecard.common.util.FileUtils;
 import org.openecard.ws.marshal.WSMarshallerException;
@@ -41,7 +39,7 @@ import org.slf4j.LoggerFactory;
  * @author Dirk Petrautzki <petrautzki@hs-coburg.de>
  * @author Hans-Martin Haase <hans-martin.haase@ecsec.de>
  */
-final class PluginDirectoryAlterationListener implements FilesystemAlterationListener {
+final class PluginDirectoryAlterationListener implements AddonDirectoryWatcher.Listener {
 
     private static final Logger logger = LoggerFactory.getLogger(PluginDirectoryAlterationListener.class.getName());
 
@@ -64,7 +62,6 @@ final class PluginDirectoryAlterationListener implements FilesystemAlterationLis
 
     @Override
     public void onFileDelete(File file) {
-	// Seems like the Monitor monitor the directory recursively so just become active if a jar file was deleted.
 	AddonSpecification spec = checkFileOnDelete(file);
 	if (spec != null) {
 	    // call the destroy method of all actions and protocols
@@ -98,34 +95,10 @@ final class PluginDirectoryAlterationListener implements FilesystemAlterationLis
 	}
     }
 
-    @Override
-    public void onStop(FilesystemAlterationObserver observer) {
-	// ignore
-    }
-
-    @Override
-    public void onStart(FilesystemAlterationObserver observer) {
-	// ignore
-    }
-
     @Override
     public void onFileChange(File file) {
-	// ignore
-    }
-
-    @Override
-    public void onDirectoryDelete(File file) {
-	// ignore
-    }
-
-    @Override
-    public void onDirectoryCreate(File file) {
-	// ignore
-    }
-
-    @Override
-    public void onDirectoryChange(File file) {
-	// ignore
+	// ignore, a replaced add-on is picked up on the next start
+	logger.debug("The add-on file {} has been modified.", file.getName());
     }
 
     /**
@@ -0,0 +1,225 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Pool of instances of a single protocol of an add-on.
+ * <p>Instances declaring themselves as stateless by the means of {@link ReusableTrait} are created once and shared
+ * among all users. Other instances are handed out exclusively and are reset when they are returned. If the reset
+ * succeeds, they are kept in a bounded idle list, otherwise they are destroyed. Instances not implementing
+ * {@link ReusableTrait} can not be reset and are therefore destroyed when they are returned.</p>
+ * <p>The pool keeps track of all instances it has created, so that they can be destroyed when the add-on is unloaded.
+ * Instances which have been handed out but are never returned are only referenced weakly.</p>
+ *
+ * @param <T> Type of the protocol.
+ * @author agent
+ */
+final class ProtocolPool <T extends LifecycleTrait> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProtocolPool.class);
+
+    static final int DEFAULT_MAX_IDLE = 4;
+
+    /**
+     * Factory creating fully initialized protocol instances.
+     *
+     * @param <T> Type of the protocol.
+     */
+    interface Factory <T> {
+	@Nonnull
+	T create() throws ActionInitializationException, AddonException;
+    }
+
+    private final String addonId;
+    private final String uri;
+    private final Factory<T> factory;
+    private final int maxIdle;
+
+    private final ArrayDeque<T> idle = new ArrayDeque<>();
+    private final Set<T> inUse = Collections.newSetFromMap(new WeakHashMap<T, Boolean>());
+    private T shared;
+    private boolean destroyed = false;
+
+    private long instantiations = 0;
+    private long reuses = 0;
+    private long discarded = 0;
+
+    ProtocolPool(@Nonnull String addonId, @Nonnull String uri, @Nonnull Factory<T> factory) {
+	this(addonId, uri, factory, DEFAULT_MAX_IDLE);
+    }
+
+    ProtocolPool(@Nonnull String addonId, @Nonnull String uri, @Nonnull Factory<T> factory, int maxIdle) {
+	this.addonId = addonId;
+	this.uri = uri;
+	this.factory = factory;
+	this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Gets an instance of the protocol.
+     * An existing instance is used if possible, otherwise a new instance is created.
+     *
+     * @return The protocol instance.
+     * @throws ActionInitializationException Thrown in case the creation of a new instance failed.
+     * @throws AddonException Thrown in case the add-on could not be loaded or has already been unloaded.
+     */
+    @Nonnull
+    T acquire() throws ActionInitializationException, AddonException {
+	synchronized (this) {
+	    checkDestroyed();
+	    if (shared != null) {
+		reuses++;
+		return shared;
+	    }
+	    T next = idle.pollFirst();
+	    if (next != null) {
+		reuses++;
+		inUse.add(next);
+		return next;
+	    }
+	}
+
+	// creation may take some time, so don't block other users of the pool
+	T inst = factory.create();
+	synchronized (this) {
+	    instantiations++;
+	    if (destroyed) {
+		destroyInstance(inst);
+		checkDestroyed();
+	    }
+	    if (isStateless(inst)) {
+		if (shared == null) {
+		    shared = inst;
+		} else {
+		    // another thread has been faster
+		    discarded++;
+		    destroyInstance(inst);
+		}
+		return shared;
+	    } else {
+		inUse.add(inst);
+		return inst;
+	    }
+	}
+    }
+
+    /**
+     * Returns an instance to the pool.
+     *
+     * @param inst The instance previously obtained by {@link #acquire()}.
+     * @return {@code true} if the instance belongs to this pool, {@code false} otherwise.
+     */
+    boolean release(@Nonnull T inst) {
+	synchronized (this) {
+	    if (inst == shared) {
+		return true;
+	    } else if (! inUse.remove(inst)) {
+		return false;
+	    }
+	}
+
+	boolean reusable = ! isDestroyed() && reset(inst);
+	synchronized (this) {
+	    if (reusable && ! destroyed && idle.size() < maxIdle) {
+		idle.addLast(inst);
+		return true;
+	    }
+	    discarded++;
+	}
+	destroyInstance(inst);
+	return true;
+    }
+
+    /**
+     * Destroys all instances created by this pool.
+     * Subsequent calls to {@link #acquire()} fail.
+     */
+    void destroy() {
+	List<T> instances;
+	synchronized (this) {
+	    destroyed = true;
+	    instances = new ArrayList<>(idle);
+	    instances.addAll(inUse);
+	    if (shared != null) {
+		instances.add(shared);
+	    }
+	    idle.clear();
+	    inUse.clear();
+	    shared = null;
+	}
+	for (T next : instances) {
+	    destroyInstance(next);
+	}
+    }
+
+    @Nonnull
+    synchronized ProtocolPoolStatistics getStatistics() {
+	int numIdle = idle.size() + (shared != null ? 1 : 0);
+	return new ProtocolPoolStatistics(addonId, uri, instantiations, reuses, discarded, numIdle, inUse.size());
+    }
+
+    private synchronized boolean isDestroyed() {
+	return destroyed;
+    }
+
+    private void checkDestroyed() throws AddonException {
+	if (destroyed) {
+	    throw new AddonException("The Add-on providing protocol '" + uri + "' has been unloaded.");
+	}
+    }
+
+    private static boolean isStateless(LifecycleTrait inst) {
+	return inst instanceof ReusableTrait && ((ReusableTrait) inst).isStateless();
+    }
+
+    private boolean reset(T inst) {
+	if (inst instanceof ReusableTrait) {
+	    try {
+		return ((ReusableTrait) inst).reset();
+	    } catch (RuntimeException ex) {
+		logger.warn("Failed to reset instance of protocol '{}'.", uri, ex);
+	    }
+	}
+	return false;
+    }
+
+    private void destroyInstance(T inst) {
+	try {
+	    inst.destroy();
+	} catch (RuntimeException ex) {
+	    logger.warn("Failed to destroy instance of protocol '{}'.", uri, ex);
+	}
+    }
+
+}
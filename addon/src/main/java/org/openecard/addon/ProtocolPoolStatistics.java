@@ -0,0 +1,128 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+
+/**
+ * Snapshot of the usage figures of the instance pool of a single protocol.
+ *
+ * @author agent
+ */
+@Immutable
+public final class ProtocolPoolStatistics {
+
+    private final String addonId;
+    private final String uri;
+    private final long instantiations;
+    private final long reuses;
+    private final long discarded;
+    private final int idle;
+    private final int inUse;
+
+    ProtocolPoolStatistics(String addonId, String uri, long instantiations, long reuses, long discarded, int idle,
+	    int inUse) {
+	this.addonId = addonId;
+	this.uri = uri;
+	this.instantiations = instantiations;
+	this.reuses = reuses;
+	this.discarded = discarded;
+	this.idle = idle;
+	this.inUse = inUse;
+    }
+
+    /**
+     * Gets the ID of the add-on containing the protocol.
+     *
+     * @return The add-on ID.
+     */
+    @Nonnull
+    public String getAddonId() {
+	return addonId;
+    }
+
+    /**
+     * Gets the URI of the protocol.
+     *
+     * @return The protocol URI.
+     */
+    @Nonnull
+    public String getUri() {
+	return uri;
+    }
+
+    /**
+     * Gets the number of protocol instances which have been created and initialized.
+     *
+     * @return Number of instantiations.
+     */
+    public long getInstantiations() {
+	return instantiations;
+    }
+
+    /**
+     * Gets the number of requests which have been served with an already existing instance.
+     *
+     * @return Number of reuses.
+     */
+    public long getReuses() {
+	return reuses;
+    }
+
+    /**
+     * Gets the number of instances which have been destroyed after use, because they could not be reset or the pool
+     * was full.
+     *
+     * @return Number of discarded instances.
+     */
+    public long getDiscarded() {
+	return discarded;
+    }
+
+    /**
+     * Gets the number of instances waiting in the pool.
+     *
+     * @return Number of idle instances.
+     */
+    public int getIdle() {
+	return idle;
+    }
+
+    /**
+     * Gets the number of instances which have been handed out and not returned yet.
+     *
+     * @return Number of instances in use.
+     */
+    public int getInUse() {
+	return inUse;
+    }
+
+    @Override
+    public String toString() {
+	return String.format("%s[%s]: created=%d, reused=%d, discarded=%d, idle=%d, inUse=%d",
+		addonId, uri, instantiations, reuses, discarded, idle, inUse);
+    }
+
+}
@@ -0,0 +1,225 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.openecard.addon.manifest.AddonSpecification;
+import org.openecard.addon.manifest.AppPluginSpecification;
+
+
+/**
+ * Compiled lookup table from resource names to the add-ons providing an {@link AppPluginAction} for them.
+ * Lookups first try the exact resource name and then walk a trie of the path segments, so that the most specific
+ * registered prefix of the resource wins. Add-ons from the classpath take precedence over add-ons from files, just as
+ * in {@link CombiningRegistry}.
+ * <p>The table itself is immutable and is replaced as a whole when the registries change. Only the cache of failed
+ * lookups is modified after construction.</p>
+ *
+ * @author agent
+ */
+final class ResourceRoutes {
+
+    private static final int MAX_NEGATIVE_ENTRIES = 256;
+
+    private final long stamp;
+    private final Map<String, Route> exact;
+    private final Node root;
+    private final ConcurrentHashMap<String, Boolean> notFound;
+
+    /**
+     * Creates the table for the given add-ons.
+     *
+     * @param stamp Modification stamp of the registries the add-ons are taken from.
+     * @param builtin Add-ons from the classpath.
+     * @param external Add-ons loaded from files.
+     */
+    ResourceRoutes(long stamp, @Nonnull Collection<AddonSpecification> builtin,
+	    @Nonnull Collection<AddonSpecification> external) {
+	this.stamp = stamp;
+	this.root = new Node();
+	this.notFound = new ConcurrentHashMap<>();
+
+	Set<String> names = new HashSet<>();
+	addAll(names, builtin, true);
+	addAll(names, external, false);
+
+	// precompute the result for all registered names, prefixes of them are the most likely requests
+	HashMap<String, Route> exactTmp = new HashMap<>();
+	for (String name : names) {
+	    exactTmp.put(name, walk(name));
+	}
+	this.exact = exactTmp;
+    }
+
+    private void addAll(Set<String> names, Collection<AddonSpecification> addons, boolean isBuiltin) {
+	for (AddonSpecification addon : addons) {
+	    for (AppPluginSpecification plugin : addon.getBindingActions()) {
+		String name = plugin.getResourceName();
+		if (name == null) {
+		    continue;
+		}
+		Node node = root;
+		for (String segment : name.split("/")) {
+		    node = node.getOrCreateChild(segment);
+		}
+		node.add(name, addon, isBuiltin);
+		names.add(name);
+	    }
+	}
+    }
+
+    /**
+     * Gets the modification stamp of the registries this table has been built from.
+     *
+     * @return The modification stamp.
+     */
+    long getStamp() {
+	return stamp;
+    }
+
+    /**
+     * Finds the add-ons responsible for the given resource.
+     *
+     * @param resourceName Name of the requested resource without leading slash.
+     * @return The route to the add-ons, or {@code null} if no add-on provides the resource.
+     */
+    @Nullable
+    Route lookup(@Nonnull String resourceName) {
+	Route route = exact.get(resourceName);
+	if (route != null || notFound.containsKey(resourceName)) {
+	    return route;
+	}
+
+	route = walk(resourceName);
+	if (route == null) {
+	    // the names are chosen by the client, so make sure the cache does not grow without bounds
+	    if (notFound.size() >= MAX_NEGATIVE_ENTRIES) {
+		notFound.clear();
+	    }
+	    notFound.put(resourceName, Boolean.TRUE);
+	}
+	return route;
+    }
+
+    @Nullable
+    private Route walk(String resourceName) {
+	Route builtin = null;
+	Route external = null;
+	Node node = root;
+	for (String segment : resourceName.split("/")) {
+	    node = node.getChild(segment);
+	    if (node == null) {
+		break;
+	    }
+	    if (node.builtin != null) {
+		builtin = node.builtin;
+	    }
+	    if (node.external != null) {
+		external = node.external;
+	    }
+	}
+	return builtin != null ? builtin : external;
+    }
+
+
+    /**
+     * Result of a lookup in the routing table.
+     */
+    static final class Route {
+
+	private final String resourceName;
+	private final Set<AddonSpecification> addons;
+
+	private Route(String resourceName) {
+	    this.resourceName = resourceName;
+	    this.addons = new HashSet<>();
+	}
+
+	/**
+	 * Gets the resource name as registered in the add-on manifests.
+	 * This is the most specific registered prefix of the requested resource.
+	 *
+	 * @return The registered resource name.
+	 */
+	String getResourceName() {
+	    return resourceName;
+	}
+
+	/**
+	 * Gets all add-ons registered for the resource name.
+	 *
+	 * @return Unmodifiable set of add-ons, which contains at least one element.
+	 */
+	Set<AddonSpecification> getAddons() {
+	    return Collections.unmodifiableSet(addons);
+	}
+
+    }
+
+    private static final class Node {
+
+	private HashMap<String, Node> children;
+	private Route builtin;
+	private Route external;
+
+	Node getChild(String segment) {
+	    return children != null ? children.get(segment) : null;
+	}
+
+	Node getOrCreateChild(String segment) {
+	    if (children == null) {
+		children = new HashMap<>();
+	    }
+	    Node child = children.get(segment);
+	    if (child == null) {
+		child = new Node();
+		children.put(segment, child);
+	    }
+	    return child;
+	}
+
+	void add(String name, AddonSpecification addon, boolean isBuiltin) {
+	    if (isBuiltin) {
+		if (builtin == null) {
+		    builtin = new Route(name);
+		}
+		builtin.addons.add(addon);
+	    } else {
+		if (external == null) {
+		    external = new Route(name);
+		}
+		external.addons.add(addon);
+	    }
+	}
+
+    }
+
+}
@@ -0,0 +1,50 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+
+/**
+ * Optional trait for protocol implementations which can be reused by the {@link AddonManager}.
+ * Protocols not implementing this trait are instantiated for each use and destroyed once they are returned to the
+ * manager.
+ *
+ * @author agent
+ */
+public interface ReusableTrait {
+
+    /**
+     * Indicates whether the instance keeps any state between invocations.
+     * Stateless instances are shared among all users of the protocol and must therefore be thread safe.
+     *
+     * @return {@code true} if the instance is stateless, {@code false} otherwise.
+     */
+    boolean isStateless();
+
+    /**
+     * Resets the state of the instance, so that it can be used for a new protocol run.
+     *
+     * @return {@code true} if the instance has been reset and may be reused, {@code false} if it must be destroyed.
+     */
+    boolean reset();
+
+}
@@ -22,6 +22,7 @@
 
 package org.openecard.addon.bind;
 
+import java.io.InputStream;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -79,6 +80,30 @@ public class BindingResult {
 	return this;
     }
 
+    /**
+     * Sets binary content as the body of the result.
+     * The content is not BASE64 encoded, so bindings can transfer it as is.
+     *
+     * @param value Binary content of the body.
+     * @param mimeType MIME type of the value. If {@code null}, {@code application/octet-stream} is assumed.
+     * @return This instance.
+     */
+    public BindingResult setBody(@Nonnull byte[] value, @Nullable String mimeType) {
+	return setBody(new ResponseBody(value, mimeType));
+    }
+
+    /**
+     * Sets a stream as the body of the result.
+     * Bindings read the stream while sending the response, so the content does not need to be kept in memory.
+     *
+     * @param value Stream with the content of the body. The stream is closed after it has been consumed.
+     * @param mimeType MIME type of the value. If {@code null}, {@code application/octet-stream} is assumed.
+     * @return This instance.
+     */
+    public BindingResult setBody(@Nonnull InputStream value, @Nullable String mimeType) {
+	return setBody(new ResponseBody(value, mimeType));
+    }
+
     @Nullable
     public ResponseBody getBody() {
 	return this.body;
@@ -22,10 +22,15 @@
 
 package org.openecard.addon.bind;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.xml.bind.DatatypeConverter;
 import javax.xml.transform.TransformerException;
+import org.openecard.common.util.FileUtils;
 import org.openecard.ws.marshal.MarshallingTypeException;
 import org.openecard.ws.marshal.WSMarshaller;
 import org.openecard.ws.marshal.WSMarshallerException;
@@ -39,6 +44,9 @@ import org.w3c.dom.Node;
  * Base for different Body types.
  * A body instance contains a value and a MIME type. Request or response specific values are added by the respective
  * subclasses.
+ * <p>The value is either held as a string, or as binary content in form of a byte array or a stream. Binary content is
+ * not BASE64 encoded, so bindings can transfer it as is. The string accessors act as an adapter for binary content, so
+ * that consumers of the string API keep working regardless of how the value has been set.</p>
  *
  * @author Tobias Wich
  * @author Dirk Petrautzki
@@ -47,7 +55,13 @@ public abstract class Body {
 
     private static final Logger logger = LoggerFactory.getLogger(Body.class);
 
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
     private String value;
+    private byte[] binaryValue;
+    private InputStream streamValue;
+    private boolean streamConsumed;
+    private Charset charset;
     private String mimeType;
     private boolean base64Encoded;
     private WSMarshaller m;
@@ -113,19 +127,120 @@ public abstract class Body {
      * @return {@code true} if the instance contains a value, {@code false} otherwise.
      */
     public boolean hasValue() {
-	return value != null;
+	return value != null || isBinary();
+    }
+
+    /**
+     * Checks whether the value of this body is binary content, that is a byte array or a stream.
+     *
+     * @return {@code true} if the value has been set as binary content, {@code false} otherwise.
+     */
+    public boolean isBinary() {
+	return binaryValue != null || streamValue != null || streamConsumed;
+    }
+
+    /**
+     * Checks whether the value of this body is a stream which has not been read yet.
+     * Bindings should use {@link #openStream()} for such bodies, so the content is not buffered in memory.
+     *
+     * @return {@code true} if the value is an unread stream, {@code false} otherwise.
+     */
+    public boolean isStreamed() {
+	return streamValue != null;
     }
 
     /**
      * Gets the value of this body instance.
+     * Binary content is decoded with its charset, or BASE64 encoded if it has no charset. A stream value is read
+     * completely by this method.
      *
      * @return The value, or {@code null} if no value is set.
+     * @throws IllegalStateException Thrown in case the stream of the body has already been consumed or could not be
+     *   read.
      */
     @Nullable
     public String getValue() {
+	if (value == null && isBinary()) {
+	    byte[] data = getBinaryValue();
+	    if (charset != null) {
+		value = new String(data, charset);
+	    } else {
+		value = DatatypeConverter.printBase64Binary(data);
+	    }
+	}
 	return value;
     }
 
+    /**
+     * Gets the value of this body instance as byte array.
+     * A BASE64 encoded string value is decoded, other string values are encoded in UTF-8. A stream value is read
+     * completely by this method.
+     *
+     * @return The value, or {@code null} if no value is set.
+     * @throws IllegalStateException Thrown in case the stream of the body has already been consumed or could not be
+     *   read.
+     */
+    @Nullable
+    public byte[] getBinaryValue() {
+	if (binaryValue != null) {
+	    return binaryValue;
+	} else if (streamValue != null || streamConsumed) {
+	    InputStream in = openStream();
+	    try {
+		binaryValue = FileUtils.toByteArray(in);
+		return binaryValue;
+	    } catch (IOException ex) {
+		throw new IllegalStateException("Failed to read the stream of the body.", ex);
+	    } finally {
+		try {
+		    in.close();
+		} catch (IOException ignore) {
+		}
+	    }
+	} else if (value != null) {
+	    return base64Encoded ? DatatypeConverter.parseBase64Binary(value) : value.getBytes(UTF8);
+	} else {
+	    return null;
+	}
+    }
+
+    /**
+     * Opens a stream containing the value of this body instance.
+     * A stream value is handed out as is and can only be obtained once. All other values are wrapped in a new stream
+     * with the content returned by {@link #getBinaryValue()}.
+     *
+     * @return The stream, or {@code null} if no value is set.
+     * @throws IllegalStateException Thrown in case the stream of the body has already been consumed.
+     */
+    @Nullable
+    public InputStream openStream() {
+	if (streamValue != null) {
+	    InputStream in = streamValue;
+	    streamValue = null;
+	    streamConsumed = true;
+	    return in;
+	} else if (streamConsumed && binaryValue == null) {
+	    throw new IllegalStateException("The stream of the body has already been consumed.");
+	}
+	byte[] data = getBinaryValue();
+	return data == null ? null : new ByteArrayInputStream(data);
+    }
+
+    /**
+     * Gets the charset of this body's value.
+     * String values are always represented in UTF-8, binary content only has a charset if it has been set explicitly.
+     *
+     * @return The charset, or {@code null} if the value is binary content without a charset.
+     */
+    @Nullable
+    public Charset getCharset() {
+	if (isBinary()) {
+	    return charset;
+	} else {
+	    return value == null || base64Encoded ? null : UTF8;
+	}
+    }
+
     /**
      * Gets the MIME type of this body's value.
      *
@@ -138,11 +253,16 @@ public abstract class Body {
 
     /**
      * Gets whether the value of this body instance is BASE64 encoded, or not.
+     * For binary content this indicates whether {@link #getValue()} returns the content BASE64 encoded.
      *
      * @return {@code true} if the body's value is BASE64 encoded, {@code false} otherwise.
      */
     public boolean isBase64() {
-	return base64Encoded;
+	if (isBinary()) {
+	    return charset == null;
+	} else {
+	    return base64Encoded;
+	}
     }
 
     /**
@@ -177,9 +297,7 @@ public abstract class Body {
 	    base64Encoded = false;
 	}
 
-	this.value = value;
-	this.mimeType = mimeType;
-	this.base64Encoded = base64Encoded;
+	setContent(value, null, null, null, mimeType, base64Encoded);
     }
 
     /**
@@ -218,6 +336,83 @@ public abstract class Body {
 	setValue(encVal, mimeType, true);
     }
 
+    /**
+     * Sets binary content as the value of the body.
+     * In contrast to {@link #setValue(byte[], String)} the content is not BASE64 encoded.
+     *
+     * @param value The value to be set in the body.
+     * @param mimeType The MIME type of the value. If {@code null}, {@code application/octet-stream} is assumed.
+     * @param charset The charset of the value if it is text, {@code null} otherwise.
+     * @throws NullPointerException Thrown in case the value is {@code null}.
+     */
+    public void setBinaryValue(@Nonnull byte[] value, @Nullable String mimeType, @Nullable Charset charset) {
+	if (value == null) {
+	    throw new NullPointerException("The supplied value is null.");
+	}
+	setContent(null, value, null, charset, binaryMimeType(mimeType), false);
+    }
+
+    /**
+     * Sets binary content without a charset as the value of the body.
+     * In contrast to {@link #setValue(byte[], String)} the content is not BASE64 encoded.
+     *
+     * @param value The value to be set in the body.
+     * @param mimeType The MIME type of the value. If {@code null}, {@code application/octet-stream} is assumed.
+     * @throws NullPointerException Thrown in case the value is {@code null}.
+     */
+    public void setBinaryValue(@Nonnull byte[] value, @Nullable String mimeType) {
+	setBinaryValue(value, mimeType, null);
+    }
+
+    /**
+     * Sets a stream as the value of the body.
+     * The stream is not read by this method, so bindings can pass it on without buffering the content. The body takes
+     * ownership of the stream, it is closed by the party consuming it.
+     *
+     * @param value The value to be set in the body.
+     * @param mimeType The MIME type of the value. If {@code null}, {@code application/octet-stream} is assumed.
+     * @param charset The charset of the value if it is text, {@code null} otherwise.
+     * @throws NullPointerException Thrown in case the value is {@code null}.
+     */
+    public void setStreamValue(@Nonnull InputStream value, @Nullable String mimeType, @Nullable Charset charset) {
+	if (value == null) {
+	    throw new NullPointerException("The supplied value is null.");
+	}
+	setContent(null, null, value, charset, binaryMimeType(mimeType), false);
+    }
+
+    /**
+     * Sets a stream without a charset as the value of the body.
+     * The stream is not read by this method, so bindings can pass it on without buffering the content. The body takes
+     * ownership of the stream, it is closed by the party consuming it.
+     *
+     * @param value The value to be set in the body.
+     * @param mimeType The MIME type of the value. If {@code null}, {@code application/octet-stream} is assumed.
+     * @throws NullPointerException Thrown in case the value is {@code null}.
+     */
+    public void setStreamValue(@Nonnull InputStream value, @Nullable String mimeType) {
+	setStreamValue(value, mimeType, null);
+    }
+
+    private static String binaryMimeType(String mimeType) {
+	if (mimeType == null || "".equals(mimeType)) {
+	    return "application/octet-stream";
+	} else {
+	    return mimeType;
+	}
+    }
+
+    private void setContent(String value, byte[] binaryValue, InputStream streamValue, Charset charset,
+	    String mimeType, boolean base64Encoded) {
+	this.value = value;
+	this.binaryValue = binaryValue;
+	this.streamValue = streamValue;
+	this.streamConsumed = false;
+	this.charset = charset;
+	this.mimeType = mimeType;
+	this.base64Encoded = base64Encoded;
+    }
+
     /**
      * Sets the value of the body.
      * The given DOM node is serialized with the marshaller of this instance. The MIME type is set to
@@ -22,6 +22,9 @@
 
 package org.openecard.addon.bind;
 
+import java.io.InputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.openecard.ws.marshal.WSMarshaller;
 import org.openecard.ws.marshal.WSMarshallerException;
 
@@ -50,4 +53,28 @@ public class ResponseBody extends Body {
 	super(value, mimeType, base64Encoded, m);
     }
 
+    /**
+     * Creates a body with the given binary content.
+     * The body has no marshaller, so its XML based functions can not be used.
+     *
+     * @param value Binary content of the body, which is not BASE64 encoded.
+     * @param mimeType MIME type of the value. If {@code null}, {@code application/octet-stream} is assumed.
+     */
+    public ResponseBody(@Nonnull byte[] value, @Nullable String mimeType) {
+	super((WSMarshaller) null);
+	setBinaryValue(value, mimeType);
+    }
+
+    /**
+     * Creates a body whose content is read from the given stream when the response is sent.
+     * The body has no marshaller, so its XML based functions can not be used.
+     *
+     * @param value Stream with the content of the body. The stream is closed after it has been consumed.
+     * @param mimeType MIME type of the value. If {@code null}, {@code application/octet-stream} is assumed.
+     */
+    public ResponseBody(@Nonnull InputStream value, @Nullable String mimeType) {
+	super((WSMarshaller) null);
+	setStreamValue(value, mimeType);
+    }
+
 }
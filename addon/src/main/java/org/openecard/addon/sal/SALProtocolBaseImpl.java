@@ -57,6 +57,7 @@ import java.util.TreeMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import oasis.names.tc.dss._1_0.core.schema.Result;
+import org.openecard.addon.ReusableTrait;
 import org.openecard.common.ECardConstants;
 import org.openecard.common.WSHelper;
 
@@ -65,10 +66,13 @@ import org.openecard.common.WSHelper;
  * Basic implementation of a SAL protocol.
  * Some protocols may need to override this implementation in order to control Secure Messaging or
  * provide a customized protocol flow.
+ * <p>The default implementation of {@link #reset()} rewinds the step counter and clears the internal data, but does
+ * not allow the instance to be reused. Protocols which have been checked to keep no further per-run state may override
+ * it and return {@code true}, so that their instances are reused after a protocol run.</p>
  *
  * @author Tobias Wich
  */
-public abstract class SALProtocolBaseImpl implements SALProtocol {
+public abstract class SALProtocolBaseImpl implements SALProtocol, ReusableTrait {
 
     /** Object map to transport protocol specific parameters. Used when executing ProtocolStep. */
     protected final TreeMap<String, Object> internalData;
@@ -250,6 +254,31 @@ public abstract class SALProtocolBaseImpl implements SALProtocol {
     /// Overwrite in subclass when needed
     ///
 
+    /**
+     * Indicates whether the instance keeps any state between invocations.
+     * SAL protocols carry the internal data of the current run, so they are never stateless.
+     *
+     * @return {@code false}
+     */
+    @Override
+    public boolean isStateless() {
+	return false;
+    }
+
+    /**
+     * Rewinds the step counter and clears the internal data.
+     * Subclasses may hold further per-run state, so the instance is not reusable unless a subclass overrides this method
+     * and returns {@code true}.
+     *
+     * @return {@code false}
+     */
+    @Override
+    public boolean reset() {
+	curStep = 0;
+	internalData.clear();
+	return false;
+    }
+
     @Override
     public boolean needsSM() {
 	return false;
@@ -51,6 +51,7 @@ import iso.std.iso_iec._24727.tech.schema.VerifySignatureResponse;
 import java.util.Map;
 import org.openecard.addon.AbstractFactory;
 import org.openecard.addon.Context;
+import org.openecard.addon.ReusableTrait;
 import org.openecard.addon.ActionInitializationException;
 
 
@@ -59,7 +60,7 @@ import org.openecard.addon.ActionInitializationException;
  * @author Tobias Wich <tobias.wich@ecsec.de>
  * @author Dirk Petrautzki <petrautzki@hs-coburg.de>
  */
-public class SALProtocolProxy extends AbstractFactory<SALProtocol> implements SALProtocol {
+public class SALProtocolProxy extends AbstractFactory<SALProtocol> implements SALProtocol, ReusableTrait {
 
     private SALProtocol c;
 
@@ -172,4 +173,14 @@ public class SALProtocolProxy extends AbstractFactory<SALProtocol> implements SA
 	c.destroy();
     }
 
+    @Override
+    public boolean isStateless() {
+	return c instanceof ReusableTrait && ((ReusableTrait) c).isStateless();
+    }
+
+    @Override
+    public boolean reset() {
+	return c instanceof ReusableTrait && ((ReusableTrait) c).reset();
+    }
+
 }
@@ -31,11 +31,17 @@ import iso.std.iso_iec._24727.tech.schema.DIDScopeType;
 import iso.std.iso_iec._24727.tech.schema.DIDStructureType;
 import iso.std.iso_iec._24727.tech.schema.SecurityConditionType;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.openecard.addon.sal.SALProtocol;
+import org.openecard.common.ifd.PasswordRetryCounters;
 import org.openecard.common.sal.state.cif.CardApplicationWrapper;
 import org.openecard.common.sal.state.cif.CardInfoWrapper;
 import org.openecard.common.sal.state.cif.DIDInfoWrapper;
@@ -68,10 +74,12 @@ public class CardStateEntry implements Comparable<CardStateEntry> {
     private final CardInfoWrapper infoObject;
     private final Map<String, SALProtocol> protoObjects = new TreeMap<>();
     private FCP lastSelectedEfFCP;
+    private volatile PasswordRetryCounters retryCounters;
+    private final Map<String, Object> protoStates = new ConcurrentHashMap<>();
 
     public CardStateEntry(ConnectionHandleType handle, CardInfoType cif) {
 	serialNumber = nextNumber();
-	infoObject = new CardInfoWrapper(cif);
+	infoObject = CardInfoWrapper.forCardInfo(cif);
 	this.handle = handle;
 	this.handle.setCardApplication(getImplicitlySelectedApplicationIdentifier());
     }
@@ -152,8 +160,60 @@ public class CardStateEntry implements Comparable<CardStateEntry> {
 	protoObjects.remove(type);
     }
 
-    public void removeAllProtocols() {
+    /**
+     * Removes all protocol objects of this entry.
+     *
+     * @return The removed protocol objects.
+     */
+    @Nonnull
+    public List<SALProtocol> removeAllProtocols() {
+	List<SALProtocol> removed = new ArrayList<>(protoObjects.values());
 	protoObjects.clear();
+	return removed;
+    }
+
+    /**
+     * Gets the state a protocol keeps for this card between its runs.
+     * In contrast to the protocol objects, this state survives the end of a protocol run and is only discarded when the
+     * card is removed. Protocols use it to keep values which are expensive to derive and fixed for a card, such as
+     * parsed security infos or domain parameters.
+     *
+     * @param <T> Type of the state object.
+     * @param type Identifier of the protocol the state belongs to.
+     * @param stateClass Class of the state object.
+     * @return The state, or {@code null} if no state of the given class is stored for the protocol.
+     */
+    @Nullable
+    public <T> T getProtocolState(@Nonnull String type, @Nonnull Class<T> stateClass) {
+	Object state = protoStates.get(type);
+	// the class check also protects against states left by another version of a reloaded add-on
+	if (stateClass.isInstance(state)) {
+	    return stateClass.cast(state);
+	} else {
+	    return null;
+	}
+    }
+
+    /**
+     * Sets the state a protocol keeps for this card between its runs.
+     *
+     * @param type Identifier of the protocol the state belongs to.
+     * @param state The state to store, or {@code null} to remove the state of the protocol.
+     * @see #getProtocolState(String, Class)
+     */
+    public void setProtocolState(@Nonnull String type, @Nullable Object state) {
+	if (state == null) {
+	    protoStates.remove(type);
+	} else {
+	    protoStates.put(type, state);
+	}
+    }
+
+    /**
+     * Removes the states of all protocols.
+     */
+    public void removeAllProtocolStates() {
+	protoStates.clear();
     }
 
     public void setFCPOfSelectedEF(FCP fcp) {
@@ -167,6 +227,28 @@ public class CardStateEntry implements Comparable<CardStateEntry> {
 	return lastSelectedEfFCP;
     }
 
+    /**
+     * Sets the password retry counters of the card as tracked by the IFD.
+     *
+     * @param retryCounters The retry counter model of the card.
+     */
+    public void setRetryCounters(@Nullable PasswordRetryCounters retryCounters) {
+	this.retryCounters = retryCounters;
+    }
+
+    /**
+     * Gets the password retry counters of the card.
+     * The counters are maintained from the status words returned by the card, so querying them does not require
+     * communication with the card.
+     *
+     * @return The retry counter model, or {@code null} if the IFD does not track the counters or the card has not been
+     *   connected yet.
+     */
+    @Nullable
+    public PasswordRetryCounters getRetryCounters() {
+	return retryCounters;
+    }
+
     /**
      *
      * @param didName Name of the DID
@@ -30,10 +30,15 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentSkipListMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.openecard.addon.sal.SALProtocol;
 import org.openecard.common.util.ByteComparator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +56,56 @@ public class CardStateMap {
     private final ConcurrentSkipListMap<String,Set<CardStateEntry>> sessionMap = new ConcurrentSkipListMap<>();
     private final ConcurrentSkipListMap<byte[],Set<CardStateEntry>> contextMap = new ConcurrentSkipListMap<>(new ByteComparator());
     private final ConcurrentSkipListMap<byte[],Set<CardStateEntry>> slothandleMap = new ConcurrentSkipListMap<>(new ByteComparator());
+    private ProtocolReleaser protocolReleaser;
+    // number of steps currently executed by a protocol object, shared protocol objects may run in several steps
+    private final Map<SALProtocol, Integer> runningProtocols = new IdentityHashMap<>();
+    // protocol objects which have been dropped while a step was running, released when the last step returns
+    private final Map<SALProtocol, Boolean> droppedProtocols = new IdentityHashMap<>();
+
+    /**
+     * Receives the protocol objects which are dropped from the entries of the map before their run has finished.
+     * Protocol objects which are executing a step at that time are only handed over when the step has returned.
+     */
+    public interface ProtocolReleaser {
+	void release(@Nonnull SALProtocol protocol);
+    }
+
+    /**
+     * Sets the receiver of the protocol objects which are dropped from the entries of this map.
+     *
+     * @param releaser The receiver, or {@code null} if the protocol objects should just be dropped.
+     */
+    public synchronized void setProtocolReleaser(@Nullable ProtocolReleaser releaser) {
+	this.protocolReleaser = releaser;
+    }
+
+    /**
+     * Marks the given protocol object as executing a step.
+     * Each call must be followed by a call to {@link #protocolStepFinished(SALProtocol)} once the step has returned.
+     * While a step is running, the protocol object is not released even if its entry is removed from the map.
+     *
+     * @param protocol The protocol object whose step is about to be executed.
+     */
+    public synchronized void protocolStepStarted(@Nonnull SALProtocol protocol) {
+	Integer running = runningProtocols.get(protocol);
+	runningProtocols.put(protocol, running == null ? 1 : running + 1);
+    }
+
+    /**
+     * Marks a step of the given protocol object as finished.
+     * If the protocol object has been dropped from its entry in the meantime and no other step is running, it is
+     * released now.
+     *
+     * @param protocol The protocol object whose step has returned.
+     */
+    public synchronized void protocolStepFinished(@Nonnull SALProtocol protocol) {
+	Integer running = runningProtocols.remove(protocol);
+	if (running != null && running > 1) {
+	    runningProtocols.put(protocol, running - 1);
+	} else if (droppedProtocols.remove(protocol) != null) {
+	    releaseProtocol(protocol);
+	}
+    }
 
 
     public synchronized CardStateEntry getEntry(ConnectionHandleType handle) {
@@ -119,11 +174,30 @@ public class CardStateMap {
     }
 
     private void clearProtocolsForEntry(CardStateEntry entry) {
-	Iterator<CardStateEntry> it = allEntries.iterator();
-	if (it.hasNext()) {
-	    CardStateEntry allEntriesEntry = it.next();
+	for (CardStateEntry allEntriesEntry : allEntries) {
 	    if (entry.equals(allEntriesEntry)) {
-		allEntriesEntry.removeAllProtocols();
+		releaseProtocols(allEntriesEntry);
+		break;
+	    }
+	}
+    }
+
+    private void releaseProtocols(CardStateEntry entry) {
+	for (SALProtocol next : entry.removeAllProtocols()) {
+	    if (runningProtocols.containsKey(next)) {
+		droppedProtocols.put(next, Boolean.TRUE);
+	    } else {
+		releaseProtocol(next);
+	    }
+	}
+    }
+
+    private void releaseProtocol(SALProtocol protocol) {
+	if (protocolReleaser != null) {
+	    try {
+		protocolReleaser.release(protocol);
+	    } catch (RuntimeException ex) {
+		_logger.warn("Failed to release protocol object.", ex);
 	    }
 	}
     }
@@ -152,6 +226,9 @@ public class CardStateMap {
 	    removeMapEntry(handle.getSlotHandle(), slothandleMap, entry);
 	}
 	allEntries.remove(entry);
+	// the card is gone, so anything kept for it must not be reused
+	releaseProtocols(entry);
+	entry.removeAllProtocolStates();
     }
 
 
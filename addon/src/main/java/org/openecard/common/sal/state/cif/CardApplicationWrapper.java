@@ -23,7 +23,6 @@
 package org.openecard.common.sal.state.cif;
 
 import iso.std.iso_iec._24727.tech.schema.AccessControlListType;
-import iso.std.iso_iec._24727.tech.schema.AccessRuleType;
 import iso.std.iso_iec._24727.tech.schema.CardApplicationType;
 import iso.std.iso_iec._24727.tech.schema.DIDInfoType;
 import iso.std.iso_iec._24727.tech.schema.DataSetInfoType;
@@ -33,28 +32,48 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 
 /**
  * This class wraps a single card application of a card info in order to make the access to attributes more efficient
  * and more user friendly.
+ * <p>All lookup tables are built when the wrapper is created and are not modified afterwards, so instances of this
+ * class can be shared between threads and card state entries.</p>
  *
  * @author Dirk Petrautzki <petrautzki@hs-coburg.de>
  */
 public class CardApplicationWrapper {
 
-    private Map<Enum<?>, SecurityConditionType> securityConditions = new HashMap<Enum<?>, SecurityConditionType>();
-    private HashMap<String, DIDInfoWrapper> didInfos = new HashMap<String, DIDInfoWrapper>();
     private final CardApplicationType cardApplication;
-    private DataSetNameListType dataSetNameList = new DataSetNameListType();
-    private HashMap<String, DataSetInfoWrapper> dataSetInfos = new HashMap<String, DataSetInfoWrapper>();
+    private final Map<Enum<?>, SecurityConditionType> securityConditions;
+    private final Map<String, DIDInfoWrapper> didInfos;
+    private final DataSetNameListType dataSetNameList;
+    private final Map<String, DataSetInfoWrapper> dataSetInfos;
 
     /**
      *
      * @param cardApplication the CardApplication that should be wrapped
      */
-    public CardApplicationWrapper(CardApplicationType cardApplication) {
+    public CardApplicationWrapper(@Nonnull CardApplicationType cardApplication) {
 	this.cardApplication = cardApplication;
+	this.securityConditions = SecurityConditions.fromACL(cardApplication.getCardApplicationACL());
+
+	HashMap<String, DIDInfoWrapper> dids = new HashMap<>();
+	for (DIDInfoType didInfo : cardApplication.getDIDInfo()) {
+	    dids.put(didInfo.getDifferentialIdentity().getDIDName(), new DIDInfoWrapper(didInfo));
+	}
+	this.didInfos = Collections.unmodifiableMap(dids);
+
+	HashMap<String, DataSetInfoWrapper> dataSets = new HashMap<>();
+	DataSetNameListType names = new DataSetNameListType();
+	for (DataSetInfoType dataSetInfo : cardApplication.getDataSetInfo()) {
+	    dataSets.put(dataSetInfo.getDataSetName(), new DataSetInfoWrapper(dataSetInfo));
+	    names.getDataSetName().add(dataSetInfo.getDataSetName());
+	}
+	this.dataSetInfos = Collections.unmodifiableMap(dataSets);
+	this.dataSetNameList = names;
     }
 
     /**
@@ -62,31 +81,8 @@ public class CardApplicationWrapper {
      * @param serviceAction the ServiceAction to which the SecurityCondition should be returned
      * @return the SecurityCondition for the specified ServiceAction
      */
+    @Nullable
     public SecurityConditionType getSecurityCondition(Enum<?> serviceAction) {
-	if (securityConditions.isEmpty()) {
-	    for (AccessRuleType accessRule : this.cardApplication.getCardApplicationACL().getAccessRule()) {
-		if (accessRule.getAction().getConnectionServiceAction() != null) {
-		    securityConditions.put(accessRule.getAction().getConnectionServiceAction(),
-			    accessRule.getSecurityCondition());
-		} else if (accessRule.getAction().getAuthorizationServiceAction() != null) {
-		    securityConditions.put(accessRule.getAction().getAuthorizationServiceAction(),
-			    accessRule.getSecurityCondition());
-		} else if (accessRule.getAction().getDifferentialIdentityServiceAction() != null) {
-		    securityConditions.put(accessRule.getAction().getDifferentialIdentityServiceAction(),
-			    accessRule.getSecurityCondition());
-		} else if (accessRule.getAction().getNamedDataServiceAction() != null) {
-		    securityConditions.put(accessRule.getAction().getNamedDataServiceAction(),
-			    accessRule.getSecurityCondition());
-		} else if (accessRule.getAction().getCryptographicServiceAction() != null) {
-		    securityConditions.put(accessRule.getAction().getCryptographicServiceAction(),
-			    accessRule.getSecurityCondition());
-		} else if (accessRule.getAction().getCardApplicationServiceAction() != null) {
-		    securityConditions.put(accessRule.getAction().getCardApplicationServiceAction(),
-			    accessRule.getSecurityCondition());
-		}
-	    }
-	}
-
 	return securityConditions.get(serviceAction);
     }
 
@@ -103,12 +99,8 @@ public class CardApplicationWrapper {
      * @param didName the name of the DID to be returned
      * @return a DIDInfoWrapper wrapping the specified DID or null if no such DID exists in the card appication
      */
+    @Nullable
     public DIDInfoWrapper getDIDInfo(String didName) {
-	if (didInfos.isEmpty()) {
-	    for (DIDInfoType didInfo : cardApplication.getDIDInfo()) {
-		didInfos.put(didInfo.getDifferentialIdentity().getDIDName(), new DIDInfoWrapper(didInfo));
-	    }
-	}
 	return this.didInfos.get(didName);
     }
 
@@ -141,11 +133,6 @@ public class CardApplicationWrapper {
      * @return list of data set names in this card application
      */
     public DataSetNameListType getDataSetNameList() {
-	if (dataSetNameList.getDataSetName().isEmpty()) {
-	    for (DataSetInfoType dataSetInfo : cardApplication.getDataSetInfo()) {
-		dataSetNameList.getDataSetName().add(dataSetInfo.getDataSetName());
-	    }
-	}
 	return this.dataSetNameList;
     }
 
@@ -155,12 +142,8 @@ public class CardApplicationWrapper {
      * @return a DataSetInfoWrapper wrapping the specified dataset or null if no such dataset exists in the card
      * appication
      */
+    @Nullable
     public DataSetInfoWrapper getDataSetInfo(String dataSetName) {
-	if (dataSetInfos.isEmpty()) {
-	    for (DataSetInfoType dataSetInfo : cardApplication.getDataSetInfo()) {
-		dataSetInfos.put(dataSetInfo.getDataSetName(), new DataSetInfoWrapper(dataSetInfo));
-	    }
-	}
 	return this.dataSetInfos.get(dataSetName);
     }
 
@@ -32,16 +32,27 @@ import iso.std.iso_iec._24727.tech.schema.DIDStructureType;
 import iso.std.iso_iec._24727.tech.schema.DSIType;
 import iso.std.iso_iec._24727.tech.schema.DataSetInfoType;
 import iso.std.iso_iec._24727.tech.schema.DataSetNameListType;
+import iso.std.iso_iec._24727.tech.schema.DifferentialIdentityType;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.openecard.common.util.ByteArrayWrapper;
 
 
 /**
  * This class wraps a single card info in order to make the access to attributes more efficient
  * and more user friendly.
+ * <p>All indices (DIDs by name and scope, DIDs by application, DataSets by name and the DID structures) are built
+ * when the wrapper is created and never modified afterwards. The wrapper is therefore thread safe and one instance
+ * per CardInfo instance can be shared between all card state entries, see {@link #forCardInfo(CardInfoType)}.</p>
  *
  * @author Tobias Wich <tobias.wich@ecsec.de>
  * @author Dirk Petrautzki <petrautzki@hs-coburg.de>
@@ -49,17 +60,163 @@ import org.openecard.common.util.ByteArrayWrapper;
  */
 public class CardInfoWrapper {
 
+    // keyed by the CardInfo instance, so a CIF which is reloaded for the same card type never gets a stale wrapper
+    // the values are weak too, as each wrapper references its key and would otherwise keep the entry alive forever
+    private static final Map<CardInfoType, WeakReference<CardInfoWrapper>> SHARED_WRAPPERS = new WeakHashMap<>();
+
     private final CardInfoType cif;
-    private Map<ByteArrayWrapper, CardApplicationWrapper> cardApplications =
-	    new HashMap<ByteArrayWrapper, CardApplicationWrapper>();
-    List<byte[]> cardApplicationNames = new ArrayList<byte[]>();
+    private final Map<ByteArrayWrapper, CardApplicationWrapper> cardApplications;
+    private final List<byte[]> cardApplicationNames;
+    // DIDs of all applications in the order of the CIF, used for lookups by scope
+    private final Map<String, List<DIDInfoType>> didsByName;
+    private final Map<DIDInfoType, byte[]> didApplications;
+    private final Map<DIDInfoType, DIDStructureType> didStructures;
+    private final Map<String, DataSetInfoType> dataSetsByName;
+    private final Map<DataSetInfoType, byte[]> dataSetApplications;
+    private final Map<String, DataSetInfoType> dataSetsByDsiName;
+    private final Map<String, DSIType> dsisByName;
+
+    /**
+     * Gets the wrapper for the given CardInfo.
+     * The wrapper is shared by all callers requesting a wrapper for the same CardInfo instance, so the indices are only
+     * computed once per instance. It is dropped as soon as it is not used anymore.
+     *
+     * @param cif the CardInfo that should be wrapped
+     * @return the shared wrapper instance for the given CardInfo
+     */
+    @Nonnull
+    public static CardInfoWrapper forCardInfo(@Nonnull CardInfoType cif) {
+	synchronized (SHARED_WRAPPERS) {
+	    WeakReference<CardInfoWrapper> ref = SHARED_WRAPPERS.get(cif);
+	    CardInfoWrapper wrapper = ref != null ? ref.get() : null;
+	    if (wrapper == null) {
+		wrapper = new CardInfoWrapper(cif);
+		SHARED_WRAPPERS.put(cif, new WeakReference<>(wrapper));
+	    }
+	    return wrapper;
+	}
+    }
 
     /**
      *
      * @param cif the CardInfo that should be wrapped
      */
-    public CardInfoWrapper(CardInfoType cif) {
+    public CardInfoWrapper(@Nonnull CardInfoType cif) {
 	this.cif = cif;
+
+	LinkedHashMap<ByteArrayWrapper, CardApplicationWrapper> apps = new LinkedHashMap<>();
+	ArrayList<byte[]> appNames = new ArrayList<>();
+	HashMap<String, List<DIDInfoType>> dids = new HashMap<>();
+	IdentityHashMap<DIDInfoType, byte[]> didApps = new IdentityHashMap<>();
+	IdentityHashMap<DIDInfoType, DIDStructureType> structures = new IdentityHashMap<>();
+	HashMap<String, DataSetInfoType> dataSets = new HashMap<>();
+	IdentityHashMap<DataSetInfoType, byte[]> dataSetApps = new IdentityHashMap<>();
+	HashMap<String, DataSetInfoType> dataSetsByDsi = new HashMap<>();
+	HashMap<String, DSIType> dsis = new HashMap<>();
+
+	for (CardApplicationType cardApp : cif.getApplicationCapabilities().getCardApplication()) {
+	    byte[] appId = cardApp.getApplicationIdentifier();
+	    apps.put(new ByteArrayWrapper(appId), new CardApplicationWrapper(cardApp));
+	    appNames.add(appId);
+
+	    for (DIDInfoType did : cardApp.getDIDInfo()) {
+		String didName = did.getDifferentialIdentity().getDIDName();
+		List<DIDInfoType> sameName = dids.get(didName);
+		if (sameName == null) {
+		    sameName = new ArrayList<>(1);
+		    dids.put(didName, sameName);
+		}
+		sameName.add(did);
+		didApps.put(did, appId);
+		structures.put(did, createDIDStructure(did));
+	    }
+
+	    // the first occurrence wins, which is the same result a linear search would yield
+	    for (DataSetInfoType dataSet : cardApp.getDataSetInfo()) {
+		putIfAbsent(dataSets, dataSet.getDataSetName(), dataSet);
+		dataSetApps.put(dataSet, appId);
+		if (dataSet.getDSI() != null) {
+		    for (DSIType dsi : dataSet.getDSI()) {
+			putIfAbsent(dataSetsByDsi, dsi.getDSIName(), dataSet);
+			putIfAbsent(dsis, dsi.getDSIName(), dsi);
+		    }
+		}
+	    }
+	}
+
+	for (Map.Entry<String, List<DIDInfoType>> e : dids.entrySet()) {
+	    e.setValue(Collections.unmodifiableList(e.getValue()));
+	}
+
+	this.cardApplications = Collections.unmodifiableMap(apps);
+	this.cardApplicationNames = Collections.unmodifiableList(appNames);
+	this.didsByName = Collections.unmodifiableMap(dids);
+	this.didApplications = Collections.unmodifiableMap(didApps);
+	this.didStructures = Collections.unmodifiableMap(structures);
+	this.dataSetsByName = Collections.unmodifiableMap(dataSets);
+	this.dataSetApplications = Collections.unmodifiableMap(dataSetApps);
+	this.dataSetsByDsiName = Collections.unmodifiableMap(dataSetsByDsi);
+	this.dsisByName = Collections.unmodifiableMap(dsis);
+    }
+
+    private static <K, V> void putIfAbsent(Map<K, V> map, K key, V value) {
+	if (! map.containsKey(key)) {
+	    map.put(key, value);
+	}
+    }
+
+    private static DIDStructureType createDIDStructure(DIDInfoType didInfo) {
+	DifferentialIdentityType did = didInfo.getDifferentialIdentity();
+	DIDStructureType didStructure = new DIDStructureType();
+	didStructure.setDIDName(did.getDIDName());
+	didStructure.setDIDScope(did.getDIDScope());
+	if (didStructure.getDIDScope() == null) {
+	    // no scope is equal to local
+	    didStructure.setDIDScope(DIDScopeType.LOCAL);
+	}
+	DIDMarkerType didMarker = did.getDIDMarker();
+	if (didMarker.getCAMarker() != null) {
+	    didStructure.setDIDMarker(didMarker.getCAMarker());
+	} else if (didMarker.getCryptoMarker() != null) {
+	    didStructure.setDIDMarker(didMarker.getCryptoMarker());
+	} else if (didMarker.getEACMarker() != null) {
+	    didStructure.setDIDMarker(didMarker.getEACMarker());
+	} else if (didMarker.getMutualAuthMarker() != null) {
+	    didStructure.setDIDMarker(didMarker.getMutualAuthMarker());
+	} else if (didMarker.getPACEMarker() != null) {
+	    didStructure.setDIDMarker(didMarker.getPACEMarker());
+	} else if (didMarker.getPinCompareMarker() != null) {
+	    didStructure.setDIDMarker(didMarker.getPinCompareMarker());
+	} else if (didMarker.getRIMarker() != null) {
+	    didStructure.setDIDMarker(didMarker.getRIMarker());
+	} else if (didMarker.getRSAAuthMarker() != null) {
+	    didStructure.setDIDMarker(didMarker.getRSAAuthMarker());
+	} else if (didMarker.getTAMarker() != null) {
+	    didStructure.setDIDMarker(didMarker.getTAMarker());
+	}
+	didStructure.setDIDQualifier(did.getDIDQualifier());
+	return didStructure;
+    }
+
+    /**
+     * Creates a copy of the precomputed structure, so the caller can modify it (e.g. set the authenticated flag).
+     */
+    private static DIDStructureType copyDIDStructure(DIDStructureType template) {
+	DIDStructureType didStructure = new DIDStructureType();
+	didStructure.setDIDName(template.getDIDName());
+	didStructure.setDIDScope(template.getDIDScope());
+	didStructure.setDIDMarker(template.getDIDMarker());
+	didStructure.setDIDQualifier(template.getDIDQualifier());
+	return didStructure;
+    }
+
+    /**
+     * Checks whether the DID matches the requested scope.
+     * DIDs without a scope match any requested scope, DIDs with a scope only match the same scope.
+     */
+    private static boolean matchesScope(DIDInfoType did, @Nullable DIDScopeType didScope) {
+	DIDScopeType scope = did.getDifferentialIdentity().getDIDScope();
+	return scope == null || scope == didScope;
     }
 
     /**
@@ -88,16 +245,10 @@ public class CardInfoWrapper {
 
     /**
      *
-     * @return a map that maps ByteArrayWrapper keys (the application identifier) to CardApplicationWrapper (the card
-     *   applications)
+     * @return an unmodifiable map that maps ByteArrayWrapper keys (the application identifier) to
+     *   CardApplicationWrapper (the card applications)
      */
     public Map<ByteArrayWrapper, CardApplicationWrapper> getCardApplications() {
-	if (cardApplications.isEmpty()) {
-	    for (CardApplicationType cardApplication : cif.getApplicationCapabilities().getCardApplication()) {
-		cardApplications.put(new ByteArrayWrapper(cardApplication.getApplicationIdentifier()),
-			new CardApplicationWrapper(cardApplication));
-	    }
-	}
 	return cardApplications;
     }
 
@@ -107,8 +258,9 @@ public class CardInfoWrapper {
      * @param applicationIdentifier identifier of the application the DID belongs to
      * @return the DIDInfo of the specified DID or null, if either the card application or the DID do not exist
      */
+    @Nullable
     public DIDInfoType getDIDInfo(String didName, byte[] applicationIdentifier) {
-	CardApplicationWrapper application = this.getCardApplications().get(new ByteArrayWrapper(applicationIdentifier));
+	CardApplicationWrapper application = getCardApplication(applicationIdentifier);
 	if (application == null) {
 	    return null;
 	}
@@ -126,24 +278,16 @@ public class CardInfoWrapper {
      * @param didScope Scope of the DID
      * @return the DIDInfo of the specified DID or null, if either the card application or the DID do not exist
      */
+    @Nullable
     public DIDInfoType getDIDInfo(String didName, DIDScopeType didScope) {
-	List<CardApplicationType> cardApps = cif.getApplicationCapabilities().getCardApplication();
-	for (CardApplicationType cardApp : cardApps) {
-	    for (DIDInfoType did : cardApp.getDIDInfo()) {
-		if (did.getDifferentialIdentity().getDIDName().equals(didName)) {
-		    if (did.getDifferentialIdentity().getDIDScope() != null) {
-			if (didScope != null) {
-			    if (didScope.value().equals(did.getDifferentialIdentity().getDIDScope().value())) {
-				return did;
-			    }
-			}
-		    } else {
-			return did;
-		    }
+	List<DIDInfoType> candidates = didsByName.get(didName);
+	if (candidates != null) {
+	    for (DIDInfoType did : candidates) {
+		if (matchesScope(did, didScope)) {
+		    return did;
 		}
 	    }
 	}
-
 	return null;
     }
 
@@ -152,8 +296,9 @@ public class CardInfoWrapper {
      * @param cardApplication identifier of the application to get the list of data set names from
      * @return list of data set names contained in this application or null, if no such card application exists
      */
+    @Nullable
     public DataSetNameListType getDataSetNameList(byte[] cardApplication) {
-	CardApplicationWrapper wrapper = cardApplications.get(new ByteArrayWrapper(cardApplication));
+	CardApplicationWrapper wrapper = getCardApplication(cardApplication);
 	if (wrapper == null) {
 	    return null;
 	} else {
@@ -170,8 +315,9 @@ public class CardInfoWrapper {
      * @return the DataSetInfo for the specified data set or null, if no such data set exists in the specified
      *         application
      */
+    @Nullable
     public DataSetInfoType getDataSet(String dataSetName, byte[] applicationIdentifier) {
-	CardApplicationWrapper application = cardApplications.get(new ByteArrayWrapper(applicationIdentifier));
+	CardApplicationWrapper application = getCardApplication(applicationIdentifier);
 	if (application == null) {
 	    return null;
 	}
@@ -189,104 +335,48 @@ public class CardInfoWrapper {
      * @return CardApplication for the specified applicationIdentifier or null, if no application with this identifier
      *         exists.
      */
+    @Nullable
     public CardApplicationWrapper getCardApplication(byte[] applicationIdentifier) {
-	return this.getCardApplications().get(new ByteArrayWrapper(applicationIdentifier));
+	return cardApplications.get(new ByteArrayWrapper(applicationIdentifier));
     }
 
     /**
      *
      * @param didName Name of the DID to get the structure for
      * @param cardApplication Identifier of the card application
-     * @return DIDStructure for the specified didName and card application or null, if no such did exists.
+     * @return DIDStructure for the specified didName and card application or null, if no such did exists. The
+     *   returned object is a copy and may be modified by the caller.
      */
+    @Nullable
     public DIDStructureType getDIDStructure(String didName, byte[] cardApplication) {
 	DIDInfoType didInfo = this.getDIDInfo(didName, cardApplication);
 	if (didInfo == null) {
 	    return null;
 	}
-	DIDStructureType didStructure = new DIDStructureType();
-	didStructure.setDIDName(didInfo.getDifferentialIdentity().getDIDName());
-	didStructure.setDIDScope(didInfo.getDifferentialIdentity().getDIDScope());
-	if (didStructure.getDIDScope() == null) {
-	    // no scope is equal to local
-	    didStructure.setDIDScope(DIDScopeType.LOCAL);
-	}
-	DIDMarkerType didMarker = didInfo.getDifferentialIdentity().getDIDMarker();
-	if (didMarker.getCAMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getCAMarker());
-	} else if (didMarker.getCryptoMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getCryptoMarker());
-	} else if (didMarker.getEACMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getEACMarker());
-	} else if (didMarker.getMutualAuthMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getMutualAuthMarker());
-	} else if (didMarker.getPACEMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getPACEMarker());
-	} else if (didMarker.getPinCompareMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getPinCompareMarker());
-	} else if (didMarker.getRIMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getRIMarker());
-	} else if (didMarker.getRSAAuthMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getRSAAuthMarker());
-	} else if (didMarker.getTAMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getTAMarker());
-	}
-	didStructure.setDIDQualifier(didInfo.getDifferentialIdentity().getDIDQualifier());
-	return didStructure;
+	return copyDIDStructure(didStructures.get(didInfo));
     }
 
     /**
      *
      * @param didName Name of the DID to get the structure for
      * @param  didScope Scope of the DID
-     * @return DIDStructure for the specified didName and card application or null, if no such did exists.
+     * @return DIDStructure for the specified didName and card application or null, if no such did exists. The
+     *   returned object is a copy and may be modified by the caller.
      */
+    @Nullable
     public DIDStructureType getDIDStructure(String didName, DIDScopeType didScope) {
 	DIDInfoType didInfo = this.getDIDInfo(didName, didScope);
 	if (didInfo == null) {
 	    return null;
 	}
-	DIDStructureType didStructure = new DIDStructureType();
-	didStructure.setDIDName(didInfo.getDifferentialIdentity().getDIDName());
-	didStructure.setDIDScope(didInfo.getDifferentialIdentity().getDIDScope());
-	if (didStructure.getDIDScope() == null) {
-	    // no scope is equal to local
-	    didStructure.setDIDScope(DIDScopeType.LOCAL);
-	}
-	DIDMarkerType didMarker = didInfo.getDifferentialIdentity().getDIDMarker();
-	if (didMarker.getCAMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getCAMarker());
-	} else if (didMarker.getCryptoMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getCryptoMarker());
-	} else if (didMarker.getEACMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getEACMarker());
-	} else if (didMarker.getMutualAuthMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getMutualAuthMarker());
-	} else if (didMarker.getPACEMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getPACEMarker());
-	} else if (didMarker.getPinCompareMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getPinCompareMarker());
-	} else if (didMarker.getRIMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getRIMarker());
-	} else if (didMarker.getRSAAuthMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getRSAAuthMarker());
-	} else if (didMarker.getTAMarker() != null) {
-	    didStructure.setDIDMarker(didMarker.getTAMarker());
-	}
-	didStructure.setDIDQualifier(didInfo.getDifferentialIdentity().getDIDQualifier());
-	return didStructure;
+	return copyDIDStructure(didStructures.get(didInfo));
     }
 
     /**
      *
-     * @return list of application identifiers in this cardinfo
+     * @return unmodifiable list of application identifiers in this cardinfo
      */
     public List<byte[]> getCardApplicationNameList() {
-	if (cardApplicationNames.isEmpty()) {
-	    for (CardApplicationType cardApplication : cif.getApplicationCapabilities().getCardApplication()) {
-		cardApplicationNames.add(cardApplication.getApplicationIdentifier());
-	    }
-	}
 	return cardApplicationNames;
     }
 
@@ -296,20 +386,9 @@ public class CardInfoWrapper {
      * @param dsiName The name of the DSI to look for.
      * @return A DSIType object which contains the given DSI name or null if no DSI with such a name was found.
      */
+    @Nullable
     public DSIType getDSIbyName(String dsiName) {
-	for (CardApplicationWrapper cardAppWrapper : cardApplications.values()) {
-	    for (DataSetInfoType dSetInfoWrapper : cardAppWrapper.getDataSetInfoList()) {
-		if (dSetInfoWrapper.getDSI() != null) {
-		    for (DSIType dsi : dSetInfoWrapper.getDSI()) {
-			if (dsi.getDSIName().equals(dsiName)) {
-			    return dsi;
-			}
-		    }
-		}
-	    }
-	}
-
-	return null;
+	return dsisByName.get(dsiName);
     }
 
     /**
@@ -319,6 +398,7 @@ public class CardInfoWrapper {
      * @return A DataSetInfoType object containing which contains the DSI which is referenced by the given dsiName. The
      * method returns NULL if no data set was found.
      */
+    @Nullable
     public DataSetInfoType getDataSetByFid(byte[] fileIdentifier) {
 	for (CardApplicationWrapper cardAppWrapper : cardApplications.values()) {
 	    for (DataSetInfoType dSetInfoWrapper : cardAppWrapper.getDataSetInfoList()) {
@@ -342,55 +422,55 @@ public class CardInfoWrapper {
      * such application was found. NOTE: If the parameter didScope is NULL then the application ID of the application
      * with the first occurrence of didName is returned.
      */
+    @Nullable
     public byte[] getApplicationIdByDidName(String didName, DIDScopeType didScope) {
-	List<CardApplicationType> cardApps = cif.getApplicationCapabilities().getCardApplication();
-	for (CardApplicationType cardApp : cardApps) {
-	    for (DIDInfoType did : cardApp.getDIDInfo()) {
-		if (did.getDifferentialIdentity().getDIDName().equals(didName)) {
-		    if (did.getDifferentialIdentity().getDIDScope() != null) {
-			if (didScope != null) {
-			    if (didScope.value().equals(did.getDifferentialIdentity().getDIDScope().value())) {
-				return cardApp.getApplicationIdentifier();
-			    }
-			} else {
-			    return cardApp.getApplicationIdentifier();
-			}
-		    } else {
-			return cardApp.getApplicationIdentifier();
-		    }
+	List<DIDInfoType> candidates = didsByName.get(didName);
+	if (candidates != null) {
+	    for (DIDInfoType did : candidates) {
+		if (didScope == null || matchesScope(did, didScope)) {
+		    return didApplications.get(did);
 		}
 	    }
 	}
-
 	return null;
     }
 
-    public DataSetInfoType getDataSetByDsiName(String dsiName) {
-	for (CardApplicationWrapper cardAppWrapper : cardApplications.values()) {
-	    for (DataSetInfoType dSetInfoWrapper : cardAppWrapper.getDataSetInfoList()) {
-		if (dSetInfoWrapper.getDSI() != null) {
-		    for (DSIType dsi : dSetInfoWrapper.getDSI()) {
-			if (dsi.getDSIName().equals(dsiName)) {
-			    return dSetInfoWrapper;
-			}
-		    }
-		}
-	    }
+    /**
+     * The method searches an application ID by the name of a data set.
+     *
+     * @param dataSetName Name of the data set to search.
+     * @return The application ID of the first application which contains the data set, or null if no such application
+     * was found.
+     */
+    @Nullable
+    public byte[] getApplicationIdByDataSetName(String dataSetName) {
+	DataSetInfoType dataSet = dataSetsByName.get(dataSetName);
+	if (dataSet != null) {
+	    return dataSetApplications.get(dataSet);
 	}
-
 	return null;
     }
 
-    public DataSetInfoType getDataSetByName(String dataSetName) {
-	for (CardApplicationWrapper cardAppWrapper : cardApplications.values()) {
-	    for (DataSetInfoType dSetInfoWrapper : cardAppWrapper.getDataSetInfoList()) {
-		if (dSetInfoWrapper.getDataSetName().equals(dataSetName)) {
-		    return dSetInfoWrapper;
-		}
-	    }
-	}
+    /**
+     * The method searches a data set containing the DSI with the given name.
+     *
+     * @param dsiName The name of the DSI to look for.
+     * @return The first data set containing a DSI with the given name, or null if no such data set exists.
+     */
+    @Nullable
+    public DataSetInfoType getDataSetByDsiName(String dsiName) {
+	return dataSetsByDsiName.get(dsiName);
+    }
 
-	return null;
+    /**
+     * The method searches a data set by its name in all applications of the card.
+     *
+     * @param dataSetName The name of the data set to look for.
+     * @return The first data set with the given name, or null if no such data set exists.
+     */
+    @Nullable
+    public DataSetInfoType getDataSetByName(String dataSetName) {
+	return dataSetsByName.get(dataSetName);
     }
 
 }
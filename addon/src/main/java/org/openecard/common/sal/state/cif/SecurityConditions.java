@@ -0,0 +1,87 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.sal.state.cif;
+
+import iso.std.iso_iec._24727.tech.schema.AccessControlListType;
+import iso.std.iso_iec._24727.tech.schema.AccessRuleType;
+import iso.std.iso_iec._24727.tech.schema.ActionNameType;
+import iso.std.iso_iec._24727.tech.schema.SecurityConditionType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Helper converting the access rules of a CardInfo ACL into a lookup table.
+ *
+ * @author agent
+ */
+final class SecurityConditions {
+
+    private SecurityConditions() {
+    }
+
+    /**
+     * Creates an immutable map from service action to security condition for the given ACL.
+     *
+     * @param acl The ACL to convert. A missing ACL results in an empty map.
+     * @return Unmodifiable map containing the security conditions of all access rules in the ACL.
+     */
+    @Nonnull
+    static Map<Enum<?>, SecurityConditionType> fromACL(@Nullable AccessControlListType acl) {
+	if (acl == null) {
+	    return Collections.emptyMap();
+	}
+
+	HashMap<Enum<?>, SecurityConditionType> result = new HashMap<>();
+	for (AccessRuleType accessRule : acl.getAccessRule()) {
+	    Enum<?> action = getAction(accessRule.getAction());
+	    if (action != null) {
+		result.put(action, accessRule.getSecurityCondition());
+	    }
+	}
+	return Collections.unmodifiableMap(result);
+    }
+
+    @Nullable
+    private static Enum<?> getAction(ActionNameType action) {
+	if (action.getConnectionServiceAction() != null) {
+	    return action.getConnectionServiceAction();
+	} else if (action.getAuthorizationServiceAction() != null) {
+	    return action.getAuthorizationServiceAction();
+	} else if (action.getDifferentialIdentityServiceAction() != null) {
+	    return action.getDifferentialIdentityServiceAction();
+	} else if (action.getNamedDataServiceAction() != null) {
+	    return action.getNamedDataServiceAction();
+	} else if (action.getCryptographicServiceAction() != null) {
+	    return action.getCryptographicServiceAction();
+	} else if (action.getCardApplicationServiceAction() != null) {
+	    return action.getCardApplicationServiceAction();
+	} else {
+	    return null;
+	}
+    }
+
+}
@@ -0,0 +1,188 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test for the watcher of the add-on directory.
+ *
+ * @author agent
+ */
+public class AddonDirectoryWatcherTest {
+
+    private static final long QUIET_PERIOD = 200;
+    private static final long POLL_INTERVAL = 100;
+
+    private File dir;
+    private AddonDirectoryWatcher watcher;
+    private BlockingQueue<String> events;
+
+    @BeforeMethod
+    public void createDir() throws IOException {
+	dir = Files.createTempDirectory("addon-watcher").toFile();
+	events = new LinkedBlockingQueue<>();
+	watcher = createWatcher(true);
+    }
+
+    private AddonDirectoryWatcher createWatcher(boolean useWatchService) {
+	return new AddonDirectoryWatcher(dir, new AddonDirectoryWatcher.Listener() {
+	    @Override
+	    public void onFileCreate(File file) {
+		events.add("create " + file.getName());
+	    }
+	    @Override
+	    public void onFileChange(File file) {
+		events.add("change " + file.getName());
+	    }
+	    @Override
+	    public void onFileDelete(File file) {
+		events.add("delete " + file.getName());
+	    }
+	}, QUIET_PERIOD, POLL_INTERVAL, useWatchService);
+    }
+
+    @AfterMethod
+    public void deleteDir() {
+	watcher.stop();
+	for (File f : dir.listFiles()) {
+	    f.delete();
+	}
+	dir.delete();
+    }
+
+    @Test
+    public void testCompleteJar() throws IOException {
+	byte[] jar = createJar();
+	File complete = new File(dir, "complete.jar");
+	write(complete, jar);
+	assertTrue(AddonDirectoryWatcher.isCompleteJar(complete));
+
+	File truncated = new File(dir, "truncated.jar");
+	write(truncated, Arrays.copyOf(jar, jar.length - 10));
+	assertFalse(AddonDirectoryWatcher.isCompleteJar(truncated));
+    }
+
+    @Test
+    public void testSlowCopy() throws IOException, InterruptedException {
+	File existing = new File(dir, "existing.jar");
+	write(existing, createJar());
+	watcher.start(Collections.singleton("existing.jar"));
+
+	// write the JAR in several steps, the listener must only be informed after the last one
+	byte[] jar = createJar();
+	File addon = new File(dir, "addon.jar");
+	FileOutputStream out = new FileOutputStream(addon);
+	try {
+	    int half = jar.length / 2;
+	    out.write(jar, 0, half);
+	    out.flush();
+	    Thread.sleep(QUIET_PERIOD / 2);
+	    out.write(jar, half, jar.length - half);
+	} finally {
+	    out.close();
+	}
+	assertEquals(events.poll(10, TimeUnit.SECONDS), "create addon.jar");
+
+	assertTrue(existing.delete());
+	assertEquals(events.poll(10, TimeUnit.SECONDS), "delete existing.jar");
+
+	// incomplete files are never reported
+	write(new File(dir, "broken.jar"), new byte[] { 1, 2, 3 });
+	assertNull(events.poll(QUIET_PERIOD * 5, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testPolling() throws IOException, InterruptedException {
+	watcher.stop();
+	watcher = createWatcher(false);
+	watcher.start(Collections.<String>emptySet());
+
+	File addon = new File(dir, "addon.jar");
+	write(addon, createJar());
+	assertEquals(events.poll(10, TimeUnit.SECONDS), "create addon.jar");
+
+	write(addon, createJar());
+	assertTrue(addon.setLastModified(addon.lastModified() + 2000));
+	assertEquals(events.poll(10, TimeUnit.SECONDS), "change addon.jar");
+
+	assertTrue(addon.delete());
+	assertEquals(events.poll(10, TimeUnit.SECONDS), "delete addon.jar");
+	assertNull(events.poll(QUIET_PERIOD * 3, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Check that JAR files which are present when the watcher starts, but have not been loaded before, are reported.
+     *
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testUnknownFilesOnStart() throws IOException, InterruptedException {
+	write(new File(dir, "loaded.jar"), createJar());
+	write(new File(dir, "missed.jar"), createJar());
+	watcher.start(Collections.singleton("loaded.jar"));
+
+	assertEquals(events.poll(10, TimeUnit.SECONDS), "create missed.jar");
+	assertNull(events.poll(QUIET_PERIOD * 3, TimeUnit.MILLISECONDS));
+    }
+
+    private static byte[] createJar() throws IOException {
+	ByteArrayOutputStream bout = new ByteArrayOutputStream();
+	JarOutputStream jout = new JarOutputStream(bout);
+	try {
+	    jout.putNextEntry(new JarEntry("META-INF/addon.xml"));
+	    jout.write(new byte[4096]);
+	    jout.closeEntry();
+	} finally {
+	    jout.close();
+	}
+	return bout.toByteArray();
+    }
+
+    private static void write(File file, byte[] data) throws IOException {
+	FileOutputStream out = new FileOutputStream(file);
+	try {
+	    out.write(data);
+	} finally {
+	    out.close();
+	}
+    }
+
+}
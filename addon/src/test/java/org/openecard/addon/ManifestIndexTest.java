@@ -0,0 +1,153 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test for the persistent index of add-on manifests.
+ *
+ * @author agent
+ */
+public class ManifestIndexTest {
+
+    private static final byte[] MANIFEST = "<AddonSpecification/>".getBytes();
+
+    private File dir;
+    private File indexDir;
+
+    @BeforeMethod
+    public void createDirs() throws IOException {
+	dir = Files.createTempDirectory("manifest-index").toFile();
+	indexDir = new File(dir, "index");
+    }
+
+    @AfterMethod
+    public void deleteDirs() {
+	delete(dir);
+    }
+
+    @Test
+    public void testUnchangedFile() throws IOException {
+	File addon = createFile("addon.jar", 100);
+	ManifestIndex index = ManifestIndex.load(indexDir);
+	assertNull(index.getManifest(addon));
+	index.putManifest(addon, MANIFEST);
+	index.save();
+
+	index = ManifestIndex.load(indexDir);
+	assertEquals(index.getManifest(addon), MANIFEST);
+
+	// changed file must be read again
+	addon.setLastModified(addon.lastModified() + 2000);
+	assertNull(index.getManifest(addon));
+    }
+
+    @Test
+    public void testDamagedAndRemoved() throws IOException {
+	File addon1 = createFile("addon1.jar", 100);
+	File addon2 = createFile("addon2.jar", 200);
+	ManifestIndex index = ManifestIndex.load(indexDir);
+	index.putManifest(addon1, MANIFEST);
+	index.putManifest(addon2, "<AddonSpecification></AddonSpecification>".getBytes());
+	index.save();
+	assertEquals(indexDir.list().length, 3);
+
+	// only addon1 is still present at the next start
+	index = ManifestIndex.load(indexDir);
+	assertEquals(index.getManifest(addon1), MANIFEST);
+	index.save();
+	assertEquals(indexDir.list().length, 2);
+
+	// damage the stored manifest
+	for (File f : indexDir.listFiles()) {
+	    if (f.getName().endsWith(".xml")) {
+		writeFile(f, "<broken/>".getBytes());
+	    }
+	}
+	index = ManifestIndex.load(indexDir);
+	assertNull(index.getManifest(addon1));
+    }
+
+    @Test
+    public void testReplaceIndexAndRemoveTemporaryFiles() throws IOException {
+	File addon1 = createFile("addon1.jar", 100);
+	File addon2 = createFile("addon2.jar", 200);
+	ManifestIndex index = ManifestIndex.load(indexDir);
+	index.putManifest(addon1, MANIFEST);
+	index.save();
+
+	// leftovers of an interrupted write
+	writeFile(new File(indexDir, "index.properties.123.tmp"), new byte[10]);
+	writeFile(new File(indexDir, "0123.xml.456.tmp"), new byte[10]);
+
+	// the existing index file is replaced
+	index = ManifestIndex.load(indexDir);
+	assertEquals(index.getManifest(addon1), MANIFEST);
+	index.putManifest(addon2, "<AddonSpecification></AddonSpecification>".getBytes());
+	index.save();
+	assertEquals(indexDir.list().length, 3);
+	for (String name : indexDir.list()) {
+	    assertFalse(name.endsWith(".tmp"), name);
+	}
+
+	index = ManifestIndex.load(indexDir);
+	assertEquals(index.getManifest(addon1), MANIFEST);
+	assertNotNull(index.getManifest(addon2));
+    }
+
+    private File createFile(String name, int size) throws IOException {
+	File f = new File(dir, name);
+	writeFile(f, new byte[size]);
+	f.setLastModified(1400000000000L);
+	return f;
+    }
+
+    private static void writeFile(File f, byte[] data) throws IOException {
+	FileOutputStream out = new FileOutputStream(f);
+	try {
+	    out.write(data);
+	} finally {
+	    out.close();
+	}
+    }
+
+    private static void delete(File f) {
+	File[] children = f.listFiles();
+	if (children != null) {
+	    for (File c : children) {
+		delete(c);
+	    }
+	}
+	f.delete();
+    }
+
+}
@@ -0,0 +1,171 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import static org.testng.Assert.*;
+import org.openecard.addon.sal.SALProtocol;
+import org.openecard.addon.sal.SALProtocolBaseImpl;
+import org.testng.annotations.Test;
+
+
+/**
+ * Test the instance handling of the ProtocolPool class.
+ *
+ * @author agent
+ */
+public class ProtocolPoolTest {
+
+    @Test
+    public void testStatefulReuse() throws Exception {
+	ProtocolPool<TestProtocol> pool = new ProtocolPool<>("test", "urn:test", new TestFactory(false, true), 1);
+	TestProtocol p1 = pool.acquire();
+	TestProtocol p2 = pool.acquire();
+	assertNotSame(p1, p2);
+
+	pool.release(p1);
+	pool.release(p2);
+	// only one idle instance is allowed
+	assertEquals(p1.resetCount, 1);
+	assertFalse(p1.destroyed);
+	assertTrue(p2.destroyed);
+
+	TestProtocol p3 = pool.acquire();
+	assertSame(p3, p1);
+
+	ProtocolPoolStatistics stats = pool.getStatistics();
+	assertEquals(stats.getInstantiations(), 2);
+	assertEquals(stats.getReuses(), 1);
+	assertEquals(stats.getDiscarded(), 1);
+	assertEquals(stats.getInUse(), 1);
+	assertEquals(stats.getIdle(), 0);
+
+	pool.destroy();
+	assertTrue(p3.destroyed);
+	try {
+	    pool.acquire();
+	    fail("Pool must not hand out instances after it has been destroyed.");
+	} catch (AddonException ex) {
+	    // expected
+	}
+    }
+
+    @Test
+    public void testStatelessSharing() throws Exception {
+	ProtocolPool<TestProtocol> pool = new ProtocolPool<>("test", "urn:test", new TestFactory(true, true));
+	TestProtocol p1 = pool.acquire();
+	TestProtocol p2 = pool.acquire();
+	assertSame(p1, p2);
+	assertTrue(pool.release(p1));
+	assertEquals(p1.resetCount, 0);
+	assertEquals(pool.getStatistics().getInstantiations(), 1);
+
+	pool.destroy();
+	assertTrue(p1.destroyed);
+    }
+
+    @Test
+    public void testNotResettable() throws Exception {
+	ProtocolPool<TestProtocol> pool = new ProtocolPool<>("test", "urn:test", new TestFactory(false, false));
+	TestProtocol p1 = pool.acquire();
+	assertTrue(pool.release(p1));
+	assertTrue(p1.destroyed);
+	// foreign instances are not accepted
+	assertFalse(pool.release(new TestProtocol(false, true)));
+
+	TestProtocol p2 = pool.acquire();
+	assertNotSame(p1, p2);
+    }
+
+    @Test
+    public void testSALProtocolDefault() throws Exception {
+	ProtocolPool<SALProtocol> pool = new ProtocolPool<>("test", "urn:test", new ProtocolPool.Factory<SALProtocol>() {
+	    @Override
+	    public SALProtocol create() {
+		return new SALProtocolBaseImpl() {
+		    @Override
+		    public void init(Context ctx) {
+		    }
+		    @Override
+		    public void destroy() {
+			getInternalData().put("destroyed", true);
+		    }
+		};
+	    }
+	});
+	SALProtocol p1 = pool.acquire();
+	p1.getInternalData().put("value", 1);
+	pool.release(p1);
+	// protocols must opt in to be reused
+	assertEquals(p1.getInternalData().get("destroyed"), true);
+	assertNotSame(pool.acquire(), p1);
+    }
+
+
+    private static class TestFactory implements ProtocolPool.Factory<TestProtocol> {
+	private final boolean stateless;
+	private final boolean resettable;
+
+	TestFactory(boolean stateless, boolean resettable) {
+	    this.stateless = stateless;
+	    this.resettable = resettable;
+	}
+
+	@Override
+	public TestProtocol create() {
+	    return new TestProtocol(stateless, resettable);
+	}
+    }
+
+    private static class TestProtocol implements LifecycleTrait, ReusableTrait {
+	private final boolean stateless;
+	private final boolean resettable;
+	private int resetCount = 0;
+	private boolean destroyed = false;
+
+	TestProtocol(boolean stateless, boolean resettable) {
+	    this.stateless = stateless;
+	    this.resettable = resettable;
+	}
+
+	@Override
+	public void init(Context aCtx) {
+	}
+
+	@Override
+	public void destroy() {
+	    destroyed = true;
+	}
+
+	@Override
+	public boolean isStateless() {
+	    return stateless;
+	}
+
+	@Override
+	public boolean reset() {
+	    resetCount++;
+	    return resettable;
+	}
+    }
+
+}
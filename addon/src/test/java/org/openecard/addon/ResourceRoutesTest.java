@@ -0,0 +1,100 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.openecard.addon.manifest.AddonSpecification;
+import org.openecard.addon.manifest.AppPluginSpecification;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test for the routing of resource names to add-ons.
+ *
+ * @author agent
+ */
+public class ResourceRoutesTest {
+
+    @Test
+    public void testMostSpecificPrefix() {
+	AddonSpecification a = createAddon("a", "eID-Client");
+	AddonSpecification b = createAddon("b", "eID-Client/special", "getStatus");
+	ResourceRoutes routes = new ResourceRoutes(0, Arrays.asList(a, b), Collections.<AddonSpecification>emptyList());
+
+	ResourceRoutes.Route r = routes.lookup("eID-Client");
+	assertEquals(r.getResourceName(), "eID-Client");
+	assertEquals(r.getAddons(), Collections.singleton(a));
+
+	r = routes.lookup("eID-Client/other");
+	assertEquals(r.getResourceName(), "eID-Client");
+	assertEquals(r.getAddons(), Collections.singleton(a));
+
+	r = routes.lookup("eID-Client/special/sub");
+	assertEquals(r.getResourceName(), "eID-Client/special");
+	assertEquals(r.getAddons(), Collections.singleton(b));
+
+	assertEquals(routes.lookup("getStatus").getAddons(), Collections.singleton(b));
+    }
+
+    @Test
+    public void testNotFound() {
+	AddonSpecification a = createAddon("a", "eID-Client");
+	ResourceRoutes routes = new ResourceRoutes(0, Arrays.asList(a), Collections.<AddonSpecification>emptyList());
+
+	assertNull(routes.lookup(""));
+	assertNull(routes.lookup("index.html"));
+	assertNull(routes.lookup("eID-Clientx"));
+	// second lookup is answered from the negative cache
+	assertNull(routes.lookup("index.html"));
+	for (int i = 0; i < 1000; i++) {
+	    assertNull(routes.lookup("file" + i + ".js"));
+	}
+	assertNotNull(routes.lookup("eID-Client/x"));
+    }
+
+    @Test
+    public void testBuiltinPrecedence() {
+	AddonSpecification builtin = createAddon("builtin", "eID-Client");
+	AddonSpecification external = createAddon("external", "eID-Client/special", "getStatus");
+	ResourceRoutes routes = new ResourceRoutes(0, Arrays.asList(builtin), Arrays.asList(external));
+
+	// the builtin add-on wins even though the external one registered a more specific prefix
+	assertEquals(routes.lookup("eID-Client/special").getAddons(), Collections.singleton(builtin));
+	assertEquals(routes.lookup("getStatus").getAddons(), Collections.singleton(external));
+    }
+
+    private static AddonSpecification createAddon(String id, String... resourceNames) {
+	AddonSpecification spec = new AddonSpecification();
+	spec.setId(id);
+	spec.setVersion("1.0.0");
+	for (String name : resourceNames) {
+	    AppPluginSpecification plugin = new AppPluginSpecification();
+	    plugin.setResourceName(name);
+	    spec.getBindingActions().add(plugin);
+	}
+	return spec;
+    }
+
+}
@@ -0,0 +1,88 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.addon.bind;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import org.openecard.common.util.FileUtils;
+import org.openecard.ws.marshal.WSMarshaller;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test for the string, binary and stream representations of a body.
+ *
+ * @author agent
+ */
+public class BodyTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testStringAdapter() {
+	byte[] data = new byte[] { 0x00, (byte) 0xFF, 0x42 };
+	ResponseBody body = new ResponseBody(data, null);
+	assertTrue(body.hasValue());
+	assertTrue(body.isBinary());
+	assertFalse(body.isStreamed());
+	assertEquals(body.getMimeType(), "application/octet-stream");
+	// binary content without a charset is seen base64 encoded through the string API
+	assertTrue(body.isBase64());
+	assertEquals(body.getValue(), "AP9C");
+	assertEquals(body.getBinaryValue(), data);
+
+	RequestBody req = new RequestBody("path", (WSMarshaller) null);
+	req.setStreamValue(new ByteArrayInputStream("äöü".getBytes(UTF8)), "text/plain", UTF8);
+	assertTrue(req.isStreamed());
+	assertFalse(req.isBase64());
+	assertEquals(req.getValue(), "äöü");
+	assertFalse(req.isStreamed());
+	assertEquals(req.getBinaryValue(), "äöü".getBytes(UTF8));
+    }
+
+    @Test
+    public void testStream() throws IOException {
+	byte[] data = new byte[] { 1, 2, 3 };
+	ResponseBody body = new ResponseBody(new ByteArrayInputStream(data), "application/pdf");
+	InputStream in = body.openStream();
+	assertEquals(FileUtils.toByteArray(in), data);
+	assertTrue(body.hasValue());
+	try {
+	    body.getValue();
+	    fail("Consumed stream must not be readable again.");
+	} catch (IllegalStateException ex) {
+	    // expected
+	}
+
+	// setting a string value replaces the binary content
+	body.setValue("AQID", "application/pdf", true);
+	assertFalse(body.isBinary());
+	assertEquals(body.getBinaryValue(), data);
+	assertEquals(FileUtils.toByteArray(body.openStream()), data);
+	assertNull(body.getCharset());
+    }
+
+}
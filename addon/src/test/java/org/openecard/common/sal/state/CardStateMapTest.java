@@ -0,0 +1,150 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.sal.state;
+
+import iso.std.iso_iec._24727.tech.schema.ApplicationCapabilitiesType;
+import iso.std.iso_iec._24727.tech.schema.CardApplicationType;
+import iso.std.iso_iec._24727.tech.schema.CardInfoType;
+import iso.std.iso_iec._24727.tech.schema.CardTypeType;
+import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.openecard.addon.Context;
+import org.openecard.addon.sal.SALProtocol;
+import org.openecard.addon.sal.SALProtocolBaseImpl;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test the release of the protocol objects dropped from the entries of the CardStateMap.
+ *
+ * @author agent
+ */
+public class CardStateMapTest {
+
+    private static final String PROTOCOL = "urn:test";
+
+    private CardInfoType cardInfo;
+    private CardStateMap states;
+    private List<SALProtocol> released;
+
+    @BeforeMethod
+    public void setUp() {
+	cardInfo = new CardInfoType();
+	CardTypeType cardType = new CardTypeType();
+	cardType.setObjectIdentifier("urn:test:card");
+	cardInfo.setCardType(cardType);
+	CardApplicationType app = new CardApplicationType();
+	app.setApplicationIdentifier(new byte[] { 0x3F, 0x00 });
+	ApplicationCapabilitiesType appCaps = new ApplicationCapabilitiesType();
+	appCaps.setImplicitlySelectedApplication(app.getApplicationIdentifier());
+	appCaps.getCardApplication().add(app);
+	cardInfo.setApplicationCapabilities(appCaps);
+	released = new ArrayList<>();
+	states = new CardStateMap();
+	states.setProtocolReleaser(new CardStateMap.ProtocolReleaser() {
+	    @Override
+	    public void release(SALProtocol protocol) {
+		released.add(protocol);
+	    }
+	});
+    }
+
+    @Test
+    public void testReleaseAfterRunningStep() {
+	CardStateEntry entry = addEntry(1);
+	SALProtocol protocol = newProtocol();
+	entry.setProtocol(PROTOCOL, protocol);
+
+	states.protocolStepStarted(protocol);
+	// card removed while the step is running
+	states.removeEntry(entry.handleCopy());
+	assertTrue(released.isEmpty());
+	assertNull(entry.getProtocol(PROTOCOL));
+
+	states.protocolStepFinished(protocol);
+	assertEquals(released.size(), 1);
+	assertSame(released.get(0), protocol);
+    }
+
+    @Test
+    public void testReleaseAfterLastStep() {
+	CardStateEntry entry1 = addEntry(1);
+	CardStateEntry entry2 = addEntry(2);
+	// the same shared protocol object runs for both cards
+	SALProtocol protocol = newProtocol();
+	entry1.setProtocol(PROTOCOL, protocol);
+	entry2.setProtocol(PROTOCOL, protocol);
+	states.protocolStepStarted(protocol);
+	states.protocolStepStarted(protocol);
+
+	states.removeEntry(entry2.handleCopy());
+	states.protocolStepFinished(protocol);
+	assertTrue(released.isEmpty());
+	states.protocolStepFinished(protocol);
+	assertEquals(released.size(), 1);
+
+	// no further release when the step of a protocol which is not dropped returns
+	states.protocolStepStarted(protocol);
+	states.protocolStepFinished(protocol);
+	assertEquals(released.size(), 1);
+    }
+
+    @Test
+    public void testDisconnectOfSecondEntry() {
+	addEntry(1);
+	CardStateEntry entry2 = addEntry(2);
+	SALProtocol protocol = newProtocol();
+	entry2.setProtocol(PROTOCOL, protocol);
+
+	states.removeSlotHandleEntry(entry2.handleCopy().getSlotHandle());
+	assertEquals(released.size(), 1);
+	assertSame(released.get(0), protocol);
+    }
+
+    private CardStateEntry addEntry(int num) {
+	ConnectionHandleType handle = new ConnectionHandleType();
+	handle.setContextHandle(new byte[] { 1 });
+	handle.setSlotHandle(new byte[] { (byte) num });
+	handle.setIFDName("Reader " + num);
+	handle.setSlotIndex(BigInteger.ZERO);
+	CardStateEntry entry = new CardStateEntry(handle, cardInfo);
+	states.addEntry(entry);
+	return entry;
+    }
+
+    private static SALProtocol newProtocol() {
+	return new SALProtocolBaseImpl() {
+	    @Override
+	    public void init(Context ctx) {
+	    }
+	    @Override
+	    public void destroy() {
+	    }
+	};
+    }
+
+}
@@ -23,6 +23,8 @@
 package org.openecard.common.sal.state.cif;
 
 import iso.std.iso_iec._24727.tech.schema.CardInfoType;
+import iso.std.iso_iec._24727.tech.schema.DIDScopeType;
+import iso.std.iso_iec._24727.tech.schema.DIDStructureType;
 import org.openecard.common.util.StringUtils;
 import org.openecard.recognition.CardRecognition;
 import org.testng.annotations.Test;
@@ -57,4 +59,36 @@ public class CardInfoWrapperTest {
 	// CardApplicationWrapper cardApplicationWrapper = cardInfoWrapper.getCardApplication(rootApplication);
     }
 
+    /**
+     * Test the precomputed DID indices and the sharing of wrappers for the same CardInfo instance.
+     *
+     * @throws Exception when something in this test went unexpectedly wrong
+     */
+    @Test
+    public void testIndices() throws Exception {
+	CardRecognition recognition = new CardRecognition(null, null);
+	CardInfoType cardInfo = recognition.getCardInfo("http://bsi.bund.de/cif/npa.xml");
+	CardInfoWrapper cardInfoWrapper = CardInfoWrapper.forCardInfo(cardInfo);
+	assertSame(CardInfoWrapper.forCardInfo(cardInfo), cardInfoWrapper);
+	// a new CardInfo instance of the same type, e.g. a reloaded CIF, yields its own wrapper
+	CardInfoType otherInfo = recognition.getCardInfo("http://bsi.bund.de/cif/npa.xml");
+	assertNotSame(CardInfoWrapper.forCardInfo(otherInfo), cardInfoWrapper);
+
+	assertNotNull(cardInfoWrapper.getDIDInfo("EAC", DIDScopeType.LOCAL));
+	assertNull(cardInfoWrapper.getDIDInfo("EAC", DIDScopeType.GLOBAL));
+	assertNotNull(cardInfoWrapper.getDIDInfo("PIN", DIDScopeType.GLOBAL));
+	assertNull(cardInfoWrapper.getDIDInfo("NonExistingDID", DIDScopeType.GLOBAL));
+	assertEquals(cardInfoWrapper.getApplicationIdByDidName("PIN", null), rootApplication);
+	assertEquals(cardInfoWrapper.getApplicationIdByDataSetName("EF.CardAccess"), rootApplication);
+	assertEquals(cardInfoWrapper.getApplicationIdByDataSetName("DG1"), StringUtils.toByteArray("E80704007F00070302"));
+	assertNull(cardInfoWrapper.getApplicationIdByDataSetName("NonExistingDataSet"));
+
+	// structures are copies of the precomputed values, so they can be modified by the caller
+	DIDStructureType s1 = cardInfoWrapper.getDIDStructure("PIN", rootApplication);
+	DIDStructureType s2 = cardInfoWrapper.getDIDStructure("PIN", rootApplication);
+	assertNotSame(s1, s2);
+	assertSame(s1.getDIDMarker(), s2.getDIDMarker());
+	assertEquals(s1.getDIDScope(), DIDScopeType.GLOBAL);
+    }
+
 }
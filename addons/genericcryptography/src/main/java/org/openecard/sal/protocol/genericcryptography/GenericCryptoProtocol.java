@@ -42,6 +42,13 @@ public class GenericCryptoProtocol extends SALProtocolBaseImpl {
 	addStatelessStep(new VerifySignatureStep(ctx.getDispatcher()));
     }
 
+    @Override
+    public boolean reset() {
+	// the steps are stateless, so nothing is left after clearing the internal data
+	super.reset();
+	return true;
+    }
+
     @Override
     public void destroy() {
 	// nothing to see here ... move along
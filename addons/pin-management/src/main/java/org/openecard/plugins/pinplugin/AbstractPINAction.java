@@ -35,13 +35,16 @@ import iso.std.iso_iec._24727.tech.schema.Transmit;
 import iso.std.iso_iec._24727.tech.schema.TransmitResponse;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.openecard.addon.bind.AppExtensionAction;
 import org.openecard.common.I18n;
 import org.openecard.common.WSHelper;
 import org.openecard.common.WSHelper.WSException;
 import org.openecard.common.ifd.PACECapabilities;
+import org.openecard.common.ifd.PasswordRetryCounters;
 import org.openecard.common.interfaces.Dispatcher;
 import org.openecard.common.interfaces.DispatcherException;
+import org.openecard.common.sal.state.CardStateEntry;
 import org.openecard.common.sal.state.CardStateMap;
 import org.openecard.common.util.ByteUtils;
 import org.openecard.common.util.StringUtils;
@@ -72,6 +75,7 @@ public abstract class AbstractPINAction implements AppExtensionAction {
     private static final byte[] RESPONSE_SUSPENDED = new byte[] { (byte) 0x63, (byte) 0xC1 };
     private static final byte[] RESPONSE_RC2 = new byte[] { (byte) 0x63, (byte) 0xC2 };
     private static final byte[] RESPONSE_DEACTIVATED = new byte[] { (byte) 0x62, (byte) 0x83 };
+    private static final byte PIN_REFERENCE = 0x03;
 
     protected Dispatcher dispatcher;
     protected UserConsent gui;
@@ -80,6 +84,8 @@ public abstract class AbstractPINAction implements AppExtensionAction {
 
     /**
      * Recognize the PIN state of the card given through the connection handle.
+     * The state is taken from the retry counters tracked in the card state if available. Only if the state is unknown,
+     * it is determined by sending an MSE:Set AT command to the card.
      * 
      * @param cHandle
      *            The connection handle for the card for which the pin state should be recognized.
@@ -89,6 +95,11 @@ public abstract class AbstractPINAction implements AppExtensionAction {
      */
     protected RecognizedState recognizeState(ConnectionHandleType cHandle) throws InvocationTargetException,
 	    DispatcherException {
+	RecognizedState knownState = getKnownState(cHandle);
+	if (knownState != null) {
+	    logger.info("State of the PIN known from previous commands: {}.", knownState);
+	    return knownState;
+	}
 
 	Transmit t = new Transmit();
 	t.setSlotHandle(cHandle.getSlotHandle());
@@ -119,6 +130,29 @@ public abstract class AbstractPINAction implements AppExtensionAction {
 	return state;
     }
 
+    @Nullable
+    private RecognizedState getKnownState(ConnectionHandleType cHandle) {
+	CardStateEntry entry = cardStates.getEntry(cHandle, false);
+	PasswordRetryCounters counters = entry != null ? entry.getRetryCounters() : null;
+	PasswordRetryCounters.Status status = counters != null ? counters.getStatus(PIN_REFERENCE) : null;
+	if (status == null) {
+	    return null;
+	} else if (status.isDeactivated()) {
+	    return RecognizedState.PIN_deactivated;
+	}
+
+	int retries = status.getRetryCounter();
+	if (retries == PasswordRetryCounters.NOT_REDUCED || retries >= 3) {
+	    return RecognizedState.PIN_activated_RC3;
+	} else if (retries == 2) {
+	    return RecognizedState.PIN_activated_RC2;
+	} else if (retries == 1) {
+	    return RecognizedState.PIN_suspended;
+	} else {
+	    return RecognizedState.PIN_blocked;
+	}
+    }
+
     /**
      * Wait until a card of the specified card type was inserted.
      * 
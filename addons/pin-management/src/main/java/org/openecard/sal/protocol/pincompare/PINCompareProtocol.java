@@ -41,6 +41,13 @@ public class PINCompareProtocol extends SALProtocolBaseImpl {
 	addStatelessStep(new DIDAuthenticateStep(ctx.getDispatcher()));
     }
 
+    @Override
+    public boolean reset() {
+	// the steps are stateless, so nothing is left after clearing the internal data
+	super.reset();
+	return true;
+    }
+
     @Override
     public void destroy() {
 	// nothing to see here ... move along
@@ -34,6 +34,7 @@ import org.openecard.addon.bind.BindingResult;
 import org.openecard.addon.bind.BindingResultCode;
 import org.openecard.addon.bind.RequestBody;
 import org.openecard.binding.tctoken.ex.NonGuiException;
+import org.openecard.common.DynamicContext;
 import org.openecard.common.ECardConstants;
 import org.openecard.common.I18n;
 import org.openecard.common.OpenecardProperties;
@@ -87,6 +88,8 @@ public class ActivationAction implements AppPluginAction {
 		    return response;
 		}
 
+		// start the session of this activation, threads spawned for it must be started with DynamicContext.wrap
+		DynamicContext.open(TR03112Keys.INSTANCE_KEY);
 		try {
 		    TCTokenRequest tcTokenRequest = null;
 		    try {
@@ -126,6 +129,8 @@ public class ActivationAction implements AppPluginAction {
 		    logger.error(e.getMessage(), e);
 		}
 	    } finally {
+		// the worker thread may be reused, so make sure no session stays bound to it
+		DynamicContext.remove();
 		SEMAPHORE.release();
 	    }
 	} else {
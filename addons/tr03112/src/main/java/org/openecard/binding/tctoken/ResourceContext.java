@@ -38,10 +38,12 @@ import org.openecard.apache.http.HttpEntity;
 import org.openecard.apache.http.HttpException;
 import org.openecard.apache.http.HttpResponse;
 import org.openecard.apache.http.StatusLine;
+import org.openecard.apache.http.impl.DefaultConnectionReuseStrategy;
 import org.openecard.apache.http.message.BasicHttpEntityEnclosingRequest;
 import org.openecard.apache.http.protocol.BasicHttpContext;
 import org.openecard.apache.http.protocol.HttpContext;
 import org.openecard.apache.http.protocol.HttpRequestExecutor;
+import org.openecard.apache.http.util.EntityUtils;
 import static org.openecard.binding.tctoken.ex.ErrorTranslations.*;
 import org.openecard.binding.tctoken.ex.InvalidAddressException;
 import org.openecard.bouncycastle.crypto.tls.Certificate;
@@ -49,6 +51,8 @@ import org.openecard.bouncycastle.crypto.tls.ProtocolVersion;
 import org.openecard.bouncycastle.crypto.tls.TlsClientProtocol;
 import org.openecard.common.I18n;
 import org.openecard.common.io.LimitedInputStream;
+import org.openecard.common.metrics.Counter;
+import org.openecard.common.metrics.MetricsRegistry;
 import org.openecard.crypto.tls.proxy.ProxySettings;
 import org.openecard.common.util.FileUtils;
 import org.openecard.common.util.Pair;
@@ -78,6 +82,8 @@ public class ResourceContext {
 
 
     private static final I18n lang = I18n.getTranslation("tr03112");
+    private static final DefaultConnectionReuseStrategy REUSE = new DefaultConnectionReuseStrategy();
+    private static final Counter REUSED_CONNECTIONS = MetricsRegistry.getInstance().getCounter("tctoken.connection.reused");
 
     private final ClientCertTlsClient tlsClient;
     private final TlsClientProtocol tlsClientProto;
@@ -188,12 +194,15 @@ public class ResourceContext {
     public static ResourceContext getStream(URL url, CertificateValidator v) throws IOException, ResourceException,
 	    ValidationError, InvalidAddressException {
 	ArrayList<Pair<URL, Certificate>> serverCerts = new ArrayList<>();
-	return getStreamInt(url, v, serverCerts, 10);
+	return getStreamInt(url, v, serverCerts, 10, null);
     }
 
     private static ResourceContext getStreamInt(URL url, CertificateValidator v, List<Pair<URL,
-	    Certificate>> serverCerts, int maxRedirects) throws IOException, ResourceException, ValidationError,
-	    InvalidAddressException {
+	    Certificate>> serverCerts, int maxRedirects, @Nullable Connection prev) throws IOException,
+	    ResourceException, ValidationError, InvalidAddressException {
+	// the connection belongs to this hop until it is handed over to the result or the next hop
+	Connection c = prev;
+	boolean handedOver = false;
 	try {
 	    logger.info("Trying to load resource from: {}", url);
 
@@ -215,34 +224,30 @@ public class ResourceContext {
 		throw new InvalidAddressException(INVALID_ADDRESS);
 	    }
 
-	    // open a TLS connection, retrieve the server certificate and save it
-	    TlsClientProtocol h;
-	    DynamicAuthentication tlsAuth = new DynamicAuthentication(hostname);
-	    // FIXME: validate certificate chain as soon as a usable solution exists for the trust problem
-	    // tlsAuth.setCertificateVerifier(new JavaSecVerifier());
-	    ClientCertTlsClient tlsClient = new ClientCertDefaultTlsClient(hostname, true);
-	    tlsClient.setAuthentication(tlsAuth);
-
-	    // connect tls client
-	    tlsClient.setClientVersion(ProtocolVersion.TLSv12);
-	    Socket socket = ProxySettings.getDefault().getSocket(hostname, port);
-	    SecureRandom sr = ReusableSecureRandom.getInstance();
-	    h = new TlsClientProtocol(socket.getInputStream(), socket.getOutputStream(), sr);
-	    logger.debug("Performing TLS handshake.");
-	    h.connect(tlsClient);
-	    logger.debug("TLS handshake performed.");
+	    if (c != null && c.isSameOrigin(protocol, hostname, port)) {
+		logger.debug("Reusing the connection of the previous request.");
+		REUSED_CONNECTIONS.inc();
+	    } else {
+		if (c != null) {
+		    c.close();
+		    c = null;
+		}
+		c = Connection.open(protocol, hostname, port);
+	    }
 
-	    serverCerts.add(new Pair<>(url, tlsAuth.getServerCertificate()));
+	    // retrieve the server certificate and save it, the certificate is recorded for each hop, even if the
+	    // connection is reused
+	    Certificate serverCert = c.tlsAuth.getServerCertificate();
+	    serverCerts.add(new Pair<>(url, serverCert));
 	    // check result
-	    CertificateValidator.VerifierResult verifyResult = v.validate(url, tlsAuth.getServerCertificate());
+	    CertificateValidator.VerifierResult verifyResult = v.validate(url, serverCert);
 	    if (verifyResult == CertificateValidator.VerifierResult.FINISH) {
 		List<Pair<URL, Certificate>> pairs = Collections.unmodifiableList(serverCerts);
-		return new ResourceContext(tlsClient, h, pairs);
+		handedOver = true;
+		return new ResourceContext(c.tlsClient, c.tls, pairs);
 	    }
 
-	    StreamHttpClientConnection conn = new StreamHttpClientConnection(h.getInputStream(), h.getOutputStream());
-
-	    HttpContext ctx = new BasicHttpContext();
+	    StreamHttpClientConnection conn = c.http;
 	    HttpRequestExecutor httpexecutor = new HttpRequestExecutor();
 
 	    BasicHttpEntityEnclosingRequest req = new BasicHttpEntityEnclosingRequest("GET", resource);
@@ -252,7 +257,7 @@ public class ResourceContext {
 	    req.setHeader("Accept-Charset", "utf-8, *;q=0.8");
 	    HttpUtils.dumpHttpRequest(logger, req);
 	    logger.debug("Sending HTTP request.");
-	    HttpResponse response = httpexecutor.execute(req, conn, ctx);
+	    HttpResponse response = httpexecutor.execute(req, conn, c.ctx);
 	    logger.debug("HTTP response received.");
 	    StatusLine status = response.getStatusLine();
 	    int statusCode = status.getStatusCode();
@@ -286,20 +291,128 @@ public class ResourceContext {
 
 	    // follow next redirect or finish?
 	    if (finished) {
-		ResourceContext result = new ResourceContext(tlsClient, h, serverCerts);
+		ResourceContext result = new ResourceContext(c.tlsClient, c.tls, serverCerts);
 		LimitedInputStream is = new LimitedInputStream(entity.getContent());
 		result.setStream(is);
+		handedOver = true;
 		return result;
 	    } else {
-		h.close();
-		return getStreamInt(url, v, serverCerts, maxRedirects);
+		if (! c.finishRedirect(response)) {
+		    c.close();
+		    c = null;
+		}
+		handedOver = true;
+		return getStreamInt(url, v, serverCerts, maxRedirects, c);
 	    }
 	} catch (URISyntaxException ex) {
 	    throw new IOException(lang.translationForKey(FAILED_PROXY), ex);
 	} catch (HttpException ex) {
 	    // don't translate this, it is handled in the ActivationAction
 	    throw new IOException("Invalid HTTP message received.", ex);
+	} finally {
+	    if (! handedOver && c != null) {
+		c.close();
+	    }
+	}
+    }
+
+
+    /**
+     * TLS connection to one origin including the HTTP layer on top of it.
+     * Consecutive requests of a redirect chain use the same instance as long as they address the same origin and the
+     * server allows to keep the connection alive.
+     */
+    private static class Connection {
+
+	private final String protocol;
+	private final String hostname;
+	private final int port;
+	private final ClientCertTlsClient tlsClient;
+	private final DynamicAuthentication tlsAuth;
+	private final TlsClientProtocol tls;
+	private final StreamHttpClientConnection http;
+	private final HttpContext ctx;
+
+	private Connection(String protocol, String hostname, int port, ClientCertTlsClient tlsClient,
+		DynamicAuthentication tlsAuth, TlsClientProtocol tls) {
+	    this.protocol = protocol;
+	    this.hostname = hostname;
+	    this.port = port;
+	    this.tlsClient = tlsClient;
+	    this.tlsAuth = tlsAuth;
+	    this.tls = tls;
+	    this.http = new StreamHttpClientConnection(tls.getInputStream(), tls.getOutputStream());
+	    this.ctx = new BasicHttpContext();
+	}
+
+	/**
+	 * Opens a TLS connection to the given origin.
+	 *
+	 * @param protocol Protocol of the URL, which is always https.
+	 * @param hostname Host to connect to.
+	 * @param port Port to connect to.
+	 * @return The connection after a successful handshake.
+	 * @throws IOException Thrown in case the connection could not be established.
+	 * @throws URISyntaxException Thrown in case the proxy configuration is invalid.
+	 */
+	static Connection open(String protocol, String hostname, int port) throws IOException, URISyntaxException {
+	    // open a TLS connection and retrieve the server certificate
+	    DynamicAuthentication tlsAuth = new DynamicAuthentication(hostname);
+	    // FIXME: validate certificate chain as soon as a usable solution exists for the trust problem
+	    // tlsAuth.setCertificateVerifier(new JavaSecVerifier());
+	    ClientCertTlsClient tlsClient = new ClientCertDefaultTlsClient(hostname, true);
+	    tlsClient.setAuthentication(tlsAuth);
+
+	    // connect tls client
+	    tlsClient.setClientVersion(ProtocolVersion.TLSv12);
+	    Socket socket = ProxySettings.getDefault().getSocket(hostname, port);
+	    SecureRandom sr = ReusableSecureRandom.getInstance();
+	    TlsClientProtocol h = new TlsClientProtocol(socket.getInputStream(), socket.getOutputStream(), sr);
+	    logger.debug("Performing TLS handshake.");
+	    long handshakeStart = System.nanoTime();
+	    try {
+		h.connect(tlsClient);
+	    } catch (IOException ex) {
+		socket.close();
+		throw ex;
+	    }
+	    MetricsRegistry.getInstance().getHistogram("tls.handshake").recordSince(handshakeStart);
+	    logger.debug("TLS handshake performed.");
+
+	    return new Connection(protocol, hostname, port, tlsClient, tlsAuth, h);
 	}
+
+	boolean isSameOrigin(String protocol, String hostname, int port) {
+	    return this.protocol.equals(protocol) && this.hostname.equalsIgnoreCase(hostname) && this.port == port;
+	}
+
+	/**
+	 * Reads the remaining body of a redirect response, so that the connection can be used for the next request.
+	 *
+	 * @param response The redirect response whose entity has not been received yet.
+	 * @return {@code true} if the connection can be used for the next request, {@code false} otherwise.
+	 */
+	boolean finishRedirect(HttpResponse response) {
+	    try {
+		http.receiveResponseEntity(response);
+		if (REUSE.keepAlive(response, ctx)) {
+		    EntityUtils.consume(response.getEntity());
+		    return true;
+		}
+	    } catch (HttpException | IOException ex) {
+		logger.debug("Failed to read the body of the redirect response.", ex);
+	    }
+	    return false;
+	}
+
+	void close() {
+	    try {
+		tls.close();
+	    } catch (IOException ex) {
+		logger.debug("Failed to close connection.", ex);
+	    }
+	}
+
     }
 
 }
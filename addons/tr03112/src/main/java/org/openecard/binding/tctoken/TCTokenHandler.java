@@ -204,7 +204,7 @@ public class TCTokenHandler {
 		    // send StartPAOS
 		    List<String> supportedDIDs = getSupportedDIDs();
 		    PAOSTask task = new PAOSTask(dispatcher, connectionHandle, supportedDIDs, tokenRequest, gui);
-		    FutureTask<StartPAOSResponse> paosTask = new FutureTask<>(task);
+		    FutureTask<StartPAOSResponse> paosTask = new FutureTask<>(DynamicContext.wrap(task));
 		    Thread paosThread = new Thread(paosTask, "PAOS");
 		    paosThread.start();
 		    if (! tokenRequest.isTokenFromObject()) {
@@ -217,7 +217,7 @@ public class TCTokenHandler {
 		case "urn:ietf:rfc:2616":{
 		    // no actual binding, just connect via tls and authenticate the user with that connection
 		    HttpGetTask task = new HttpGetTask(dispatcher, connectionHandle, tokenRequest);
-		    FutureTask<StartPAOSResponse> tlsTask = new FutureTask<>(task);
+		    FutureTask<StartPAOSResponse> tlsTask = new FutureTask<>(DynamicContext.wrap(task));
 		    Thread tlsThread = new Thread(tlsTask, "TLS Auth");
 		    tlsThread.start();
 		    waitForTask(tlsTask);
@@ -151,9 +151,9 @@ public class TCTokenResponse extends BindingResult {
 		}
 	    }
 
-	    // clear and remove the DynamicContext
+	    // end the session and unbind it from this thread
 	    if (! clearContext) {
-		dynCtx.clear();
+		dynCtx.dispose();
 		DynamicContext.remove();
 	    }
 	} catch (URISyntaxException ex) {
@@ -37,6 +37,7 @@ import org.openecard.bouncycastle.crypto.tls.TlsClient;
 import org.openecard.bouncycastle.crypto.tls.TlsClientProtocol;
 import org.openecard.bouncycastle.crypto.tls.TlsPSKIdentity;
 import org.openecard.common.interfaces.Dispatcher;
+import org.openecard.common.metrics.MetricsRegistry;
 import org.openecard.crypto.common.sal.GenericCryptoSignerFinder;
 import org.openecard.crypto.tls.ClientCertDefaultTlsClient;
 import org.openecard.crypto.tls.ClientCertPSKTlsClient;
@@ -234,7 +235,9 @@ public class TlsConnectionHandler {
 	    OutputStream sockOut = socket.getOutputStream();
 	    SecureRandom sr = ReusableSecureRandom.getInstance();
 	    TlsClientProtocol handler = new TlsClientProtocol(sockIn, sockOut, sr);
+	    long handshakeStart = System.nanoTime();
 	    handler.connect(tlsClient);
+	    MetricsRegistry.getInstance().getHistogram("tls.handshake").recordSince(handshakeStart);
 
 	    return handler;
 	} else {
@@ -26,13 +26,8 @@ import java.util.Map;
 import org.openecard.common.sal.protocol.exception.ProtocolException;
 import org.openecard.common.tlv.TLV;
 import org.openecard.common.tlv.TLVException;
-import org.openecard.common.util.IntegerUtils;
 import org.openecard.crypto.common.asn1.cvc.CardVerifiableCertificate;
 import org.openecard.crypto.common.asn1.eac.AuthenticatedAuxiliaryData;
-import org.openecard.crypto.common.asn1.eac.CADomainParameter;
-import org.openecard.crypto.common.asn1.eac.CASecurityInfos;
-import org.openecard.crypto.common.asn1.eac.SecurityInfos;
-import org.openecard.crypto.common.asn1.eac.ef.EFCardAccess;
 import org.openecard.crypto.common.asn1.utils.ObjectIdentifierUtils;
 import org.openecard.sal.protocol.eac.anytype.EAC2OutputType;
 import org.openecard.sal.protocol.eac.crypto.CAKey;
@@ -62,7 +57,7 @@ public class AuthenticationHelper {
 	terminalCertificate = (CardVerifiableCertificate) internalData.get(EACConstants.IDATA_TERMINAL_CERTIFICATE);
 	byte[] key = (byte[]) internalData.get(EACConstants.IDATA_PK_PCD);
 	byte[] signature = (byte[]) internalData.get(EACConstants.IDATA_SIGNATURE);
-	SecurityInfos securityInfos = (SecurityInfos) internalData.get(EACConstants.IDATA_SECURITY_INFOS);
+	EACWarmState warmState = (EACWarmState) internalData.get(EACConstants.IDATA_WARM_STATE);
 	AuthenticatedAuxiliaryData aadObj;
 	aadObj = (AuthenticatedAuxiliaryData) internalData.get(EACConstants.IDATA_AUTHENTICATED_AUXILIARY_DATA);
 
@@ -76,10 +71,7 @@ public class AuthenticationHelper {
 	byte[] aad = aadObj.getData();
 
 	// Calculate comp(key)
-	EFCardAccess efca = new EFCardAccess(securityInfos);
-	CASecurityInfos cas = efca.getCASecurityInfos();
-	CADomainParameter cdp = new CADomainParameter(cas);
-	CAKey caKey = new CAKey(cdp);
+	CAKey caKey = new CAKey(warmState.getCADomainParameter());
 	caKey.decodePublicKey(key);
 	byte[] compKey = caKey.getEncodedCompressedPublicKey();
 
@@ -99,9 +91,7 @@ public class AuthenticationHelper {
 	byte[] efCardSecurity = ca.readEFCardSecurity();
 
 	// CA: Step 1 - MSE:SET AT
-	byte[] oID = ObjectIdentifierUtils.getValue(cas.getCAInfo().getProtocol());
-	byte[] keyID = IntegerUtils.toByteArray(cas.getCAInfo().getKeyID());
-	ca.mseSetAT(oID, keyID);
+	ca.mseSetAT(warmState.getCAProtocol(), warmState.getCAKeyID());
 
 	// CA: Step 2 - General Authenticate
 	byte[] responseData = ca.generalAuthenticate(key);
@@ -23,7 +23,11 @@
 package org.openecard.sal.protocol.eac;
 
 import iso.std.iso_iec._24727.tech.schema.DIDAuthenticate;
+import iso.std.iso_iec._24727.tech.schema.DIDAuthenticateResponse;
+import java.io.IOException;
 import java.util.concurrent.Callable;
+import javax.annotation.Nullable;
+import javax.xml.bind.JAXBException;
 import org.openecard.addon.ActionInitializationException;
 import org.openecard.addon.Context;
 import org.openecard.addon.sal.SALProtocolBaseImpl;
@@ -35,6 +39,7 @@ import org.openecard.common.interfaces.ObjectValidatorException;
 import org.openecard.common.util.FuturePromise;
 import org.openecard.common.util.JAXBSchemaValidator;
 import org.openecard.common.util.Promise;
+import org.xml.sax.SAXException;
 
 
 /**
@@ -60,18 +65,16 @@ public class EACProtocol extends SALProtocolBaseImpl {
     public static final String AUTHENTICATION_DONE = PREFIX + "authentication_done";
     public static final String AUTHENTICATION_FAILED = PREFIX + "authentication_failed";
 
+    private Promise<ObjectSchemaValidator> schemaValidator;
+
 
     @Override
     public void init(Context ctx) throws ActionInitializationException {
-	DynamicContext dynCtx = DynamicContext.getInstance(TR03112Keys.INSTANCE_KEY);
-	dynCtx.putPromise(SCHEMA_VALIDATOR, new FuturePromise<>(new Callable<ObjectSchemaValidator>() {
+	schemaValidator = new FuturePromise<>(new Callable<ObjectSchemaValidator>() {
 	    @Override
 	    public ObjectSchemaValidator call() throws Exception {
-		boolean noValid = Boolean.valueOf(OpenecardProperties.getProperty("legacy.ignore_ns"));
-		ObjectSchemaValidator v;
-		if (! noValid) {
-		    v = JAXBSchemaValidator.load(DIDAuthenticate.class, "ISO24727-Protocols.xsd");
-		} else {
+		ObjectSchemaValidator v = getMessageValidator();
+		if (v == null) {
 		    // always valid
 		    v = new ObjectSchemaValidator() {
 			@Override
@@ -82,18 +85,56 @@ public class EACProtocol extends SALProtocolBaseImpl {
 		}
 		return v;
 	    }
-	}));
+	});
 
 	addOrderStep(new PACEStep(ctx.getDispatcher(), ctx.getUserConsent(), ctx.getEventManager()));
 	addOrderStep(new TerminalAuthenticationStep(ctx.getDispatcher()));
 	addOrderStep(new ChipAuthenticationStep(ctx.getDispatcher()));
     }
 
+    /**
+     * Gets the process wide validator for EAC DIDAuthenticate messages.
+     * The validator can be used to validate the messages while unmarshalling them. Subsequent validations in the
+     * protocol steps are then served without serializing the message again.
+     *
+     * @return The validator, or {@code null} if validation is disabled by the {@code legacy.ignore_ns} property.
+     * @throws IOException Thrown in case the schemas could not be loaded.
+     * @throws SAXException Thrown in case the schemas are erroneous.
+     * @throws JAXBException Thrown in case the JAXB context could not be created.
+     */
+    @Nullable
+    public static JAXBSchemaValidator getMessageValidator() throws IOException, SAXException, JAXBException {
+	boolean noValid = Boolean.valueOf(OpenecardProperties.getProperty("legacy.ignore_ns"));
+	if (noValid) {
+	    return null;
+	} else {
+	    return JAXBSchemaValidator.load(DIDAuthenticate.class, "ISO24727-Protocols.xsd");
+	}
+    }
+
+    @Override
+    public boolean reset() {
+	// the steps keep their per-run values in the internal data and in the dynamic context of the session
+	super.reset();
+	return true;
+    }
+
     @Override
     public void destroy() {
 	// nothing to see here ... move along
     }
 
+    @Override
+    public DIDAuthenticateResponse didAuthenticate(DIDAuthenticate param) {
+	if (curStep == 0) {
+	    // the instance may be reused, so make the validator available in the context of the current run
+	    DynamicContext dynCtx = DynamicContext.getInstance(TR03112Keys.INSTANCE_KEY);
+	    dynCtx.remove(SCHEMA_VALIDATOR);
+	    dynCtx.putPromise(SCHEMA_VALIDATOR, schemaValidator);
+	}
+	return super.didAuthenticate(param);
+    }
+
     @Override
     public boolean isFinished() {
 	boolean finished = super.isFinished();
@@ -0,0 +1,148 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.sal.protocol.eac;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import org.openecard.common.ECardConstants;
+import org.openecard.common.metrics.MetricsRegistry;
+import org.openecard.common.sal.state.CardStateEntry;
+import org.openecard.common.util.IntegerUtils;
+import org.openecard.crypto.common.asn1.eac.CADomainParameter;
+import org.openecard.crypto.common.asn1.eac.CAInfo;
+import org.openecard.crypto.common.asn1.eac.CASecurityInfos;
+import org.openecard.crypto.common.asn1.eac.SecurityInfos;
+import org.openecard.crypto.common.asn1.eac.ef.EFCardAccess;
+import org.openecard.crypto.common.asn1.utils.ObjectIdentifierUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Values of a card which the EAC protocol derives from EF.CardAccess.
+ * The values are fixed for a card, so the state is kept in the {@link CardStateEntry} of the card and reused by
+ * subsequent authentications until the card is removed. This saves parsing the security infos and loading the domain
+ * parameters in every run.
+ *
+ * @author agent
+ */
+public final class EACWarmState {
+
+    private static final Logger logger = LoggerFactory.getLogger(EACWarmState.class);
+
+    private final byte[] rawCardAccess;
+    private final SecurityInfos securityInfos;
+    private final EFCardAccess cardAccess;
+
+    // CA values are loaded on first use, as PACE only runs may never need them
+    private CADomainParameter caDomainParameter;
+    private byte[] caProtocol;
+    private byte[] caKeyID;
+
+    /**
+     * Creates a state by parsing the given content of EF.CardAccess.
+     *
+     * @param rawCardAccess Content of EF.CardAccess.
+     */
+    EACWarmState(@Nonnull byte[] rawCardAccess) {
+	this.rawCardAccess = rawCardAccess.clone();
+	this.securityInfos = SecurityInfos.getInstance(rawCardAccess);
+	this.cardAccess = new EFCardAccess(securityInfos);
+    }
+
+    /**
+     * Gets the state for the card matching the given EF.CardAccess.
+     * The state stored in the card state entry is reused if it has been created from the same EF.CardAccess, otherwise a
+     * new state is created and stored in the entry.
+     *
+     * @param cardState Card state entry of the card.
+     * @param rawCardAccess Content of EF.CardAccess as read in the current authentication.
+     * @return The state for the card.
+     */
+    @Nonnull
+    public static EACWarmState getInstance(@Nonnull CardStateEntry cardState, @Nonnull byte[] rawCardAccess) {
+	EACWarmState state = cardState.getProtocolState(ECardConstants.Protocol.EAC_GENERIC, EACWarmState.class);
+	if (state != null && Arrays.equals(state.rawCardAccess, rawCardAccess)) {
+	    logger.debug("Reusing EAC state of the card.");
+	    MetricsRegistry.getInstance().getCounter("eac.warm_state.reused").inc();
+	} else {
+	    state = new EACWarmState(rawCardAccess);
+	    cardState.setProtocolState(ECardConstants.Protocol.EAC_GENERIC, state);
+	}
+	return state;
+    }
+
+    @Nonnull
+    public SecurityInfos getSecurityInfos() {
+	return securityInfos;
+    }
+
+    @Nonnull
+    public EFCardAccess getEFCardAccess() {
+	return cardAccess;
+    }
+
+    /**
+     * Gets the domain parameters for Chip Authentication.
+     *
+     * @return The domain parameters.
+     * @throws IllegalArgumentException Thrown in case the domain parameters could not be loaded.
+     */
+    @Nonnull
+    public synchronized CADomainParameter getCADomainParameter() {
+	if (caDomainParameter == null) {
+	    CASecurityInfos cas = cardAccess.getCASecurityInfos();
+	    caDomainParameter = new CADomainParameter(cas);
+	}
+	return caDomainParameter;
+    }
+
+    /**
+     * Gets the encoded object identifier of the Chip Authentication protocol used with the card.
+     *
+     * @return The object identifier as used in MSE:Set AT.
+     */
+    @Nonnull
+    public synchronized byte[] getCAProtocol() {
+	if (caProtocol == null) {
+	    CAInfo ci = cardAccess.getCASecurityInfos().getCAInfo();
+	    caProtocol = ObjectIdentifierUtils.getValue(ci.getProtocol());
+	}
+	return caProtocol.clone();
+    }
+
+    /**
+     * Gets the encoded identifier of the Chip Authentication key used with the card.
+     *
+     * @return The key identifier as used in MSE:Set AT.
+     */
+    @Nonnull
+    public synchronized byte[] getCAKeyID() {
+	if (caKeyID == null) {
+	    CAInfo ci = cardAccess.getCASecurityInfos().getCAInfo();
+	    caKeyID = IntegerUtils.toByteArray(ci.getKeyID());
+	}
+	return caKeyID.clone();
+    }
+
+}
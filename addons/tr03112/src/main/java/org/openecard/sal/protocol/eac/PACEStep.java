@@ -67,7 +67,6 @@ import org.openecard.crypto.common.asn1.cvc.CardVerifiableCertificateChain;
 import org.openecard.crypto.common.asn1.cvc.CardVerifiableCertificateVerifier;
 import org.openecard.crypto.common.asn1.cvc.CertificateDescription;
 import org.openecard.crypto.common.asn1.eac.AuthenticatedAuxiliaryData;
-import org.openecard.crypto.common.asn1.eac.SecurityInfos;
 import org.openecard.gui.ResultStatus;
 import org.openecard.gui.UserConsent;
 import org.openecard.gui.UserConsentNavigator;
@@ -301,10 +300,10 @@ public class PACEStep implements ProtocolStep<DIDAuthenticate, DIDAuthenticateRe
 		dynCtx.put(EACProtocol.PACE_SUCCESSFUL, false);
 	    }
 
-	    Thread guiThread = new Thread(new Runnable() {
+	    Thread guiThread = new Thread(DynamicContext.wrap(new Runnable() {
 		@Override
 		public void run() {
-		    // get context here because it is thread local
+		    // get context here because it is bound to the thread
 		    DynamicContext dynCtx = DynamicContext.getInstance(TR03112Keys.INSTANCE_KEY);
 
 		    UserConsentNavigator navigator = gui.obtainNavigator(uc);
@@ -321,7 +320,7 @@ public class PACEStep implements ProtocolStep<DIDAuthenticate, DIDAuthenticateRe
 			}
 		    }
 		}
-	    }, "EAC-GUI");
+	    }), "EAC-GUI");
 	    guiThread.start();
 
 	    // wait for PACE to finish
@@ -350,13 +349,14 @@ public class PACEStep implements ProtocolStep<DIDAuthenticate, DIDAuthenticateRe
 	    byte[] previousCAR = paceOutputMap.getContentAsBytes(PACEOutputType.PREVIOUS_CAR);
 	    byte[] idpicc = paceOutputMap.getContentAsBytes(PACEOutputType.ID_PICC);
 
-	    // Store SecurityInfos
-	    SecurityInfos securityInfos = SecurityInfos.getInstance(efCardAccess);
-	    internalData.put(EACConstants.IDATA_SECURITY_INFOS, securityInfos);
+	    // Store the values derived from EF.CardAccess, they are reused in later runs with the same card
+	    EACWarmState warmState = EACWarmState.getInstance(cardState, efCardAccess);
+	    internalData.put(EACConstants.IDATA_WARM_STATE, warmState);
 	    // Store additional data
 	    internalData.put(EACConstants.IDATA_AUTHENTICATED_AUXILIARY_DATA, aad);
 	    internalData.put(EACConstants.IDATA_CERTIFICATES, certChain);
 	    internalData.put(EACConstants.IDATA_CURRENT_CAR, currentCAR);
+	    internalData.put(EACConstants.IDATA_PREVIOUS_CAR, previousCAR);
 	    internalData.put(EACConstants.IDATA_CHALLENGE, challenge);
 
 	    // Create response
@@ -22,12 +22,20 @@
 
 package org.openecard.sal.protocol.eac;
 
+import iso.std.iso_iec._24727.tech.schema.InputAPDUInfoType;
+import iso.std.iso_iec._24727.tech.schema.Transmit;
+import iso.std.iso_iec._24727.tech.schema.TransmitResponse;
+import java.lang.reflect.InvocationTargetException;
+import org.openecard.common.WSHelper;
+import org.openecard.common.WSHelper.WSException;
 import org.openecard.common.apdu.ExternalAuthentication;
 import org.openecard.common.apdu.GetChallenge;
 import org.openecard.common.apdu.common.CardCommandAPDU;
+import org.openecard.common.apdu.common.CardCommandStatus;
 import org.openecard.common.apdu.common.CardResponseAPDU;
 import org.openecard.common.apdu.exception.APDUException;
 import org.openecard.common.interfaces.Dispatcher;
+import org.openecard.common.interfaces.DispatcherException;
 import org.openecard.common.sal.protocol.exception.ProtocolException;
 import org.openecard.crypto.common.asn1.cvc.CardVerifiableCertificate;
 import org.openecard.crypto.common.asn1.cvc.CardVerifiableCertificateChain;
@@ -62,6 +70,8 @@ public class TerminalAuthentication {
     /**
      * Verify certificates.
      * Sends an MSE:Set DST APDU and PSO:Verify Certificate APDU per certificate. (Protocol step 1)
+     * All APDUs are sent in a single Transmit request. The IFD stops at the first APDU which does not yield the
+     * expected status word, so the card never receives a certificate whose issuer could not be set.
      * See BSI-TR-03110, version 2.10, part 3, B.11.4.
      * See BSI-TR-03110, version 2.10, part 3, B.11.5.
      *
@@ -69,20 +79,34 @@ public class TerminalAuthentication {
      * @throws ProtocolException
      */
     public void verifyCertificates(CardVerifiableCertificateChain certificateChain) throws ProtocolException {
+	Transmit transmit = new Transmit();
+	transmit.setSlotHandle(slotHandle);
+	for (CardVerifiableCertificate cvc : certificateChain.getCertificates()) {
+	    // MSE:SetDST APDU
+	    CardCommandAPDU mseSetDST = new MSESetDST(cvc.getCAR().toByteArray());
+	    transmit.getInputAPDUInfo().add(makeInputAPDU(mseSetDST));
+	    // PSO:Verify Certificate  APDU
+	    CardCommandAPDU psovc = new PSOVerifyCertificate(cvc.getCertificate().getValue());
+	    transmit.getInputAPDUInfo().add(makeInputAPDU(psovc));
+	}
+
 	try {
-	    for (CardVerifiableCertificate cvc : certificateChain.getCertificates()) {
-		// MSE:SetDST APDU
-		CardCommandAPDU mseSetDST = new MSESetDST(cvc.getCAR().toByteArray());
-		mseSetDST.transmit(dispatcher, slotHandle);
-		// PSO:Verify Certificate  APDU
-		CardCommandAPDU psovc = new PSOVerifyCertificate(cvc.getCertificate().getValue());
-		psovc.transmit(dispatcher, slotHandle);
-	    }
-	} catch (APDUException e) {
+	    TransmitResponse response = (TransmitResponse) dispatcher.deliver(transmit);
+	    WSHelper.checkResult(response);
+	} catch (WSException e) {
 	    throw new ProtocolException(e.getResult());
+	} catch (DispatcherException | InvocationTargetException e) {
+	    throw new ProtocolException(e);
 	}
     }
 
+    private static InputAPDUInfoType makeInputAPDU(CardCommandAPDU apdu) {
+	InputAPDUInfoType input = new InputAPDUInfoType();
+	input.setInputAPDU(apdu.toByteArray());
+	input.getAcceptableStatusCode().addAll(CardCommandStatus.responseOk());
+	return input;
+    }
+
     /**
      * Initializes the Terminal Authentication protocol.
      * Sends an MSE:Set AT APDU. (Protocol step 2)
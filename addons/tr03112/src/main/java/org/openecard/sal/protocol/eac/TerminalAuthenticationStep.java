@@ -24,6 +24,8 @@ package org.openecard.sal.protocol.eac;
 
 import iso.std.iso_iec._24727.tech.schema.DIDAuthenticate;
 import iso.std.iso_iec._24727.tech.schema.DIDAuthenticateResponse;
+import java.security.cert.CertificateException;
+import java.util.Arrays;
 import java.util.Map;
 import org.openecard.addon.sal.FunctionType;
 import org.openecard.addon.sal.ProtocolStep;
@@ -115,15 +117,17 @@ public class TerminalAuthenticationStep implements ProtocolStep<DIDAuthenticate,
 	    certificateChain = (CardVerifiableCertificateChain) internalData.get(EACConstants.IDATA_CERTIFICATES);
 	    certificateChain.addCertificates(eac2Input.getCertificates());
 
+	    // only send the certificates which are not yet known to the card
 	    byte[] currentCAR = (byte[]) internalData.get(EACConstants.IDATA_CURRENT_CAR);
-	    certificateChain = certificateChain.getCertificateChainFromCAR(currentCAR);
-
-	    if (certificateChain.getCertificates().isEmpty()) {
-                String msg = "Failed to create a valid certificate chain from the transmitted certificates.";
-                logger.error(msg);
-                response.setResult(WSHelper.makeResultError(ECardConstants.Minor.App.PARM_ERROR, msg));
-                return response;
-            }
+	    byte[] previousCAR = (byte[]) internalData.get(EACConstants.IDATA_PREVIOUS_CAR);
+	    try {
+		certificateChain = certificateChain.getCertificatePath(Arrays.asList(currentCAR, previousCAR));
+	    } catch (CertificateException ex) {
+		String msg = "Failed to create a valid certificate chain from the transmitted certificates.";
+		logger.error(msg, ex);
+		response.setResult(WSHelper.makeResultError(ECardConstants.Minor.App.PARM_ERROR, msg));
+		return response;
+	    }
 
 	    // TA: Step 1 - Verify certificates
 	    ta.verifyCertificates(certificateChain);
@@ -30,6 +30,7 @@ import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URISyntaxException;
 import javax.annotation.Nonnull;
+import javax.xml.bind.JAXBException;
 import javax.xml.namespace.QName;
 import javax.xml.transform.TransformerException;
 import oasis.names.tc.dss._1_0.core.schema.ResponseBaseType;
@@ -49,8 +50,12 @@ import org.openecard.common.WSHelper;
 import org.openecard.common.WSHelper.WSException;
 import org.openecard.common.interfaces.Dispatcher;
 import org.openecard.common.interfaces.DispatcherException;
+import org.openecard.common.metrics.LatencyHistogram;
+import org.openecard.common.metrics.MetricsRegistry;
 import org.openecard.common.util.FileUtils;
+import org.openecard.common.util.JAXBSchemaValidator;
 import org.openecard.binding.tctoken.TlsConnectionHandler;
+import org.openecard.sal.protocol.eac.EACProtocol;
 import org.openecard.transport.httpcore.HttpRequestHelper;
 import org.openecard.transport.httpcore.HttpUtils;
 import org.openecard.transport.httpcore.StreamHttpClientConnection;
@@ -82,6 +87,14 @@ import static org.openecard.binding.tctoken.ex.ErrorTranslations.*;
 public class PAOS {
 
     private static final Logger logger = LoggerFactory.getLogger(PAOS.class);
+    private static final LatencyHistogram startPaosMetric;
+    private static final LatencyHistogram roundTripMetric;
+
+    static {
+	MetricsRegistry metrics = MetricsRegistry.getInstance();
+	startPaosMetric = metrics.getHistogram("paos.start_paos");
+	roundTripMetric = metrics.getHistogram("paos.round_trip");
+    }
 
     public static final String HEADER_KEY_PAOS = "PAOS";
 
@@ -97,6 +110,8 @@ public class PAOS {
     public static final QName PAOS_METADATA = new QName(ECardConstants.PAOS_VERSION_20, "MetaData");
     public static final QName PAOS_SERVICETYPE = new QName(ECardConstants.PAOS_VERSION_20, "ServiceType");
 
+    private static final QName DID_AUTHENTICATE = new QName("urn:iso:std:iso-iec:24727:tech:schema", "DIDAuthenticate");
+
     private final String headerValuePaos;
     private final MessageIdGenerator idGenerator;
     private final WSMarshaller m;
@@ -212,7 +227,7 @@ public class PAOS {
 		}
 	    }
 
-	    return m.unmarshal(msg.getSOAPBody().getChildElements().get(0));
+	    return unmarshal(msg.getSOAPBody().getChildElements().get(0));
 	} catch (MarshallingTypeException ex) {
 	    logger.error(ex.getMessage(), ex);
 	    throw new PAOSException(ex.getMessage(), ex);
@@ -222,6 +237,22 @@ public class PAOS {
 	}
     }
 
+    private Object unmarshal(Element content) throws MarshallingTypeException, WSMarshallerException {
+	// EAC messages get validated by the protocol, so do the validation while unmarshalling
+	if (DID_AUTHENTICATE.getLocalPart().equals(content.getLocalName())
+		&& DID_AUTHENTICATE.getNamespaceURI().equals(content.getNamespaceURI())) {
+	    try {
+		JAXBSchemaValidator validator = EACProtocol.getMessageValidator();
+		if (validator != null) {
+		    return validator.unmarshal(m, content);
+		}
+	    } catch (IOException | SAXException | JAXBException ex) {
+		logger.warn("Failed to load schema validator, unmarshalling message without validation.", ex);
+	    }
+	}
+	return m.unmarshal(content);
+    }
+
     private String createPAOSResponse(Object obj) throws MarshallingTypeException, SOAPException, TransformerException {
 	SOAPMessage msg = createSOAPMessage(obj);
 	String result = m.doc2str(msg.getDocument());
@@ -280,6 +311,7 @@ public class PAOS {
 	boolean firstLoop = true;
 	boolean connectionDropped = false;
 	ResponseBaseType lastResponse = new ResponseBaseType();
+	long start = System.nanoTime();
 
 	try {
 	    // loop and send makes a computer happy
@@ -317,6 +349,7 @@ public class PAOS {
 			req.setHeader("Content-Length", Long.toString(reqMsg.getContentLength()));
 			// send request and receive response
 			logger.debug("Sending HTTP request.");
+			long roundTripStart = System.nanoTime();
 			HttpResponse response = httpexecutor.execute(req, conn, ctx);
 			logger.debug("HTTP response received.");
 			int statusCode = response.getStatusLine().getStatusCode();
@@ -325,6 +358,7 @@ public class PAOS {
 			conn.receiveResponseEntity(response);
 			HttpEntity entity = response.getEntity();
 			byte[] entityData = FileUtils.toByteArray(entity.getContent());
+			roundTripMetric.recordSince(roundTripStart);
 			HttpUtils.dumpHttpResponse(logger, response, entityData);
 			// consume entity
 			Object requestObj = processPAOSRequest(new ByteArrayInputStream(entityData));
@@ -378,6 +412,7 @@ public class PAOS {
 	    } catch (IOException ex) {
 //		throw new PAOSException(ex);
 	    }
+	    startPaosMetric.recordSince(start);
 	}
     }
 
@@ -0,0 +1,60 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.sal.protocol.eac;
+
+import org.openecard.common.util.StringUtils;
+import org.openecard.crypto.common.asn1.eac.CADomainParameter;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test for the EAC values derived once from EF.CardAccess.
+ *
+ * @author agent
+ */
+public class EACWarmStateTest {
+
+    // EF.CardAccess of a test nPA with standardized domain parameters
+    private static final byte[] EF_CARD_ACCESS = StringUtils.toByteArray(
+	    "3181b3300d060804007f00070202020201023012060a04007f000702020302020201020201413012060a04007f00070202030202" +
+	    "0201020201453012060a04007f0007020204020202010202010d301c060904007f000702020302300c060704007f0007010202" +
+	    "010d020141301c060904007f000702020302300c060704007f0007010202010d020145302a060804007f000702020616" +
+	    "1e687474703a2f2f6273692e62756e642e64652f6369662f6e70612e786d6c");
+
+    @Test
+    public void testCAValues() {
+	EACWarmState state = new EACWarmState(EF_CARD_ACCESS);
+	assertFalse(state.getEFCardAccess().getPACESecurityInfos().getPACEInfos().isEmpty());
+
+	CADomainParameter cdp = state.getCADomainParameter();
+	assertTrue(cdp.isECDH());
+	// the domain parameters are loaded only once
+	assertSame(state.getCADomainParameter(), cdp);
+
+	// id-CA-ECDH-AES-CBC-CMAC-128 with key 65
+	assertEquals(state.getCAProtocol(), StringUtils.toByteArray("04007f00070202030202"));
+	assertEquals(state.getCAKeyID(), new byte[] { 0x41 });
+    }
+
+}
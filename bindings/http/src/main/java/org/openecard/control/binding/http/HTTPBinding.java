@@ -29,8 +29,10 @@ import java.util.List;
 import org.openecard.addon.AddonManager;
 import org.openecard.apache.http.HttpRequestInterceptor;
 import org.openecard.apache.http.HttpResponseInterceptor;
+import org.openecard.common.OpenecardProperties;
 import org.openecard.control.binding.http.common.DocumentRoot;
 import org.openecard.control.binding.http.handler.HttpAppPluginActionHandler;
+import org.openecard.control.binding.http.handler.common.MetricsHandler;
 import org.openecard.control.binding.http.interceptor.CORSResponseInterceptor;
 import org.openecard.control.binding.http.interceptor.ErrorResponseInterceptor;
 import org.openecard.control.binding.http.interceptor.StatusLineResponseInterceptor;
@@ -51,10 +53,21 @@ public class HTTPBinding {
     private List<HttpRequestInterceptor> reqInterceptors;
     private List<HttpResponseInterceptor> respInterceptors;
     private HTTPService service;
+    private HttpAppPluginActionHandler handler;
     private AddonManager addonManager;
 
-    public void setAddonManager(AddonManager addonManager) {
+    /**
+     * Sets the add-on manager used to answer the requests.
+     * The manager may be set after the binding is started. Requests received before are answered with a status
+     * indicating that the application is still starting.
+     *
+     * @param addonManager The add-on manager.
+     */
+    public synchronized void setAddonManager(AddonManager addonManager) {
 	this.addonManager = addonManager;
+	if (handler != null) {
+	    handler.setAddonManager(addonManager);
+	}
     }
 
     /**
@@ -101,7 +114,7 @@ public class HTTPBinding {
 	this.respInterceptors = respInterceptors;
     }
 
-    public void start() throws Exception {
+    public synchronized void start() throws Exception {
 	// Add default interceptors if none are given
 	if (reqInterceptors == null) {
 	    reqInterceptors = Collections.emptyList();
@@ -115,8 +128,15 @@ public class HTTPBinding {
 	    //interceptors.addInterceptor(new CORSRequestInterceptor());
 	}
 
-	HttpAppPluginActionHandler handler = new HttpAppPluginActionHandler(addonManager);
-	service = new HTTPService(port, handler, reqInterceptors, respInterceptors);
+	handler = new HttpAppPluginActionHandler(addonManager);
+	List<MetricsHandler> resourceHandlers;
+	// the metrics reveal how the client is used, so they are only served if explicitly enabled
+	if (Boolean.valueOf(OpenecardProperties.getProperty("http.metrics"))) {
+	    resourceHandlers = Collections.singletonList(new MetricsHandler());
+	} else {
+	    resourceHandlers = Collections.emptyList();
+	}
+	service = new HTTPService(port, handler, resourceHandlers, reqInterceptors, respInterceptors);
 	service.start();
     }
 
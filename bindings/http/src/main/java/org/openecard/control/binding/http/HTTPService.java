@@ -28,6 +28,7 @@ import java.net.ServerSocket;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
+import java.util.Collections;
 import java.util.List;
 import org.openecard.apache.http.ConnectionReuseStrategy;
 import org.openecard.apache.http.HttpRequestInterceptor;
@@ -42,6 +43,7 @@ import org.openecard.apache.http.protocol.HttpRequestHandler;
 import org.openecard.apache.http.protocol.HttpService;
 import org.openecard.apache.http.protocol.ImmutableHttpProcessor;
 import org.openecard.apache.http.protocol.UriHttpRequestHandlerMapper;
+import org.openecard.control.binding.http.handler.HttpControlHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +70,22 @@ public class HTTPService implements Runnable {
      */
     public HTTPService(int port, HttpRequestHandler handler, List<HttpRequestInterceptor> reqInterceptors,
 	    List<HttpResponseInterceptor> respInterceptors) throws Exception {
+	this(port, handler, Collections.<HttpControlHandler>emptyList(), reqInterceptors, respInterceptors);
+    }
+
+    /**
+     * Creates a new HTTPService.
+     *
+     * @param port Port
+     * @param handler Handler for all requests not matched by one of the resource handlers
+     * @param resourceHandlers Handlers registered for their resource path
+     * @param reqInterceptors
+     * @param respInterceptors
+     * @throws Exception
+     */
+    public HTTPService(int port, HttpRequestHandler handler, List<? extends HttpControlHandler> resourceHandlers,
+	    List<HttpRequestInterceptor> reqInterceptors, List<HttpResponseInterceptor> respInterceptors)
+	    throws Exception {
 	thread = new Thread(this, "Open-eCard Localhost-Binding");
 	server = new ServerSocket(port, backlog, InetAddress.getByName("127.0.0.1"));
 	logger.debug("Starting HTTPBinding on port {}", server.getLocalPort());
@@ -83,6 +101,10 @@ public class HTTPService implements Runnable {
 	UriHttpRequestHandlerMapper handlerRegistry = new UriHttpRequestHandlerMapper();
 	logger.debug("Add handler [{}] for ID [{}]", new Object[]{handler.getClass().getCanonicalName(), "*"});
 	handlerRegistry.register("*", handler);
+	for (HttpControlHandler next : resourceHandlers) {
+	    logger.debug("Add handler [{}] for ID [{}]", next.getClass().getCanonicalName(), next.getResourcePath());
+	    handlerRegistry.register(next.getResourcePath(), next);
+	}
 
 	// create service instance
 	service = new HttpService(httpProcessor, connectionReuseStrategy, responseFactory, handlerRegistry);
@@ -22,22 +22,35 @@
 
 package org.openecard.control.binding.http.common;
 
-import java.io.UnsupportedEncodingException;
+import java.io.InputStream;
 import java.net.URL;
-import java.util.HashMap;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Map;
+import javax.annotation.Nonnull;
 import org.openecard.common.util.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
+ * HTML template with placeholders of the form {@code %%%NAME%%%}.
+ * The template is split into literal and placeholder segments when it is loaded. The literals are kept in their UTF-8
+ * encoded form, so that rendering a page is a single pass over the segments. Instances are immutable and can be shared
+ * between threads, the values of the placeholders are passed to each render call.
+ *
  * @author Moritz Horsch <horsch@cdc.informatik.tu-darmstadt.de>
+ * @author Tobias Wich
  */
 public class HTTPTemplate {
 
     private static final Logger _logger = LoggerFactory.getLogger(HTTPTemplate.class);
-    private HashMap<String, String> properties = new HashMap<>();
-    private String content;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final String DELIMITER = "%%%";
+
+    // literals[i] is followed by placeholders[i], the last literal has no placeholder after it
+    private final byte[][] literals;
+    private final String[] placeholders;
 
     /**
      * Creates a new HTTPTemplate.
@@ -46,54 +59,102 @@ public class HTTPTemplate {
      * @param templatePath Template path
      */
     public HTTPTemplate(DocumentRoot documentRoot, String templatePath) {
-	try {
-	    URL url = documentRoot.getFile(templatePath);
-	    content = FileUtils.toString(url.openStream());
-	} catch (Exception e) {
-	    _logger.error(e.getMessage(), e);
-	}
+	this(load(documentRoot, templatePath));
     }
 
     /**
-     * Sets a property of the template.
+     * Creates a new HTTPTemplate from the given template content.
      *
-     * @param key Key
-     * @param value Value
+     * @param content Content of the template.
      */
-    public void setProperty(String key, String value) {
-	properties.put(key, value);
+    HTTPTemplate(@Nonnull String content) {
+	ArrayList<byte[]> literalList = new ArrayList<>();
+	ArrayList<String> placeholderList = new ArrayList<>();
+	StringBuilder literal = new StringBuilder();
+	int pos = 0;
+	while (pos < content.length()) {
+	    int start = content.indexOf(DELIMITER, pos);
+	    int end = start < 0 ? -1 : content.indexOf(DELIMITER, start + DELIMITER.length());
+	    if (end < 0) {
+		break;
+	    }
+	    String name = content.substring(start + DELIMITER.length(), end);
+	    if (isPlaceholderName(name)) {
+		literal.append(content, pos, start);
+		literalList.add(literal.toString().getBytes(UTF8));
+		literal.setLength(0);
+		placeholderList.add(DELIMITER + name + DELIMITER);
+		pos = end + DELIMITER.length();
+	    } else {
+		// no placeholder, the closing delimiter may still open the next one
+		literal.append(content, pos, end);
+		pos = end;
+	    }
+	}
+	literal.append(content, pos, content.length());
+	literalList.add(literal.toString().getBytes(UTF8));
+
+	this.literals = literalList.toArray(new byte[literalList.size()][]);
+	this.placeholders = placeholderList.toArray(new String[placeholderList.size()]);
     }
 
-    /**
-     * Removes a property.
-     *
-     * @param key Key
-     */
-    public void removeProperty(String key) {
-	properties.remove(key);
+    private static String load(DocumentRoot documentRoot, String templatePath) {
+	try {
+	    URL url = documentRoot.getFile(templatePath);
+	    InputStream in = url.openStream();
+	    try {
+		return FileUtils.toString(in);
+	    } finally {
+		in.close();
+	    }
+	} catch (Exception e) {
+	    _logger.error(e.getMessage(), e);
+	    return "";
+	}
+    }
+
+    private static boolean isPlaceholderName(String name) {
+	if (name.isEmpty()) {
+	    return false;
+	}
+	for (int i = 0; i < name.length(); i++) {
+	    char c = name.charAt(i);
+	    if (! (c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_')) {
+		return false;
+	    }
+	}
+	return true;
     }
 
     /**
-     * Returns the template as a byte array.
+     * Renders the template with the given placeholder values.
+     * Placeholders without a value are replaced by the empty string.
      *
-     * @return Template as a byte array
-     * @throws UnsupportedEncodingException
+     * @param values Map from placeholder including its delimiters (e.g. {@code %%%TITLE%%%}) to the value.
+     * @return The UTF-8 encoded page.
      */
-    public byte[] getBytes() throws UnsupportedEncodingException {
-	return toString().getBytes("UTF-8");
-    }
+    @Nonnull
+    public byte[] render(@Nonnull Map<String, String> values) {
+	byte[][] encodedValues = new byte[placeholders.length][];
+	int length = 0;
+	for (int i = 0; i < placeholders.length; i++) {
+	    String value = values.get(placeholders[i]);
+	    encodedValues[i] = value != null ? value.getBytes(UTF8) : new byte[0];
+	    length += literals[i].length + encodedValues[i].length;
+	}
+	length += literals[literals.length - 1].length;
 
-    @Override
-    public String toString() {
-	StringBuilder out = new StringBuilder(content);
-	for (String key : properties.keySet()) {
-	    int i = out.indexOf(key);
-	    int j = i + key.length();
-	    if (i > 0 && j > 0) {
-		out.replace(i, j, properties.get(key));
-	    }
+	byte[] result = new byte[length];
+	int pos = 0;
+	for (int i = 0; i < placeholders.length; i++) {
+	    System.arraycopy(literals[i], 0, result, pos, literals[i].length);
+	    pos += literals[i].length;
+	    System.arraycopy(encodedValues[i], 0, result, pos, encodedValues[i].length);
+	    pos += encodedValues[i].length;
 	}
-	return out.toString();
+	byte[] last = literals[literals.length - 1];
+	System.arraycopy(last, 0, result, pos, last.length);
+	return result;
     }
 
 }
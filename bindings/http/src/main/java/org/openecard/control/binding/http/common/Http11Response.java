@@ -80,10 +80,12 @@ public class Http11Response extends BasicHttpResponse {
 	    if (entity.getContentEncoding() != null) {
 		out.setHeader(entity.getContentEncoding());
 	    }
-	    if (entity.getContentLength() > 0) {
+	    if (entity.isChunked()) {
+		out.setHeader(HeaderTypes.TRANSFER_ENCODING.fieldName(), "chunked");
+	    } else if (entity.getContentLength() > 0) {
 		out.setHeader(HeaderTypes.CONTENT_LENGTH.fieldName(), Long.toString(entity.getContentLength()));
 	    }
-	    // TODO: use chunked, repeatable and streaming attribute from entity
+	    // TODO: use repeatable and streaming attribute from entity
 	}
 
 	// copy rest
@@ -38,7 +38,8 @@ public enum MimeType {
     IMAGE_JPEG("jpeg", "image/jpeg"),
     IMAGE_GIF("gif", "image/gif"),
 
-    APPLICATION_JS("js", "application/javascript");
+    APPLICATION_JS("js", "application/javascript"),
+    APPLICATION_JSON("json", "application/json");
 
     private String filenameExtension;
     private String mimeType;
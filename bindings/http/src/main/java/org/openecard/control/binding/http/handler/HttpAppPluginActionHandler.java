@@ -30,7 +30,6 @@ import java.nio.charset.UnsupportedCharsetException;
 import java.util.HashMap;
 import java.util.Map;
 import org.openecard.addon.AddonManager;
-import org.openecard.addon.AddonNotFoundException;
 import org.openecard.addon.AddonSelector;
 import org.openecard.addon.bind.AppPluginAction;
 import org.openecard.addon.bind.AuxDataKeys;
@@ -44,11 +43,14 @@ import org.openecard.apache.http.HttpException;
 import org.openecard.apache.http.HttpRequest;
 import org.openecard.apache.http.HttpResponse;
 import org.openecard.apache.http.HttpStatus;
+import org.openecard.apache.http.HttpVersion;
 import org.openecard.apache.http.ParseException;
+import org.openecard.apache.http.entity.AbstractHttpEntity;
+import org.openecard.apache.http.entity.ByteArrayEntity;
 import org.openecard.apache.http.entity.ContentType;
+import org.openecard.apache.http.entity.InputStreamEntity;
 import org.openecard.apache.http.entity.StringEntity;
 import org.openecard.apache.http.protocol.HttpContext;
-import org.openecard.common.util.FileUtils;
 import org.openecard.common.util.HttpRequestLineUtils;
 import org.openecard.control.binding.http.common.DocumentRoot;
 import org.openecard.control.binding.http.common.HeaderTypes;
@@ -69,14 +71,29 @@ public class HttpAppPluginActionHandler extends HttpControlHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(HttpAppPluginActionHandler.class);
 
-    private final AddonManager addonManager;
-    private final AddonSelector selector;
+    private volatile AddonManager addonManager;
+    private volatile AddonSelector selector;
+
+    private final IndexHandler indexHandler = new IndexHandler();
+    private final DefaultHandler defaultHandler = new DefaultHandler();
+    private volatile FileHandler fileHandler;
 
     public HttpAppPluginActionHandler(AddonManager addonManager) {
 	super("*");
 
+	setAddonManager(addonManager);
+    }
+
+    /**
+     * Sets the add-on manager once it is available.
+     * Until the manager is set, all requests are answered with status 503 indicating that the application is still
+     * starting.
+     *
+     * @param addonManager The add-on manager or {@code null} if it is not available yet.
+     */
+    public final void setAddonManager(AddonManager addonManager) {
 	this.addonManager = addonManager;
-	this.selector = new AddonSelector(addonManager);
+	this.selector = addonManager != null ? new AddonSelector(addonManager) : null;
     }
 
     @Override
@@ -89,9 +106,29 @@ public class HttpAppPluginActionHandler extends HttpControlHandler {
 	String path = requestURI.getPath();
 	String resourceName = path.substring(1, path.length()); // remove leading '/'
 
+	AddonSelector selector = this.selector;
+	if (selector == null) {
+	    // the binding is started before the add-ons are loaded, tell the client to come back later
+	    logger.debug("Request received while the application is starting.");
+	    HttpResponse response = new Http11Response(HttpStatus.SC_SERVICE_UNAVAILABLE);
+	    response.setHeader("Retry-After", "1");
+	    response.setEntity(new StringEntity("starting", "UTF-8"));
+	    response.setParams(httpRequest.getParams());
+	    Http11Response.copyHttpResponse(response, httpResponse);
+	    return;
+	}
+
 	// find suitable addon
-	try {
-	    AppPluginAction action = selector.getAppPluginAction(resourceName);
+	AppPluginAction action = selector.lookupAppPluginAction(resourceName);
+	if (action == null) {
+	    if (path.equals("/")) {
+		indexHandler.handle(httpRequest, httpResponse, context);
+	    } else if (path.startsWith("/")) {
+		getFileHandler().handle(httpRequest, httpResponse, context);
+	    } else {
+		defaultHandler.handle(httpRequest, httpResponse, context);
+	    }
+	} else {
 	    HttpResponse response;
 	    if (addonManager == null) {
 		response = new Http11Response(HttpStatus.SC_INTERNAL_SERVER_ERROR);
@@ -109,26 +146,49 @@ public class HttpAppPluginActionHandler extends HttpControlHandler {
 		    body = getRequestBody(httpRequest, resourceName);
 		}
 		BindingResult bindingResult = action.execute(body, queries, null);
-		response = createHTTPResponseFromBindingResult(bindingResult);
+		// HTTP/1.0 clients do not understand chunked bodies, for them the connection end marks the body end
+		boolean chunked = httpRequest.getProtocolVersion().greaterEquals(HttpVersion.HTTP_1_1);
+		response = createHTTPResponseFromBindingResult(bindingResult, chunked);
 	    }
 	    response.setParams(httpRequest.getParams());
 	    logger.debug("HTTP response: {}", response);
 	    Http11Response.copyHttpResponse(response, httpResponse);
-	} catch (AddonNotFoundException ex) {
-	    if (path.equals("/")) {
-		new IndexHandler().handle(httpRequest, httpResponse, context);
-	    } else if (path.startsWith("/")) {
-		new FileHandler(new DocumentRoot("/www", "/www-files")).handle(httpRequest, httpResponse, context);
-	    } else {
-		new DefaultHandler().handle(httpRequest, httpResponse, context);
-	    }
 	}
     }
 
+    /**
+     * Gets the handler for the static files, which is created on first use.
+     * The file listing of the document root is read only once and shared by all requests.
+     *
+     * @return The handler for static files.
+     * @throws IOException Thrown in case the document root could not be read.
+     */
+    private FileHandler getFileHandler() throws IOException {
+	FileHandler h = fileHandler;
+	if (h == null) {
+	    // concurrent requests may load the listing twice, but that is cheaper than synchronizing all requests
+	    h = new FileHandler(new DocumentRoot("/www", "/www-files"));
+	    fileHandler = h;
+	}
+	return h;
+    }
+
 
-    private void addHTTPEntity(HttpResponse response, BindingResult bindingResult) {
+    private void addHTTPEntity(HttpResponse response, BindingResult bindingResult, boolean chunked) {
 	ResponseBody responseBody = bindingResult.getBody();
-	if (responseBody != null && responseBody.hasValue()) {
+	if (responseBody != null && responseBody.hasValue() && responseBody.isBinary()) {
+	    logger.debug("BindingResult contains a binary body.");
+	    ContentType ct = ContentType.create(responseBody.getMimeType(), responseBody.getCharset());
+	    AbstractHttpEntity entity;
+	    if (responseBody.isStreamed()) {
+		// the stream is written to the client as it is read and closed afterwards
+		entity = new InputStreamEntity(responseBody.openStream(), -1, ct);
+		entity.setChunked(chunked);
+	    } else {
+		entity = new ByteArrayEntity(responseBody.getBinaryValue(), ct);
+	    }
+	    response.setEntity(entity);
+	} else if (responseBody != null && responseBody.hasValue()) {
 	    logger.debug("BindingResult contains a body.");
 	    // determine content type
 	    ContentType ct = ContentType.create(responseBody.getMimeType(), Charset.forName("UTF-8"));
@@ -148,7 +208,7 @@ public class HttpAppPluginActionHandler extends HttpControlHandler {
 	}
     }
 
-    private HttpResponse createHTTPResponseFromBindingResult(BindingResult bindingResult) {
+    private HttpResponse createHTTPResponseFromBindingResult(BindingResult bindingResult, boolean chunked) {
 	BindingResultCode resultCode = bindingResult.getResultCode();
 	logger.debug("Recieved BindingResult with ResultCode {}", resultCode);
 	HttpResponse response;
@@ -193,7 +253,7 @@ public class HttpAppPluginActionHandler extends HttpControlHandler {
 		response = new Http11Response(HttpStatus.SC_INTERNAL_SERVER_ERROR);
 	}
 
-	addHTTPEntity(response, bindingResult);
+	addHTTPEntity(response, bindingResult, chunked);
 	return response;
     }
 
@@ -203,14 +263,14 @@ public class HttpAppPluginActionHandler extends HttpControlHandler {
 	    HttpEntity entity = entityRequest.getEntity();
 	    InputStream is = entity.getContent();
 
-	    // TODO: This assumes the content is UTF-8. Evaluate what is actually sent.
-	    String value = FileUtils.toString(is);
-	    String mimeType = ContentType.get(entity).getMimeType();
-	    // TODO: find out if we have a Base64 coded value
-	    boolean base64Content = false;
+	    ContentType ct = ContentType.get(entity);
+	    String mimeType = ct == null ? null : ct.getMimeType();
+	    // the string view of the body assumes UTF-8 unless the client sent a charset
+	    Charset charset = ct == null || ct.getCharset() == null ? Charset.forName("UTF-8") : ct.getCharset();
 
+	    // the entity is read by the action itself, so large bodies are not buffered in the binding
 	    RequestBody body = new RequestBody(resourceName, null);
-	    body.setValue(value, mimeType, base64Content);
+	    body.setStreamValue(is, mimeType, charset);
 	    return body;
 	} catch (UnsupportedCharsetException | ParseException e) {
 	    logger.error("Failed to create request body.", e);
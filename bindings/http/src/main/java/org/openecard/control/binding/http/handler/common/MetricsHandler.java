@@ -0,0 +1,70 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.control.binding.http.handler.common;
+
+import org.openecard.apache.http.HttpRequest;
+import org.openecard.apache.http.HttpResponse;
+import org.openecard.apache.http.HttpStatus;
+import org.openecard.apache.http.entity.ContentType;
+import org.openecard.apache.http.entity.StringEntity;
+import org.openecard.common.metrics.MetricsRegistry;
+import org.openecard.control.binding.http.HTTPException;
+import org.openecard.control.binding.http.common.Http11Method;
+import org.openecard.control.binding.http.common.Http11Response;
+import org.openecard.control.binding.http.common.MimeType;
+import org.openecard.control.binding.http.handler.ControlCommonHandler;
+
+
+/**
+ * Handler returning the counters and latency histograms of the {@link MetricsRegistry} as JSON document.
+ * Only GET requests are answered, the handler does not modify any state.
+ *
+ * @author agent
+ */
+public class MetricsHandler extends ControlCommonHandler {
+
+    public static final String PATH = "/metrics";
+
+    /**
+     * Creates a new metrics handler.
+     */
+    public MetricsHandler() {
+	super(PATH);
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest httpRequest) throws HTTPException, Exception {
+	String method = httpRequest.getRequestLine().getMethod();
+	if (! Http11Method.GET.getMethodString().equals(method)) {
+	    HttpResponse response = new Http11Response(HttpStatus.SC_METHOD_NOT_ALLOWED);
+	    response.setHeader("Allow", Http11Method.GET.getMethodString());
+	    return response;
+	}
+
+	HttpResponse response = new Http11Response(HttpStatus.SC_OK);
+	ContentType ct = ContentType.create(MimeType.APPLICATION_JSON.getMimeType(), "UTF-8");
+	response.setEntity(new StringEntity(MetricsRegistry.getInstance().toJson(), ct));
+	return response;
+    }
+
+}
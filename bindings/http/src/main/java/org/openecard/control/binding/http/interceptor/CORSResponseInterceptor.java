@@ -32,6 +32,7 @@ import org.openecard.apache.http.entity.StringEntity;
 import org.openecard.apache.http.message.BasicHttpRequest;
 import org.openecard.apache.http.protocol.HttpContext;
 import org.openecard.control.binding.http.common.HeaderTypes;
+import org.openecard.control.binding.http.handler.common.MetricsHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,10 +48,13 @@ public class CORSResponseInterceptor implements HttpResponseInterceptor {
 
     @Override
     public void process(HttpResponse httpResponse, HttpContext httpContext) throws HttpException, IOException {
-	// enable CORS for all types of HTTP responses
-	httpResponse.setHeader(HeaderTypes.ACCESS_CONTROL_ALLOW_ORIGIN.fieldName(), "*");
+	BasicHttpRequest httpRequest = (BasicHttpRequest) httpContext.getAttribute("http.request");
+	// enable CORS for all types of HTTP responses, except for the metrics which must not be read by other origins
+	if (! MetricsHandler.PATH.equals(getPath(httpRequest))) {
+	    httpResponse.setHeader(HeaderTypes.ACCESS_CONTROL_ALLOW_ORIGIN.fieldName(), "*");
+	}
 
-	if (((BasicHttpRequest) httpContext.getAttribute("http.request")).getParams().isParameterTrue("disable-CORS-redirect")
+	if (httpRequest.getParams().isParameterTrue("disable-CORS-redirect")
 		&& httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_SEE_OTHER) {
 	    _logger.debug("CORS redirect not supported");
 
@@ -64,4 +68,10 @@ public class CORSResponseInterceptor implements HttpResponseInterceptor {
 	}
     }
 
+    private static String getPath(BasicHttpRequest httpRequest) {
+	String uri = httpRequest.getRequestLine().getUri();
+	int queryIdx = uri.indexOf('?');
+	return queryIdx >= 0 ? uri.substring(0, queryIdx) : uri;
+    }
+
 }
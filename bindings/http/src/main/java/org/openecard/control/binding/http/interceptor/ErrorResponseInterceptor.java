@@ -25,15 +25,20 @@ package org.openecard.control.binding.http.interceptor;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.openecard.apache.http.Header;
 import org.openecard.apache.http.HttpEntity;
 import org.openecard.apache.http.HttpException;
 import org.openecard.apache.http.HttpResponse;
 import org.openecard.apache.http.HttpResponseInterceptor;
 import org.openecard.apache.http.StatusLine;
+import org.openecard.apache.http.entity.ByteArrayEntity;
 import org.openecard.apache.http.entity.ContentType;
-import org.openecard.apache.http.entity.StringEntity;
 import org.openecard.apache.http.protocol.HttpContext;
 import org.openecard.common.I18n;
 import org.openecard.control.binding.http.common.DocumentRoot;
@@ -48,18 +53,25 @@ import org.slf4j.LoggerFactory;
  * An HttpResponseInterceptor implementation for errors.
  * <br/>
  * <br/>
- * The interceptor handles just messages with defined HTTP status codes. If such a message is received than the content
- * will be modified by using a given HTML template.
+ * The interceptor handles just messages with defined HTTP status codes. If such a message is received without content
+ * or with a plain text content, then the content will be replaced by a page rendered from the given HTML template.
+ * Pages for messages without content only depend on the status and are rendered once per locale.
  *
  * @author Moritz Horsch
  * @author Hans-Martin Haase
+ * @author Tobias Wich
  */
 public class ErrorResponseInterceptor implements HttpResponseInterceptor {
 
     private static final Logger _logger = LoggerFactory.getLogger(ErrorResponseInterceptor.class);
     private static I18n lang = I18n.getTranslation("http");
+    private static final int MAX_CACHED_PAGES = 64;
+    private static final String HTML_TYPE = MimeType.TEXT_HTML.getMimeType() + "; charset=utf-8";
+
     private final HTTPTemplate template;
-    private final List<Integer> errorCodes;
+    private final Set<Integer> errorCodes;
+    // rendered pages for responses without a message of their own, keyed by locale, status code and reason
+    private final ConcurrentHashMap<String, byte[]> pageCache;
 
     /**
      * Create a new ErrorInterceptor from the given {@code documentRoot} and the given {@code template}.
@@ -85,7 +97,8 @@ public class ErrorResponseInterceptor implements HttpResponseInterceptor {
      */
     public ErrorResponseInterceptor(DocumentRoot documentRoot, String template, List<Integer> errorCodes) {
 	this.template = new HTTPTemplate(documentRoot, template);
-	this.errorCodes = errorCodes;
+	this.errorCodes = new HashSet<>(errorCodes);
+	this.pageCache = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -95,32 +108,49 @@ public class ErrorResponseInterceptor implements HttpResponseInterceptor {
 
 	if (errorCodes.contains(statusCode)) {
 	    _logger.debug("HTTP response intercepted");
+	    String reason = statusLine.getReasonPhrase();
+	    byte[] page;
 	    Header contentType = httpResponse.getFirstHeader(HeaderTypes.CONTENT_TYPE.fieldName());
-	    if (contentType != null) {
+	    if (contentType == null) {
+		page = getStatusPage(statusCode, reason);
+	    } else if (contentType.getValue().contains(MimeType.TEXT_PLAIN.getMimeType())) {
 		// Intercept response with the content type "text/plain"
-		if (contentType.getValue().contains(MimeType.TEXT_PLAIN.getMimeType())) {
-		    // Remove old headers
-		    httpResponse.removeHeaders(HeaderTypes.CONTENT_TYPE.fieldName());
-		    httpResponse.removeHeaders(HeaderTypes.CONTENT_LENGTH.fieldName());
-
-		    // Read message body
-		    String content = readEntity(httpResponse.getEntity());
-
-		    template.setProperty("%%%MESSAGE%%%", content);
-		}
+		String content = readEntity(httpResponse.getEntity());
+		page = renderPage(reason, content);
 	    } else {
-		template.setProperty("%%%MESSAGE%%%", lang.translationForKey("http." + statusCode));
+		// the response carries a content of its own which is not replaced
+		return;
 	    }
 
-	    template.setProperty("%%%TITLE%%%", "Error");
-	    String reason = statusLine.getReasonPhrase();
-	    template.setProperty("%%%HEADLINE%%%", reason);
+	    // Replace content and its headers
+	    httpResponse.removeHeaders(HeaderTypes.CONTENT_TYPE.fieldName());
+	    httpResponse.removeHeaders(HeaderTypes.CONTENT_LENGTH.fieldName());
+	    httpResponse.removeHeaders(HeaderTypes.TRANSFER_ENCODING.fieldName());
+	    httpResponse.setEntity(new ByteArrayEntity(page, ContentType.create(MimeType.TEXT_HTML.getMimeType(), "UTF-8")));
+	    httpResponse.addHeader(HeaderTypes.CONTENT_TYPE.fieldName(), HTML_TYPE);
+	    httpResponse.addHeader(HeaderTypes.CONTENT_LENGTH.fieldName(), String.valueOf(page.length));
+	}
+    }
 
-	    // Add new content
-	    httpResponse.setEntity(new StringEntity(template.toString(), "UTF-8"));
-	    httpResponse.addHeader(HeaderTypes.CONTENT_TYPE.fieldName(), MimeType.TEXT_HTML.getMimeType() + "; charset=utf-8");
-	    httpResponse.addHeader(HeaderTypes.CONTENT_LENGTH.fieldName(), String.valueOf(template.getBytes().length));
+    private byte[] getStatusPage(int statusCode, String reason) {
+	String key = I18n.getLocale() + "|" + statusCode + "|" + reason;
+	byte[] page = pageCache.get(key);
+	if (page == null) {
+	    page = renderPage(reason, lang.translationForKey("http." + statusCode));
+	    // reason phrases are usually fixed per status code, but better not rely on it
+	    if (pageCache.size() < MAX_CACHED_PAGES) {
+		pageCache.put(key, page);
+	    }
 	}
+	return page;
+    }
+
+    private byte[] renderPage(String headline, String message) {
+	Map<String, String> values = new HashMap<>(4);
+	values.put("%%%TITLE%%%", "Error");
+	values.put("%%%HEADLINE%%%", headline);
+	values.put("%%%MESSAGE%%%", message);
+	return template.render(values);
     }
 
     private String readEntity(HttpEntity httpEntity) throws IOException {
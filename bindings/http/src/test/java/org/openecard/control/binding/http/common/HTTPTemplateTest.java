@@ -0,0 +1,69 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.control.binding.http.common;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test for the rendering of HTML templates.
+ *
+ * @author agent
+ */
+public class HTTPTemplateTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testRender() {
+	HTTPTemplate t = new HTTPTemplate("<title>%%%TITLE%%%</title><h1>%%%HEADLINE%%%</h1><p>%%%MESSAGE%%%</p>");
+	Map<String, String> values = new HashMap<>();
+	values.put("%%%TITLE%%%", "Error");
+	values.put("%%%HEADLINE%%%", "Not Found");
+	values.put("%%%MESSAGE%%%", "Größe");
+	String result = new String(t.render(values), UTF8);
+	assertEquals(result, "<title>Error</title><h1>Not Found</h1><p>Größe</p>");
+
+	// missing values render as empty string
+	values.remove("%%%MESSAGE%%%");
+	result = new String(t.render(values), UTF8);
+	assertEquals(result, "<title>Error</title><h1>Not Found</h1><p></p>");
+    }
+
+    @Test
+    public void testLiterals() {
+	Map<String, String> values = Collections.singletonMap("%%%A%%%", "x");
+	assertEquals(new String(new HTTPTemplate("").render(values), UTF8), "");
+	assertEquals(new String(new HTTPTemplate("%%%A%%%").render(values), UTF8), "x");
+	assertEquals(new String(new HTTPTemplate("%%%A%%%%%%A%%%").render(values), UTF8), "xx");
+	// no valid placeholder names, the text is kept as is
+	assertEquals(new String(new HTTPTemplate("100%%% a %%%A%%%").render(values), UTF8), "100%%% a x");
+	assertEquals(new String(new HTTPTemplate("%%%A").render(values), UTF8), "%%%A");
+    }
+
+}
@@ -45,6 +45,7 @@ import org.openecard.common.interfaces.Dispatcher;
 import org.openecard.common.interfaces.EventCallback;
 import org.openecard.common.sal.state.CardStateMap;
 import org.openecard.common.sal.state.SALStateCallback;
+import org.openecard.crypto.common.sal.CredentialCache;
 import org.openecard.event.EventManager;
 import org.openecard.gui.MessageDialog;
 import org.openecard.gui.UserConsent;
@@ -303,6 +304,7 @@ public class ApplicationContext extends Application implements EventCallback {
 	this.cardStates = new CardStateMap();
 	SALStateCallback salCallback = new SALStateCallback(recognition, cardStates);
 	em.registerAllEvents(salCallback);
+	em.registerAllEvents(CredentialCache.getInstance());
 	em.registerAllEvents(this);
 
 	// SAL
@@ -0,0 +1,83 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.richclient;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.openecard.common.metrics.HistogramSnapshot;
+import org.openecard.common.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * JMX bean exposing the {@link MetricsRegistry} of the application.
+ *
+ * @author agent
+ */
+public final class Metrics implements MetricsMXBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(Metrics.class);
+    private static final String OBJECT_NAME = "org.openecard:type=Metrics";
+
+    private final MetricsRegistry registry;
+
+    private Metrics(MetricsRegistry registry) {
+	this.registry = registry;
+    }
+
+    /**
+     * Registers the metrics bean in the platform MBean server.
+     * Failures are only logged, as the metrics are not essential for the operation of the application.
+     */
+    public static void register() {
+	try {
+	    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+	    ObjectName name = new ObjectName(OBJECT_NAME);
+	    if (! server.isRegistered(name)) {
+		server.registerMBean(new Metrics(MetricsRegistry.getInstance()), name);
+	    }
+	} catch (JMException | SecurityException ex) {
+	    logger.warn("Failed to register metrics in the JMX server.", ex);
+	}
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+	return registry.getCounterValues();
+    }
+
+    @Override
+    public Map<String, HistogramSnapshot> getHistograms() {
+	return registry.getHistogramSnapshots();
+    }
+
+    @Override
+    public String getJson() {
+	return registry.toJson();
+    }
+
+}
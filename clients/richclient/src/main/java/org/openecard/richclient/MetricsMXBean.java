@@ -0,0 +1,58 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.richclient;
+
+import java.util.Map;
+import org.openecard.common.metrics.HistogramSnapshot;
+
+
+/**
+ * Read-only JMX view of the metrics registry.
+ *
+ * @author agent
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Gets the current values of all counters.
+     *
+     * @return Map of counter names to values.
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Gets snapshots of all latency histograms.
+     * The values of the snapshots are given in microseconds.
+     *
+     * @return Map of histogram names to snapshots.
+     */
+    Map<String, HistogramSnapshot> getHistograms();
+
+    /**
+     * Gets all metrics as JSON document, in the same format as the HTTP endpoint of the control interface.
+     *
+     * @return JSON representation of the metrics.
+     */
+    String getJson();
+
+}
@@ -29,6 +29,7 @@ import iso.std.iso_iec._24727.tech.schema.ReleaseContext;
 import iso.std.iso_iec._24727.tech.schema.Terminate;
 import java.io.IOException;
 import java.net.BindException;
+import java.util.concurrent.Callable;
 import javax.swing.JOptionPane;
 import org.openecard.addon.AddonManager;
 import org.openecard.common.ClientEnv;
@@ -38,6 +39,7 @@ import org.openecard.common.WSHelper;
 import org.openecard.common.sal.state.CardStateMap;
 import org.openecard.common.sal.state.SALStateCallback;
 import org.openecard.control.binding.http.HTTPBinding;
+import org.openecard.crypto.common.sal.CredentialCache;
 import org.openecard.event.EventManager;
 import org.openecard.gui.swing.SwingDialogWrapper;
 import org.openecard.gui.swing.SwingUserConsent;
@@ -50,6 +52,8 @@ import org.openecard.richclient.gui.AppTray;
 import org.openecard.richclient.gui.MessageDialog;
 import org.openecard.sal.TinySAL;
 import org.openecard.transport.dispatcher.MessageDispatcher;
+import org.openecard.ws.marshal.WSMarshaller;
+import org.openecard.ws.marshal.WSMarshallerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,6 +76,10 @@ public final class RichClient {
     private ClientEnv env = new ClientEnv();
     // Interface Device Layer (IFD)
     private IFD ifd;
+    // Dispatcher
+    private MessageDispatcher dispatcher;
+    // User consent
+    private SwingUserConsent gui;
     // Service Access Layer (SAL)
     private TinySAL sal;
     // AddonManager
@@ -105,75 +113,146 @@ public final class RichClient {
     public void setup() {
 	GUIDefaults.initialize();
 
-	MessageDialog dialog = new MessageDialog();
+	final MessageDialog dialog = new MessageDialog();
 	dialog.setHeadline(lang.translationForKey("client.startup.failed.headline"));
 
 	try {
-	    tray = new AppTray(this);
-	    tray.beginSetup();
+	    // make the metrics available to JMX clients
+	    Metrics.register();
 
 	    // Set up client environment
 	    env = new ClientEnv();
 
+	    // the components are started as soon as the components they depend on are available
+	    StartupOrchestrator startup = new StartupOrchestrator();
+	    startup.add("tray", new Callable<Void>() {
+		@Override
+		public Void call() {
+		    tray = new AppTray(RichClient.this);
+		    tray.beginSetup();
+		    return null;
+		}
+	    });
+	    // Start up control interface, requests are answered with a starting status until the add-ons are loaded
+	    startup.add("binding", new Callable<Void>() {
+		@Override
+		public Void call() throws Exception {
+		    try {
+			binding = new HTTPBinding(HTTPBinding.DEFAULT_PORT);
+			binding.start();
+		    } catch (BindException e) {
+			dialog.setMessage(lang.translationForKey("client.startup.failed.portinuse"));
+			throw e;
+		    }
+		    return null;
+		}
+	    });
+	    // load the JAXB context while the other components are started
+	    startup.add("marshaller", new Callable<Void>() {
+		@Override
+		public Void call() throws Exception {
+		    WSMarshaller m = WSMarshallerFactory.createInstance();
+		    m.marshal(new EstablishContext());
+		    return null;
+		}
+	    });
+	    startup.add("gui", new Callable<Void>() {
+		@Override
+		public Void call() {
+		    gui = new SwingUserConsent(new SwingDialogWrapper());
+		    return null;
+		}
+	    });
 	    // Set up Management
-	    TinyManagement management = new TinyManagement(env);
-	    env.setManagement(management);
-
-	    // Set up the IFD
-	    ifd = new IFD();
-	    ifd.addProtocol(ECardConstants.Protocol.PACE, new PACEProtocolFactory());
-	    env.setIFD(ifd);
-
+	    startup.add("management", new Callable<Void>() {
+		@Override
+		public Void call() {
+		    TinyManagement management = new TinyManagement(env);
+		    env.setManagement(management);
+		    return null;
+		}
+	    });
 	    // Set up the Dispatcher
-	    MessageDispatcher dispatcher = new MessageDispatcher(env);
-	    env.setDispatcher(dispatcher);
-	    ifd.setDispatcher(dispatcher);
-
-	    // Perform an EstablishContext to get a ContextHandle
-	    EstablishContext establishContext = new EstablishContext();
-	    EstablishContextResponse establishContextResponse = ifd.establishContext(establishContext);
-	    WSHelper.checkResult(establishContextResponse);
-	    contextHandle = establishContextResponse.getContextHandle();
-
+	    startup.add("dispatcher", new Callable<Void>() {
+		@Override
+		public Void call() {
+		    dispatcher = new MessageDispatcher(env);
+		    env.setDispatcher(dispatcher);
+		    return null;
+		}
+	    });
+	    // Set up the IFD
+	    startup.add("ifd", new Callable<Void>() {
+		@Override
+		public Void call() throws Exception {
+		    ifd = new IFD();
+		    ifd.addProtocol(ECardConstants.Protocol.PACE, new PACEProtocolFactory());
+		    env.setIFD(ifd);
+		    ifd.setDispatcher(dispatcher);
+
+		    // Perform an EstablishContext to get a ContextHandle
+		    EstablishContext establishContext = new EstablishContext();
+		    EstablishContextResponse establishContextResponse = ifd.establishContext(establishContext);
+		    WSHelper.checkResult(establishContextResponse);
+		    contextHandle = establishContextResponse.getContextHandle();
+		    return null;
+		}
+	    }, "dispatcher");
 	    // Set up CardRecognition
-	    recognition = new CardRecognition(ifd, contextHandle);
-
-	    // Set up EventManager
-	    em = new EventManager(recognition, env, contextHandle);
-	    env.setEventManager(em);
-
-	    // Set up SALStateCallback
-	    cardStates = new CardStateMap();
-	    SALStateCallback salCallback = new SALStateCallback(recognition, cardStates);
-	    em.registerAllEvents(salCallback);
-
+	    startup.add("recognition", new Callable<Void>() {
+		@Override
+		public Void call() throws Exception {
+		    recognition = new CardRecognition(ifd, contextHandle);
+		    ifd.setGUI(gui);
+		    recognition.setGUI(gui);
+		    return null;
+		}
+	    }, "ifd", "gui");
+	    // Set up EventManager and SALStateCallback
+	    startup.add("events", new Callable<Void>() {
+		@Override
+		public Void call() {
+		    em = new EventManager(recognition, env, contextHandle);
+		    env.setEventManager(em);
+
+		    cardStates = new CardStateMap();
+		    SALStateCallback salCallback = new SALStateCallback(recognition, cardStates);
+		    em.registerAllEvents(salCallback);
+		    // drop cached credential metadata of removed cards
+		    em.registerAllEvents(CredentialCache.getInstance());
+		    return null;
+		}
+	    }, "recognition");
 	    // Set up SAL
-	    sal = new TinySAL(env, cardStates);
-	    env.setSAL(sal);
-
-	    // Set up GUI
-	    SwingUserConsent gui = new SwingUserConsent(new SwingDialogWrapper());
-	    sal.setGUI(gui);
-	    ifd.setGUI(gui);
-	    recognition.setGUI(gui);
-
-	    // Start up control interface
-	    try {
-		binding = new HTTPBinding(HTTPBinding.DEFAULT_PORT);
-		manager = new AddonManager(dispatcher, gui, cardStates, recognition, em);
-		sal.setAddonManager(manager);
-		binding.setAddonManager(manager);
-		binding.start();
-	    } catch (BindException e) {
-		dialog.setMessage(lang.translationForKey("client.startup.failed.portinuse"));
-		throw e;
-	    }
-
-	    tray.endSetup(recognition, manager);
-
+	    startup.add("sal", new Callable<Void>() {
+		@Override
+		public Void call() {
+		    sal = new TinySAL(env, cardStates);
+		    env.setSAL(sal);
+		    sal.setGUI(gui);
+		    return null;
+		}
+	    }, "events", "management");
+	    startup.add("addons", new Callable<Void>() {
+		@Override
+		public Void call() throws Exception {
+		    manager = new AddonManager(dispatcher, gui, cardStates, recognition, em);
+		    sal.setAddonManager(manager);
+		    binding.setAddonManager(manager);
+		    return null;
+		}
+	    }, "sal", "binding");
 	    // Initialize the EventManager
-	    em.registerAllEvents(tray.status());
-	    em.initialize();
+	    startup.add("tray-status", new Callable<Void>() {
+		@Override
+		public Void call() {
+		    tray.endSetup(recognition, manager);
+		    em.registerAllEvents(tray.status());
+		    em.initialize();
+		    return null;
+		}
+	    }, "tray", "addons");
+	    startup.run();
 
 	} catch (Exception e) {
 	    _logger.error(e.getMessage(), e);
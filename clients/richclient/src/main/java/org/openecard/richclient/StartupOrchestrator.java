@@ -0,0 +1,205 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.richclient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nonnull;
+import org.openecard.common.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Runs the initializers of the client components according to their declared dependencies.
+ * A component is started as soon as all components it depends on are finished, so that independent components are
+ * initialized in parallel. The time needed by each component is logged and recorded in the {@link MetricsRegistry}.
+ * <p>The orchestrator is meant to be used once. Components are added with {@link #add(String, Callable, String...)}
+ * and started with {@link #run()}, which returns when all components are finished or the first one failed.</p>
+ *
+ * @author agent
+ */
+final class StartupOrchestrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupOrchestrator.class);
+
+    private final Map<String, Component> components = new LinkedHashMap<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private ExecutorService executor;
+    private CountDownLatch finished;
+
+    /**
+     * Adds a component to the orchestrator.
+     * Dependencies must be added before the components depending on them, which rules out cycles.
+     *
+     * @param name Unique name of the component.
+     * @param initializer Initializer of the component.
+     * @param dependencies Names of the components which must be finished before this component is started.
+     * @throws IllegalArgumentException Thrown in case the name is already used or a dependency is unknown.
+     */
+    void add(@Nonnull String name, @Nonnull Callable<Void> initializer, String... dependencies) {
+	if (components.containsKey(name)) {
+	    throw new IllegalArgumentException("Startup component " + name + " is already defined.");
+	}
+	Component c = new Component(name, initializer, dependencies.length);
+	for (String dep : dependencies) {
+	    Component depComp = components.get(dep);
+	    if (depComp == null) {
+		String msg = String.format("Startup component %s depends on the undefined component %s.", name, dep);
+		throw new IllegalArgumentException(msg);
+	    }
+	    depComp.dependents.add(c);
+	}
+	components.put(name, c);
+	logger.debug("Added startup component {} with dependencies {}.", name, Arrays.toString(dependencies));
+    }
+
+    /**
+     * Runs all components and waits until they are finished.
+     * When a component fails, no further components are started and the exception of the failed component is
+     * thrown after the already running components are finished.
+     *
+     * @throws Exception The exception thrown by the first failing component. Errors are rethrown as is.
+     * @throws InterruptedException Thrown in case the thread is interrupted while waiting for the components.
+     */
+    void run() throws Exception {
+	long start = System.nanoTime();
+	executor = Executors.newCachedThreadPool(new ThreadFactory() {
+	    private final AtomicInteger num = new AtomicInteger(1);
+	    @Override
+	    public Thread newThread(Runnable r) {
+		Thread t = new Thread(r, "Startup-" + num.getAndIncrement());
+		t.setDaemon(true);
+		return t;
+	    }
+	});
+	finished = new CountDownLatch(components.size());
+
+	try {
+	    List<Component> roots = new ArrayList<>();
+	    for (Component c : components.values()) {
+		if (c.pendingDependencies.get() == 0) {
+		    roots.add(c);
+		}
+	    }
+	    for (Component c : roots) {
+		executor.execute(c);
+	    }
+
+	    finished.await();
+	} finally {
+	    executor.shutdown();
+	    executor.awaitTermination(1, TimeUnit.MINUTES);
+	}
+
+	Throwable ex = failure.get();
+	if (ex instanceof Error) {
+	    throw (Error) ex;
+	} else if (ex != null) {
+	    throw (Exception) ex;
+	}
+	long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	logger.info("Started all components in {} ms.", duration);
+    }
+
+    private void finish(Component c) {
+	// schedule the dependents before counting down, so that run() can not shut down the executor in between
+	for (Component dependent : c.dependents) {
+	    if (dependent.pendingDependencies.decrementAndGet() == 0 && ! dependent.done.get()) {
+		executor.execute(dependent);
+	    }
+	}
+	finished.countDown();
+    }
+
+    private void abort(Component c, Throwable ex) {
+	failure.compareAndSet(null, ex);
+	// count down the component and everything depending on it, as they will never run
+	skip(c);
+    }
+
+    private void skip(Component c) {
+	if (c.done.compareAndSet(false, true)) {
+	    finished.countDown();
+	    for (Component dependent : c.dependents) {
+		skip(dependent);
+	    }
+	}
+    }
+
+
+    private final class Component implements Runnable {
+
+	private final String name;
+	private final Callable<Void> initializer;
+	private final AtomicInteger pendingDependencies;
+	private final List<Component> dependents;
+	private final AtomicBoolean done;
+
+	Component(String name, Callable<Void> initializer, int numDependencies) {
+	    this.name = name;
+	    this.initializer = initializer;
+	    this.pendingDependencies = new AtomicInteger(numDependencies);
+	    this.dependents = new ArrayList<>();
+	    this.done = new AtomicBoolean(false);
+	}
+
+	@Override
+	public void run() {
+	    if (failure.get() != null) {
+		skip(this);
+		return;
+	    }
+
+	    long start = System.nanoTime();
+	    try {
+		initializer.call();
+	    } catch (Exception | Error ex) {
+		logger.error("Failed to start component {}.", name);
+		abort(this, ex);
+		return;
+	    }
+	    long duration = System.nanoTime() - start;
+	    MetricsRegistry.getInstance().getHistogram("startup." + name).recordNanos(duration);
+	    logger.info("Started component {} in {} ms.", name, TimeUnit.NANOSECONDS.toMillis(duration));
+
+	    if (done.compareAndSet(false, true)) {
+		finish(this);
+	    }
+	}
+
+    }
+
+}
@@ -0,0 +1,125 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.richclient;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test of the dependency handling of the startup orchestrator.
+ *
+ * @author agent
+ */
+public class StartupOrchestratorTest {
+
+    @Test(timeOut = 10000)
+    public void testOrderAndParallelism() throws Exception {
+	final List<String> order = new CopyOnWriteArrayList<>();
+	// a and b can only finish if they run in parallel
+	final CountDownLatch bothRunning = new CountDownLatch(2);
+
+	StartupOrchestrator o = new StartupOrchestrator();
+	o.add("a", new Rendezvous("a", order, bothRunning));
+	o.add("b", new Rendezvous("b", order, bothRunning));
+	o.add("c", new Recorder("c", order), "a", "b");
+	o.add("d", new Recorder("d", order), "c");
+	o.run();
+
+	assertEquals(order.size(), 4);
+	assertEquals(order.subList(2, 4), Arrays.asList("c", "d"));
+    }
+
+    @Test(timeOut = 10000)
+    public void testFailure() throws Exception {
+	List<String> order = new CopyOnWriteArrayList<>();
+	StartupOrchestrator o = new StartupOrchestrator();
+	o.add("a", new Callable<Void>() {
+	    @Override
+	    public Void call() throws Exception {
+		throw new IOException("a failed");
+	    }
+	});
+	o.add("b", new Recorder("b", order));
+	o.add("c", new Recorder("c", order), "a", "b");
+	try {
+	    o.run();
+	    fail("Exception of component a expected.");
+	} catch (IOException ex) {
+	    assertEquals(ex.getMessage(), "a failed");
+	}
+	assertFalse(order.contains("c"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+	StartupOrchestrator o = new StartupOrchestrator();
+	o.add("a", new Recorder("a", Collections.<String>emptyList()), "b");
+    }
+
+
+    private static class Recorder implements Callable<Void> {
+
+	private final String name;
+	private final List<String> order;
+
+	Recorder(String name, List<String> order) {
+	    this.name = name;
+	    this.order = order;
+	}
+
+	@Override
+	public Void call() throws Exception {
+	    order.add(name);
+	    return null;
+	}
+
+    }
+
+    private static class Rendezvous extends Recorder {
+
+	private final CountDownLatch latch;
+
+	Rendezvous(String name, List<String> order, CountDownLatch latch) {
+	    super(name, order);
+	    this.latch = latch;
+	}
+
+	@Override
+	public Void call() throws Exception {
+	    latch.countDown();
+	    assertTrue(latch.await(5, TimeUnit.SECONDS), "Components did not run in parallel.");
+	    return super.call();
+	}
+
+    }
+
+}
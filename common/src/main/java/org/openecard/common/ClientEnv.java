@@ -24,6 +24,7 @@ package org.openecard.common;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentSkipListMap;
+import org.openecard.common.interfaces.ApplicationResolver;
 import org.openecard.common.interfaces.Dispatchable;
 import org.openecard.common.interfaces.Dispatcher;
 import org.openecard.common.interfaces.Environment;
@@ -83,6 +84,20 @@ public class ClientEnv implements Environment {
 	return sal;
     }
 
+    /**
+     * Gets the application resolver extension of the SAL.
+     *
+     * @return The SAL if it implements the extension, {@code null} otherwise.
+     */
+    @Dispatchable(interfaceClass = ApplicationResolver.class)
+    public ApplicationResolver getApplicationResolver() {
+	SAL s = sal;
+	if (s instanceof ApplicationResolver) {
+	    return (ApplicationResolver) s;
+	}
+	return null;
+    }
+
     @Override
     public void setDispatcher(Dispatcher dispatcher) {
 	this.dispatcher = dispatcher;
@@ -24,67 +24,93 @@ package org.openecard.common;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.openecard.common.util.FuturePromise;
 import org.openecard.common.util.Promise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
- * Thread local dynamic context implemented as a singleton.
+ * Session context which is explicitly bound to the threads working on the session.
  * Dynamic context information is needed at various places in the app. Perhaps the most important use case is the
  * eService certificate validation as defined in TR-03112-7.<br/>
+ * Each thread holds its own unsynchronized binding table which maps a key to the session instance. A session is
+ * started with {@link #open(String)}. Threads spawned on behalf of a session do not inherit this table, instead the
+ * task must be wrapped with {@link #wrap(Runnable)} or {@link #wrap(Callable)} which carries the bindings of the
+ * spawning thread over to the executing thread. For compatibility with code which does not open its sessions yet,
+ * looking up a session in a thread it is not bound to still creates a new session, but a warning is logged, so that a
+ * missing {@code open} or {@code wrap} can be found. The values of a session are kept in a lock free promise table, so
+ * that values can be handed over between the threads of the session. At the end of the protocol the session must be
+ * released with {@link #dispose()}.<br/>
  * The underlying datastructure does permit {@code null} values to be saved.
  *
  * @author Tobias Wich
  */
 public class DynamicContext {
 
-    private static final InheritableThreadLocal<Map<String, DynamicContext>> localMap;
+    private static final Logger logger = LoggerFactory.getLogger(DynamicContext.class);
 
-    private final Map<String, Promise<Object>> context;
+    private static final ThreadLocal<Map<String, DynamicContext>> localMap;
+
+    private final ConcurrentMap<String, Promise<Object>> context;
+    private volatile boolean disposed;
 
 
     static {
-	localMap = new InheritableThreadLocal<Map<String, DynamicContext>>() {
+	localMap = new ThreadLocal<Map<String, DynamicContext>>() {
 	    @Override
 	    protected Map<String, DynamicContext> initialValue() {
-		return new ConcurrentSkipListMap<>();
-	    }
-	    @Override
-	    protected Map<String, DynamicContext> childValue(Map<String, DynamicContext> parentValue) {
-		return parentValue;
+		return new HashMap<>();
 	    }
 	};
     }
 
     /**
-     * Gets the thread local instance of the context.
-     * If no instance exists yet, a new one is created possibly based on the one from the parent thread.
+     * Starts a new session and binds it to the current thread.
+     * A session previously bound to this thread under the same key is replaced, but not disposed.
+     *
+     * @param key Lookup key for the desired variable.
+     * @return The new DynamicContext instance of this thread.
+     */
+    @Nonnull
+    public static DynamicContext open(@Nonnull String key) {
+	DynamicContext inst = new DynamicContext();
+	localMap.get().put(key, inst);
+	return inst;
+    }
+
+    /**
+     * Gets the instance of the context bound to the current thread.
+     * If no session is bound to this thread, or the bound session is already disposed, a new session is opened. As this
+     * usually means that the thread has been spawned without {@link #wrap(Runnable)}, a warning is logged.
      *
      * @param key Lookup key for the desired variable.
      * @return The DynamicContext instance of this thread.
      */
     @Nonnull
     public static DynamicContext getInstance(@Nonnull String key) {
-	final Map<String, DynamicContext> local = localMap.get();
-	synchronized (local) {
-	    DynamicContext inst;
-	    if (local.containsKey(key)) {
-		inst = local.get(key);
-	    } else {
-		inst = new DynamicContext();
-		local.put(key, inst);
-	    }
-	    return inst;
+	DynamicContext inst = localMap.get().get(key);
+	if (inst == null) {
+	    logger.warn("No session '{}' is bound to thread '{}', opening a new one.", key,
+		    Thread.currentThread().getName());
+	    inst = open(key);
+	} else if (inst.disposed) {
+	    logger.warn("The session '{}' bound to thread '{}' is already disposed, opening a new one.", key,
+		    Thread.currentThread().getName());
+	    inst = open(key);
 	}
+	return inst;
     }
 
     /**
-     * Removes the value from this thread.
-     * This does not clear the values saved in the context, but makes the context inaccessible for further invocations
-     * of the {@link #getInstance()} method.
+     * Removes all bindings from this thread.
+     * This does not clear the values saved in the contexts, but makes the contexts inaccessible for further invocations
+     * of the {@link #getInstance(java.lang.String)} method in this thread.
      *
      * @see ThreadLocal#remove()
      */
@@ -92,9 +118,63 @@ public class DynamicContext {
 	localMap.remove();
     }
 
+    /**
+     * Wraps the given task, so that it executes with the contexts bound to the current thread.
+     * The bindings are captured when this method is called. After the task has finished, the bindings which were
+     * present in the executing thread before are restored.
+     *
+     * @param task The task which should run in the sessions of the current thread.
+     * @return The wrapped task.
+     */
+    @Nonnull
+    public static Runnable wrap(@Nonnull final Runnable task) {
+	final Map<String, DynamicContext> captured = new HashMap<>(localMap.get());
+	return new Runnable() {
+	    @Override
+	    public void run() {
+		Map<String, DynamicContext> previous = bind(captured);
+		try {
+		    task.run();
+		} finally {
+		    localMap.set(previous);
+		}
+	    }
+	};
+    }
+
+    /**
+     * Wraps the given task, so that it executes with the contexts bound to the current thread.
+     *
+     * @see #wrap(java.lang.Runnable)
+     * @param <T> Type of the task's result.
+     * @param task The task which should run in the sessions of the current thread.
+     * @return The wrapped task.
+     */
+    @Nonnull
+    public static <T> Callable<T> wrap(@Nonnull final Callable<T> task) {
+	final Map<String, DynamicContext> captured = new HashMap<>(localMap.get());
+	return new Callable<T>() {
+	    @Override
+	    public T call() throws Exception {
+		Map<String, DynamicContext> previous = bind(captured);
+		try {
+		    return task.call();
+		} finally {
+		    localMap.set(previous);
+		}
+	    }
+	};
+    }
+
+    private static Map<String, DynamicContext> bind(Map<String, DynamicContext> captured) {
+	Map<String, DynamicContext> previous = localMap.get();
+	localMap.set(new HashMap<>(captured));
+	return previous;
+    }
+
 
     private DynamicContext() {
-	this.context = new HashMap<>();
+	this.context = new ConcurrentHashMap<>();
     }
 
 
@@ -106,34 +186,38 @@ public class DynamicContext {
      * @param key Key for which the promise should be retrieved.
      * @return Promise for the given key.
      */
-    public synchronized @Nonnull Promise<Object> getPromise(@Nonnull String key) {
+    public @Nonnull Promise<Object> getPromise(@Nonnull String key) {
 	Promise<Object> p = context.get(key);
-	if (p != null) {
-	    return p;
-	} else {
-	    p = new Promise<>();
-	    context.put(key, p);
-	    return p;
+	if (p == null) {
+	    Promise<Object> newPromise = new Promise<>();
+	    p = context.putIfAbsent(key, newPromise);
+	    if (p == null) {
+		p = newPromise;
+	    }
 	}
+	return p;
     }
 
     /**
      * Gets the value saved for the given key.
-     * The method does not block and returns null if no value is in the promise represented by thos key
+     * The method does not block and returns null if no value is in the promise represented by this key.
      *
      * @see Map#get(java.lang.Object)
      * @param key Key for which the value should be retrieved.
      * @return The value for the given key, or {@code null} if no value is defined yet or {@code null} is mapped.
      */
     public @Nullable Object get(@Nonnull String key) {
-	Promise<Object> p = getPromise(key);
-	return p.derefNonblocking();
+	Promise<Object> p = context.get(key);
+	if (p != null) {
+	    return p.derefNonblocking();
+	}
+	return null;
     }
 
     /**
      * Saves the given value for the given key.
      * This method writes the value into the promise of the given key, or in case the promise already has a value,
-     * overwrites the promise and sets the value in the new instance. By doing that, the function mimics the exact
+     * replaces the promise with a new instance containing the value. By doing that, the function mimics the exact
      * behaviour of the Map class.
      *
      * @see Map#put(java.lang.Object, java.lang.Object)
@@ -142,13 +226,19 @@ public class DynamicContext {
      * @return The previous value for key or {@code null} if there was no previous mapping or {@code null} was mapped.
      */
     @Nullable
-    public synchronized Object put(@Nonnull String key, @Nullable Object value) {
+    public Object put(@Nonnull String key, @Nullable Object value) {
 	Promise<Object> p = getPromise(key);
-	if (p.isDelivered()) {
-	    remove(key);
-	    p = getPromise(key);
+	if (! p.isDelivered()) {
+	    try {
+		p.deliver(value);
+		return value;
+	    } catch (IllegalStateException ex) {
+		// another thread delivered in the meantime, replace its value as a map would do
+	    }
 	}
-	p.deliver(value);
+	Promise<Object> newPromise = new Promise<>();
+	newPromise.deliver(value);
+	context.put(key, newPromise);
 	return value;
     }
 
@@ -161,11 +251,9 @@ public class DynamicContext {
      * @param key Key for which the value should be saved.
      * @param p Promise yielding the value which should be saved for the given key.
      */
-    public synchronized void putPromise(@Nonnull String key, @Nonnull Promise p) {
-	if (context.get(key) != null) {
+    public void putPromise(@Nonnull String key, @Nonnull Promise p) {
+	if (context.putIfAbsent(key, p) != null) {
 	    throw new IllegalStateException("Promise already exists and can therefore not be delivered anymore.");
-	} else {
-	    context.put(key, p);
 	}
     }
 
@@ -194,4 +282,23 @@ public class DynamicContext {
 	context.clear();
     }
 
+    /**
+     * Ends the session represented by this context.
+     * All mappings are removed and threads still bound to this instance fail the next time they call
+     * {@link #getInstance(java.lang.String)}. Calling this method more than once has no effect.
+     */
+    public void dispose() {
+	disposed = true;
+	context.clear();
+    }
+
+    /**
+     * Checks whether this context has been disposed.
+     *
+     * @return {@code true} if {@link #dispose()} has been called, {@code false} otherwise.
+     */
+    public boolean isDisposed() {
+	return disposed;
+    }
+
 }
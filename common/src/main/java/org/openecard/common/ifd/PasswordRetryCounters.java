@@ -0,0 +1,241 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.ifd;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Retry counters of the passwords of a card as far as they can be derived from the status words returned by the card.
+ * The model is updated passively with every command and response exchanged with the card, so that the state of a
+ * password can be queried without sending a probe command to the card. The commands VERIFY, MSE:Set AT,
+ * GENERAL AUTHENTICATE and RESET RETRY COUNTER are evaluated, all others are ignored. Passwords for which none of these
+ * commands has been observed have an unknown state.
+ *
+ * @author agent
+ */
+public class PasswordRetryCounters {
+
+    /**
+     * Value of the retry counter when the password has been used successfully, so the counter has its initial value.
+     */
+    public static final int NOT_REDUCED = -1;
+
+    private static final byte INS_VERIFY = (byte) 0x20;
+    private static final byte INS_MSE = (byte) 0x22;
+    private static final byte INS_RESET_RETRY_COUNTER = (byte) 0x2C;
+    private static final byte INS_GENERAL_AUTHENTICATE = (byte) 0x86;
+    private static final byte MSE_AT = (byte) 0xA4;
+    private static final byte CLA_CHAINING = (byte) 0x10;
+    private static final byte TAG_PASSWORD_REF = (byte) 0x83;
+
+    private final Map<Byte, Status> states = new HashMap<>();
+    // password used in the running PACE or similar protocol, as set by the last MSE:Set AT
+    private Byte pendingReference;
+
+    /**
+     * Gets the known state of the given password.
+     *
+     * @param passwordReference Reference of the password, e.g. 3 for the PIN of the German eID card.
+     * @return The state, or {@code null} if it is unknown.
+     */
+    @Nullable
+    public synchronized Status getStatus(byte passwordReference) {
+	return states.get(passwordReference);
+    }
+
+    /**
+     * Sets the state of a password, e.g. after it has been learned by other means than the commands sent to the card.
+     *
+     * @param passwordReference Reference of the password.
+     * @param status The new state or {@code null} if it is unknown.
+     */
+    public synchronized void setStatus(byte passwordReference, @Nullable Status status) {
+	if (status == null) {
+	    states.remove(passwordReference);
+	} else {
+	    states.put(passwordReference, status);
+	}
+    }
+
+    /**
+     * Sets the state of a password from the status word of a command using the password.
+     * This is needed when the command has not been exchanged through this instance, e.g. because a reader performed
+     * the protocol itself. Status words not telling anything about the retry counter make the state unknown.
+     *
+     * @param passwordReference Reference of the password.
+     * @param sw Status word returned by the card.
+     */
+    public synchronized void setStatusWord(byte passwordReference, int sw) {
+	if (! evaluate(passwordReference, sw)) {
+	    states.remove(passwordReference);
+	}
+    }
+
+    /**
+     * Forgets the state of all passwords.
+     */
+    public synchronized void clear() {
+	states.clear();
+	pendingReference = null;
+    }
+
+    /**
+     * Updates the model with a command exchanged with the card.
+     * Both command and response must be given in plain form, that is without secure messaging.
+     *
+     * @param command The command APDU sent to the card.
+     * @param response The response APDU received from the card.
+     */
+    public synchronized void update(@Nonnull byte[] command, @Nonnull byte[] response) {
+	if (command.length < 4 || response.length < 2) {
+	    return;
+	}
+	byte ins = command[1];
+	int sw = ((response[response.length - 2] & 0xFF) << 8) | (response[response.length - 1] & 0xFF);
+
+	switch (ins) {
+	    case INS_VERIFY:
+		// the reference is in P2
+		evaluate(command[3], sw);
+		break;
+	    case INS_MSE:
+		if (command[3] == MSE_AT && (command[2] & 0x0F) == 0x01) {
+		    Byte ref = findPasswordReference(command);
+		    pendingReference = ref;
+		    if (ref != null) {
+			evaluate(ref, sw);
+		    }
+		}
+		break;
+	    case INS_GENERAL_AUTHENTICATE:
+		// only the last command of the chain tells whether the password was correct
+		if (pendingReference != null && (command[0] & CLA_CHAINING) == 0) {
+		    if (sw == 0x6300) {
+			// authentication failed, but the card does not tell how many tries are left
+			states.remove(pendingReference);
+		    } else {
+			evaluate(pendingReference, sw);
+		    }
+		    pendingReference = null;
+		}
+		break;
+	    case INS_RESET_RETRY_COUNTER:
+		// error codes refer to the resetting code, not the reset password
+		if (sw == 0x9000) {
+		    states.put(command[3], new Status(NOT_REDUCED, false));
+		}
+		break;
+	    default:
+		// no information about passwords
+	}
+    }
+
+    private boolean evaluate(byte ref, int sw) {
+	if (sw == 0x9000) {
+	    states.put(ref, new Status(NOT_REDUCED, false));
+	} else if ((sw & 0xFFF0) == 0x63C0) {
+	    states.put(ref, new Status(sw & 0x000F, false));
+	} else if (sw == 0x6983) {
+	    states.put(ref, new Status(0, false));
+	} else if (sw == 0x6283) {
+	    states.put(ref, new Status(NOT_REDUCED, true));
+	} else {
+	    return false;
+	}
+	return true;
+    }
+
+    @Nullable
+    private static Byte findPasswordReference(byte[] command) {
+	// only short APDUs are used for MSE:Set AT, the data consists of simple one byte length TLVs
+	if (command.length < 6) {
+	    return null;
+	}
+	int end = Math.min(5 + (command[4] & 0xFF), command.length);
+	int i = 5;
+	while (i + 1 < end) {
+	    byte tag = command[i];
+	    int len = command[i + 1] & 0xFF;
+	    if (tag == TAG_PASSWORD_REF && len == 1 && i + 2 < end) {
+		return command[i + 2];
+	    }
+	    i += 2 + len;
+	}
+	return null;
+    }
+
+
+    /**
+     * State of a single password.
+     */
+    public static class Status {
+
+	private final int retryCounter;
+	private final boolean deactivated;
+
+	/**
+	 * Creates a state instance.
+	 *
+	 * @param retryCounter Number of remaining tries, or {@link #NOT_REDUCED} if the counter has its initial value.
+	 * @param deactivated {@code true} if the password is deactivated, {@code false} otherwise.
+	 */
+	public Status(int retryCounter, boolean deactivated) {
+	    this.retryCounter = retryCounter;
+	    this.deactivated = deactivated;
+	}
+
+	/**
+	 * Gets the number of remaining tries.
+	 *
+	 * @return The number of tries, or {@link #NOT_REDUCED} if the counter has its initial value.
+	 */
+	public int getRetryCounter() {
+	    return retryCounter;
+	}
+
+	public boolean isBlocked() {
+	    return retryCounter == 0;
+	}
+
+	public boolean isDeactivated() {
+	    return deactivated;
+	}
+
+	@Override
+	public String toString() {
+	    if (deactivated) {
+		return "deactivated";
+	    } else if (retryCounter == NOT_REDUCED) {
+		return "not reduced";
+	    } else {
+		return retryCounter + " tries left";
+	    }
+	}
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.ifd;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Interface for IFD implementations tracking the password retry counters of the connected cards.
+ *
+ * @author agent
+ */
+public interface RetryCounterSource {
+
+    /**
+     * Gets the retry counter model of the card connected through the given slot handle.
+     * The model is shared by all slot handles referring to the same card and is updated with every command sent to the
+     * card.
+     *
+     * @param slotHandle Slot handle of a connected card.
+     * @return The model, or {@code null} if the slot handle is unknown or the IFD does not track the counters.
+     */
+    @Nullable
+    PasswordRetryCounters getRetryCounters(@Nonnull byte[] slotHandle);
+
+}
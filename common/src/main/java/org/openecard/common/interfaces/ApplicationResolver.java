@@ -0,0 +1,50 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.interfaces;
+
+import javax.jws.WebMethod;
+import org.openecard.common.sal.ResolveApplication;
+import org.openecard.common.sal.ResolveApplicationResponse;
+
+
+/**
+ * SAL extension resolving the card application which contains a given DataSet or DID.
+ * A SAL implementing this interface answers the lookup from the CardInfo of the card, instead of the caller having to
+ * list the DataSets or DIDs of every card application one message at a time. The message can be delivered through the
+ * {@link Dispatcher} like any other SAL message.
+ *
+ * @author agent
+ */
+public interface ApplicationResolver {
+
+    /**
+     * Finds the card application containing the requested DataSet or DID and optionally connects to it.
+     *
+     * @param request Request containing the connection handle of the card and the name of the target.
+     * @return Response containing the identifier of the card application and the new connection handle in case a
+     *   connect has been requested.
+     */
+    @WebMethod(action = "urn:openecard:ResolveApplication")
+    ResolveApplicationResponse resolveApplication(ResolveApplication request);
+
+}
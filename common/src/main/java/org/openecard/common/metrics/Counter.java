@@ -0,0 +1,65 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Monotonic counter of the metrics registry.
+ *
+ * @author agent
+ */
+public final class Counter {
+
+    private final AtomicLong value = new AtomicLong();
+
+    Counter() {
+    }
+
+    /**
+     * Increments the counter by one.
+     */
+    public void inc() {
+	value.incrementAndGet();
+    }
+
+    /**
+     * Increments the counter by the given amount.
+     *
+     * @param amount Amount to add to the counter.
+     */
+    public void add(long amount) {
+	value.addAndGet(amount);
+    }
+
+    /**
+     * Gets the current value of the counter.
+     *
+     * @return Current value.
+     */
+    public long get() {
+	return value.get();
+    }
+
+}
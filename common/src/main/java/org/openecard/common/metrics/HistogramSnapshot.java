@@ -0,0 +1,83 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.metrics;
+
+import javax.annotation.concurrent.Immutable;
+
+
+/**
+ * Immutable view of a {@link LatencyHistogram} at a given point in time.
+ * All values are given in microseconds.
+ *
+ * @author agent
+ */
+@Immutable
+public final class HistogramSnapshot {
+
+    private final long count;
+    private final double mean;
+    private final long max;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+
+    HistogramSnapshot(long count, double mean, long max, long p50, long p90, long p99, long p999) {
+	this.count = count;
+	this.mean = mean;
+	this.max = max;
+	this.p50 = p50;
+	this.p90 = p90;
+	this.p99 = p99;
+	this.p999 = p999;
+    }
+
+    public long getCount() {
+	return count;
+    }
+
+    public double getMean() {
+	return mean;
+    }
+
+    public long getMax() {
+	return max;
+    }
+
+    public long getP50() {
+	return p50;
+    }
+
+    public long getP90() {
+	return p90;
+    }
+
+    public long getP99() {
+	return p99;
+    }
+
+    public long getP999() {
+	return p999;
+    }
+
+}
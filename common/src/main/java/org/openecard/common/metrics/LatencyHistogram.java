@@ -0,0 +1,150 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Latency histogram with logarithmic buckets in the style of HdrHistogram.
+ * Values are recorded in microseconds. Each power of two is divided into {@value #SUB_BUCKETS} linear sub buckets,
+ * so the relative error of any reported value is below 3.2%. Values larger than roughly 38 hours are recorded in the
+ * highest bucket.
+ * <p>Recording a value only updates a few atomic fields and does not allocate any memory, so it is safe to use in
+ * the hot paths of the stack.</p>
+ *
+ * @author agent
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MSB = 37;
+    static final long MAX_VALUE = (1L << (MAX_MSB + 1)) - 1;
+    static final int NUM_BUCKETS = SUB_BUCKETS + (MAX_MSB - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram() {
+    }
+
+    /**
+     * Records the time elapsed since the given start time.
+     *
+     * @param startNanos Start time as returned by {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+	recordNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a duration given in nanoseconds.
+     *
+     * @param nanos Duration in nanoseconds.
+     */
+    public void recordNanos(long nanos) {
+	recordMicros(nanos / 1000);
+    }
+
+    /**
+     * Records a duration given in microseconds.
+     *
+     * @param micros Duration in microseconds.
+     */
+    public void recordMicros(long micros) {
+	if (micros < 0) {
+	    micros = 0;
+	} else if (micros > MAX_VALUE) {
+	    micros = MAX_VALUE;
+	}
+
+	buckets.incrementAndGet(bucketIndex(micros));
+	sum.addAndGet(micros);
+	long curMax = max.get();
+	while (micros > curMax && ! max.compareAndSet(curMax, micros)) {
+	    curMax = max.get();
+	}
+    }
+
+    static int bucketIndex(long value) {
+	if (value < SUB_BUCKETS) {
+	    return (int) value;
+	}
+	int msb = 63 - Long.numberOfLeadingZeros(value);
+	int shift = msb - SUB_BUCKET_BITS;
+	int sub = (int) (value >>> shift) - SUB_BUCKETS;
+	return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    static long highestEquivalentValue(int index) {
+	if (index < SUB_BUCKETS) {
+	    return index;
+	}
+	int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+	int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+	long lower = ((long) (SUB_BUCKETS + sub)) << shift;
+	return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Creates a snapshot of the values recorded so far.
+     * Values recorded while the snapshot is created may or may not be part of it.
+     *
+     * @return Snapshot of the histogram.
+     */
+    public HistogramSnapshot snapshot() {
+	long[] counts = new long[NUM_BUCKETS];
+	long count = 0;
+	for (int i = 0; i < NUM_BUCKETS; i++) {
+	    counts[i] = buckets.get(i);
+	    count += counts[i];
+	}
+	long curMax = max.get();
+	double mean = count == 0 ? 0 : (double) sum.get() / count;
+
+	return new HistogramSnapshot(count, mean, curMax,
+		percentile(counts, count, curMax, 50.0),
+		percentile(counts, count, curMax, 90.0),
+		percentile(counts, count, curMax, 99.0),
+		percentile(counts, count, curMax, 99.9));
+    }
+
+    private static long percentile(long[] counts, long count, long max, double percentile) {
+	if (count == 0) {
+	    return 0;
+	}
+	long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+	long seen = 0;
+	for (int i = 0; i < counts.length; i++) {
+	    seen += counts[i];
+	    if (seen >= target) {
+		return Math.min(highestEquivalentValue(i), max);
+	    }
+	}
+	return max;
+    }
+
+}
@@ -0,0 +1,186 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Registry of the counters and latency histograms of the application.
+ * Metrics are identified by dot separated names such as {@code ifd.transmit.ins.B0} and are created when they are
+ * requested the first time. Callers in hot paths should keep the returned instances instead of looking them up for
+ * each event.
+ *
+ * @author agent
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry instance = new MetricsRegistry();
+
+    private final ConcurrentMap<String, Counter> counters;
+    private final ConcurrentMap<String, LatencyHistogram> histograms;
+
+    MetricsRegistry() {
+	counters = new ConcurrentHashMap<>();
+	histograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the registry shared by all components of the application.
+     *
+     * @return The registry instance.
+     */
+    public static MetricsRegistry getInstance() {
+	return instance;
+    }
+
+    /**
+     * Gets the counter with the given name, creating it if it does not exist yet.
+     *
+     * @param name Name of the counter.
+     * @return The counter instance.
+     */
+    @Nonnull
+    public Counter getCounter(@Nonnull String name) {
+	Counter c = counters.get(name);
+	if (c == null) {
+	    Counter newCounter = new Counter();
+	    c = counters.putIfAbsent(name, newCounter);
+	    if (c == null) {
+		c = newCounter;
+	    }
+	}
+	return c;
+    }
+
+    /**
+     * Gets the histogram with the given name, creating it if it does not exist yet.
+     *
+     * @param name Name of the histogram.
+     * @return The histogram instance.
+     */
+    @Nonnull
+    public LatencyHistogram getHistogram(@Nonnull String name) {
+	LatencyHistogram h = histograms.get(name);
+	if (h == null) {
+	    LatencyHistogram newHistogram = new LatencyHistogram();
+	    h = histograms.putIfAbsent(name, newHistogram);
+	    if (h == null) {
+		h = newHistogram;
+	    }
+	}
+	return h;
+    }
+
+    /**
+     * Gets the current values of all counters.
+     *
+     * @return Map sorted by the name of the counters.
+     */
+    @Nonnull
+    public SortedMap<String, Long> getCounterValues() {
+	TreeMap<String, Long> result = new TreeMap<>();
+	for (Map.Entry<String, Counter> next : counters.entrySet()) {
+	    result.put(next.getKey(), next.getValue().get());
+	}
+	return result;
+    }
+
+    /**
+     * Gets snapshots of all histograms.
+     *
+     * @return Map sorted by the name of the histograms.
+     */
+    @Nonnull
+    public SortedMap<String, HistogramSnapshot> getHistogramSnapshots() {
+	TreeMap<String, HistogramSnapshot> result = new TreeMap<>();
+	for (Map.Entry<String, LatencyHistogram> next : histograms.entrySet()) {
+	    result.put(next.getKey(), next.getValue().snapshot());
+	}
+	return result;
+    }
+
+    /**
+     * Serializes all metrics to a JSON document.
+     * The document contains an object {@code counters} with the counter values and an object {@code histograms}
+     * with the count, mean, maximum and percentiles of each histogram in microseconds.
+     *
+     * @return JSON representation of the metrics.
+     */
+    @Nonnull
+    public String toJson() {
+	StringBuilder sb = new StringBuilder(1024);
+	sb.append("{\"counters\":{");
+	boolean first = true;
+	for (Map.Entry<String, Long> next : getCounterValues().entrySet()) {
+	    if (! first) {
+		sb.append(',');
+	    }
+	    first = false;
+	    appendString(sb, next.getKey());
+	    sb.append(':').append(next.getValue());
+	}
+	sb.append("},\"histograms\":{");
+	first = true;
+	for (Map.Entry<String, HistogramSnapshot> next : getHistogramSnapshots().entrySet()) {
+	    if (! first) {
+		sb.append(',');
+	    }
+	    first = false;
+	    HistogramSnapshot s = next.getValue();
+	    appendString(sb, next.getKey());
+	    sb.append(":{\"count\":").append(s.getCount());
+	    sb.append(",\"mean\":").append(String.format(Locale.ROOT, "%.1f", s.getMean()));
+	    sb.append(",\"max\":").append(s.getMax());
+	    sb.append(",\"p50\":").append(s.getP50());
+	    sb.append(",\"p90\":").append(s.getP90());
+	    sb.append(",\"p99\":").append(s.getP99());
+	    sb.append(",\"p999\":").append(s.getP999());
+	    sb.append('}');
+	}
+	sb.append("},\"unit\":\"us\"}");
+	return sb.toString();
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+	sb.append('"');
+	for (int i = 0; i < value.length(); i++) {
+	    char c = value.charAt(i);
+	    if (c == '"' || c == '\\') {
+		sb.append('\\').append(c);
+	    } else if (c < 0x20) {
+		sb.append(String.format("\\u%04x", (int) c));
+	    } else {
+		sb.append(c);
+	    }
+	}
+	sb.append('"');
+    }
+
+}
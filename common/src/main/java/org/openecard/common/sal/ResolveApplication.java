@@ -0,0 +1,71 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.sal;
+
+import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
+import iso.std.iso_iec._24727.tech.schema.RequestType;
+import iso.std.iso_iec._24727.tech.schema.TargetNameType;
+
+
+/**
+ * Request of the {@link org.openecard.common.interfaces.ApplicationResolver} extension of the SAL.
+ * The target names either a DataSet or a DID. The card application name of the target type is not used.
+ *
+ * @author agent
+ */
+public class ResolveApplication extends RequestType {
+
+    protected ConnectionHandleType connectionHandle;
+    protected TargetNameType targetName;
+    protected boolean connect;
+
+    public ConnectionHandleType getConnectionHandle() {
+	return connectionHandle;
+    }
+
+    public void setConnectionHandle(ConnectionHandleType value) {
+	this.connectionHandle = value;
+    }
+
+    public TargetNameType getTargetName() {
+	return targetName;
+    }
+
+    public void setTargetName(TargetNameType value) {
+	this.targetName = value;
+    }
+
+    /**
+     * Indicates whether the SAL should perform a CardApplicationConnect to the resolved application.
+     *
+     * @return {@code true} if a connect is requested, {@code false} otherwise.
+     */
+    public boolean isConnect() {
+	return connect;
+    }
+
+    public void setConnect(boolean value) {
+	this.connect = value;
+    }
+
+}
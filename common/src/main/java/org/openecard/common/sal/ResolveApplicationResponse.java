@@ -0,0 +1,65 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.sal;
+
+import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
+import iso.std.iso_iec._24727.tech.schema.ResponseType;
+
+
+/**
+ * Response of the {@link org.openecard.common.interfaces.ApplicationResolver} extension of the SAL.
+ *
+ * @author agent
+ */
+public class ResolveApplicationResponse extends ResponseType {
+
+    protected byte[] cardApplication;
+    protected ConnectionHandleType connectionHandle;
+
+    /**
+     * Gets the identifier of the card application containing the requested target.
+     *
+     * @return The application identifier, or {@code null} if the request failed.
+     */
+    public byte[] getCardApplication() {
+	return cardApplication;
+    }
+
+    public void setCardApplication(byte[] value) {
+	this.cardApplication = value;
+    }
+
+    /**
+     * Gets the handle of the connected card application.
+     *
+     * @return The handle returned by the CardApplicationConnect, or {@code null} if no connect has been requested.
+     */
+    public ConnectionHandleType getConnectionHandle() {
+	return connectionHandle;
+    }
+
+    public void setConnectionHandle(ConnectionHandleType value) {
+	this.connectionHandle = value;
+    }
+
+}
@@ -25,20 +25,25 @@ package org.openecard.common.util;
 import org.openecard.common.interfaces.ObjectValidatorException;
 import org.openecard.common.interfaces.ObjectSchemaValidator;
 import java.io.IOException;
-import java.net.URL;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nonnull;
-import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.util.JAXBSource;
 import javax.xml.transform.Source;
-import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
+import org.openecard.ws.marshal.MarshallingTypeException;
+import org.openecard.ws.marshal.UnmarshalResult;
+import org.openecard.ws.marshal.WSMarshaller;
+import org.openecard.ws.marshal.WSMarshallerException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Node;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
@@ -46,6 +51,10 @@ import org.xml.sax.SAXParseException;
 
 /**
  * Utility class which allows to validate a JAXB object against XML schemas.
+ * <p>Instances are immutable and thread safe. They are shared process wide, so that the schemas and the JAXB context
+ * are only compiled once. Documents can be validated while they are unmarshalled with
+ * {@link #unmarshal(WSMarshaller, Node)}. Objects successfully validated this way are remembered, so that a later
+ * call to {@link #validateObject(Object)} does not need to serialize them again.</p>
  *
  * @author Hans-Martin Haase
  * @author Tobias Wich
@@ -54,11 +63,16 @@ public class JAXBSchemaValidator implements ObjectSchemaValidator {
 
     private static final Logger logger = LoggerFactory.getLogger(JAXBSchemaValidator.class);
 
+    private static final ConcurrentMap<String, JAXBSchemaValidator> validators = new ConcurrentHashMap<>();
+
     private final Schema schema;
-    private final JAXBContext ctx;
+    private final Class<?> clazz;
+    // JAXB classes have no equals implementation, so the weak map effectively uses identity
+    private final Set<Object> validObjects;
 
     /**
      * Loads a JAXBSchemaValidator instance based on the given JAXB class and schemas.
+     * The instance is shared with all other callers requesting the same class and schemas.
      *
      * @param clazz Class of the JAXB element which shall be validated.
      * @param schemaNames Resource names of the schemas which shall be used in the validation process.
@@ -72,32 +86,70 @@ public class JAXBSchemaValidator implements ObjectSchemaValidator {
 	try {
 	    if (schemaNames == null || schemaNames.length == 0) {
 		throw new IOException("No schemas given to validate the object.");
-	    } else if (schemaNames.length == 1) {
-		URL schemaURL = FileUtils.resolveResourceAsURL(JAXBSchemaValidator.class, schemaNames[0]);
-		return new JAXBSchemaValidator(clazz, schemaURL);
-	    } else {
-		StreamSource[] schemaDocuments = convertSchemaStrings2StreamSources(schemaNames);
-		return new JAXBSchemaValidator(clazz, schemaDocuments);
 	    }
+	    String key = createKey(clazz, schemaNames);
+	    JAXBSchemaValidator validator = validators.get(key);
+	    if (validator == null) {
+		// the registry takes care that the expensive parts are only computed once
+		Schema schema = SchemaRegistry.getSchema(schemaNames);
+		SchemaRegistry.getJAXBContext(clazz);
+		validator = new JAXBSchemaValidator(clazz, schema);
+		JAXBSchemaValidator existing = validators.putIfAbsent(key, validator);
+		validator = existing != null ? existing : validator;
+	    }
+	    return validator;
 	} catch (IOException ex) {
 	    logger.error("No schemas given for the validation or the schemas could not be found.", ex);
 	    throw ex;
 	}
     }
 
-    private JAXBSchemaValidator(Class<?> clazz, URL schemaURL) throws SAXException, JAXBException {
-	schema = getSchemaFactory().newSchema(schemaURL);
-	ctx = getJAXBContext(clazz);
+    private JAXBSchemaValidator(Class<?> clazz, Schema schema) {
+	this.schema = schema;
+	this.clazz = clazz;
+	this.validObjects = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<Object, Boolean>()));
     }
 
-    private JAXBSchemaValidator(Class<?> clazz, StreamSource[] schemaDocuments) throws SAXException, JAXBException {
-	schema = getSchemaFactory().newSchema(schemaDocuments);
-	ctx = getJAXBContext(clazz);
+
+    /**
+     * Gets the compiled schema used by this validator.
+     *
+     * @return The schema.
+     */
+    @Nonnull
+    public Schema getSchema() {
+	return schema;
     }
 
+    /**
+     * Unmarshals the given node and validates it against the loaded XML schemas in the same pass.
+     * The unmarshalling succeeds even if the document is not valid. In case the document is valid, the resulting
+     * object is remembered, so that {@link #validateObject(Object)} succeeds without serializing the object again.
+     * Marshallers without schema support only unmarshal the node, the object is then validated when requested.
+     *
+     * @param m The marshaller used to unmarshal the node.
+     * @param n The node to unmarshal.
+     * @return The JAXB object representing the given node.
+     * @throws MarshallingTypeException If the given node represents an unsupported JAXB type.
+     * @throws WSMarshallerException If the given node is neither a Document, nor an Element.
+     */
+    @Nonnull
+    public Object unmarshal(@Nonnull WSMarshaller m, @Nonnull Node n) throws MarshallingTypeException,
+	    WSMarshallerException {
+	UnmarshalResult result = m.unmarshal(n, schema);
+	Object obj = result.getObject();
+	if (result.isValid()) {
+	    validObjects.add(obj);
+	} else if (result.isValidated()) {
+	    // modifications made later may fix the object, so it is validated again when requested
+	    logger.debug("Unmarshalled object failed validation: {}", result.getValidationErrors());
+	}
+	return obj;
+    }
 
     /**
      * Validates a JAXB object against the loaded XML schemas.
+     * If the object has been validated successfully while unmarshalling it, no further validation takes place.
      *
      * Note: If you pass one single schema into the function the validator tries to load referenced schemas. If you
      * specify more than one schema you have to specify all other schemas which are referenced in the schemas. This has
@@ -109,9 +161,14 @@ public class JAXBSchemaValidator implements ObjectSchemaValidator {
      */
     @Override
     public boolean validateObject(@Nonnull Object obj) throws ObjectValidatorException {
+	if (validObjects.contains(obj)) {
+	    return true;
+	}
+
 	try {
+	    JAXBContext ctx = SchemaRegistry.getJAXBContext(clazz);
 	    Source source = new JAXBSource(ctx, obj);
-	    Validator validator= schema.newValidator();
+	    Validator validator = schema.newValidator();
 	    validator.setErrorHandler(new CustomErrorHandler());
 	    validator.validate(source);
 	    return true;
@@ -129,32 +186,12 @@ public class JAXBSchemaValidator implements ObjectSchemaValidator {
     }
 
 
-    /**
-     * Converts an array of schema name strings to an array of StreamSource objects.
-     *
-     * @param schemaNames Array with schema names.
-     * @return An array of StreamSource object.
-     * @throws IOException Thrown in case a schema file was not found.
-     */
-    private static StreamSource[] convertSchemaStrings2StreamSources(String[] schemaNames) throws IOException {
-	ArrayList<StreamSource> sources = new ArrayList<>();
-
-	for(String schemaName : schemaNames) {
-	    StreamSource source = new StreamSource(FileUtils.resolveResourceAsStream(JAXBSchemaValidator.class, schemaName));
-	    sources.add(source);
+    private static String createKey(Class<?> clazz, String[] schemaNames) {
+	StringBuilder sb = new StringBuilder(clazz.getName());
+	for (String next : schemaNames) {
+	    sb.append('|').append(next);
 	}
-
-	return sources.toArray(new StreamSource[sources.size()]);
-    }
-
-    private static SchemaFactory getSchemaFactory() {
-	SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-	return sf;
-    }
-
-    private static JAXBContext getJAXBContext(Class<?> clazz) throws JAXBException {
-	JAXBContext ctx = JAXBContext.newInstance(clazz);
-	return ctx;
+	return sb.toString();
     }
 
     private class CustomErrorHandler implements ErrorHandler {
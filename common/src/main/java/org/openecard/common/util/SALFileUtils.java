@@ -32,15 +32,19 @@ import iso.std.iso_iec._24727.tech.schema.DIDList;
 import iso.std.iso_iec._24727.tech.schema.DIDListResponse;
 import iso.std.iso_iec._24727.tech.schema.DataSetList;
 import iso.std.iso_iec._24727.tech.schema.DataSetListResponse;
+import iso.std.iso_iec._24727.tech.schema.TargetNameType;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import oasis.names.tc.dss._1_0.core.schema.Result;
 import org.openecard.common.ECardConstants;
 import org.openecard.common.WSHelper;
 import org.openecard.common.WSHelper.WSException;
 import org.openecard.common.interfaces.Dispatcher;
 import org.openecard.common.interfaces.DispatcherException;
+import org.openecard.common.sal.ResolveApplication;
+import org.openecard.common.sal.ResolveApplicationResponse;
 
 
 /**
@@ -76,6 +80,14 @@ public class SALFileUtils {
     @Nonnull
     public ConnectionHandleType selectAppByDataSet(@Nonnull String dataSetName, @Nonnull ConnectionHandleType handle)
 	    throws DispatcherException, InvocationTargetException, WSException {
+	// ask the SAL directly, this saves the list requests if it knows the answer
+	TargetNameType target = new TargetNameType();
+	target.setDataSetName(dataSetName);
+	ConnectionHandleType resolvedHandle = resolveApplication(target, handle);
+	if (resolvedHandle != null) {
+	    return resolvedHandle;
+	}
+
 	// copy handle so that the given handle is not damaged
 	handle = HandlerUtils.copyHandle(handle);
 
@@ -122,6 +134,14 @@ public class SALFileUtils {
     public ConnectionHandleType selectAppByDID(@Nonnull String didName, @Nonnull ConnectionHandleType handle)
 	    throws DispatcherException,
 	    InvocationTargetException, WSException {
+	// ask the SAL directly, this saves the list requests if it knows the answer
+	TargetNameType target = new TargetNameType();
+	target.setDIDName(didName);
+	ConnectionHandleType resolvedHandle = resolveApplication(target, handle);
+	if (resolvedHandle != null) {
+	    return resolvedHandle;
+	}
+
 	// copy handle so that the given handle is not damaged
 	handle = HandlerUtils.copyHandle(handle);
 
@@ -153,6 +173,35 @@ public class SALFileUtils {
 	throw WSHelper.createException(r);
     }
 
+    /**
+     * Resolves and connects the application containing the given target with a single ResolveApplication call.
+     * SALs which do not offer this service are detected by the dispatcher rejecting the message, in which case the
+     * caller must fall back to searching the application lists.
+     *
+     * @param target DataSet or DID name to look for.
+     * @param handle ConnectionHandle which identifies the card and terminal.
+     * @return The handle of the card after connecting the application, or {@code null} if the service is not
+     *   available.
+     * @throws InvocationTargetException
+     * @throws WSException Thrown in case the SAL returned an error, or no application of the specified card contains
+     *   the requested target.
+     */
+    @Nullable
+    private ConnectionHandleType resolveApplication(@Nonnull TargetNameType target,
+	    @Nonnull ConnectionHandleType handle) throws InvocationTargetException, WSException {
+	ResolveApplication req = new ResolveApplication();
+	req.setConnectionHandle(HandlerUtils.copyHandle(handle));
+	req.setTargetName(target);
+	req.setConnect(true);
+	try {
+	    ResolveApplicationResponse resp = (ResolveApplicationResponse) dispatcher.deliver(req);
+	    WSHelper.checkResult(resp);
+	    return resp.getConnectionHandle();
+	} catch (DispatcherException ex) {
+	    return null;
+	}
+    }
+
     /**
      * Performs a CardApplicationConnect SAL call for the given handle.
      * The path part of the handle is used as a basis to connect the card.
@@ -0,0 +1,183 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.util;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import javax.annotation.Nonnull;
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import org.xml.sax.SAXException;
+
+
+/**
+ * Process wide registry of compiled XML schemas and JAXB contexts.
+ * Compiling a schema or creating a JAXB context is expensive, while the resulting objects are immutable and thread
+ * safe. This registry makes sure each schema set and each JAXB root class is processed only once. Concurrent requests
+ * for the same entry wait for the first computation instead of starting their own.
+ *
+ * @author agent
+ */
+public final class SchemaRegistry {
+
+    private static final ConcurrentMap<String, FutureTask<Schema>> schemas = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, FutureTask<JAXBContext>> contexts = new ConcurrentHashMap<>();
+
+    private SchemaRegistry() {
+    }
+
+    /**
+     * Gets the compiled schema for the given schema resources.
+     *
+     * Note: If only one schema is given, referenced schemas are loaded automatically. If more than one schema is
+     * given, all referenced schemas must be given as well in the order definition first, then use of the definitions.
+     *
+     * @param schemaNames Resource names of the schemas forming the schema set.
+     * @return The compiled schema.
+     * @throws IOException Thrown in case no schema is given or the schemas could not be loaded from the resources.
+     * @throws SAXException Thrown in case the XML schemas are erroneous.
+     */
+    @Nonnull
+    public static Schema getSchema(@Nonnull final String... schemaNames) throws IOException, SAXException {
+	if (schemaNames.length == 0) {
+	    throw new IOException("No schemas given to compile.");
+	}
+	String key = createKey(schemaNames);
+	FutureTask<Schema> task = schemas.get(key);
+	if (task == null) {
+	    FutureTask<Schema> newTask = new FutureTask<>(new Callable<Schema>() {
+		@Override
+		public Schema call() throws Exception {
+		    return compileSchema(schemaNames);
+		}
+	    });
+	    task = schemas.putIfAbsent(key, newTask);
+	    if (task == null) {
+		task = newTask;
+		task.run();
+	    }
+	}
+
+	try {
+	    return task.get();
+	} catch (ExecutionException ex) {
+	    // don't keep the failure, the next request may be luckier
+	    schemas.remove(key, task);
+	    Throwable cause = ex.getCause();
+	    if (cause instanceof IOException) {
+		throw (IOException) cause;
+	    } else if (cause instanceof SAXException) {
+		throw (SAXException) cause;
+	    } else {
+		throw unchecked(cause);
+	    }
+	} catch (InterruptedException ex) {
+	    Thread.currentThread().interrupt();
+	    throw new IOException("Interrupted while waiting for the schema to be compiled.", ex);
+	}
+    }
+
+    /**
+     * Gets the JAXB context for the given root class.
+     *
+     * @param rootClass The JAXB class which is the root of the context.
+     * @return The JAXB context.
+     * @throws JAXBException Thrown in case the given JAXB class or one of its descendents is invalid.
+     */
+    @Nonnull
+    public static JAXBContext getJAXBContext(@Nonnull final Class<?> rootClass) throws JAXBException {
+	FutureTask<JAXBContext> task = contexts.get(rootClass);
+	if (task == null) {
+	    FutureTask<JAXBContext> newTask = new FutureTask<>(new Callable<JAXBContext>() {
+		@Override
+		public JAXBContext call() throws Exception {
+		    return JAXBContext.newInstance(rootClass);
+		}
+	    });
+	    task = contexts.putIfAbsent(rootClass, newTask);
+	    if (task == null) {
+		task = newTask;
+		task.run();
+	    }
+	}
+
+	try {
+	    return task.get();
+	} catch (ExecutionException ex) {
+	    contexts.remove(rootClass, task);
+	    Throwable cause = ex.getCause();
+	    if (cause instanceof JAXBException) {
+		throw (JAXBException) cause;
+	    } else {
+		throw unchecked(cause);
+	    }
+	} catch (InterruptedException ex) {
+	    Thread.currentThread().interrupt();
+	    throw new JAXBException("Interrupted while waiting for the JAXB context to be created.", ex);
+	}
+    }
+
+    private static RuntimeException unchecked(Throwable cause) {
+	// the computations only throw the checked exceptions handled by the callers
+	if (cause instanceof Error) {
+	    throw (Error) cause;
+	}
+	return (RuntimeException) cause;
+    }
+
+    private static String createKey(String[] schemaNames) {
+	StringBuilder sb = new StringBuilder();
+	for (String next : schemaNames) {
+	    sb.append(next).append('|');
+	}
+	return sb.toString();
+    }
+
+    private static Schema compileSchema(String[] schemaNames) throws IOException, SAXException {
+	SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+	if (schemaNames.length == 1) {
+	    URL schemaURL = FileUtils.resolveResourceAsURL(SchemaRegistry.class, schemaNames[0]);
+	    if (schemaURL == null) {
+		throw new IOException("Schema resource '" + schemaNames[0] + "' not found.");
+	    }
+	    return sf.newSchema(schemaURL);
+	} else {
+	    ArrayList<StreamSource> sources = new ArrayList<>();
+	    for (String schemaName : schemaNames) {
+		sources.add(new StreamSource(FileUtils.resolveResourceAsStream(SchemaRegistry.class, schemaName)));
+	    }
+	    return sf.newSchema(sources.toArray(new StreamSource[sources.size()]));
+	}
+    }
+
+}
@@ -0,0 +1,121 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+import org.openecard.common.util.Promise;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ *
+ * @author agent
+ */
+public class DynamicContextTest {
+
+    private static final String KEY = "test-session";
+
+    @AfterMethod
+    public void unbind() {
+	DynamicContext.remove();
+    }
+
+    @Test
+    public void testSessionNotInherited() throws Exception {
+	final DynamicContext ctx = DynamicContext.open(KEY);
+	ctx.put("a", 1);
+	final AtomicReference<DynamicContext> plain = new AtomicReference<>();
+	final AtomicReference<DynamicContext> wrapped = new AtomicReference<>();
+
+	Thread t1 = new Thread(new Runnable() {
+	    @Override
+	    public void run() {
+		plain.set(DynamicContext.getInstance(KEY));
+	    }
+	});
+	t1.start();
+	t1.join();
+	Thread t2 = new Thread(DynamicContext.wrap(new Runnable() {
+	    @Override
+	    public void run() {
+		wrapped.set(DynamicContext.getInstance(KEY));
+	    }
+	}));
+	t2.start();
+	t2.join();
+
+	// an unbound thread gets a new, empty session
+	assertNotSame(plain.get(), ctx);
+	assertNull(plain.get().get("a"));
+	assertSame(wrapped.get(), ctx);
+	assertSame(DynamicContext.getInstance(KEY), ctx);
+    }
+
+    @Test
+    public void testPromiseHandover() throws Exception {
+	DynamicContext ctx = DynamicContext.open(KEY);
+	Promise<Object> p = ctx.getPromise("result");
+	FutureTask<Void> task = new FutureTask<>(DynamicContext.wrap(new Callable<Void>() {
+	    @Override
+	    public Void call() throws Exception {
+		DynamicContext.getInstance(KEY).put("result", "done");
+		return null;
+	    }
+	}));
+	new Thread(task).start();
+	task.get();
+
+	assertSame(ctx.getPromise("result"), p);
+	assertEquals(p.deref(), "done");
+	// a second put replaces the delivered promise
+	ctx.put("result", "again");
+	assertEquals(ctx.get("result"), "again");
+
+	try {
+	    ctx.putPromise("result", new Promise<>());
+	    fail("Existing promise must not be replaced.");
+	} catch (IllegalStateException ex) {
+	    // expected
+	}
+    }
+
+    @Test
+    public void testDispose() {
+	DynamicContext ctx = DynamicContext.open(KEY);
+	ctx.put("a", 1);
+	ctx.dispose();
+
+	assertTrue(ctx.isDisposed());
+	assertNull(ctx.get("a"));
+	// a disposed session is replaced instead of being returned
+	DynamicContext next = DynamicContext.getInstance(KEY);
+	assertNotSame(next, ctx);
+	assertFalse(next.isDisposed());
+	assertSame(DynamicContext.getInstance(KEY), next);
+    }
+
+}
@@ -0,0 +1,106 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.ifd;
+
+import org.openecard.common.util.StringUtils;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test for the passive tracking of password retry counters.
+ *
+ * @author agent
+ */
+public class PasswordRetryCountersTest {
+
+    private static final byte[] MSE_PIN = StringUtils.toByteArray("0022C1A40F800A04007F00070202040202830103");
+    private static final byte[] MSE_CAN = StringUtils.toByteArray("0022C1A40F800A04007F00070202040202830102");
+    private static final byte[] GA_CHAINED = StringUtils.toByteArray("10860000027C0000");
+    private static final byte[] GA_LAST = StringUtils.toByteArray("008600000C7C0A8508000102030405060700");
+
+    @Test
+    public void testPace() {
+	PasswordRetryCounters c = new PasswordRetryCounters();
+	assertNull(c.getStatus((byte) 3));
+
+	c.update(MSE_PIN, sw("63C2"));
+	assertEquals(c.getStatus((byte) 3).getRetryCounter(), 2);
+
+	// wrong PIN
+	c.update(GA_CHAINED, sw("9000"));
+	assertEquals(c.getStatus((byte) 3).getRetryCounter(), 2);
+	c.update(GA_LAST, sw("63C1"));
+	assertEquals(c.getStatus((byte) 3).getRetryCounter(), 1);
+
+	// PACE with CAN does not touch the PIN
+	c.update(MSE_CAN, sw("9000"));
+	c.update(GA_LAST, sw("9000"));
+	assertEquals(c.getStatus((byte) 3).getRetryCounter(), 1);
+	assertEquals(c.getStatus((byte) 2).getRetryCounter(), PasswordRetryCounters.NOT_REDUCED);
+
+	// correct PIN
+	c.update(MSE_PIN, sw("63C1"));
+	c.update(GA_LAST, sw("9000"));
+	assertEquals(c.getStatus((byte) 3).getRetryCounter(), PasswordRetryCounters.NOT_REDUCED);
+
+	// failure without counter makes the state unknown
+	c.update(MSE_PIN, sw("9000"));
+	c.update(GA_LAST, sw("6300"));
+	assertNull(c.getStatus((byte) 3));
+
+	c.update(MSE_PIN, sw("6283"));
+	assertTrue(c.getStatus((byte) 3).isDeactivated());
+    }
+
+    @Test
+    public void testVerifyAndReset() {
+	PasswordRetryCounters c = new PasswordRetryCounters();
+	byte[] verify = StringUtils.toByteArray("0020008104313233343536");
+	c.update(verify, sw("63C0"));
+	assertTrue(c.getStatus((byte) 0x81).isBlocked());
+	c.update(verify, sw("6983"));
+	assertTrue(c.getStatus((byte) 0x81).isBlocked());
+
+	// error of the resetting code is not attributed to the password
+	byte[] reset = StringUtils.toByteArray("002C0381");
+	c.update(reset, sw("63C2"));
+	assertTrue(c.getStatus((byte) 0x81).isBlocked());
+	c.update(reset, sw("9000"));
+	assertEquals(c.getStatus((byte) 0x81).getRetryCounter(), PasswordRetryCounters.NOT_REDUCED);
+
+	// unrelated commands and malformed input are ignored
+	c.update(StringUtils.toByteArray("00B0000000"), sw("63C1"));
+	c.update(new byte[] { 0x00, 0x20 }, sw("63C1"));
+	c.update(verify, new byte[0]);
+	assertEquals(c.getStatus((byte) 0x81).getRetryCounter(), PasswordRetryCounters.NOT_REDUCED);
+
+	c.clear();
+	assertNull(c.getStatus((byte) 0x81));
+    }
+
+    private static byte[] sw(String hex) {
+	return StringUtils.toByteArray(hex);
+    }
+
+}
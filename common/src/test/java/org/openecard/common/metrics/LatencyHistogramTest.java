@@ -0,0 +1,90 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.common.metrics;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test of the bucket layout and the percentile calculation of the latency histogram.
+ *
+ * @author agent
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketLayout() {
+	int lastIdx = -1;
+	long[] values = { 0, 1, 31, 32, 63, 64, 70, 1000, 123456, 999999999L, LatencyHistogram.MAX_VALUE };
+	for (long v : values) {
+	    int idx = LatencyHistogram.bucketIndex(v);
+	    assertTrue(idx > lastIdx, "Buckets must be monotonic.");
+	    assertTrue(idx < LatencyHistogram.NUM_BUCKETS);
+	    long high = LatencyHistogram.highestEquivalentValue(idx);
+	    assertTrue(high >= v);
+	    // relative error below 1/32
+	    assertTrue(high - v <= v / 32, "Error too large for value " + v);
+	    lastIdx = idx;
+	}
+	// buckets are contiguous
+	for (int i = 1; i < LatencyHistogram.NUM_BUCKETS; i++) {
+	    long high = LatencyHistogram.highestEquivalentValue(i - 1);
+	    assertEquals(LatencyHistogram.bucketIndex(high + 1), i);
+	}
+	assertEquals(LatencyHistogram.bucketIndex(LatencyHistogram.MAX_VALUE), LatencyHistogram.NUM_BUCKETS - 1);
+    }
+
+    @Test
+    public void testSnapshot() {
+	LatencyHistogram h = new LatencyHistogram();
+	HistogramSnapshot empty = h.snapshot();
+	assertEquals(empty.getCount(), 0);
+	assertEquals(empty.getP99(), 0);
+
+	for (int i = 1; i <= 1000; i++) {
+	    h.recordMicros(i);
+	}
+	h.recordNanos(-5);
+	HistogramSnapshot s = h.snapshot();
+	assertEquals(s.getCount(), 1001);
+	assertEquals(s.getMax(), 1000);
+	assertEquals(s.getMean(), 500500.0 / 1001, 0.001);
+	assertTrue(Math.abs(s.getP50() - 500) <= 500 / 32);
+	assertTrue(Math.abs(s.getP90() - 900) <= 900 / 32);
+	assertTrue(s.getP999() <= 1000);
+    }
+
+    @Test
+    public void testRegistryJson() {
+	MetricsRegistry reg = new MetricsRegistry();
+	assertSame(reg.getCounter("a.b"), reg.getCounter("a.b"));
+	reg.getCounter("a.b").add(3);
+	reg.getHistogram("x\"y").recordMicros(10);
+
+	String json = reg.toJson();
+	assertTrue(json.startsWith("{\"counters\":{\"a.b\":3},\"histograms\":{\"x\\\"y\":{\"count\":1,"), json);
+	assertTrue(json.endsWith("\"p999\":10}},\"unit\":\"us\"}"), json);
+    }
+
+}
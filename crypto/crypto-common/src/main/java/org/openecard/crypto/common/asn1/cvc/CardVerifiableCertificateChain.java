@@ -23,8 +23,10 @@
 package org.openecard.crypto.common.asn1.cvc;
 
 import java.security.cert.CertificateException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import org.slf4j.Logger;
@@ -220,6 +222,63 @@ public class CardVerifiableCertificateChain {
 	return new CardVerifiableCertificateChain(certChain);
     }
 
+    /**
+     * Returns the shortest certificate path from one of the trust points of the card to the terminal certificate.
+     * The path starts with the certificate whose CAR is a trust point and ends with the terminal certificate, so the
+     * certificates can be sent to the card in the order of the result. Certificates the card already trusts are not
+     * part of the path.
+     *
+     * @param trustPoints Certification Authority References (CAR) of the public keys stored in the card, e.g. the
+     *   current and the previous CAR as returned by PACE. {@code null} entries are ignored.
+     * @return Certificate chain containing only the certificates needed by the card
+     * @throws CertificateException Thrown in case the chain contains no terminal certificate, or the terminal
+     *   certificate can not be traced back to any of the trust points.
+     */
+    public CardVerifiableCertificateChain getCertificatePath(List<byte[]> trustPoints) throws CertificateException {
+	if (terminalCert == null) {
+	    throw new CertificateException("The certificate chain contains no terminal certificate.");
+	}
+
+	// breadth first search from the terminal certificate towards the trust points yields the shortest path
+	IdentityHashMap<CardVerifiableCertificate, CardVerifiableCertificate> subjects = new IdentityHashMap<>();
+	ArrayDeque<CardVerifiableCertificate> queue = new ArrayDeque<>();
+	queue.add(terminalCert);
+	subjects.put(terminalCert, null);
+
+	while (! queue.isEmpty()) {
+	    CardVerifiableCertificate next = queue.poll();
+	    if (isTrustPoint(next.getCAR(), trustPoints)) {
+		ArrayList<CardVerifiableCertificate> path = new ArrayList<>();
+		for (CardVerifiableCertificate c = next; c != null; c = subjects.get(c)) {
+		    path.add(c);
+		}
+		return new CardVerifiableCertificateChain(path);
+	    }
+
+	    for (CardVerifiableCertificate issuer : certs) {
+		// self signed certificates can not be verified without trusting them already
+		boolean selfSigned = issuer.getCAR().compare(issuer.getCHR());
+		if (! selfSigned && ! subjects.containsKey(issuer) && issuer.getCHR().compare(next.getCAR())) {
+		    subjects.put(issuer, next);
+		    queue.add(issuer);
+		}
+	    }
+	}
+
+	String msg = String.format("Malformed certificate chain: No path from the terminal certificate (%s) to a "
+		+ "trust point of the card.", terminalCert.getCHR());
+	throw new CertificateException(msg);
+    }
+
+    private static boolean isTrustPoint(PublicKeyReference car, List<byte[]> trustPoints) {
+	for (byte[] trustPoint : trustPoints) {
+	    if (trustPoint != null && car.compare(trustPoint)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
     private ArrayList<CardVerifiableCertificate> buildChain(ArrayList<CardVerifiableCertificate> certs, PublicKeyReference car) {
 	ArrayList<CardVerifiableCertificate> certChain = new ArrayList<>();
 
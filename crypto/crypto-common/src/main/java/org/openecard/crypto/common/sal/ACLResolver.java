@@ -68,6 +68,34 @@ public class ACLResolver {
 
     public List<DIDStructureType> getUnsatisfiedDIDs(TargetNameType target) throws DispatcherException, WSException,
 	    InvocationTargetException, SecurityConditionUnsatisfiable {
+	List<DIDStructureType> dids = getRequiredDIDs(target);
+
+	// the structures are freshly fetched, so their authentication state is current
+	ArrayList<DIDStructureType> result = new ArrayList<>(dids.size());
+	for (DIDStructureType did : dids) {
+	    if (! did.isAuthenticated()) {
+		result.add(did);
+	    }
+	}
+
+	return result;
+    }
+
+    /**
+     * Gets all DIDs which must be authenticated in order to access the given target.
+     * In contrast to {@link #getUnsatisfiedDIDs(TargetNameType)}, DIDs which are already authenticated are contained
+     * in the result as well. The authentication state of the returned structures reflects the state at the time of
+     * this call.
+     *
+     * @param target Target for which the ACL is evaluated.
+     * @return List of DIDs needed to access the target, without duplicates.
+     * @throws DispatcherException
+     * @throws WSException
+     * @throws InvocationTargetException
+     * @throws SecurityConditionUnsatisfiable Thrown in case the ACL of the target can never be satisfied.
+     */
+    public List<DIDStructureType> getRequiredDIDs(TargetNameType target) throws DispatcherException, WSException,
+	    InvocationTargetException, SecurityConditionUnsatisfiable {
 	// get the ACL first
 	ACLList aclReq = new ACLList();
 	aclReq.setConnectionHandle(handle);
@@ -76,12 +104,35 @@ public class ACLResolver {
 	WSHelper.checkResult(aclRes);
 	List<AccessRuleType> acls = aclRes.getTargetACL().getAccessRule();
 
-	List<DIDStructureType> dids = getMissingDids(acls, target);
+	List<DIDStructureType> dids = getNeededDids(acls, target);
 
 	return dids;
     }
 
-    private List<DIDStructureType> getMissingDids(List<AccessRuleType> acls, TargetNameType target)
+    /**
+     * Determines which of the given DIDs are not authenticated at the moment.
+     * The authentication state of each DID is requested from the SAL again, so that previously resolved DID lists can
+     * be reused without evaluating the ACL another time.
+     *
+     * @param dids DIDs as returned by {@link #getRequiredDIDs(TargetNameType)}.
+     * @return List of DIDs which are currently not authenticated.
+     * @throws DispatcherException
+     * @throws WSException
+     * @throws InvocationTargetException
+     */
+    public List<DIDStructureType> getUnauthenticatedDIDs(List<DIDStructureType> dids) throws DispatcherException,
+	    WSException, InvocationTargetException {
+	ArrayList<DIDStructureType> result = new ArrayList<>(dids.size());
+	for (DIDStructureType did : dids) {
+	    DIDStructureType current = getDID(did.getDIDName());
+	    if (! current.isAuthenticated()) {
+		result.add(current);
+	    }
+	}
+	return result;
+    }
+
+    private List<DIDStructureType> getNeededDids(List<AccessRuleType> acls, TargetNameType target)
 	    throws DispatcherException, InvocationTargetException, SecurityConditionUnsatisfiable, WSException {
 	// find the sign acl
 	ArrayList<AccessRuleType> tmpAcls = new ArrayList<>();
@@ -111,10 +162,10 @@ public class ACLResolver {
 	    // get the most suitable DID in the tree
 	    SecurityConditionType cond = normalize(acl.getSecurityCondition());
 	    cond = getBestSecurityCondition(cond);
-	    // flatten condition to list of unsatisfied dids
+	    // flatten condition to list of dids
 	    List<DIDAuthenticationStateType> authStates = flattenCondition(cond);
-	    List<DIDStructureType> missingDIDs = filterSatisfiedDIDs(authStates);
-	    result.addAll(missingDIDs);
+	    List<DIDStructureType> neededDIDs = resolveDIDs(authStates);
+	    result.addAll(neededDIDs);
 	}
 
 	// remove duplicates
@@ -184,28 +235,29 @@ public class ACLResolver {
 	throw new SecurityConditionUnsatisfiable(msg);
     }
 
-    private List<DIDStructureType> filterSatisfiedDIDs(List<DIDAuthenticationStateType> states)
+    private List<DIDStructureType> resolveDIDs(List<DIDAuthenticationStateType> states)
 	    throws DispatcherException, InvocationTargetException, WSException {
 	ArrayList<DIDStructureType> result = new ArrayList<>(states.size());
 
 	for (DIDAuthenticationStateType state : states) {
 	    if (state.isDIDState()) {
-		// perform DIDGet to see if the DID is authenticated
-		DIDGet req = new DIDGet();
-		req.setConnectionHandle(handle);
-		req.setDIDName(state.getDIDName());
-		req.setDIDScope(DIDScopeType.GLOBAL); // search everywhere
-		DIDGetResponse res = (DIDGetResponse) dispatcher.deliver(req);
-		WSHelper.checkResult(res);
-
-		// add it if not authenticated
-		if (! res.getDIDStructure().isAuthenticated()) {
-		    result.add(res.getDIDStructure());
-		}
+		// the DID structure contains the authentication state
+		result.add(getDID(state.getDIDName()));
 	    }
 	}
 
 	return result;
     }
 
+    private DIDStructureType getDID(String didName) throws DispatcherException, InvocationTargetException,
+	    WSException {
+	DIDGet req = new DIDGet();
+	req.setConnectionHandle(handle);
+	req.setDIDName(didName);
+	req.setDIDScope(DIDScopeType.GLOBAL); // search everywhere
+	DIDGetResponse res = (DIDGetResponse) dispatcher.deliver(req);
+	WSHelper.checkResult(res);
+	return res.getDIDStructure();
+    }
+
 }
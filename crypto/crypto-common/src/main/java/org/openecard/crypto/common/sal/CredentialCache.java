@@ -0,0 +1,152 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.crypto.common.sal;
+
+import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import org.openecard.common.enums.EventType;
+import org.openecard.common.interfaces.EventCallback;
+import org.openecard.common.util.ByteUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Process wide cache of credential metadata used by the {@link GenericCryptoSigner}.
+ * The descriptors are stored per terminal slot, card application and DID. In order to get rid of stale entries, the
+ * cache must be registered for the {@link EventType#CARD_REMOVED} and {@link EventType#TERMINAL_REMOVED} events.
+ * Changes of the authentication state which are not caused by the signer can be announced with
+ * {@link #invalidateAuthentication(ConnectionHandleType)}. The SAL does this when a card is reset or a different
+ * card application is selected.
+ *
+ * @author agent
+ */
+public final class CredentialCache implements EventCallback {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialCache.class);
+
+    private static final CredentialCache INSTANCE = new CredentialCache();
+
+    private final ConcurrentMap<String, CredentialDescriptor> descriptors;
+
+    private CredentialCache() {
+	descriptors = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the single instance of the cache.
+     *
+     * @return The credential cache instance.
+     */
+    public static CredentialCache getInstance() {
+	return INSTANCE;
+    }
+
+    /**
+     * Gets the descriptor for the given DID, or creates it if it does not exist yet.
+     * Handles lacking terminal information can not be invalidated by card events, so a descriptor which is not cached
+     * is returned for them.
+     *
+     * @param handle Handle identifying the card containing the DID.
+     * @param cert DID whose descriptor is requested.
+     * @return The descriptor for the DID.
+     */
+    @Nonnull
+    CredentialDescriptor getDescriptor(@Nonnull ConnectionHandleType handle, @Nonnull DIDCertificate cert) {
+	if (handle.getIFDName() == null) {
+	    return new CredentialDescriptor(null, null);
+	}
+
+	String key = createKey(handle, cert);
+	CredentialDescriptor desc = descriptors.get(key);
+	if (desc == null) {
+	    desc = new CredentialDescriptor(handle.getIFDName(), handle.getSlotIndex());
+	    CredentialDescriptor old = descriptors.putIfAbsent(key, desc);
+	    if (old != null) {
+		desc = old;
+	    }
+	}
+	return desc;
+    }
+
+    /**
+     * Removes all descriptors of the card identified by the given handle.
+     * If the handle contains no slot index, the descriptors of all slots of the terminal are removed.
+     *
+     * @param handle Handle identifying the terminal and slot of the card.
+     */
+    public void invalidate(@Nonnull ConnectionHandleType handle) {
+	Iterator<Map.Entry<String, CredentialDescriptor>> it = descriptors.entrySet().iterator();
+	while (it.hasNext()) {
+	    if (it.next().getValue().isLocatedIn(handle.getIFDName(), handle.getSlotIndex())) {
+		it.remove();
+	    }
+	}
+    }
+
+    /**
+     * Forgets the authentication state of all credentials of the card identified by the given handle.
+     * The next signature with such a credential evaluates the ACLs again and performs the authentication if needed.
+     *
+     * @param handle Handle identifying the terminal and slot of the card.
+     */
+    public void invalidateAuthentication(@Nonnull ConnectionHandleType handle) {
+	for (CredentialDescriptor desc : descriptors.values()) {
+	    if (desc.isLocatedIn(handle.getIFDName(), handle.getSlotIndex())) {
+		desc.invalidateAuthentication();
+	    }
+	}
+    }
+
+    @Override
+    public void signalEvent(EventType eventType, Object eventData) {
+	if (eventData instanceof ConnectionHandleType) {
+	    switch (eventType) {
+		case CARD_REMOVED:
+		case TERMINAL_REMOVED:
+		    ConnectionHandleType handle = (ConnectionHandleType) eventData;
+		    logger.debug("Removing cached credentials of terminal {}.", handle.getIFDName());
+		    invalidate(handle);
+		    break;
+		default:
+		    // not a relevant event
+		    break;
+	    }
+	}
+    }
+
+    private static String createKey(ConnectionHandleType handle, DIDCertificate cert) {
+	StringBuilder sb = new StringBuilder();
+	sb.append(ByteUtils.toHexString(handle.getContextHandle())).append('|');
+	sb.append(handle.getIFDName()).append('|');
+	sb.append(handle.getSlotIndex()).append('|');
+	sb.append(ByteUtils.toHexString(cert.getApplicationIdentifier())).append('|');
+	sb.append(cert.getDIDName());
+	return sb.toString();
+    }
+
+}
@@ -0,0 +1,168 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.crypto.common.sal;
+
+import iso.std.iso_iec._24727.tech.schema.DIDStructureType;
+import iso.std.iso_iec._24727.tech.schema.TargetNameType;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.openecard.bouncycastle.crypto.tls.SignatureAndHashAlgorithm;
+
+
+/**
+ * Metadata of a generic crypto credential which stays valid as long as the card stays in the terminal.
+ * The descriptor holds the signature algorithm of the DID, the DIDs needed to satisfy the ACLs of the DID and its
+ * certificate data set, and the certificate chain in its different representations. Whether the needed DIDs have
+ * been authenticated is remembered per target, so that consecutive signatures need no further SAL messages than
+ * the {@code Sign} call itself.
+ * <p>Instances are obtained from the {@link CredentialCache}.</p>
+ *
+ * @author agent
+ */
+final class CredentialDescriptor {
+
+    private final String ifdName;
+    private final BigInteger slotIndex;
+
+    private SignatureAndHashAlgorithm sigAndHash;
+    private byte[] rawCertData;
+    private org.openecard.bouncycastle.crypto.tls.Certificate bcCert;
+    private final Map<String, java.security.cert.Certificate[]> javaCerts = new HashMap<>();
+    private final Map<String, List<DIDStructureType>> prerequisites = new HashMap<>();
+    private final Set<String> satisfiedTargets = new HashSet<>();
+
+    CredentialDescriptor(@Nullable String ifdName, @Nullable BigInteger slotIndex) {
+	this.ifdName = ifdName;
+	this.slotIndex = slotIndex;
+    }
+
+    /**
+     * Checks whether the descriptor belongs to the card in the given terminal slot.
+     *
+     * @param ifdName Name of the terminal.
+     * @param slotIndex Index of the slot in the terminal, or {@code null} if all slots of the terminal match.
+     * @return {@code true} if the credential is located in the given slot, {@code false} otherwise.
+     */
+    boolean isLocatedIn(@Nullable String ifdName, @Nullable BigInteger slotIndex) {
+	if (this.ifdName == null || ! this.ifdName.equals(ifdName)) {
+	    return false;
+	}
+	return slotIndex == null || this.slotIndex == null || this.slotIndex.equals(slotIndex);
+    }
+
+
+    @Nullable
+    synchronized SignatureAndHashAlgorithm getSignatureAndHashAlgorithm() {
+	return sigAndHash;
+    }
+
+    synchronized void setSignatureAndHashAlgorithm(@Nonnull SignatureAndHashAlgorithm sigAndHash) {
+	this.sigAndHash = sigAndHash;
+    }
+
+    @Nullable
+    synchronized byte[] getRawCertificate() {
+	return rawCertData;
+    }
+
+    synchronized void setRawCertificate(@Nonnull byte[] rawCertData) {
+	if (this.rawCertData == null) {
+	    this.rawCertData = rawCertData;
+	}
+    }
+
+    @Nullable
+    synchronized org.openecard.bouncycastle.crypto.tls.Certificate getBCCertificate() {
+	return bcCert;
+    }
+
+    synchronized void setBCCertificate(@Nonnull org.openecard.bouncycastle.crypto.tls.Certificate bcCert) {
+	this.bcCert = bcCert;
+    }
+
+    @Nullable
+    synchronized java.security.cert.Certificate[] getJavaSecCertificates(@Nonnull String certType) {
+	return javaCerts.get(certType);
+    }
+
+    synchronized void setJavaSecCertificates(@Nonnull String certType,
+	    @Nonnull java.security.cert.Certificate[] certs) {
+	javaCerts.put(certType, certs);
+    }
+
+
+    /**
+     * Gets the DIDs which must be authenticated to access the given target.
+     *
+     * @param target Target the DIDs have been resolved for.
+     * @return The list of DIDs, or {@code null} if the ACL of the target has not been evaluated yet.
+     */
+    @Nullable
+    synchronized List<DIDStructureType> getPrerequisites(@Nonnull TargetNameType target) {
+	return prerequisites.get(key(target));
+    }
+
+    synchronized void setPrerequisites(@Nonnull TargetNameType target, @Nonnull List<DIDStructureType> dids) {
+	prerequisites.put(key(target), Collections.unmodifiableList(dids));
+    }
+
+    /**
+     * Checks whether all DIDs needed for the target have been authenticated.
+     * The state reflects the last authentication performed by this process. It is reset by
+     * {@link #invalidateAuthentication()} when the authentication state of the card changed.
+     *
+     * @param target Target to check.
+     * @return {@code true} if the target has been accessible the last time it was checked, {@code false} otherwise.
+     */
+    synchronized boolean isSatisfied(@Nonnull TargetNameType target) {
+	return satisfiedTargets.contains(key(target));
+    }
+
+    synchronized void setSatisfied(@Nonnull TargetNameType target) {
+	satisfiedTargets.add(key(target));
+    }
+
+    /**
+     * Forgets about all authenticated targets.
+     * The resolved algorithm, ACLs and certificates are kept, as they do not depend on the authentication state.
+     */
+    synchronized void invalidateAuthentication() {
+	satisfiedTargets.clear();
+    }
+
+    private static String key(TargetNameType target) {
+	if (target.getDIDName() != null) {
+	    return "DID:" + target.getDIDName();
+	} else {
+	    return "DataSet:" + target.getDataSetName();
+	}
+    }
+
+}
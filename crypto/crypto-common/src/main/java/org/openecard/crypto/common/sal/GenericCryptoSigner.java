@@ -43,10 +43,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.security.SignatureException;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import javax.annotation.Nonnull;
 import org.openecard.bouncycastle.crypto.tls.Certificate;
 import org.openecard.bouncycastle.crypto.tls.HashAlgorithm;
@@ -78,12 +77,12 @@ public class GenericCryptoSigner {
     private final ConnectionHandleType handle;
     private final String didName;
     private final DIDCertificate didCert;
-    private byte[] rawCertData;
-    private final Map<String, java.security.cert.Certificate[]> javaCerts;
-    private org.openecard.bouncycastle.crypto.tls.Certificate bcCert;
+    private final CredentialDescriptor descriptor;
 
     /**
      * Creates a Generic Crypto signer and defines the card, application and target DID through the parameters.
+     * Metadata of the DID which has been resolved by earlier signer instances for the same card is taken from the
+     * {@link CredentialCache}.
      *
      * @param dispatcher Dispatcher used to talk to the SAL.
      * @param handle Handle naming the SAL, card and application of the DID. The application connection can change over
@@ -92,14 +91,16 @@ public class GenericCryptoSigner {
      */
     public GenericCryptoSigner(@Nonnull Dispatcher dispatcher, @Nonnull ConnectionHandleType handle,
 	    @Nonnull DIDCertificate cert) {
-	this.javaCerts = new HashMap<>();
 	this.dispatcher = dispatcher;
 	this.fileUtils = new SALFileUtils(dispatcher);
 	this.handle = handle;
 	didName = cert.getDIDName();
-	rawCertData = cert.getRawCertificate();
 	this.didCert = cert;
 	this.handle.setCardApplication(cert.getApplicationIdentifier());
+	this.descriptor = CredentialCache.getInstance().getDescriptor(handle, cert);
+	if (cert.getRawCertificate() != null) {
+	    descriptor.setRawCertificate(cert.getRawCertificate());
+	}
     }
 
 
@@ -113,6 +114,7 @@ public class GenericCryptoSigner {
      * @throws IOException In case any other error occurred during the reading of the certificate.
      */
     public synchronized byte[] getCertificateChain() throws CredentialPermissionDenied, IOException {
+	byte[] rawCertData = descriptor.getRawCertificate();
 	if (rawCertData == null) {
 	    String dataSetName = didCert.getDataSetName();
 	    if (dataSetName != null) {
@@ -123,6 +125,7 @@ public class GenericCryptoSigner {
 	    if (rawCertData == null) {
 		throw new IOException("Failed to read certificate contents.");
 	    }
+	    descriptor.setRawCertificate(rawCertData);
 	}
 	return rawCertData;
     }
@@ -161,15 +164,17 @@ public class GenericCryptoSigner {
     public java.security.cert.Certificate[] getJavaSecCertificateChain(@Nonnull String certType)
 	    throws CredentialPermissionDenied, CertificateException, IOException {
 	// is the certificate already available in java.security form?
-	if (! javaCerts.containsKey(certType)) {
+	java.security.cert.Certificate[] result = descriptor.getJavaSecCertificates(certType);
+	if (result == null) {
 	    byte[] certs = getCertificateChain();
 	    CertificateFactory cf = CertificateFactory.getInstance(certType);
 	    Collection<? extends java.security.cert.Certificate> javaCert;
 	    javaCert = cf.generateCertificates(new ByteArrayInputStream(certs));
-	    javaCerts.put(certType, toArray(javaCert));
+	    result = toArray(javaCert);
+	    descriptor.setJavaSecCertificates(certType, result);
 	}
 
-	return javaCerts.get(certType);
+	return result;
     }
 
     private java.security.cert.Certificate[] toArray(Collection<? extends java.security.cert.Certificate> javaCert) {
@@ -196,9 +201,11 @@ public class GenericCryptoSigner {
     public org.openecard.bouncycastle.crypto.tls.Certificate getBCCertificateChain() throws CredentialPermissionDenied,
 	    CertificateException, IOException {
 	// is the certificate already available in BC form?
+	Certificate bcCert = descriptor.getBCCertificate();
 	if (bcCert == null) {
 	    byte[] certs = getCertificateChain();
 	    bcCert = convertToCertificate(certs);
+	    descriptor.setBCCertificate(bcCert);
 	}
 
 	return bcCert;
@@ -206,6 +213,9 @@ public class GenericCryptoSigner {
 
     /**
      * Signs the given hash with the DID represented by this instance.
+     * When the DID has been usable the last time it was accessed, the signature is requested right away. Only when
+     * this fails, the application is selected, the ACL of the DID is evaluated and missing authentications are
+     * performed before signing again.
      *
      * @param hash The hash that should be signed.
      * @return Signature of the given hash.
@@ -215,28 +225,30 @@ public class GenericCryptoSigner {
      *   permissions.
      */
     public byte[] sign(@Nonnull byte[] hash) throws SignatureException, CredentialPermissionDenied {
+	TargetNameType target = new TargetNameType();
+	target.setDIDName(didName);
+
 	try {
+	    if (descriptor.isSatisfied(target)) {
+		handle.setCardApplication(didCert.getApplicationIdentifier());
+		try {
+		    SignResponse res = deliverSign(hash);
+		    WSHelper.checkResult(res);
+		    return getSignature(res);
+		} catch (WSException ex) {
+		    // the card state changed in the meantime, so the preconditions must be established again
+		    logger.debug("Signature with previously established authentication state failed.", ex);
+		    descriptor.invalidateAuthentication();
+		}
+	    }
+
 	    fileUtils.selectApplication(didCert.getApplicationIdentifier(), handle);
 	    handle.setCardApplication(didCert.getApplicationIdentifier());
-	    TargetNameType target = new TargetNameType();
-	    target.setDIDName(didName);
 	    performMissingAuthentication(target);
 
-	    Sign sign = new Sign();
-	    sign.setMessage(hash);
-	    sign.setDIDName(didName);
-	    sign.setDIDScope(DIDScopeType.LOCAL);
-	    sign.setConnectionHandle(handle);
-	    SignResponse res = (SignResponse) dispatcher.deliver(sign);
+	    SignResponse res = deliverSign(hash);
 	    WSHelper.checkResult(res);
-
-	    byte[] sig = res.getSignature();
-	    if (sig == null) {
-		logger.error("Failed to create signature for TLS connection.");
-		return new byte[] {};
-	    } else {
-		return sig;
-	    }
+	    return getSignature(res);
 	} catch (InvocationTargetException e) {
 	    logger.error("Signature generation failed.", e);
 	    throw new SignatureException(e);
@@ -252,6 +264,25 @@ public class GenericCryptoSigner {
 	}
     }
 
+    private SignResponse deliverSign(byte[] hash) throws DispatcherException, InvocationTargetException {
+	Sign sign = new Sign();
+	sign.setMessage(hash);
+	sign.setDIDName(didName);
+	sign.setDIDScope(DIDScopeType.LOCAL);
+	sign.setConnectionHandle(handle);
+	return (SignResponse) dispatcher.deliver(sign);
+    }
+
+    private byte[] getSignature(SignResponse res) {
+	byte[] sig = res.getSignature();
+	if (sig == null) {
+	    logger.error("Failed to create signature for TLS connection.");
+	    return new byte[] {};
+	} else {
+	    return sig;
+	}
+    }
+
     private Certificate convertToCertificate(byte[] certificateBytes) throws CertificateException {
 	org.openecard.bouncycastle.asn1.x509.Certificate x509Certificate =
 		org.openecard.bouncycastle.asn1.x509.Certificate.getInstance(certificateBytes);
@@ -311,9 +342,26 @@ public class GenericCryptoSigner {
 
     private void performMissingAuthentication(TargetNameType target) throws DispatcherException, WSException,
 	    InvocationTargetException, SecurityConditionUnsatisfiable {
-	// get unauthenticated DID
+	if (descriptor.isSatisfied(target)) {
+	    return;
+	}
+
+	// get unauthenticated DID, the ACL only needs to be evaluated once per card
 	ACLResolver resolver = new ACLResolver(dispatcher, handle);
-	List<DIDStructureType> missingDIDs = resolver.getUnsatisfiedDIDs(target);
+	List<DIDStructureType> missingDIDs;
+	List<DIDStructureType> neededDIDs = descriptor.getPrerequisites(target);
+	if (neededDIDs == null) {
+	    neededDIDs = resolver.getRequiredDIDs(target);
+	    descriptor.setPrerequisites(target, neededDIDs);
+	    missingDIDs = new ArrayList<>();
+	    for (DIDStructureType did : neededDIDs) {
+		if (! did.isAuthenticated()) {
+		    missingDIDs.add(did);
+		}
+	    }
+	} else {
+	    missingDIDs = resolver.getUnauthenticatedDIDs(neededDIDs);
+	}
 
 	// authenticate those DIDs
 	for (DIDStructureType did : missingDIDs) {
@@ -331,10 +379,17 @@ public class GenericCryptoSigner {
 	    DIDAuthenticateResponse res = (DIDAuthenticateResponse) dispatcher.deliver(req);
 	    WSHelper.checkResult(res);
 	}
+
+	descriptor.setSatisfied(target);
     }
 
     public SignatureAndHashAlgorithm getSignatureAndHashAlgorithm() {
-	SignatureAndHashAlgorithm sigAndHash = new SignatureAndHashAlgorithm(HashAlgorithm.sha256, SignatureAlgorithm.rsa);
+	SignatureAndHashAlgorithm sigAndHash = descriptor.getSignatureAndHashAlgorithm();
+	if (sigAndHash != null) {
+	    return sigAndHash;
+	}
+
+	sigAndHash = new SignatureAndHashAlgorithm(HashAlgorithm.sha256, SignatureAlgorithm.rsa);
 	try {
 	    DIDGet didGet = new DIDGet();
 	    didGet.setConnectionHandle(handle);
@@ -348,6 +403,7 @@ public class GenericCryptoSigner {
 	    if (sigAndHash == null) {
 		throw new IllegalArgumentException("Illegal oid for the signature algorithm.");
 	    }
+	    descriptor.setSignatureAndHashAlgorithm(sigAndHash);
 	} catch (DispatcherException ex) {
 	    logger.error("Failed to get DID for DIDName: {}.", didName, ex);
 	} catch (InvocationTargetException ex) {
@@ -24,7 +24,10 @@ package org.openecard.crypto.common.asn1.cvc;
 
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.security.cert.CertificateException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.openecard.crypto.common.asn1.eac.EFCardAccessTest;
 import org.testng.annotations.Test;
 import static org.testng.Assert.*;
@@ -91,6 +94,35 @@ public class CardVerifiableCertificateChainTest {
 	assertTrue(certificates.get(2).compare(chain.getTerminalCertificate()));
     }
 
+    @Test
+    public void testCertificatePath() throws Exception {
+	init();
+	CardVerifiableCertificateChain chain = new CardVerifiableCertificateChain(certificates);
+	CardVerifiableCertificate cvcaCert = chain.getCVCACertificates().get(0);
+	CardVerifiableCertificate dvCert = chain.getDVCertificates().get(0);
+	CardVerifiableCertificate atCert = chain.getTerminalCertificate();
+
+	// the card knows the CVCA, so it must not be sent again
+	List<byte[]> trustPoints = Arrays.asList(cvcaCert.getCHR().toByteArray(), null);
+	List<CardVerifiableCertificate> path = chain.getCertificatePath(trustPoints).getCertificates();
+	assertEquals(path.size(), 2);
+	assertTrue(path.get(0).compare(dvCert));
+	assertTrue(path.get(1).compare(atCert));
+
+	// unknown current trust point, but the previous one is known
+	trustPoints = Arrays.asList(new byte[] { 0x01, 0x02 }, dvCert.getCHR().toByteArray());
+	path = chain.getCertificatePath(trustPoints).getCertificates();
+	assertEquals(path.size(), 1);
+	assertTrue(path.get(0).compare(atCert));
+
+	try {
+	    chain.getCertificatePath(Arrays.asList(new byte[] { 0x01, 0x02 }));
+	    fail("Chain without a trust point must be rejected.");
+	} catch (CertificateException ex) {
+	    // expected
+	}
+    }
+
     private byte[] loadTestFile(String file) throws Exception {
 	String path = "/" + file;
 	InputStream is = EFCardAccessTest.class.getResourceAsStream(path);
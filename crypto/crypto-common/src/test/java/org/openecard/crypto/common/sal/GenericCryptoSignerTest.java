@@ -0,0 +1,224 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.crypto.common.sal;
+
+import iso.std.iso_iec._24727.tech.schema.ACLList;
+import iso.std.iso_iec._24727.tech.schema.ACLListResponse;
+import iso.std.iso_iec._24727.tech.schema.AccessControlListType;
+import iso.std.iso_iec._24727.tech.schema.AccessRuleType;
+import iso.std.iso_iec._24727.tech.schema.ActionNameType;
+import iso.std.iso_iec._24727.tech.schema.CardApplicationConnect;
+import iso.std.iso_iec._24727.tech.schema.CardApplicationConnectResponse;
+import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
+import iso.std.iso_iec._24727.tech.schema.CryptographicServiceActionName;
+import iso.std.iso_iec._24727.tech.schema.DIDAuthenticate;
+import iso.std.iso_iec._24727.tech.schema.DIDAuthenticateResponse;
+import iso.std.iso_iec._24727.tech.schema.DIDAuthenticationStateType;
+import iso.std.iso_iec._24727.tech.schema.DIDGet;
+import iso.std.iso_iec._24727.tech.schema.DIDGetResponse;
+import iso.std.iso_iec._24727.tech.schema.DIDScopeType;
+import iso.std.iso_iec._24727.tech.schema.DIDStructureType;
+import iso.std.iso_iec._24727.tech.schema.PinCompareMarkerType;
+import iso.std.iso_iec._24727.tech.schema.SecurityConditionType;
+import iso.std.iso_iec._24727.tech.schema.Sign;
+import iso.std.iso_iec._24727.tech.schema.SignResponse;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openecard.common.ECardConstants;
+import org.openecard.common.WSHelper;
+import org.openecard.common.enums.EventType;
+import org.openecard.common.interfaces.Dispatcher;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Tests the reuse of credential metadata between signatures.
+ *
+ * @author agent
+ */
+public class GenericCryptoSignerTest {
+
+    private static final byte[] APP_ID = new byte[] { 0x01, 0x02 };
+    private static final byte[] SIGNATURE = new byte[] { 0x0A, 0x0B };
+
+    private CardDispatcher dispatcher;
+
+    @BeforeMethod
+    public void setup() {
+	dispatcher = new CardDispatcher();
+	CredentialCache.getInstance().invalidate(createHandle());
+    }
+
+    @Test
+    public void testSignReusesAuthenticationState() throws Exception {
+	byte[] sig = createSigner().sign(new byte[] { 0x00 });
+	assertEquals(sig, SIGNATURE);
+	assertEquals(dispatcher.messages(), Arrays.asList("CardApplicationConnect", "ACLList", "DIDGet",
+		"DIDAuthenticate", "Sign"));
+
+	// a new signer for the same card only needs the signature itself
+	dispatcher.messages.clear();
+	sig = createSigner().sign(new byte[] { 0x00 });
+	assertEquals(sig, SIGNATURE);
+	assertEquals(dispatcher.messages(), Arrays.asList("Sign"));
+    }
+
+    @Test
+    public void testSignAfterAuthenticationLoss() throws Exception {
+	GenericCryptoSigner signer = createSigner();
+	signer.sign(new byte[] { 0x00 });
+
+	// card forgets its authentication state, the ACL must not be evaluated again
+	dispatcher.authenticated = false;
+	dispatcher.messages.clear();
+	byte[] sig = signer.sign(new byte[] { 0x00 });
+	assertEquals(sig, SIGNATURE);
+	assertEquals(dispatcher.messages(), Arrays.asList("Sign", "CardApplicationConnect", "DIDGet",
+		"DIDAuthenticate", "Sign"));
+    }
+
+    @Test
+    public void testCardRemoval() throws Exception {
+	createSigner().sign(new byte[] { 0x00 });
+
+	CredentialCache.getInstance().signalEvent(EventType.CARD_REMOVED, createHandle());
+	dispatcher.authenticated = false;
+	dispatcher.messages.clear();
+	createSigner().sign(new byte[] { 0x00 });
+	assertEquals(dispatcher.messages(), Arrays.asList("CardApplicationConnect", "ACLList", "DIDGet",
+		"DIDAuthenticate", "Sign"));
+    }
+
+    @Test
+    public void testCardReset() throws Exception {
+	createSigner().sign(new byte[] { 0x00 });
+
+	// the card is reset without being removed, the SAL announces this to the cache
+	dispatcher.authenticated = false;
+	CredentialCache.getInstance().invalidateAuthentication(createHandle());
+	dispatcher.messages.clear();
+	byte[] sig = createSigner().sign(new byte[] { 0x00 });
+	assertEquals(sig, SIGNATURE);
+	assertEquals(dispatcher.messages(), Arrays.asList("CardApplicationConnect", "DIDGet", "DIDAuthenticate",
+		"Sign"));
+    }
+
+    private GenericCryptoSigner createSigner() {
+	DIDCertificate cert = new DIDCertificate();
+	cert.setDIDName("PrK.CH.AUT");
+	cert.setApplicationID(APP_ID);
+	cert.setRawCertificate(new byte[] { 0x30, 0x00 });
+	return new GenericCryptoSigner(dispatcher, createHandle(), cert);
+    }
+
+    private static ConnectionHandleType createHandle() {
+	ConnectionHandleType handle = new ConnectionHandleType();
+	handle.setContextHandle(new byte[] { 0x11 });
+	handle.setIFDName("Test Terminal");
+	handle.setSlotIndex(BigInteger.ZERO);
+	return handle;
+    }
+
+    /**
+     * Simulates a SAL containing a card whose signature DID is protected by a PIN.
+     */
+    private static class CardDispatcher implements Dispatcher {
+
+	private final List<Object> messages = new ArrayList<>();
+	private boolean authenticated = false;
+
+	private List<String> messages() {
+	    List<String> result = new ArrayList<>();
+	    for (Object next : messages) {
+		result.add(next.getClass().getSimpleName());
+	    }
+	    return result;
+	}
+
+	@Override
+	public Object deliver(Object req) {
+	    messages.add(req);
+	    if (req instanceof CardApplicationConnect) {
+		CardApplicationConnectResponse res = WSHelper.makeResponse(CardApplicationConnectResponse.class,
+			WSHelper.makeResultOK());
+		res.setConnectionHandle(createHandle());
+		return res;
+	    } else if (req instanceof ACLList) {
+		DIDAuthenticationStateType state = new DIDAuthenticationStateType();
+		state.setDIDName("PIN.CH");
+		state.setDIDState(true);
+		SecurityConditionType cond = new SecurityConditionType();
+		cond.setDIDAuthentication(state);
+		ActionNameType action = new ActionNameType();
+		action.setCryptographicServiceAction(CryptographicServiceActionName.SIGN);
+		AccessRuleType rule = new AccessRuleType();
+		rule.setAction(action);
+		rule.setSecurityCondition(cond);
+		AccessControlListType acl = new AccessControlListType();
+		acl.getAccessRule().add(rule);
+		ACLListResponse res = WSHelper.makeResponse(ACLListResponse.class, WSHelper.makeResultOK());
+		res.setTargetACL(acl);
+		return res;
+	    } else if (req instanceof DIDGet) {
+		PinCompareMarkerType marker = new PinCompareMarkerType();
+		marker.setProtocol(ECardConstants.Protocol.PIN_COMPARE);
+		DIDStructureType did = new DIDStructureType();
+		did.setDIDName(((DIDGet) req).getDIDName());
+		did.setDIDScope(DIDScopeType.GLOBAL);
+		did.setDIDMarker(marker);
+		did.setAuthenticated(authenticated);
+		DIDGetResponse res = WSHelper.makeResponse(DIDGetResponse.class, WSHelper.makeResultOK());
+		res.setDIDStructure(did);
+		return res;
+	    } else if (req instanceof DIDAuthenticate) {
+		authenticated = true;
+		return WSHelper.makeResponse(DIDAuthenticateResponse.class, WSHelper.makeResultOK());
+	    } else if (req instanceof Sign) {
+		if (! authenticated) {
+		    return WSHelper.makeResponse(SignResponse.class,
+			    WSHelper.makeResultError(ECardConstants.Minor.SAL.SECURITY_CONDITINON_NOT_SATISFIED, null));
+		}
+		SignResponse res = WSHelper.makeResponse(SignResponse.class, WSHelper.makeResultOK());
+		res.setSignature(SIGNATURE);
+		return res;
+	    }
+	    throw new IllegalArgumentException("Unexpected message " + req.getClass().getSimpleName() + ".");
+	}
+
+	@Override
+	public List<String> getServiceList() {
+	    throw new UnsupportedOperationException("Not supported.");
+	}
+
+	@Override
+	public Dispatcher getFilter() {
+	    return this;
+	}
+
+    }
+
+}
@@ -24,10 +24,18 @@ package org.openecard.event;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Future;
-import java.util.concurrent.Semaphore;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
 import org.openecard.common.enums.EventType;
 import org.openecard.common.interfaces.EventCallback;
 import org.openecard.common.interfaces.EventFilter;
@@ -36,121 +44,163 @@ import org.openecard.common.interfaces.EventFilter;
 /**
  * EventDispatcher class distributing the events to all registered listeners.
  * Filtering is applied as requested at registration of the listenmer.
+ * <p>Each subscriber owns a mailbox which is drained by a bounded thread pool. Only one thread works on a mailbox at a
+ * time, so a subscriber receives its events in the order in which they occurred. An index from event type to the
+ * interested subscribers avoids evaluating the filters of subscribers which can not be interested in an event.</p>
  *
  * @author Tobias Wich
  */
 public class EventDispatcher {
 
+    private static final int NUM_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
     private static class EventTypeFilter implements EventFilter {
 
-	private final ArrayList<EventType> eventType;
+	private final Set<EventType> eventType;
 
 	public EventTypeFilter(EventType ... eventType) {
 	    if (eventType.length == 0) {
-		this.eventType = new ArrayList<>(Arrays.asList(EventType.values()));
+		this.eventType = EnumSet.allOf(EventType.class);
 	    } else {
-		this.eventType = new ArrayList<>(Arrays.asList(eventType));
+		this.eventType = EnumSet.copyOf(Arrays.asList(eventType));
 	    }
 	}
 
+	public Set<EventType> getEventTypes() {
+	    return eventType;
+	}
 
 	@Override
 	public boolean matches(EventType t, Object o) {
-	    for (EventType next : eventType) {
-		if (t.equals(next)) {
-		    return true;
-		}
-	    }
-	    return false;
+	    return eventType.contains(t);
 	}
 
     }
 
-    private static class EventRunner implements Runnable {
-	EventCallback cb; EventType t; Object o;
-
-	public EventRunner(EventCallback cb, EventType t, Object o) {
-	    this.cb = cb; this.t = t; this.o = o;
-	}
-
-	@Override
-	public void run() {
-	    cb.signalEvent(t, o);
-	}
 
+    private final ExecutorService executor;
+    // guarded by this
+    private final Map<EventCallback, EventMailbox> mailboxes;
+    // immutable snapshot, replaced on every change of the subscribers
+    private volatile Map<EventType, List<EventMailbox>> index;
+
+    public EventDispatcher() {
+	this.executor = Executors.newFixedThreadPool(NUM_THREADS, new ThreadFactory() {
+	    private final AtomicInteger num = new AtomicInteger(1);
+	    @Override
+	    public Thread newThread(Runnable r) {
+		Thread t = new Thread(r, "Event-Dispatcher-" + num.getAndIncrement());
+		t.setDaemon(true);
+		return t;
+	    }
+	});
+	this.mailboxes = new HashMap<>();
+	this.index = buildIndex();
     }
 
 
-    // needed because threadPool must be accessible here
-    private final EventManager manager;
-
-    private final Semaphore guard;
-    private final ConcurrentHashMap<EventCallback,ArrayList<EventFilter>> eventFilter;
-
-    public EventDispatcher(EventManager manager) {
-	this.manager = manager;
-	this.guard = new Semaphore(1);
-	this.eventFilter = new ConcurrentHashMap<>();
+    public EventCallback add(EventCallback cb) {
+	return add(cb, new EventTypeFilter());
     }
-
-
-    public synchronized EventCallback add(EventCallback cb) {
-	add(cb, new EventTypeFilter());
-	return cb;
+    public EventCallback add(EventCallback cb, EventType ... eventTypes) {
+	return add(cb, new EventTypeFilter(eventTypes));
     }
-    public synchronized EventCallback add(EventCallback cb, EventType ... eventTypes) {
-	add(cb, new EventTypeFilter(eventTypes));
-	return cb;
+    public EventCallback add(EventCallback cb, EventFilter filter) {
+	return add(cb, filter, MailboxOptions.DEFAULT);
     }
-    public synchronized EventCallback add(EventCallback cb, EventFilter filter) {
-	try {
-	    guard.acquire();
-	    if (! eventFilter.containsKey(cb)) {
-		eventFilter.put(cb, new ArrayList<EventFilter>());
-	    }
-	    eventFilter.get(cb).add(filter);
-	    guard.release();
-	} catch (InterruptedException ex) {
-	    // ignore this bullshit
+
+    /**
+     * Adds a subscriber with the given mailbox options.
+     * When the callback is already registered, the filter is added to its existing filters and the options of the first
+     * registration stay in place.
+     *
+     * @param cb Callback receiving the events.
+     * @param filter Filter selecting the events for the callback.
+     * @param options Options for the mailbox of the callback.
+     * @return The callback given as parameter.
+     */
+    public synchronized EventCallback add(@Nonnull EventCallback cb, @Nonnull EventFilter filter,
+	    @Nonnull MailboxOptions options) {
+	EventMailbox mailbox = mailboxes.get(cb);
+	if (mailbox == null) {
+	    mailbox = new EventMailbox(cb, options, executor);
+	    mailboxes.put(cb, mailbox);
 	}
+	mailbox.addFilter(filter);
+	index = buildIndex();
 	return cb;
     }
 
     public synchronized EventCallback del(EventCallback cb) {
-	try {
-	    guard.acquire();
-	    if (eventFilter.containsKey(cb)) {
-		eventFilter.remove(cb);
-	    }
-	    guard.release();
-	} catch (InterruptedException ex) {
-	    // ignore this bullshit
+	EventMailbox mailbox = mailboxes.remove(cb);
+	if (mailbox != null) {
+	    mailbox.close();
+	    index = buildIndex();
 	}
 	return cb;
     }
 
     public void notify(EventType t, Object o) {
-	try {
-	    guard.acquire();
-	    // check every callback for a matching filter
-	    for (Map.Entry<EventCallback,ArrayList<EventFilter>> entry : eventFilter.entrySet()) {
-		EventCallback cb = entry.getKey();
-		for (EventFilter filter : entry.getValue()) {
-		    if (filter.matches(t, o)) {
-			fork(cb, t, o);
-			break;
-		    }
-		}
+	// only check the subscribers which registered for this type or a custom filter
+	for (EventMailbox mailbox : index.get(t)) {
+	    if (mailbox.matches(t, o)) {
+		mailbox.offer(t, o);
 	    }
-	    guard.release();
-	} catch (InterruptedException ex) {
-	    // ignore this bullshit
 	}
     }
 
-    private Future<?> fork(EventCallback cb, EventType t, Object o) {
-	Future<?> f = manager.threadPool.submit(new EventRunner(cb, t, o));
-	return f;
+    /**
+     * Gets a snapshot of the delivery statistics of all subscribers.
+     *
+     * @return List containing one entry per registered callback.
+     */
+    @Nonnull
+    public synchronized List<SubscriberStatistics> getStatistics() {
+	ArrayList<SubscriberStatistics> result = new ArrayList<>(mailboxes.size());
+	for (EventMailbox mailbox : mailboxes.values()) {
+	    result.add(mailbox.getStatistics());
+	}
+	return result;
+    }
+
+    /**
+     * Stops the delivery of events and discards all pending events.
+     */
+    public synchronized void terminate() {
+	for (EventMailbox mailbox : mailboxes.values()) {
+	    mailbox.close();
+	}
+	executor.shutdownNow();
+    }
+
+    /**
+     * Creates the index from event type to the subscribers possibly interested in this type.
+     * Subscribers with a custom filter are added to all types, as it is not known which types they accept.
+     * Must be called with the lock of this instance held.
+     */
+    private Map<EventType, List<EventMailbox>> buildIndex() {
+	EnumMap<EventType, List<EventMailbox>> newIndex = new EnumMap<>(EventType.class);
+	for (EventType t : EventType.values()) {
+	    newIndex.put(t, new ArrayList<EventMailbox>());
+	}
+	for (EventMailbox mailbox : mailboxes.values()) {
+	    EnumSet<EventType> types = EnumSet.noneOf(EventType.class);
+	    for (EventFilter filter : mailbox.getFilters()) {
+		if (filter instanceof EventTypeFilter) {
+		    types.addAll(((EventTypeFilter) filter).getEventTypes());
+		} else {
+		    types = EnumSet.allOf(EventType.class);
+		    break;
+		}
+	    }
+	    for (EventType t : types) {
+		newIndex.get(t).add(mailbox);
+	    }
+	}
+	for (Map.Entry<EventType, List<EventMailbox>> e : newIndex.entrySet()) {
+	    e.setValue(Collections.unmodifiableList(e.getValue()));
+	}
+	return Collections.unmodifiableMap(newIndex);
     }
 
 }
@@ -0,0 +1,288 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.event;
+
+import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+import org.openecard.common.enums.EventType;
+import org.openecard.common.interfaces.EventCallback;
+import org.openecard.common.interfaces.EventFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Single consumer mailbox of one subscriber of the {@link EventDispatcher}.
+ * Events are appended by the producers and drained by at most one executor thread at a time, so the callback receives
+ * the events in the order they were added. After a batch of events the drain task is resubmitted to the executor so
+ * that a busy subscriber does not starve the others.
+ *
+ * @author agent
+ */
+class EventMailbox implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventMailbox.class);
+    private static final int MAX_BATCH = 32;
+
+    private static class PendingEvent {
+	final EventType type;
+	Object data;
+	final long enqueueTime;
+
+	PendingEvent(EventType type, Object data, long enqueueTime) {
+	    this.type = type;
+	    this.data = data;
+	    this.enqueueTime = enqueueTime;
+	}
+    }
+
+    private final EventCallback callback;
+    private final MailboxOptions options;
+    private final Executor executor;
+    private final List<EventFilter> filters = new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final ArrayDeque<PendingEvent> queue = new ArrayDeque<>();
+    // guarded by lock
+    private boolean scheduled = false;
+    private boolean closed = false;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastLag = 0;
+    private volatile long maxLag = 0;
+
+    EventMailbox(@Nonnull EventCallback callback, @Nonnull MailboxOptions options, @Nonnull Executor executor) {
+	this.callback = callback;
+	this.options = options;
+	this.executor = executor;
+    }
+
+    EventCallback getCallback() {
+	return callback;
+    }
+
+    List<EventFilter> getFilters() {
+	return filters;
+    }
+
+    void addFilter(EventFilter filter) {
+	filters.add(filter);
+    }
+
+    boolean matches(EventType t, Object o) {
+	for (EventFilter filter : filters) {
+	    if (filter.matches(t, o)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Adds an event to the mailbox and schedules the drain task if it is not already running.
+     * Depending on the overflow policy this method blocks when the mailbox is full.
+     *
+     * @param t Type of the event.
+     * @param o Payload of the event.
+     */
+    void offer(EventType t, Object o) {
+	boolean submit = false;
+	lock.lock();
+	try {
+	    if (closed) {
+		return;
+	    }
+	    if (options.isCoalescing() && coalesce(t, o)) {
+		coalesced.incrementAndGet();
+		return;
+	    }
+	    while (queue.size() >= options.getCapacity()) {
+		switch (options.getOverflowPolicy()) {
+		    case DROP_NEWEST:
+			dropped.incrementAndGet();
+			return;
+		    case DROP_OLDEST:
+			queue.pollFirst();
+			dropped.incrementAndGet();
+			break;
+		    case BLOCK:
+		    default:
+			try {
+			    notFull.await();
+			} catch (InterruptedException ex) {
+			    Thread.currentThread().interrupt();
+			    logger.warn("Interrupted while waiting for the mailbox of {}, discarding {} event.",
+				    callback, t);
+			    dropped.incrementAndGet();
+			    return;
+			}
+			if (closed) {
+			    return;
+			}
+		}
+	    }
+	    queue.addLast(new PendingEvent(t, o, System.nanoTime()));
+	    if (! scheduled) {
+		scheduled = true;
+		submit = true;
+	    }
+	} finally {
+	    lock.unlock();
+	}
+
+	if (submit) {
+	    schedule();
+	}
+    }
+
+    /**
+     * Merges the event into the newest pending event referring to the same terminal and slot, if that event has the
+     * same type. Merging with an older event would reorder the events of the slot, e.g. an insert, remove, insert
+     * sequence would end with the remove event.
+     * Must be called with the lock held.
+     *
+     * @return {@code true} if the event has been merged, {@code false} otherwise.
+     */
+    private boolean coalesce(EventType t, Object o) {
+	Iterator<PendingEvent> it = queue.descendingIterator();
+	while (it.hasNext()) {
+	    PendingEvent next = it.next();
+	    if (sameSource(next.data, o)) {
+		if (next.type == t) {
+		    next.data = o;
+		    return true;
+		}
+		return false;
+	    }
+	}
+	return false;
+    }
+
+    private static boolean sameSource(Object o1, Object o2) {
+	if (o1 instanceof ConnectionHandleType && o2 instanceof ConnectionHandleType) {
+	    ConnectionHandleType h1 = (ConnectionHandleType) o1;
+	    ConnectionHandleType h2 = (ConnectionHandleType) o2;
+	    return Objects.equals(h1.getIFDName(), h2.getIFDName())
+		    && Objects.equals(h1.getSlotIndex(), h2.getSlotIndex());
+	}
+	return false;
+    }
+
+    private void schedule() {
+	try {
+	    executor.execute(this);
+	} catch (RejectedExecutionException ex) {
+	    logger.debug("Event dispatcher is shut down, discarding pending events of {}.", callback);
+	    close();
+	}
+    }
+
+    @Override
+    public void run() {
+	for (int i = 0; i < MAX_BATCH; i++) {
+	    PendingEvent next;
+	    lock.lock();
+	    try {
+		next = queue.pollFirst();
+		if (next == null) {
+		    scheduled = false;
+		    return;
+		}
+		notFull.signal();
+	    } finally {
+		lock.unlock();
+	    }
+	    deliver(next);
+	}
+
+	// batch exhausted, give other mailboxes a chance before continuing
+	lock.lock();
+	try {
+	    if (queue.isEmpty()) {
+		scheduled = false;
+		return;
+	    }
+	} finally {
+	    lock.unlock();
+	}
+	schedule();
+    }
+
+    private void deliver(PendingEvent evt) {
+	long lag = System.nanoTime() - evt.enqueueTime;
+	lastLag = lag;
+	if (lag > maxLag) {
+	    maxLag = lag;
+	}
+	try {
+	    callback.signalEvent(evt.type, evt.data);
+	    delivered.incrementAndGet();
+	} catch (RuntimeException ex) {
+	    failed.incrementAndGet();
+	    logger.error("Event callback " + callback + " failed to process " + evt.type + " event.", ex);
+	}
+    }
+
+    /**
+     * Discards all pending events and releases blocked producers.
+     * Events offered after this call are ignored.
+     */
+    void close() {
+	lock.lock();
+	try {
+	    closed = true;
+	    queue.clear();
+	    scheduled = false;
+	    notFull.signalAll();
+	} finally {
+	    lock.unlock();
+	}
+    }
+
+    SubscriberStatistics getStatistics() {
+	int pending;
+	lock.lock();
+	try {
+	    pending = queue.size();
+	} finally {
+	    lock.unlock();
+	}
+	return new SubscriberStatistics(callback, pending, delivered.get(), dropped.get(), coalesced.get(),
+		failed.get(), lastLag, maxLag);
+    }
+
+}
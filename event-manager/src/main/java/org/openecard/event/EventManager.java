@@ -27,6 +27,7 @@ import iso.std.iso_iec._24727.tech.schema.GetStatusResponse;
 import iso.std.iso_iec._24727.tech.schema.IFDStatusType;
 import iso.std.iso_iec._24727.tech.schema.Wait;
 import iso.std.iso_iec._24727.tech.schema.WaitResponse;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -64,6 +65,7 @@ public class EventManager implements org.openecard.common.interfaces.EventManage
     private final EventDispatcher dispatcher;
 
     protected ExecutorService threadPool;
+    protected RecognitionScheduler recognitionScheduler;
 
     private Future<?> watcher;
 
@@ -77,12 +79,13 @@ public class EventManager implements org.openecard.common.interfaces.EventManage
 	this.builder = HandlerBuilder.create()
 		.setContextHandle(ctx)
 		.setSessionId(sessionId);
-	this.dispatcher = new EventDispatcher(this);
+	this.dispatcher = new EventDispatcher();
     }
 
     @Override
     public synchronized void initialize() {
 	threadPool = Executors.newCachedThreadPool();
+	recognitionScheduler = new RecognitionScheduler(this, threadPool);
 	// start watcher thread
 	try {
 	    watcher = threadPool.submit(new EventRunner(this, builder));
@@ -94,7 +97,9 @@ public class EventManager implements org.openecard.common.interfaces.EventManage
     @Override
     public synchronized void terminate() {
 	watcher.cancel(true);
+	recognitionScheduler.terminate();
 	threadPool.shutdownNow();
+	dispatcher.terminate();
     }
 
 
@@ -132,6 +137,18 @@ public class EventManager implements org.openecard.common.interfaces.EventManage
 	dispatcher.add(callback, filter);
     }
 
+    /**
+     * Registers the callback with specific options for its mailbox.
+     *
+     * @param callback Callback receiving the events.
+     * @param filter Filter selecting the events for the callback.
+     * @param options Options controlling the mailbox of the callback.
+     * @see MailboxOptions
+     */
+    public void register(EventCallback callback, EventFilter filter, MailboxOptions options) {
+	dispatcher.add(callback, filter, options);
+    }
+
     @Override
     public void register(EventCallback callback, EventType type) {
 	dispatcher.add(callback, type);
@@ -152,4 +169,28 @@ public class EventManager implements org.openecard.common.interfaces.EventManage
 	dispatcher.del(callback);
     }
 
+    /**
+     * Gets the delivery statistics of all registered callbacks.
+     *
+     * @return Snapshot of the statistics, one entry per callback.
+     */
+    @Nonnull
+    public List<SubscriberStatistics> getSubscriberStatistics() {
+	return dispatcher.getStatistics();
+    }
+
+    /**
+     * Gets the time-to-recognized statistics of all readers.
+     *
+     * @return Statistics per reader, or an empty list if the manager is not initialized or recognition is disabled.
+     */
+    @Nonnull
+    public List<ReaderRecognitionStatistics> getRecognitionStatistics() {
+	RecognitionScheduler scheduler = recognitionScheduler;
+	if (scheduler == null) {
+	    return Collections.emptyList();
+	}
+	return scheduler.getStatistics();
+    }
+
 }
@@ -28,7 +28,9 @@ import iso.std.iso_iec._24727.tech.schema.SlotStatusType;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nonnull;
 import org.openecard.common.ECardConstants;
 import org.openecard.common.WSHelper.WSException;
@@ -52,13 +54,14 @@ public class EventRunner implements Runnable {
     private final HandlerBuilder builder;
 
     private final List<IFDStatusType> initialState;
-    private final List<IFDStatusType> currentState;
+    // current state indexed by the terminal name
+    private final Map<String, IFDStatusType> currentState;
 
     public EventRunner(EventManager evtManager, HandlerBuilder builder) throws WSException {
 	this.evtManager = evtManager;
 	this.builder = builder;
 	this.initialState = new ArrayList<>(evtManager.ifdStatus());
-	this.currentState = new ArrayList<>();
+	this.currentState = new LinkedHashMap<>();
     }
 
 
@@ -70,7 +73,7 @@ public class EventRunner implements Runnable {
 	    int failCount = 0;
 	    while (true) {
 		try {
-		    List<IFDStatusType> diff = evtManager.wait(currentState);
+		    List<IFDStatusType> diff = evtManager.wait(new ArrayList<>(currentState.values()));
 		    fireEvents(diff); // also updates current status
 		    failCount = 0;
 		} catch (WSException ex) {
@@ -86,14 +89,6 @@ public class EventRunner implements Runnable {
 	}
     }
 
-    private IFDStatusType getCorresponding(String ifdName, List<IFDStatusType> statuses) {
-	for (IFDStatusType next : statuses) {
-	    if (next.getIFDName().equals(ifdName)) {
-		return next;
-	    }
-	}
-	return null;
-    }
     private SlotStatusType getCorresponding(BigInteger idx, List<SlotStatusType> statuses) {
 	for (SlotStatusType next : statuses) {
 	    if (next.getIndex().equals(idx)) {
@@ -126,7 +121,7 @@ public class EventRunner implements Runnable {
 	    String ifdName = term.getIFDName();
 
 	    // find out if the terminal is new, or only a slot got updated
-	    IFDStatusType oldTerm = getCorresponding(ifdName, currentState);
+	    IFDStatusType oldTerm = currentState.get(ifdName);
 	    boolean terminalAdded = oldTerm == null;
 
 	    if (terminalAdded) {
@@ -136,7 +131,7 @@ public class EventRunner implements Runnable {
 		oldTerm.setIFDName(ifdName);
 		oldTerm.setConnected(true);
 		// add to current list
-		currentState.add(oldTerm);
+		currentState.put(ifdName, oldTerm);
 		// create event
 		ConnectionHandleType h = makeConnectionHandle(ifdName, null);
 		logger.debug("Found a terminal added event ({}).", ifdName);
@@ -165,7 +160,7 @@ public class EventRunner implements Runnable {
 		    ConnectionHandleType handle = makeUnknownCardHandle(ifdName, newSlot);
 		    evtManager.notify(EventType.CARD_INSERTED, handle);
 		    if (evtManager.recognize) {
-			evtManager.threadPool.submit(new Recognizer(evtManager, handle));
+			evtManager.recognitionScheduler.schedule(handle);
 		    }
 
 		} else if (! terminalAdded && ! cardPresent && cardWasPresent) {
@@ -182,6 +177,8 @@ public class EventRunner implements Runnable {
 			}
 		    }
 		    logger.debug("Found a card removed event ({}).", ifdName);
+		    // stop a running recognition, so no recognized event follows the removed event
+		    evtManager.recognitionScheduler.cancel(ifdName, idx);
 		    ConnectionHandleType h = makeConnectionHandle(ifdName, idx);
 		    evtManager.notify(EventType.CARD_REMOVED, h);
 		}
@@ -191,13 +188,8 @@ public class EventRunner implements Runnable {
 	    boolean terminalPresent = term.isConnected();
 	    if (! terminalPresent) {
 		// TERMINAL REMOVED
-		Iterator<IFDStatusType> it = currentState.iterator();
-		while (it.hasNext()) {
-		    IFDStatusType toDel = it.next();
-		    if (toDel.getIFDName().equals(term.getIFDName())) {
-			it.remove();
-		    }
-		}
+		currentState.remove(ifdName);
+		evtManager.recognitionScheduler.cancelAll(ifdName);
 		ConnectionHandleType h = makeConnectionHandle(ifdName, null);
 		logger.debug("Found a terminal removed event ({}).", ifdName);
 		evtManager.notify(EventType.TERMINAL_REMOVED, h);
@@ -0,0 +1,98 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.event;
+
+import javax.annotation.Nonnull;
+
+
+/**
+ * Options controlling the mailbox of a subscriber of the {@link EventDispatcher}.
+ * Each subscriber has its own mailbox which is drained by a single thread at a time, so that the events are delivered
+ * in the order they occurred. The options in this class define what happens when a subscriber can not keep up with the
+ * events.
+ *
+ * @author agent
+ */
+public final class MailboxOptions {
+
+    /**
+     * Policy applied when an event is added to a mailbox which already contains the maximum number of events.
+     */
+    public enum OverflowPolicy {
+	/**
+	 * The producer of the event waits until there is space in the mailbox.
+	 */
+	BLOCK,
+	/**
+	 * The oldest pending event is removed from the mailbox.
+	 */
+	DROP_OLDEST,
+	/**
+	 * The new event is discarded.
+	 */
+	DROP_NEWEST;
+    }
+
+    /**
+     * Options used when a subscriber does not specify anything else.
+     * The mailbox holds up to 1024 events and blocks when it is full, no events are coalesced. The size is big enough
+     * that blocking only occurs when a subscriber hangs.
+     */
+    public static final MailboxOptions DEFAULT = new MailboxOptions(1024, OverflowPolicy.BLOCK, false);
+
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final boolean coalescing;
+
+    /**
+     * Creates a new options instance.
+     *
+     * @param capacity Maximum number of pending events in the mailbox.
+     * @param overflowPolicy Policy applied when the mailbox is full.
+     * @param coalescing {@code true} if an event should be merged into a pending event of the same type for the same
+     *   terminal and slot, {@code false} if every event must be delivered.
+     * @throws IllegalArgumentException Thrown in case the capacity is less than 1.
+     */
+    public MailboxOptions(int capacity, @Nonnull OverflowPolicy overflowPolicy, boolean coalescing) {
+	if (capacity < 1) {
+	    throw new IllegalArgumentException("Mailbox capacity must be at least 1.");
+	}
+	this.capacity = capacity;
+	this.overflowPolicy = overflowPolicy;
+	this.coalescing = coalescing;
+    }
+
+    public int getCapacity() {
+	return capacity;
+    }
+
+    @Nonnull
+    public OverflowPolicy getOverflowPolicy() {
+	return overflowPolicy;
+    }
+
+    public boolean isCoalescing() {
+	return coalescing;
+    }
+
+}
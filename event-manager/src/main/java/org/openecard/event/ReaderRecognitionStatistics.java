@@ -0,0 +1,117 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.event;
+
+import javax.annotation.Nonnull;
+
+
+/**
+ * Time-to-recognized statistics of a single reader.
+ * The time is measured from the insert event until the recognition of the card is finished.
+ *
+ * @author agent
+ */
+public final class ReaderRecognitionStatistics {
+
+    private final String ifdName;
+    private long recognized;
+    private long unknown;
+    private long cancelled;
+    private long totalMillis;
+    private long lastMillis;
+    private long maxMillis;
+
+    ReaderRecognitionStatistics(@Nonnull String ifdName) {
+	this.ifdName = ifdName;
+    }
+
+    synchronized void addRecognition(long durationMillis, boolean known) {
+	if (known) {
+	    recognized++;
+	} else {
+	    unknown++;
+	}
+	totalMillis += durationMillis;
+	lastMillis = durationMillis;
+	maxMillis = Math.max(maxMillis, durationMillis);
+    }
+
+    synchronized void addCancelled() {
+	cancelled++;
+    }
+
+    @Nonnull
+    public String getIfdName() {
+	return ifdName;
+    }
+
+    /**
+     * @return Number of recognitions which yielded a card type.
+     */
+    public synchronized long getRecognized() {
+	return recognized;
+    }
+
+    /**
+     * @return Number of finished recognitions where the card type could not be determined.
+     */
+    public synchronized long getUnknown() {
+	return unknown;
+    }
+
+    /**
+     * @return Number of recognitions cancelled because the card or reader has been removed.
+     */
+    public synchronized long getCancelled() {
+	return cancelled;
+    }
+
+    /**
+     * @return Time-to-recognized of the last finished recognition in milliseconds.
+     */
+    public synchronized long getLastMillis() {
+	return lastMillis;
+    }
+
+    /**
+     * @return Maximum time-to-recognized of all finished recognitions in milliseconds.
+     */
+    public synchronized long getMaxMillis() {
+	return maxMillis;
+    }
+
+    /**
+     * @return Average time-to-recognized of all finished recognitions in milliseconds.
+     */
+    public synchronized long getAverageMillis() {
+	long count = recognized + unknown;
+	return count == 0 ? 0 : totalMillis / count;
+    }
+
+    @Override
+    public synchronized String toString() {
+	return String.format("%s: recognized=%d unknown=%d cancelled=%d last=%dms avg=%dms max=%dms", ifdName,
+		recognized, unknown, cancelled, lastMillis, getAverageMillis(), maxMillis);
+    }
+
+}
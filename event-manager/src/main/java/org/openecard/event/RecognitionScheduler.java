@@ -0,0 +1,225 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.event;
+
+import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.openecard.common.enums.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Scheduler for the card recognition runs of the event manager.
+ * The scheduler runs at most one recognition per terminal slot. Duplicate insert events for a slot with a running
+ * recognition are collapsed into the running job, and removing the card cancels the job. The recognized event is only
+ * emitted when the job has not been cancelled in the meantime.<br/>
+ * The recognized event is emitted without holding the lock of the scheduler. A cancellation which arrives while the
+ * event is being emitted waits until it is emitted, so that the removed event always follows the recognized event.
+ *
+ * @author agent
+ */
+public class RecognitionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecognitionScheduler.class);
+
+    private final EventManager manager;
+    private final ExecutorService threadPool;
+    // guarded by this
+    private final Map<String, Recognizer> jobs = new HashMap<>();
+    private final ConcurrentMap<String, ReaderRecognitionStatistics> statistics = new ConcurrentHashMap<>();
+
+    public RecognitionScheduler(@Nonnull EventManager manager, @Nonnull ExecutorService threadPool) {
+	this.manager = manager;
+	this.threadPool = threadPool;
+    }
+
+    private static String key(String ifdName, @Nullable BigInteger slotIdx) {
+	return ifdName + "|" + slotIdx;
+    }
+
+    /**
+     * Starts the recognition for the card identified by the given handle.
+     * Nothing happens if a recognition for the same terminal slot is already running.
+     *
+     * @param handle Handle of the inserted card containing IFD name and slot index.
+     */
+    public synchronized void schedule(@Nonnull ConnectionHandleType handle) {
+	String key = key(handle.getIFDName(), handle.getSlotIndex());
+	if (jobs.containsKey(key)) {
+	    logger.debug("Recognition for slot {} of terminal '{}' is already running.", handle.getSlotIndex(),
+		    handle.getIFDName());
+	    return;
+	}
+	Recognizer job = new Recognizer(manager, this, handle);
+	jobs.put(key, job);
+	Future<?> f = threadPool.submit(job);
+	job.setFuture(f);
+    }
+
+    /**
+     * Cancels the recognition for the given terminal slot.
+     * This method must be called before the card removed event is emitted, so that no recognized event follows it.
+     *
+     * @param ifdName Name of the terminal.
+     * @param slotIdx Index of the slot.
+     */
+    public synchronized void cancel(@Nonnull String ifdName, @Nullable BigInteger slotIdx) {
+	Recognizer job = jobs.remove(key(ifdName, slotIdx));
+	if (job != null) {
+	    if (job.isNotifying()) {
+		awaitNotification(job);
+	    } else {
+		cancelJob(job);
+	    }
+	}
+    }
+
+    /**
+     * Cancels all recognitions for the given terminal.
+     *
+     * @param ifdName Name of the terminal.
+     */
+    public synchronized void cancelAll(@Nonnull String ifdName) {
+	List<Recognizer> notifying = new ArrayList<>();
+	Iterator<Recognizer> it = jobs.values().iterator();
+	while (it.hasNext()) {
+	    Recognizer job = it.next();
+	    if (ifdName.equals(job.getHandle().getIFDName())) {
+		it.remove();
+		if (job.isNotifying()) {
+		    notifying.add(job);
+		} else {
+		    cancelJob(job);
+		}
+	    }
+	}
+	// waiting releases the lock, so do it after the iteration
+	for (Recognizer job : notifying) {
+	    awaitNotification(job);
+	}
+    }
+
+    private void cancelJob(Recognizer job) {
+	ConnectionHandleType handle = job.getHandle();
+	logger.debug("Cancelling recognition for slot {} of terminal '{}'.", handle.getSlotIndex(),
+		handle.getIFDName());
+	job.cancel();
+	getStatistics(handle.getIFDName()).addCancelled();
+    }
+
+    private void awaitNotification(Recognizer job) {
+	try {
+	    while (job.isNotifying()) {
+		wait();
+	    }
+	} catch (InterruptedException ex) {
+	    Thread.currentThread().interrupt();
+	}
+    }
+
+    /**
+     * Called by the recognition job when it is finished.
+     * Whether the recognized event is emitted is decided while holding the lock of the scheduler, the event itself is
+     * emitted after the lock is released. Until then the job stays registered, so that a concurrent cancellation
+     * either prevents the event or waits until it is emitted.
+     *
+     * @param job The finished job.
+     * @param recognizedHandle Handle containing the recognized card type, or {@code null} if the card is unknown.
+     */
+    void finished(@Nonnull Recognizer job, @Nullable ConnectionHandleType recognizedHandle) {
+	ConnectionHandleType handle = job.getHandle();
+	String key = key(handle.getIFDName(), handle.getSlotIndex());
+	synchronized (this) {
+	    if (jobs.get(key) != job) {
+		logger.debug("Discarding result of cancelled recognition for terminal '{}'.", handle.getIFDName());
+		return;
+	    }
+
+	    long duration = job.getDurationMillis();
+	    getStatistics(handle.getIFDName()).addRecognition(duration, recognizedHandle != null);
+	    if (recognizedHandle == null) {
+		jobs.remove(key);
+		return;
+	    }
+	    logger.debug("Found a recognized card event ({}) after {} ms.", handle.getIFDName(), duration);
+	    job.setNotifying(true);
+	}
+
+	try {
+	    manager.notify(EventType.CARD_RECOGNIZED, recognizedHandle);
+	} finally {
+	    synchronized (this) {
+		job.setNotifying(false);
+		if (jobs.get(key) == job) {
+		    jobs.remove(key);
+		}
+		notifyAll();
+	    }
+	}
+    }
+
+    /**
+     * Cancels all running recognitions.
+     */
+    public synchronized void terminate() {
+	for (Recognizer job : jobs.values()) {
+	    job.cancel();
+	}
+	jobs.clear();
+    }
+
+    private ReaderRecognitionStatistics getStatistics(String ifdName) {
+	ReaderRecognitionStatistics stats = statistics.get(ifdName);
+	if (stats == null) {
+	    stats = new ReaderRecognitionStatistics(ifdName);
+	    ReaderRecognitionStatistics existing = statistics.putIfAbsent(ifdName, stats);
+	    if (existing != null) {
+		stats = existing;
+	    }
+	}
+	return stats;
+    }
+
+    /**
+     * Gets the time-to-recognized statistics of all readers which had a card inserted so far.
+     *
+     * @return List with one entry per reader.
+     */
+    @Nonnull
+    public List<ReaderRecognitionStatistics> getStatistics() {
+	return new ArrayList<>(statistics.values());
+    }
+
+}
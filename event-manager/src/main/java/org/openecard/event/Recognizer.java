@@ -24,7 +24,7 @@ package org.openecard.event;
 
 import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
 import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType.RecognitionInfo;
-import org.openecard.common.enums.EventType;
+import java.util.concurrent.Future;
 import org.openecard.common.util.HandlerUtils;
 import org.openecard.recognition.RecognitionException;
 import org.slf4j.Logger;
@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Wrapper to start the card recognition easily as a thread.
+ * Instances are created and controlled by the {@link RecognitionScheduler}, which also emits the recognized event.
  *
  * @author Tobias Wich
  */
@@ -41,19 +42,64 @@ public class Recognizer implements Runnable {
     private final static Logger logger = LoggerFactory.getLogger(Recognizer.class);
 
     private final EventManager manager;
+    private final RecognitionScheduler scheduler;
     private final ConnectionHandleType handle;
+    private final long startTime;
 
-    public Recognizer(EventManager manager, ConnectionHandleType handle) {
+    private Future<?> future;
+    private volatile boolean cancelled = false;
+    private volatile long endTime;
+    // guarded by the scheduler
+    private boolean notifying = false;
+
+    public Recognizer(EventManager manager, RecognitionScheduler scheduler, ConnectionHandleType handle) {
 	this.manager = manager;
+	this.scheduler = scheduler;
 	this.handle = handle;
+	this.startTime = System.nanoTime();
+    }
+
+    public ConnectionHandleType getHandle() {
+	return handle;
+    }
+
+    synchronized void setFuture(Future<?> future) {
+	this.future = future;
+	if (cancelled) {
+	    future.cancel(true);
+	}
+    }
+
+    synchronized void cancel() {
+	cancelled = true;
+	if (future != null) {
+	    future.cancel(true);
+	}
+    }
+
+    boolean isNotifying() {
+	return notifying;
+    }
+
+    void setNotifying(boolean notifying) {
+	this.notifying = notifying;
+    }
+
+    /**
+     * @return Time in milliseconds from the creation of this instance until the recognition finished.
+     */
+    long getDurationMillis() {
+	return (endTime - startTime) / 1000000;
     }
 
     @Override
     public void run() {
 	ConnectionHandleType newHandle = recognizeSlot();
-	if (newHandle != null) {
-	    logger.debug("Found a recognized card event ({}).", handle.getIFDName());
-	    manager.notify(EventType.CARD_RECOGNIZED, newHandle);
+	endTime = System.nanoTime();
+	if (cancelled) {
+	    logger.debug("Recognition for terminal '{}' has been cancelled.", handle.getIFDName());
+	} else {
+	    scheduler.finished(this, newHandle);
 	}
     }
 
@@ -62,7 +108,7 @@ public class Recognizer implements Runnable {
 	try {
 	    rInfo = manager.cr.recognizeCard(handle.getIFDName(), handle.getSlotIndex());
 	} catch (RecognitionException ex) {
-	    // ignore, card is just unknown
+	    // ignore, card is just unknown or the recognition has been cancelled
 	}
 
 	if (rInfo != null) {
@@ -0,0 +1,117 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.event;
+
+import org.openecard.common.interfaces.EventCallback;
+
+
+/**
+ * Snapshot of the delivery statistics of a subscriber of the {@link EventDispatcher}.
+ * The lag is the time between adding an event to the mailbox of the subscriber and its delivery to the callback.
+ *
+ * @author agent
+ */
+public final class SubscriberStatistics {
+
+    private final EventCallback callback;
+    private final int pending;
+    private final long delivered;
+    private final long dropped;
+    private final long coalesced;
+    private final long failed;
+    private final long lastLagNanos;
+    private final long maxLagNanos;
+
+    SubscriberStatistics(EventCallback callback, int pending, long delivered, long dropped, long coalesced,
+	    long failed, long lastLagNanos, long maxLagNanos) {
+	this.callback = callback;
+	this.pending = pending;
+	this.delivered = delivered;
+	this.dropped = dropped;
+	this.coalesced = coalesced;
+	this.failed = failed;
+	this.lastLagNanos = lastLagNanos;
+	this.maxLagNanos = maxLagNanos;
+    }
+
+    public EventCallback getCallback() {
+	return callback;
+    }
+
+    /**
+     * @return Number of events waiting in the mailbox at the time the snapshot was taken.
+     */
+    public int getPending() {
+	return pending;
+    }
+
+    /**
+     * @return Number of events delivered to the callback.
+     */
+    public long getDelivered() {
+	return delivered;
+    }
+
+    /**
+     * @return Number of events discarded because the mailbox was full.
+     */
+    public long getDropped() {
+	return dropped;
+    }
+
+    /**
+     * @return Number of events merged into an already pending event.
+     */
+    public long getCoalesced() {
+	return coalesced;
+    }
+
+    /**
+     * @return Number of deliveries where the callback terminated with an exception.
+     */
+    public long getFailed() {
+	return failed;
+    }
+
+    /**
+     * @return Lag of the most recently delivered event in nanoseconds.
+     */
+    public long getLastLagNanos() {
+	return lastLagNanos;
+    }
+
+    /**
+     * @return Maximum lag of all delivered events in nanoseconds.
+     */
+    public long getMaxLagNanos() {
+	return maxLagNanos;
+    }
+
+    @Override
+    public String toString() {
+	return String.format("%s: pending=%d delivered=%d dropped=%d coalesced=%d failed=%d lastLag=%dus maxLag=%dus",
+		callback.getClass().getName(), pending, delivered, dropped, coalesced, failed,
+		lastLagNanos / 1000, maxLagNanos / 1000);
+    }
+
+}
@@ -0,0 +1,181 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.event;
+
+import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openecard.common.enums.EventType;
+import org.openecard.common.interfaces.EventCallback;
+import org.openecard.common.interfaces.EventFilter;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ *
+ * @author agent
+ */
+public class EventDispatcherTest {
+
+    private static ConnectionHandleType handle(String ifdName, int slot) {
+	ConnectionHandleType h = new ConnectionHandleType();
+	h.setIFDName(ifdName);
+	h.setSlotIndex(BigInteger.valueOf(slot));
+	return h;
+    }
+
+    /**
+     * Check that a single subscriber receives the events in the order they were dispatched.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testOrdering() throws Exception {
+	final int numEvents = 1000;
+	final List<EventType> received = new ArrayList<>();
+	final CountDownLatch done = new CountDownLatch(numEvents);
+	EventDispatcher dispatcher = new EventDispatcher();
+	dispatcher.add(new EventCallback() {
+	    @Override
+	    public void signalEvent(EventType eventType, Object eventData) {
+		received.add(eventType);
+		done.countDown();
+	    }
+	}, EventType.CARD_INSERTED, EventType.CARD_REMOVED);
+
+	for (int i = 0; i < numEvents; i++) {
+	    EventType t = (i % 2 == 0) ? EventType.CARD_INSERTED : EventType.CARD_REMOVED;
+	    dispatcher.notify(t, handle("Reader", 0));
+	}
+	// not subscribed
+	dispatcher.notify(EventType.TERMINAL_ADDED, handle("Reader", 0));
+
+	assertTrue(done.await(10, TimeUnit.SECONDS));
+	dispatcher.terminate();
+	assertEquals(received.size(), numEvents);
+	for (int i = 0; i < numEvents; i++) {
+	    EventType expected = (i % 2 == 0) ? EventType.CARD_INSERTED : EventType.CARD_REMOVED;
+	    assertEquals(received.get(i), expected);
+	}
+    }
+
+    /**
+     * Check that pending events of the same type and slot are merged when coalescing is enabled.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCoalescing() throws Exception {
+	BlockingSubscriber sub = new BlockingSubscriber(2);
+	EventDispatcher dispatcher = sub.register(EventType.TERMINAL_ADDED);
+
+	// these are queued behind the blocked first event and merged into one
+	dispatcher.notify(EventType.TERMINAL_ADDED, handle("Reader 2", 0));
+	dispatcher.notify(EventType.TERMINAL_ADDED, handle("Reader 2", 0));
+	dispatcher.notify(EventType.TERMINAL_ADDED, handle("Reader 2", 0));
+	SubscriberStatistics stats = dispatcher.getStatistics().get(0);
+	sub.blocker.countDown();
+
+	assertTrue(sub.done.await(10, TimeUnit.SECONDS));
+	dispatcher.terminate();
+	assertEquals(sub.received.size(), 2);
+	assertEquals(stats.getCoalesced(), 2);
+	assertEquals(stats.getDropped(), 0);
+    }
+
+    /**
+     * Check that coalescing does not change the order of the events of a slot.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testInterleavedCoalescing() throws Exception {
+	BlockingSubscriber sub = new BlockingSubscriber(4);
+	EventDispatcher dispatcher = sub.register(EventType.TERMINAL_ADDED, EventType.CARD_INSERTED,
+		EventType.CARD_REMOVED);
+
+	dispatcher.notify(EventType.CARD_INSERTED, handle("Reader 2", 0));
+	dispatcher.notify(EventType.CARD_REMOVED, handle("Reader 2", 0));
+	dispatcher.notify(EventType.CARD_INSERTED, handle("Reader 2", 0));
+	// merged with the newest event of the slot only
+	dispatcher.notify(EventType.CARD_INSERTED, handle("Reader 2", 0));
+	SubscriberStatistics stats = dispatcher.getStatistics().get(0);
+	sub.blocker.countDown();
+
+	assertTrue(sub.done.await(10, TimeUnit.SECONDS));
+	dispatcher.terminate();
+	List<EventType> expected = Arrays.asList(EventType.TERMINAL_ADDED, EventType.CARD_INSERTED,
+		EventType.CARD_REMOVED, EventType.CARD_INSERTED);
+	assertEquals(sub.received, expected);
+	assertEquals(stats.getCoalesced(), 1);
+    }
+
+    /**
+     * Subscriber blocking in its first event until {@link #blocker} is released.
+     * The first event is sent by {@link #register(EventType...)}, so that all following events are queued.
+     */
+    private static class BlockingSubscriber implements EventCallback {
+	final CountDownLatch started = new CountDownLatch(1);
+	final CountDownLatch blocker = new CountDownLatch(1);
+	final CountDownLatch done;
+	final List<EventType> received = Collections.synchronizedList(new ArrayList<EventType>());
+
+	BlockingSubscriber(int numEvents) {
+	    done = new CountDownLatch(numEvents);
+	}
+
+	EventDispatcher register(final EventType... types) throws InterruptedException {
+	    EventDispatcher dispatcher = new EventDispatcher();
+	    EventFilter filter = new EventFilter() {
+		@Override
+		public boolean matches(EventType t, Object o) {
+		    return Arrays.asList(types).contains(t);
+		}
+	    };
+	    dispatcher.add(this, filter, new MailboxOptions(10, MailboxOptions.OverflowPolicy.DROP_NEWEST, true));
+	    // first event is taken by the drain thread which then blocks
+	    dispatcher.notify(types[0], handle("Reader 1", 0));
+	    assertTrue(started.await(10, TimeUnit.SECONDS));
+	    return dispatcher;
+	}
+
+	@Override
+	public void signalEvent(EventType eventType, Object eventData) {
+	    started.countDown();
+	    try {
+		blocker.await();
+	    } catch (InterruptedException ex) {
+		throw new RuntimeException(ex);
+	    }
+	    received.add(eventType);
+	    done.countDown();
+	}
+    }
+
+}
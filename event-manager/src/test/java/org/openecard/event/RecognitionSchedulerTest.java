@@ -0,0 +1,224 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.event;
+
+import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openecard.common.ClientEnv;
+import org.openecard.common.enums.EventType;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ *
+ * @author agent
+ */
+public class RecognitionSchedulerTest {
+
+    private RecordingExecutor executor;
+    private RecordingManager manager;
+    private RecognitionScheduler scheduler;
+
+    private static ConnectionHandleType handle(String ifdName, int slot) {
+	ConnectionHandleType h = new ConnectionHandleType();
+	h.setIFDName(ifdName);
+	h.setSlotIndex(BigInteger.valueOf(slot));
+	return h;
+    }
+
+    @BeforeMethod
+    public void setUp() {
+	executor = new RecordingExecutor();
+	manager = new RecordingManager();
+	scheduler = new RecognitionScheduler(manager, executor);
+    }
+
+    @Test
+    public void testOneJobPerSlot() {
+	scheduler.schedule(handle("ifd", 0));
+	scheduler.schedule(handle("ifd", 0));
+	scheduler.schedule(handle("ifd", 1));
+	assertEquals(executor.jobs.size(), 2);
+    }
+
+    @Test
+    public void testRecognized() {
+	ConnectionHandleType h = handle("ifd", 0);
+	scheduler.schedule(h);
+	Recognizer job = executor.jobs.get(0);
+	scheduler.finished(job, h);
+
+	assertEquals(manager.events, Collections.singletonList(EventType.CARD_RECOGNIZED));
+	assertEquals(scheduler.getStatistics().get(0).getRecognized(), 1);
+	// the slot is free again
+	scheduler.schedule(h);
+	assertEquals(executor.jobs.size(), 2);
+    }
+
+    @Test
+    public void testCancelledResultDiscarded() {
+	ConnectionHandleType h = handle("ifd", 0);
+	scheduler.schedule(h);
+	Recognizer job = executor.jobs.get(0);
+	scheduler.cancel("ifd", BigInteger.ZERO);
+	scheduler.finished(job, h);
+
+	assertTrue(manager.events.isEmpty());
+	assertEquals(scheduler.getStatistics().get(0).getCancelled(), 1);
+	assertEquals(scheduler.getStatistics().get(0).getRecognized(), 0);
+    }
+
+    @Test
+    public void testCancelAll() {
+	scheduler.schedule(handle("ifd", 0));
+	scheduler.schedule(handle("ifd", 1));
+	scheduler.schedule(handle("other", 0));
+	scheduler.cancelAll("ifd");
+	for (Recognizer job : executor.jobs) {
+	    scheduler.finished(job, job.getHandle());
+	}
+
+	assertEquals(manager.events, Collections.singletonList(EventType.CARD_RECOGNIZED));
+    }
+
+    /**
+     * Check that the recognized event is emitted without holding the scheduler lock, and that a cancellation for the
+     * slot waits until the event is emitted.
+     *
+     * @throws Exception
+     */
+    @Test(timeOut = 10000)
+    public void testCancelWaitsForNotification() throws Exception {
+	final ConnectionHandleType h = handle("ifd", 0);
+	scheduler.schedule(h);
+	final Recognizer job = executor.jobs.get(0);
+	manager.blocker = new CountDownLatch(1);
+
+	Thread finisher = new Thread(new Runnable() {
+	    @Override
+	    public void run() {
+		scheduler.finished(job, h);
+	    }
+	});
+	finisher.start();
+	assertTrue(manager.entered.await(5, TimeUnit.SECONDS));
+
+	// the lock is free while the event is emitted
+	scheduler.schedule(handle("ifd", 1));
+	assertEquals(executor.jobs.size(), 2);
+
+	final CountDownLatch cancelled = new CountDownLatch(1);
+	Thread canceller = new Thread(new Runnable() {
+	    @Override
+	    public void run() {
+		scheduler.cancel("ifd", BigInteger.ZERO);
+		cancelled.countDown();
+	    }
+	});
+	canceller.start();
+	assertFalse(cancelled.await(200, TimeUnit.MILLISECONDS));
+
+	manager.blocker.countDown();
+	assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+	finisher.join();
+	assertEquals(manager.events, Collections.singletonList(EventType.CARD_RECOGNIZED));
+	assertEquals(scheduler.getStatistics().get(0).getCancelled(), 0);
+    }
+
+
+    private static class RecordingManager extends EventManager {
+
+	private final List<EventType> events = Collections.synchronizedList(new ArrayList<EventType>());
+	private final CountDownLatch entered = new CountDownLatch(1);
+	private volatile CountDownLatch blocker;
+
+	RecordingManager() {
+	    super(null, new ClientEnv(), new byte[0]);
+	}
+
+	@Override
+	protected void notify(EventType eventType, Object eventData) {
+	    entered.countDown();
+	    if (blocker != null) {
+		try {
+		    blocker.await();
+		} catch (InterruptedException ex) {
+		    Thread.currentThread().interrupt();
+		}
+	    }
+	    events.add(eventType);
+	}
+
+    }
+
+    private static class RecordingExecutor extends AbstractExecutorService {
+
+	private final List<Recognizer> jobs = new ArrayList<>();
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+	    jobs.add((Recognizer) runnable);
+	    return super.newTaskFor(runnable, value);
+	}
+
+	@Override
+	public void execute(Runnable command) {
+	    // jobs are finished by the test
+	}
+
+	@Override
+	public void shutdown() {
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+	    return Collections.emptyList();
+	}
+
+	@Override
+	public boolean isShutdown() {
+	    return false;
+	}
+
+	@Override
+	public boolean isTerminated() {
+	    return false;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) {
+	    return true;
+	}
+
+    }
+
+}
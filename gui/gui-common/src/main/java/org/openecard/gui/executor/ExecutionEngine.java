@@ -32,6 +32,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import org.openecard.common.DynamicContext;
 import org.openecard.gui.ResultStatus;
 import org.openecard.gui.StepResult;
 import org.openecard.gui.UserConsentNavigator;
@@ -139,8 +140,9 @@ public class ExecutionEngine {
 		StepAction action = next.getStep().getAction();
 		StepActionCallable actionCallable = new StepActionCallable(action, oldResults, next);
 		// use separate thread or tasks running outside the JVM context, like PCSC calls, won't stop on cancellation
+		// the session of the calling thread is carried over explicitly, as executor threads do not inherit it
 		ExecutorService execService = Executors.newSingleThreadExecutor();
-		Future<StepActionResult> actionFuture = execService.submit(actionCallable);
+		Future<StepActionResult> actionFuture = execService.submit(DynamicContext.wrap(actionCallable));
 		navigator.setRunningAction(actionFuture);
 		StepActionResult actionResult;
 		try {
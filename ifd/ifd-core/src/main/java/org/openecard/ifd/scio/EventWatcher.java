@@ -27,11 +27,16 @@ import iso.std.iso_iec._24727.tech.schema.IFDStatusType;
 import iso.std.iso_iec._24727.tech.schema.SlotStatusType;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
 import org.openecard.common.ifd.scio.NoSuchTerminal;
 import org.openecard.common.ifd.scio.SCIOATR;
 import org.openecard.common.ifd.scio.SCIOException;
@@ -40,11 +45,17 @@ import org.openecard.common.ifd.scio.TerminalWatcher;
 import org.openecard.ifd.scio.wrapper.ChannelManager;
 import org.openecard.ifd.scio.wrapper.HandledChannel;
 import org.openecard.ifd.scio.wrapper.NoSuchChannel;
+import org.openecard.ifd.scio.wrapper.TerminalInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
+ * Callable performing the IFD Wait operation.
+ * <p>The status of the terminals is kept in a map indexed by the terminal name containing immutable slot states. Each
+ * change replaces the state of the affected terminal. Once the expected state of the caller has been found to be equal
+ * to the current state, only the terminals touched by subsequent events are compared, so the amount of work per event
+ * does not depend on the number of connected terminals.</p>
  *
  * @author Tobias Wich
  */
@@ -52,13 +63,69 @@ public class EventWatcher implements Callable<List<IFDStatusType>> {
 
     private static final Logger logger = LoggerFactory.getLogger(EventWatcher.class);
 
+    /**
+     * Immutable state of the single slot of a terminal.
+     */
+    @Immutable
+    private static final class SlotState {
+
+	private final String ifdName;
+	private final boolean connected;
+	private final boolean cardPresent;
+	private final byte[] atr;
+
+	SlotState(String ifdName, boolean connected, boolean cardPresent, @Nullable byte[] atr) {
+	    this.ifdName = ifdName;
+	    this.connected = connected;
+	    this.cardPresent = cardPresent;
+	    this.atr = atr;
+	}
+
+	SlotState withCard(boolean present, @Nullable byte[] newAtr) {
+	    return new SlotState(ifdName, connected, present, present ? newAtr : null);
+	}
+
+	SlotState disconnected() {
+	    return new SlotState(ifdName, false, false, null);
+	}
+
+	boolean matches(@Nonnull IFDStatusType other) {
+	    if (! Boolean.valueOf(connected).equals(other.isConnected())) {
+		return false;
+	    }
+	    List<SlotStatusType> otherSlots = other.getSlotStatus();
+	    if (otherSlots.size() != 1) {
+		return false;
+	    }
+	    SlotStatusType otherSlot = otherSlots.get(0);
+	    // ATR is ignored, because it is not read by the conversion of the initial state
+	    return otherSlot.isCardAvailable() == cardPresent && BigInteger.ZERO.equals(otherSlot.getIndex());
+	}
+
+	IFDStatusType toStatus() {
+	    IFDStatusType result = new IFDStatusType();
+	    result.setIFDName(ifdName);
+	    result.setConnected(connected);
+	    SlotStatusType slot = new SlotStatusType();
+	    slot.setIndex(BigInteger.ZERO);
+	    slot.setCardAvailable(cardPresent);
+	    if (atr != null) {
+		slot.setATRorATS(atr.clone());
+	    }
+	    result.getSlotStatus().add(slot);
+	    return result;
+	}
+
+    }
+
     private final ChannelManager cm;
     private final long timeout;
     private final ChannelHandleType callback;
     private final TerminalWatcher watcher;
 
-    private ArrayList<IFDStatusType> currentState;
+    private final Map<String, SlotState> currentState = new LinkedHashMap<>();
     private List<IFDStatusType> expectedState;
+    private Map<String, IFDStatusType> expectedIndex;
 
     public EventWatcher(@Nonnull ChannelManager cm, long timeout, @Nullable ChannelHandleType callback)
 	    throws SCIOException {
@@ -71,13 +138,20 @@ public class EventWatcher implements Callable<List<IFDStatusType>> {
     @Nonnull
     public List<IFDStatusType> start() throws SCIOException {
 	List<TerminalState> initialState = watcher.start();
-	currentState = convert(initialState);
-	// convert again to be safe from manipulation from the outside
-	return convert(initialState);
+	ArrayList<IFDStatusType> result = new ArrayList<>(initialState.size());
+	for (TerminalState next : initialState) {
+	    SlotState state = new SlotState(next.getName(), true, next.isCardPresent(), null);
+	    currentState.put(next.getName(), state);
+	    cm.getCapabilityRegistry().get(next.getName());
+	    // new instances, so the result is safe from manipulation from the outside
+	    result.add(state.toStatus());
+	}
+	return result;
     }
 
     public void setExpectedState(@Nonnull List<IFDStatusType> expectedState) {
 	this.expectedState = expectedState;
+	this.expectedIndex = index(expectedState);
     }
 
     public boolean isAsync() {
@@ -103,12 +177,15 @@ public class EventWatcher implements Callable<List<IFDStatusType>> {
 	    } while (! event.isCancelled());
 	}
 	// update internal state according to all events which have occurred
+	Set<String> touched = new LinkedHashSet<>();
 	for (TerminalWatcher.StateChangeEvent next : events) {
-	    updateState(next);
+	    if (updateState(next)) {
+		touched.add(next.getTerminal());
+	    }
 	}
 
-	// compare again
-	diff = compare(expectedState);
+	// the state was equal before, so only the touched terminals can differ now
+	diff = compareTerminals(touched);
 
 	// TODO: implement callbacks
 
@@ -116,34 +193,40 @@ public class EventWatcher implements Callable<List<IFDStatusType>> {
     }
 
 
-    private void updateState(TerminalWatcher.StateChangeEvent event) {
+    /**
+     * Applies the event to the internal state.
+     *
+     * @param event The event to apply.
+     * @return {@code true} if the state of a terminal has been changed, {@code false} otherwise.
+     */
+    private boolean updateState(TerminalWatcher.StateChangeEvent event) {
 	String name = event.getTerminal();
 	if (event.getState() == TerminalWatcher.EventType.TERMINAL_ADDED) {
-	    currentState.add(createEmptyState(name));
-	} else {
-	    Iterator<IFDStatusType> it = currentState.iterator();
-	    while (it.hasNext()) {
-		IFDStatusType next = it.next();
-		SlotStatusType slot = next.getSlotStatus().get(0);
-		if (next.getIFDName().equals(name)) {
-		    switch (event.getState()) {
-			case CARD_INSERTED:
-			    slot.setCardAvailable(true);
-			    slot.setATRorATS(getATR(name));
-			    break;
-			case CARD_REMOVED:
-			    slot.setCardAvailable(false);
-			    break;
-			case TERMINAL_REMOVED:
-			    slot.setCardAvailable(false); // just in case
-			    next.setConnected(false);
-			    break;
-		    }
-		    // no need to look any further
-		    break;
-		}
-	    }
+	    currentState.put(name, new SlotState(name, true, false, null));
+	    // a reattached reader may be a different device with the same name
+	    cm.getCapabilityRegistry().remove(name);
+	    cm.getCapabilityRegistry().get(name);
+	    return true;
+	}
+
+	SlotState state = currentState.get(name);
+	if (state == null) {
+	    logger.debug("Ignoring {} event for unknown terminal '{}'.", event.getState(), name);
+	    return false;
+	}
+	switch (event.getState()) {
+	    case CARD_INSERTED:
+		currentState.put(name, state.withCard(true, inspectCard(event)));
+		break;
+	    case CARD_REMOVED:
+		currentState.put(name, state.withCard(false, null));
+		break;
+	    case TERMINAL_REMOVED:
+		currentState.put(name, state.disconnected());
+		cm.getCapabilityRegistry().remove(name);
+		break;
 	}
+	return true;
     }
 
     /**
@@ -157,159 +240,104 @@ public class EventWatcher implements Callable<List<IFDStatusType>> {
      */
     @Nonnull
     public List<IFDStatusType> compare(@Nonnull List<IFDStatusType> expectedStatus) {
-	ArrayList<IFDStatusType> remaining = new ArrayList<>(currentState);
-
-	for (IFDStatusType nextExpect : expectedStatus) {
-	    Iterator<IFDStatusType> it = remaining.iterator();
-	    boolean matchFound = false;
-	    // see if the current state contains the terminal that is expected to be present
-	    while (it.hasNext()) {
-		IFDStatusType nextRemain = it.next();
-		// found matching terminal
-		if (nextRemain.getIFDName().equals(nextExpect.getIFDName())) {
-		    matchFound = true;
-		    // see if there is any difference between the two
-		    if (isStateEqual(nextRemain, nextExpect)) {
-			// no difference, so delete this entry
-			it.remove();
-		    }
-		    break;
-		}
+	Map<String, IFDStatusType> expected = expectedStatus == expectedState ? expectedIndex : index(expectedStatus);
+	ArrayList<IFDStatusType> result = new ArrayList<>();
+
+	// terminals which are new or differ from the expected state
+	for (SlotState next : currentState.values()) {
+	    IFDStatusType nextExpect = expected.get(next.ifdName);
+	    if (nextExpect == null || ! next.matches(nextExpect)) {
+		result.add(next.toStatus());
 	    }
-	    // if remaining does not contain the expected status, the terminal was removed
-	    if (! matchFound) {
-		IFDStatusType removed = clone(nextExpect);
-		removed.setIFDName(nextExpect.getIFDName());
-		removed.setConnected(false);
-		remaining.add(removed);
+	}
+	// if the current state does not contain the expected terminal, it was removed
+	for (IFDStatusType nextExpect : expectedStatus) {
+	    if (! currentState.containsKey(nextExpect.getIFDName())) {
+		result.add(removedStatus(nextExpect));
 	    }
 	}
 
-	// clone entries, to prevent altering the state of this object from the outside
-	return clone(remaining);
-    }
-
-
-    @Nonnull
-    private ArrayList<IFDStatusType> convert(@Nonnull List<TerminalState> terminals) {
-	ArrayList<IFDStatusType> result = new ArrayList<>(terminals.size());
-	for (TerminalState next : terminals) {
-	    result.add(convert(next));
-	}
 	return result;
     }
 
+    /**
+     * Compares only the given terminals against the expected state.
+     *
+     * @param names Names of the terminals whose state has changed.
+     * @return The difference between the internal state and the expected state for the given terminals.
+     */
     @Nonnull
-    private IFDStatusType convert(@Nonnull TerminalState next) {
-	IFDStatusType result = new IFDStatusType();
-	result.setIFDName(next.getName());
-	result.setConnected(true);
-	SlotStatusType slot = new SlotStatusType();
-	result.getSlotStatus().add(slot);
-	slot.setIndex(BigInteger.ZERO);
-	slot.setCardAvailable(next.isCardPresent());
+    private List<IFDStatusType> compareTerminals(@Nonnull Set<String> names) {
+	ArrayList<IFDStatusType> result = new ArrayList<>(names.size());
+	for (String name : names) {
+	    SlotState next = currentState.get(name);
+	    IFDStatusType nextExpect = expectedIndex.get(name);
+	    if (nextExpect == null || ! next.matches(nextExpect)) {
+		result.add(next.toStatus());
+	    }
+	}
 	return result;
     }
 
     @Nonnull
-    private static List<IFDStatusType> clone(@Nonnull List<IFDStatusType> orig) {
-	ArrayList<IFDStatusType> result = new ArrayList<>(orig.size());
-	for (IFDStatusType next : orig) {
-	    result.add(clone(next));
+    private static Map<String, IFDStatusType> index(@Nonnull List<IFDStatusType> states) {
+	HashMap<String, IFDStatusType> result = new HashMap<>();
+	for (IFDStatusType next : states) {
+	    result.put(next.getIFDName(), next);
 	}
 	return result;
     }
 
     @Nonnull
-    private static IFDStatusType clone(@Nonnull IFDStatusType orig) {
-	IFDStatusType newStat = new IFDStatusType();
-	newStat.setIFDName(orig.getIFDName());
-	newStat.setConnected(orig.isConnected());
-
+    private static IFDStatusType removedStatus(@Nonnull IFDStatusType orig) {
+	IFDStatusType removed = new IFDStatusType();
+	removed.setIFDName(orig.getIFDName());
+	removed.setConnected(false);
 	for (SlotStatusType next : orig.getSlotStatus()) {
-	    newStat.getSlotStatus().add(clone(next));
-	}
-
-	return newStat;
-    }
-
-    @Nonnull
-    private static SlotStatusType clone(@Nonnull SlotStatusType orig) {
-	SlotStatusType slot = new SlotStatusType();
-	slot.setCardAvailable(orig.isCardAvailable());
-	slot.setIndex(orig.getIndex());
-	byte[] atr = orig.getATRorATS();
-	if (atr != null) {
-	    slot.setATRorATS(atr.clone());
-	}
-	return slot;
-    }
-
-    private static IFDStatusType createEmptyState(String name) {
-	IFDStatusType status = new IFDStatusType();
-	status.setIFDName(name);
-	status.setConnected(true);
-	status.getSlotStatus().add(createEmptySlot());
-	return status;
-    }
-
-    private static SlotStatusType createEmptySlot() {
-	SlotStatusType slot = new SlotStatusType();
-	slot.setCardAvailable(false);
-	slot.setIndex(BigInteger.ZERO);
-	return slot;
-    }
-
-    private static boolean isStateEqual(@Nonnull IFDStatusType a, @Nonnull IFDStatusType b) {
-	if (! a.getIFDName().equals(b.getIFDName())) {
-	    return false;
-	}
-	if (! a.isConnected().equals(b.isConnected())) {
-	    return false;
-	}
-	List<SlotStatusType> sa = a.getSlotStatus();
-	List<SlotStatusType> sb = b.getSlotStatus();
-	if (sa.size() != sb.size()) {
-	    return false;
-	}
-	for (int i = 0; i < sa.size(); i++) {
-	    if (! isSlotEqual(sa.get(i), sb.get(i))) {
-		return false;
+	    SlotStatusType slot = new SlotStatusType();
+	    slot.setCardAvailable(next.isCardAvailable());
+	    slot.setIndex(next.getIndex());
+	    byte[] atr = next.getATRorATS();
+	    if (atr != null) {
+		slot.setATRorATS(atr.clone());
 	    }
+	    removed.getSlotStatus().add(slot);
 	}
-
-	return true;
-    }
-
-    private static boolean isSlotEqual(@Nonnull SlotStatusType a, @Nonnull SlotStatusType b) {
-	if (a.isCardAvailable() != b.isCardAvailable()) {
-	    return false;
-	}
-	if (! a.getIndex().equals(b.getIndex())) {
-	    return false;
-	}
-	// ATR is ignored, because it is not read by the conversion function
-	return true;
-//	if (a.getATRorATS() == null && b.getATRorATS() == null) {
-//	    return true;
-//	} else {
-//	    // this method returns false when both are null, thatswhy the if before
-//	    return ByteUtils.compare(a.getATRorATS(), b.getATRorATS());
-//	}
+	return removed;
     }
 
+    /**
+     * Gets the ATR of the inserted card and reads the capabilities of the terminal if they are not known yet.
+     * The capabilities are usually only missing for the first card inserted into a newly attached terminal.
+     */
     @Nullable
-    private byte[] getATR(@Nonnull String ifdName) {
+    private byte[] inspectCard(@Nonnull TerminalWatcher.StateChangeEvent event) {
+	String ifdName = event.getTerminal();
+	SCIOATR atr = null;
+	byte[] handle = null;
+	HandledChannel channel = null;
 	try {
-	    byte[] handle = cm.openChannel(ifdName);
-	    HandledChannel channel = cm.getChannel(handle);
-	    SCIOATR atr = channel.getChannel().getCard().getATR();
-	    channel.shutdown();
-	    return atr.getBytes();
+	    handle = cm.openChannel(ifdName);
+	    channel = cm.getChannel(handle);
+	    atr = channel.getChannel().getCard().getATR();
+	    try {
+		new TerminalInfo(cm, channel).readCapabilities();
+	    } catch (SCIOException ex) {
+		logger.warn("Failed to read capabilities of terminal '{}'.", ifdName, ex);
+	    }
 	} catch (IllegalStateException | NoSuchChannel | NoSuchTerminal | SCIOException ex) {
 	    logger.error("Failed to retrieve ATR from card.", ex);
-	    return null;
+	} finally {
+	    if (channel != null) {
+		try {
+		    cm.closeChannel(handle);
+		    channel.shutdown();
+		} catch (SCIOException ex) {
+		    logger.debug("Failed to close channel used to inspect the card.", ex);
+		}
+	    }
 	}
+	return atr != null ? atr.getBytes() : null;
     }
 
 }
@@ -82,13 +82,16 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import javax.jws.WebService;
 import oasis.names.tc.dss._1_0.core.schema.Result;
 import org.openecard.common.ECardConstants;
 import org.openecard.common.WSHelper;
 import org.openecard.common.ifd.PACECapabilities;
+import org.openecard.common.ifd.PasswordRetryCounters;
 import org.openecard.common.ifd.Protocol;
 import org.openecard.common.ifd.ProtocolFactory;
+import org.openecard.common.ifd.RetryCounterSource;
 import org.openecard.common.ifd.anytype.PACEInputType;
 import org.openecard.common.ifd.anytype.PACEOutputType;
 import org.openecard.common.ifd.scio.NoSuchTerminal;
@@ -97,6 +100,9 @@ import org.openecard.common.ifd.scio.SCIOException;
 import org.openecard.common.ifd.scio.SCIOTerminal;
 import org.openecard.common.interfaces.Dispatcher;
 import org.openecard.common.interfaces.Publish;
+import org.openecard.common.metrics.Counter;
+import org.openecard.common.metrics.LatencyHistogram;
+import org.openecard.common.metrics.MetricsRegistry;
 import org.openecard.common.util.ByteUtils;
 import org.openecard.common.util.ValueGenerators;
 import org.openecard.gui.UserConsent;
@@ -119,10 +125,13 @@ import org.slf4j.LoggerFactory;
  * @author Tobias Wich
  */
 @WebService(endpointInterface = "org.openecard.ws.IFD")
-public class IFD implements org.openecard.ws.IFD {
+public class IFD implements org.openecard.ws.IFD, RetryCounterSource {
     // TODO: make all commands cancellable
 
     private static final Logger logger = LoggerFactory.getLogger(IFD.class);
+    /** Transmit latency histograms indexed by the instruction byte of the command APDU. */
+    private static final AtomicReferenceArray<LatencyHistogram> transmitMetrics = new AtomicReferenceArray<>(256);
+    private static final Counter transmitErrors = MetricsRegistry.getInstance().getCounter("ifd.transmit.errors");
 
     private byte[] ctxHandle = null;
     //private SCWrapper scwrapper;
@@ -143,6 +152,17 @@ public class IFD implements org.openecard.ws.IFD {
 	}
     }
 
+    private static LatencyHistogram getTransmitMetric(byte[] capdu) {
+	int ins = capdu != null && capdu.length > 1 ? capdu[1] & 0xFF : 0;
+	LatencyHistogram h = transmitMetrics.get(ins);
+	if (h == null) {
+	    String name = String.format("ifd.transmit.ins.%02X", ins);
+	    h = MetricsRegistry.getInstance().getHistogram(name);
+	    transmitMetrics.compareAndSet(ins, null, h);
+	}
+	return h;
+    }
+
     private boolean hasContext() {
 	boolean hasContext = ctxHandle != null;
 	return hasContext;
@@ -713,6 +733,7 @@ public class IFD implements org.openecard.ws.IFD {
 		SCIOCard card = ch.getChannel().getCard();
 		ActionType action = parameters.getAction();
 		if (ActionType.RESET == action) {
+		    ch.invalidateSelection();
 		    card.disconnect(true);
 		}
 		// TODO: take care of other actions (probably over ControlIFD)
@@ -859,14 +880,21 @@ public class IFD implements org.openecard.ws.IFD {
 		List<byte[]> rapdus = response.getOutputAPDU();
 		try {
 		    for (InputAPDUInfoType capdu : apdus) {
-			byte[] rapdu = ch.transmit(capdu.getInputAPDU(), capdu.getAcceptableStatusCode());
-			rapdus.add(rapdu);
+			long start = System.nanoTime();
+			try {
+			    byte[] rapdu = ch.transmit(capdu.getInputAPDU(), capdu.getAcceptableStatusCode());
+			    rapdus.add(rapdu);
+			} finally {
+			    getTransmitMetric(capdu.getInputAPDU()).recordSince(start);
+			}
 		    }
 		    result = WSHelper.makeResultOK();
 		} catch (TransmitException ex) {
 		    rapdus.add(ex.getResponseAPDU());
 		    result = ex.getResult();
+		    transmitErrors.inc();
 		} catch (SCIOException ex) {
+		    transmitErrors.inc();
 		    String msg = "Error during transmit.";
 		    logger.warn(msg, ex);
 		    result = WSHelper.makeResultUnknownError(msg);
@@ -989,6 +1017,11 @@ public class IFD implements org.openecard.ws.IFD {
 		    logger.debug("Response of executeCtrlCode: {}", ByteUtils.toHexString(resData));
 		    // evaluate response
 		    ExecutePACEResponse execPaceRes = new ExecutePACEResponse(resData);
+		    // the reader performed PACE without exposing the APDUs, so take the password state from its result
+		    PasswordRetryCounters counters = channel.getRetryCounters();
+		    if (counters != null) {
+			execPaceRes.updateRetryCounters(counters, pinID);
+		    }
 		    if (execPaceRes.isError()) {
 			return WSHelper.makeResponse(EstablishChannelResponse.class, execPaceRes.getResult());
 		    }
@@ -1035,6 +1068,12 @@ public class IFD implements org.openecard.ws.IFD {
 	}
     }
 
+    @Override
+    public PasswordRetryCounters getRetryCounters(byte[] slotHandle) {
+	ChannelManager m = cm;
+	return m != null ? m.getRetryCounters(slotHandle) : null;
+    }
+
     @Override
     public DestroyChannelResponse destroyChannel(DestroyChannel parameters) {
 	try {
@@ -1081,7 +1120,7 @@ public class IFD implements org.openecard.ws.IFD {
 	switch (result) {
 	    case 0x9000: return WSHelper.makeResultOK();
 	    case 0x6400: return WSHelper.makeResultError(ECardConstants.Minor.IFD.TIMEOUT_ERROR, "Timeout.");
-            default:     return WSHelper.makeResultUnknownError("Unknown return code from terminal.");
+	    default:     return WSHelper.makeResultUnknownError("Unknown return code from terminal.");
 	}
     }
 
@@ -23,10 +23,12 @@
 package org.openecard.ifd.scio.reader;
 
 import java.util.Arrays;
+import javax.annotation.Nonnull;
 import oasis.names.tc.dss._1_0.core.schema.Result;
 import org.openecard.common.ECardConstants;
 import org.openecard.common.WSHelper;
 import org.openecard.common.apdu.common.CardCommandStatus;
+import org.openecard.common.ifd.PasswordRetryCounters;
 import org.openecard.common.util.ByteUtils;
 import org.openecard.common.util.IntegerUtils;
 import org.slf4j.Logger;
@@ -78,7 +80,7 @@ public class ExecutePACEResponse {
 	    case 0xF0200002: return WSHelper.makeResultError(ECardConstants.Minor.IFD.TIMEOUT_ERROR, "Timeout.");
 	    // Response APDU of the card reports error
 	    default: {
-                byte[] sw = new byte[]{(byte) ((result >> 8) & 0xFF), (byte) (result & 0xFF)};
+		byte[] sw = new byte[]{(byte) ((result >> 8) & 0xFF), (byte) (result & 0xFF)};
 		String msg = CardCommandStatus.getMessage(sw);
 		int type = (result >> 16) & 0xFFFF;
 		if ((result & 0xFFFC0000) == 0xF0000000) {
@@ -90,13 +92,13 @@ public class ExecutePACEResponse {
 		    }
 		} else if ((result & 0xFFFC0000) == 0xf0040000) {
 		    // codes for wrong PIN
-                    switch (ByteUtils.toInteger(sw))  {
+		    switch (ByteUtils.toInteger(sw))  {
 			case 0x6300: return WSHelper.makeResultError(ECardConstants.Minor.IFD.AUTHENTICATION_FAILED, msg);
-                        case 0x63C0: return WSHelper.makeResultError(ECardConstants.Minor.IFD.PASSWORD_BLOCKED, msg);
-                        case 0x63C1: return WSHelper.makeResultError(ECardConstants.Minor.IFD.PASSWORD_SUSPENDED, msg);
-                        case 0x63C2: return WSHelper.makeResultError(ECardConstants.Minor.IFD.PASSWORD_ERROR, msg);
-                    }
-                }
+			case 0x63C0: return WSHelper.makeResultError(ECardConstants.Minor.IFD.PASSWORD_BLOCKED, msg);
+			case 0x63C1: return WSHelper.makeResultError(ECardConstants.Minor.IFD.PASSWORD_SUSPENDED, msg);
+			case 0x63C2: return WSHelper.makeResultError(ECardConstants.Minor.IFD.PASSWORD_ERROR, msg);
+		    }
+		}
 
 		// unknown error
 		String hexStringResult = ByteUtils.toHexString(IntegerUtils.toByteArray(result));
@@ -110,4 +112,24 @@ public class ExecutePACEResponse {
 	return data;
     }
 
+    /**
+     * Updates the state of the password used for PACE according to this response.
+     * The reader does not expose the APDUs it exchanged with the card, but a failed PACE run may have lowered the retry
+     * counter. If the error contains the status word of MSE:Set AT or GENERAL AUTHENTICATE, the state is taken from it,
+     * otherwise the state becomes unknown.
+     *
+     * @param counters Retry counters of the card.
+     * @param pinID Reference of the password used for PACE.
+     */
+    public void updateRetryCounters(@Nonnull PasswordRetryCounters counters, byte pinID) {
+	int type = (result >> 16) & 0xFFFF;
+	if (! isError()) {
+	    counters.setStatus(pinID, new PasswordRetryCounters.Status(PasswordRetryCounters.NOT_REDUCED, false));
+	} else if (type == 0xF002 || type == 0xF003 || (result & 0xFFFC0000) == 0xF0040000) {
+	    counters.setStatusWord(pinID, result & 0xFFFF);
+	} else {
+	    counters.setStatus(pinID, null);
+	}
+    }
+
 }
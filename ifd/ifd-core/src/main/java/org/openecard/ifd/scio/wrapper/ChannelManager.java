@@ -22,9 +22,14 @@
 
 package org.openecard.ifd.scio.wrapper;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentSkipListMap;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.openecard.common.ECardConstants;
+import org.openecard.common.OpenecardProperties;
+import org.openecard.common.ifd.PasswordRetryCounters;
 import org.openecard.common.ifd.scio.NoSuchTerminal;
 import org.openecard.common.ifd.scio.SCIOCard;
 import org.openecard.common.ifd.scio.SCIOChannel;
@@ -43,13 +48,27 @@ import org.openecard.ifd.scio.IFDException;
  */
 public class ChannelManager {
 
+    private static final boolean CACHE_SELECTION;
+
+    static {
+	String cacheSelection = OpenecardProperties.getProperty("ifd.cache_selection");
+	CACHE_SELECTION = Boolean.parseBoolean(cacheSelection);
+    }
+
     private final SCIOTerminals terminals;
     private final ConcurrentSkipListMap<byte[], HandledChannel> channels;
+    private final TerminalCapabilityRegistry capabilities;
+    private final Map<String, CardSession> sessions;
 
     public ChannelManager() throws IFDException {
-	TerminalFactory f = IFDTerminalFactory.getInstance();
+	this(IFDTerminalFactory.getInstance());
+    }
+
+    ChannelManager(TerminalFactory f) {
 	this.terminals = f.terminals();
 	this.channels = new ConcurrentSkipListMap<>(new ByteArrayComparator());
+	this.capabilities = new TerminalCapabilityRegistry();
+	this.sessions = new HashMap<>();
     }
 
     public static byte[] createHandle(int size) {
@@ -68,6 +87,16 @@ public class ChannelManager {
 	return terminals;
     }
 
+    /**
+     * Gets the registry containing the capabilities of the terminals managed by this instance.
+     *
+     * @return The capability registry.
+     */
+    @Nonnull
+    public TerminalCapabilityRegistry getCapabilityRegistry() {
+	return capabilities;
+    }
+
     /**
      *
      * @param ifdName
@@ -85,11 +114,26 @@ public class ChannelManager {
 	SCIOCard card = t.connect(SCIOProtocol.ANY);
 	SCIOChannel channel = card.getBasicChannel();
 	byte[] slotHandle = createSlotHandle();
-	HandledChannel ch = new HandledChannel(slotHandle, channel);
+	CardSession session = getSession(ifdName, card);
+	HandledChannel ch = new HandledChannel(slotHandle, channel, session.selection, session.retryCounters);
 	channels.put(slotHandle, ch);
 	return slotHandle.clone();
     }
 
+    @Nonnull
+    private CardSession getSession(@Nonnull String ifdName, @Nonnull SCIOCard card) {
+	// all channels on the same card connection must see the same state, so lookup and replacement are atomic
+	synchronized (sessions) {
+	    CardSession session = sessions.get(ifdName);
+	    if (session == null || ! session.card.equals(card)) {
+		// card has been removed, reset or this is the first connect
+		session = new CardSession(card);
+		sessions.put(ifdName, session);
+	    }
+	    return session;
+	}
+    }
+
     @Nonnull
     public HandledChannel getChannel(@Nonnull byte[] slotHandle) throws NoSuchChannel {
 	HandledChannel ch = channels.get(slotHandle);
@@ -100,6 +144,18 @@ public class ChannelManager {
 	}
     }
 
+    /**
+     * Gets the password retry counters of the card connected through the given slot handle.
+     *
+     * @param slotHandle Slot handle of a connected card.
+     * @return The retry counter model, or {@code null} if no channel exists for the slot handle.
+     */
+    @Nullable
+    public PasswordRetryCounters getRetryCounters(@Nonnull byte[] slotHandle) {
+	HandledChannel ch = channels.get(slotHandle);
+	return ch != null ? ch.getRetryCounters() : null;
+    }
+
     public void closeChannel(@Nonnull byte[] slotHandle) throws SCIOException {
 	HandledChannel ch = channels.remove(slotHandle);
 	if (ch != null && ch.getChannel().isLogicalChannel()) {
@@ -107,4 +163,22 @@ public class ChannelManager {
 	}
     }
 
+
+    /**
+     * State kept for a card connection, which is shared by all channels opened on it.
+     */
+    private static class CardSession {
+
+	private final SCIOCard card;
+	private final SelectionState selection;
+	private final PasswordRetryCounters retryCounters;
+
+	CardSession(SCIOCard card) {
+	    this.card = card;
+	    this.selection = CACHE_SELECTION ? new SelectionState(card) : null;
+	    this.retryCounters = new PasswordRetryCounters();
+	}
+
+    }
+
 }
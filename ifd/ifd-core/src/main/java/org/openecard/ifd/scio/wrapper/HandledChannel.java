@@ -23,6 +23,8 @@
 package org.openecard.ifd.scio.wrapper;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.openecard.common.ifd.PasswordRetryCounters;
 import org.openecard.common.ifd.scio.SCIOChannel;
 
 
@@ -39,6 +41,12 @@ public class HandledChannel extends SingleThreadChannel {
 	this.slotHandle = slotHandle.clone();
     }
 
+    HandledChannel(@Nonnull byte[] slotHandle, @Nonnull SCIOChannel channel, @Nullable SelectionState selection,
+	    @Nullable PasswordRetryCounters retryCounters) {
+	super(channel, selection, retryCounters);
+	this.slotHandle = slotHandle.clone();
+    }
+
     public byte[] getSlotHandle() {
 	return slotHandle.clone();
     }
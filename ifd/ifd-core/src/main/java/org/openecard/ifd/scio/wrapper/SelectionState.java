@@ -0,0 +1,190 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.ifd.scio.wrapper;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.openecard.common.apdu.common.CardCommandAPDU;
+import org.openecard.common.ifd.Protocol;
+import org.openecard.common.ifd.scio.SCIOCard;
+
+
+/**
+ * Tracks the file selected on the basic channel of a card.
+ * The state is shared by all channels connected to the same card connection, because every one of them operates on
+ * the same physical channel. The last successful SELECT command is remembered together with its response. A repeated
+ * SELECT of the same target can then be answered without sending it to the card.
+ * <p>Only SELECTs yielding the same selection when repeated are remembered. These are the selection of a DF name
+ * (first occurrence), of an absolute path, of an EF under the current DF and of an explicit file identifier. All other
+ * SELECTs, such as the selection of the parent DF, of a child DF, of a relative path or of the next occurrence of a DF
+ * name, move the selection when repeated and invalidate the state.</p>
+ * <p>The state is invalidated by failed SELECTs, commands implicitly selecting an EF by its short identifier, channel
+ * management, status words indicating a change of the selected file and by changes of the secure messaging state.</p>
+ *
+ * @author agent
+ */
+final class SelectionState {
+
+    private static final byte INS_SELECT = (byte) 0xA4;
+    private static final byte INS_MANAGE_CHANNEL = (byte) 0x70;
+    private static final byte[] SW_OK = { (byte) 0x90, (byte) 0x00 };
+
+    private final SCIOCard card;
+
+    private byte[] select;
+    private byte[] response;
+    private Protocol smProtocol;
+
+    SelectionState(@Nonnull SCIOCard card) {
+	this.card = card;
+    }
+
+    /**
+     * Checks whether this state belongs to the given card connection.
+     *
+     * @param other Card connection to check.
+     * @return {@code true} if the state describes the given card, {@code false} otherwise.
+     */
+    boolean belongsTo(@Nonnull SCIOCard other) {
+	return card.equals(other);
+    }
+
+    /**
+     * Gets the response to the given command if it selects the already selected target.
+     * The command must be identical to the recorded SELECT, or address the same target and request no response data.
+     *
+     * @param command Plain command APDU which is about to be sent.
+     * @param sm Secure messaging protocol the command would be sent with, or {@code null} if none is active.
+     * @return The response to use instead of sending the command, or {@code null} if the command must be sent.
+     */
+    @Nullable
+    synchronized byte[] lookup(@Nonnull byte[] command, @Nullable Protocol sm) {
+	if (select == null || sm != smProtocol || ! isIdempotentSelect(command)) {
+	    return null;
+	}
+	if (Arrays.equals(command, select)) {
+	    return response.clone();
+	}
+	try {
+	    CardCommandAPDU next = new CardCommandAPDU(command);
+	    CardCommandAPDU current = new CardCommandAPDU(select);
+	    boolean sameTarget = next.getCLA() == current.getCLA() && next.getP1() == current.getP1()
+		    && Arrays.equals(next.getData(), current.getData());
+	    boolean noResponseData = (next.getP2() & 0x0C) == 0x0C && next.getLE() <= 0;
+	    if (sameTarget && noResponseData) {
+		return SW_OK.clone();
+	    }
+	} catch (RuntimeException ex) {
+	    // malformed APDU, let the card decide what to do with it
+	}
+	return null;
+    }
+
+    /**
+     * Updates the state after the given command has been processed by the card.
+     *
+     * @param command Plain command APDU which has been sent.
+     * @param result Plain response APDU including the status word.
+     * @param sm Secure messaging protocol the command has been sent with, or {@code null} if none is active.
+     */
+    synchronized void update(@Nonnull byte[] command, @Nonnull byte[] result, @Nullable Protocol sm) {
+	if (command.length < 4 || result.length < 2) {
+	    invalidate();
+	    return;
+	}
+	byte ins = command[1];
+	byte sw1 = result[result.length - 2];
+	byte sw2 = result[result.length - 1];
+	if (ins == INS_SELECT) {
+	    if (sw1 == (byte) 0x90 && sw2 == 0x00 && isIdempotentSelect(command)) {
+		select = command.clone();
+		response = result.clone();
+		smProtocol = sm;
+	    } else {
+		invalidate();
+	    }
+	} else if (ins == INS_MANAGE_CHANNEL || usesShortFileIdentifier(command) || isSelectionWarning(sw1, sw2)) {
+	    invalidate();
+	}
+    }
+
+    /**
+     * Forgets the selected target, so that the next SELECT is sent to the card.
+     */
+    synchronized void invalidate() {
+	select = null;
+	response = null;
+	smProtocol = null;
+    }
+
+    /**
+     * Checks whether the given command is a SELECT which selects the same file when it is repeated.
+     *
+     * @param command Plain command APDU.
+     * @return {@code true} if the command is a repeatable SELECT, {@code false} otherwise.
+     */
+    private static boolean isIdempotentSelect(byte[] command) {
+	if (command.length < 4 || command[1] != INS_SELECT) {
+	    return false;
+	}
+	byte p2 = command[3];
+	switch (command[2]) {
+	    // DF name, only the first or only occurrence
+	    case 0x04:
+		return (p2 & 0x03) == 0x00;
+	    // absolute path from the MF and EF under the current DF
+	    case 0x08: case 0x02:
+		return true;
+	    // MF, DF or EF by its file identifier, but not the MF selected without data
+	    case 0x00:
+		return command.length >= 7 && command[4] == 2;
+	    default:
+		return false;
+	}
+    }
+
+    private static boolean usesShortFileIdentifier(byte[] command) {
+	byte p1 = command[2];
+	byte p2 = command[3];
+	switch (command[1]) {
+	    // READ, UPDATE, WRITE, ERASE BINARY select the EF when bit 8 of P1 is set
+	    case (byte) 0xB0: case (byte) 0xD6: case (byte) 0xD0: case (byte) 0x0E:
+		return (p1 & 0x80) == 0x80;
+	    // odd instruction variants select the EF given in P1-P2, 0000 means the current EF
+	    case (byte) 0xB1: case (byte) 0xD7: case (byte) 0x0F:
+		return p1 != 0 || p2 != 0;
+	    // record commands carry the SFI in the upper bits of P2
+	    case (byte) 0xB2: case (byte) 0xB3: case (byte) 0xDC: case (byte) 0xDD: case (byte) 0xE2:
+		return ((p2 & 0xFF) >>> 3) != 0;
+	    default:
+		return false;
+	}
+    }
+
+    private static boolean isSelectionWarning(byte sw1, byte sw2) {
+	// selected file deactivated or in termination state
+	return sw1 == 0x62 && (sw2 == (byte) 0x83 || sw2 == (byte) 0x85);
+    }
+
+}
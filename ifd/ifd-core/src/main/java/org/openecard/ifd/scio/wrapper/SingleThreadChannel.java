@@ -30,9 +30,11 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.openecard.common.apdu.common.CardCommandAPDU;
 import org.openecard.common.apdu.common.CardCommandStatus;
 import org.openecard.common.apdu.common.CardResponseAPDU;
+import org.openecard.common.ifd.PasswordRetryCounters;
 import org.openecard.common.ifd.Protocol;
 import org.openecard.common.ifd.scio.SCIOCard;
 import org.openecard.common.ifd.scio.SCIOChannel;
@@ -57,6 +59,8 @@ public class SingleThreadChannel {
 
     private final ExecutorService exec;
     private final SCIOChannel channel;
+    private final SelectionState selection;
+    private final PasswordRetryCounters retryCounters;
     /**
      * Currently active secure messaging protocol.
      */
@@ -68,6 +72,20 @@ public class SingleThreadChannel {
      * @param channel Channel to be bound to the command execution thread.
      */
     public SingleThreadChannel(SCIOChannel channel) {
+	this(channel, null, null);
+    }
+
+    /**
+     * Creates an instance an launches a command submission thread.
+     *
+     * @param channel Channel to be bound to the command execution thread.
+     * @param selection Selection state shared by all channels operating on the same physical channel, or {@code null}
+     *   if SELECT commands should always be sent to the card.
+     * @param retryCounters Password retry counters of the card, which are updated with every command sent through this
+     *   channel, or {@code null} if the counters should not be tracked.
+     */
+    SingleThreadChannel(SCIOChannel channel, @Nullable SelectionState selection,
+	    @Nullable PasswordRetryCounters retryCounters) {
 	this.exec = Executors.newSingleThreadExecutor(new ThreadFactory() {
 	    @Override
 	    public Thread newThread(Runnable r) {
@@ -80,6 +98,8 @@ public class SingleThreadChannel {
 	    }
 	});
 	this.channel = channel;
+	this.selection = selection;
+	this.retryCounters = retryCounters;
     }
 
     /**
@@ -90,6 +110,7 @@ public class SingleThreadChannel {
      */
     public void shutdown() throws SCIOException {
 	exec.shutdown();
+	invalidateSelection();
 	channel.close();
     }
 
@@ -213,18 +234,28 @@ public class SingleThreadChannel {
     @Nonnull
     public byte[] transmit(@Nonnull byte[] input, @Nonnull List<byte[]> responses) throws TransmitException,
 	    SCIOException, IllegalStateException {
-	byte[] inputAPDU = input;
-	if (isSM()) {
-	    logger.debug("Apply secure messaging to APDU: {}", ByteUtils.toHexString(inputAPDU, true));
-	    inputAPDU = smProtocol.applySM(inputAPDU);
+	Protocol sm = smProtocol;
+	byte[] result = null;
+	if (selection != null) {
+	    result = selection.lookup(input, sm);
+	    if (result != null) {
+		logger.debug("Skip SELECT of the already selected target: {}", ByteUtils.toHexString(input, true));
+	    }
 	}
-	logger.debug("Send APDU: {}", ByteUtils.toHexString(inputAPDU, true));
-	CardResponseAPDU rapdu = transmit(inputAPDU);
-	byte[] result = rapdu.toByteArray();
-	logger.debug("Receive APDU: {}", ByteUtils.toHexString(result, true));
-	if (isSM()) {
-	    result = smProtocol.removeSM(result);
-	    logger.debug("Remove secure messaging from APDU: {}", ByteUtils.toHexString(result, true));
+	if (result == null) {
+	    try {
+		result = transmitSM(input, sm);
+	    } catch (SCIOException | RuntimeException ex) {
+		// the state of the card is unknown after a failed command
+		invalidateSelection();
+		throw ex;
+	    }
+	    if (selection != null) {
+		selection.update(input, result, sm);
+	    }
+	    if (retryCounters != null) {
+		retryCounters.update(input, result);
+	    }
 	}
 	// get status word
 	byte[] sw = new byte[2];
@@ -250,6 +281,22 @@ public class SingleThreadChannel {
 	throw tex;
     }
 
+    private byte[] transmitSM(@Nonnull byte[] input, Protocol sm) throws SCIOException {
+	byte[] inputAPDU = input;
+	if (sm != null) {
+	    logger.debug("Apply secure messaging to APDU: {}", ByteUtils.toHexString(inputAPDU, true));
+	    inputAPDU = sm.applySM(inputAPDU);
+	}
+	logger.debug("Send APDU: {}", ByteUtils.toHexString(inputAPDU, true));
+	byte[] result = transmit(inputAPDU).toByteArray();
+	logger.debug("Receive APDU: {}", ByteUtils.toHexString(result, true));
+	if (sm != null) {
+	    result = sm.removeSM(result);
+	    logger.debug("Remove secure messaging from APDU: {}", ByteUtils.toHexString(result, true));
+	}
+	return result;
+    }
+
     /**
      * Sends a control command to the terminal.
      *
@@ -355,10 +402,33 @@ public class SingleThreadChannel {
 
     public void addSecureMessaging(Protocol protocol) {
 	this.smProtocol = protocol;
+	invalidateSelection();
     }
 
     public void removeSecureMessaging() {
 	this.smProtocol = null;
+	invalidateSelection();
+    }
+
+    /**
+     * Gets the password retry counters of the card this channel is connected to.
+     *
+     * @return The retry counter model, or {@code null} if the counters are not tracked.
+     */
+    @Nullable
+    public PasswordRetryCounters getRetryCounters() {
+	return retryCounters;
+    }
+
+    /**
+     * Forgets the file selected on the card, so that the next SELECT command is sent to the card.
+     * This method must be called when the card is reset or the selection is changed by other means than commands sent
+     * through this channel.
+     */
+    public void invalidateSelection() {
+	if (selection != null) {
+	    selection.invalidate();
+	}
     }
 
 }
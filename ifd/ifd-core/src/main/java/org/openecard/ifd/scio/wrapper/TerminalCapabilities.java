@@ -0,0 +1,161 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.ifd.scio.wrapper;
+
+import iso.std.iso_iec._24727.tech.schema.DisplayCapabilityType;
+import iso.std.iso_iec._24727.tech.schema.KeyPadCapabilityType;
+import iso.std.iso_iec._24727.tech.schema.SlotCapabilityType;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.openecard.common.ifd.PACECapabilities;
+
+
+/**
+ * Capabilities of a terminal which do not change as long as the terminal is attached.
+ * The values are read from the reader driver by {@link TerminalInfo} the first time a card connection is available
+ * and are then shared by all operations on the terminal. Each value has a read flag, so that values which are not
+ * supported by the terminal are not requested again.
+ *
+ * @author agent
+ * @see TerminalCapabilityRegistry
+ */
+public class TerminalCapabilities {
+
+    private final String ifdName;
+
+    private Map<Integer, Integer> featureCodes;
+    private SlotCapabilityType slotCap;
+    private boolean dispCapRead = false;
+    private DisplayCapabilityType dispCap;
+    private boolean keyCapRead = false;
+    private KeyPadCapabilityType keyCap;
+    private List<PACECapabilities.PACECapability> paceCapabilities;
+    private boolean tlvPropertiesRead = false;
+    private Integer maxApduDataSize;
+
+    TerminalCapabilities(@Nonnull String ifdName) {
+	this.ifdName = ifdName;
+    }
+
+    @Nonnull
+    public String getIFDName() {
+	return ifdName;
+    }
+
+    /**
+     * Checks whether all capabilities of the terminal have been read from the reader driver.
+     *
+     * @return {@code true} if no further control commands are needed for this terminal, {@code false} otherwise.
+     */
+    public synchronized boolean isComplete() {
+	return featureCodes != null && slotCap != null && dispCapRead && keyCapRead && tlvPropertiesRead;
+    }
+
+    /**
+     * Gets the feature codes of the terminal as returned by the {@code GET_FEATURE_REQUEST} control command.
+     *
+     * @return Unmodifiable feature code map, or {@code null} if the features have not been read yet.
+     */
+    @Nullable
+    public synchronized Map<Integer, Integer> getFeatureCodes() {
+	return featureCodes;
+    }
+
+    synchronized void setFeatureCodes(@Nonnull Map<Integer, Integer> featureCodes) {
+	this.featureCodes = Collections.unmodifiableMap(featureCodes);
+    }
+
+    @Nullable
+    public synchronized SlotCapabilityType getSlotCapability() {
+	return slotCap;
+    }
+
+    synchronized void setSlotCapability(@Nonnull SlotCapabilityType slotCap) {
+	this.slotCap = slotCap;
+    }
+
+    public synchronized boolean isDisplayCapabilityRead() {
+	return dispCapRead;
+    }
+
+    @Nullable
+    public synchronized DisplayCapabilityType getDisplayCapability() {
+	return dispCap;
+    }
+
+    synchronized void setDisplayCapability(@Nullable DisplayCapabilityType dispCap) {
+	this.dispCap = dispCap;
+	this.dispCapRead = true;
+    }
+
+    public synchronized boolean isKeypadCapabilityRead() {
+	return keyCapRead;
+    }
+
+    @Nullable
+    public synchronized KeyPadCapabilityType getKeypadCapability() {
+	return keyCap;
+    }
+
+    synchronized void setKeypadCapability(@Nullable KeyPadCapabilityType keyCap) {
+	this.keyCap = keyCap;
+	this.keyCapRead = true;
+    }
+
+    /**
+     * Gets the PACE capabilities of the terminal.
+     *
+     * @return Unmodifiable list of capabilities, or {@code null} if they have not been read yet.
+     */
+    @Nullable
+    public synchronized List<PACECapabilities.PACECapability> getPACECapabilities() {
+	return paceCapabilities;
+    }
+
+    synchronized void setPACECapabilities(@Nonnull List<PACECapabilities.PACECapability> paceCapabilities) {
+	this.paceCapabilities = Collections.unmodifiableList(paceCapabilities);
+    }
+
+    public synchronized boolean isTLVPropertiesRead() {
+	return tlvPropertiesRead;
+    }
+
+    /**
+     * Gets the maximum size of the data part of an APDU as reported in the TLV properties of the terminal.
+     *
+     * @return The maximum size in bytes, or {@code null} if the terminal does not report a limit.
+     */
+    @Nullable
+    public synchronized Integer getMaxAPDUDataSize() {
+	return maxApduDataSize;
+    }
+
+    synchronized void setMaxAPDUDataSize(@Nullable Integer maxApduDataSize) {
+	this.maxApduDataSize = maxApduDataSize;
+	this.tlvPropertiesRead = true;
+    }
+
+}
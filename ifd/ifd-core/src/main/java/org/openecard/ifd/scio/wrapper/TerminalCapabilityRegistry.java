@@ -0,0 +1,70 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.ifd.scio.wrapper;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Registry holding the capabilities of all terminals known to a {@link ChannelManager}.
+ * Entries are created when a terminal appears and are dropped when it is removed, so that a reattached reader is
+ * inspected again.
+ *
+ * @author agent
+ */
+public class TerminalCapabilityRegistry {
+
+    private final ConcurrentMap<String, TerminalCapabilities> capabilities = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the capability entry of the given terminal.
+     * If the terminal has no entry yet, an empty entry is created.
+     *
+     * @param ifdName Name of the terminal.
+     * @return The capability entry of the terminal.
+     */
+    @Nonnull
+    public TerminalCapabilities get(@Nonnull String ifdName) {
+	TerminalCapabilities caps = capabilities.get(ifdName);
+	if (caps == null) {
+	    caps = new TerminalCapabilities(ifdName);
+	    TerminalCapabilities old = capabilities.putIfAbsent(ifdName, caps);
+	    if (old != null) {
+		caps = old;
+	    }
+	}
+	return caps;
+    }
+
+    /**
+     * Drops the capability entry of the given terminal.
+     *
+     * @param ifdName Name of the terminal which has been removed.
+     */
+    public void remove(@Nonnull String ifdName) {
+	capabilities.remove(ifdName);
+    }
+
+}
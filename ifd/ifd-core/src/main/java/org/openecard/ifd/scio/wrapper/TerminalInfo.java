@@ -60,30 +60,28 @@ public class TerminalInfo {
 
     private static final Logger logger = LoggerFactory.getLogger(TerminalInfo.class);
 
+    // tag of dwMaxAPDUDataSize in the TLV properties of PC/SC part 10
+    private static final int TLV_MAX_APDU_DATA_SIZE = 0x0A;
+
     private final ChannelManager cm;
     private final SCIOTerminal term;
     private final boolean externalChannel;
     private HandledChannel channel = null;
 
-    private Map<Integer, Integer> featureCodes;
+    // capabilities shared by all operations on the terminal
+    private final TerminalCapabilities caps;
 
     // capabilities entries
     private Boolean acoustic = null;
     private Boolean optic    = null;
-    private boolean slotCapRead = false;
-    private SlotCapabilityType slotCap = null;
-    private boolean dispCapRead = false;
-    private DisplayCapabilityType dispCap = null;
-    private boolean keyCapRead = false;
-    private KeyPadCapabilityType keyCap = null;
     private boolean bioCapRead = false;
     private BioSensorCapabilityType bioCap = null;
-    private List<PACECapabilities.PACECapability> PACECapabilities = null;
 
     public TerminalInfo(ChannelManager cm, SCIOTerminal term) {
 	this.cm = cm;
 	this.term = term;
 	this.externalChannel = false;
+	this.caps = cm.getCapabilityRegistry().get(term.getName());
     }
 
     public TerminalInfo(ChannelManager cm, HandledChannel channel) {
@@ -91,6 +89,7 @@ public class TerminalInfo {
 	this.term = channel.getChannel().getCard().getTerminal();
 	this.externalChannel = true;
 	this.channel = channel;
+	this.caps = cm.getCapabilityRegistry().get(term.getName());
     }
 
 
@@ -161,8 +160,25 @@ public class TerminalInfo {
     }
 
 
+    /**
+     * Reads all capabilities of the terminal which are not yet present in the capability registry.
+     * This method is called when the terminal is inspected the first time, so that later operations need no further
+     * control commands.
+     *
+     * @throws SCIOException Thrown in case a control command failed.
+     */
+    public void readCapabilities() throws SCIOException {
+	if (! caps.isComplete()) {
+	    getSlotCapability();
+	    getDisplayCapability();
+	    getKeypadCapability();
+	    getMaxAPDUDataSize();
+	}
+    }
+
     public SlotCapabilityType getSlotCapability() throws SCIOException {
-	if (! slotCapRead) {
+	SlotCapabilityType slotCap = caps.getSlotCapability();
+	if (slotCap == null) {
 	    SlotCapabilityType cap = new SlotCapabilityType();
 	    cap.setIndex(BigInteger.ZERO);
 
@@ -176,10 +192,17 @@ public class TerminalInfo {
 	    }
 
 	    slotCap = cap;
-	    slotCapRead = true;
+	    // without a card connection the features of the terminal are unknown, so the result must not be saved
+	    if (caps.getFeatureCodes() != null) {
+		caps.setSlotCapability(cap);
+	    }
 	}
 
-	return slotCap;
+	// the shared instance must not be modified by the caller
+	SlotCapabilityType result = new SlotCapabilityType();
+	result.setIndex(slotCap.getIndex());
+	result.getProtocol().addAll(slotCap.getProtocol());
+	return result;
     }
 
     public static List<String> buildPACEProtocolList(List<PACECapabilities.PACECapability> paceCapabilities) {
@@ -209,8 +232,9 @@ public class TerminalInfo {
 
     @Nullable
     public DisplayCapabilityType getDisplayCapability() throws SCIOException {
-	if (! dispCapRead) {
+	if (! caps.isDisplayCapabilityRead()) {
 	    if (tryConnect()) {
+		DisplayCapabilityType dispCap = null;
 		Map<Integer,Integer> features = getFeatureCodes();
 		if (features.containsKey(PCSCFeatures.IFD_DISPLAY_PROPERTIES)) {
 		    Integer displayFeature = features.get(PCSCFeatures.IFD_DISPLAY_PROPERTIES);
@@ -227,16 +251,19 @@ public class TerminalInfo {
 		    }
 		}
 		// regardless whether the data has been successfully extracted, or not, the data has been read
-		dispCapRead = true;
+		if (caps.getFeatureCodes() != null) {
+		    caps.setDisplayCapability(dispCap);
+		}
 	    }
 	}
-	return dispCap;
+	return caps.getDisplayCapability();
     }
 
     @Nullable
     public KeyPadCapabilityType getKeypadCapability() throws SCIOException {
-	if (! keyCapRead) {
+	if (! caps.isKeypadCapabilityRead()) {
 	    if (tryConnect()) {
+		KeyPadCapabilityType keyCap = null;
 		// try to get the properties from the reader
 		Map<Integer,Integer> features = getFeatureCodes();
 		if (features.containsKey(PCSCFeatures.IFD_PIN_PROPERTIES)) {
@@ -256,10 +283,12 @@ public class TerminalInfo {
 		}
 
 		// regardless whether the data has been successfully extracted, or not, the data has been read
-		keyCapRead = true;
+		if (caps.getFeatureCodes() != null) {
+		    caps.setKeypadCapability(keyCap);
+		}
 	    }
 	}
-	return keyCap;
+	return caps.getKeypadCapability();
     }
 
 
@@ -289,8 +318,9 @@ public class TerminalInfo {
 
     public List<PACECapabilities.PACECapability> getPACECapabilities() throws SCIOException {
 	List<PACECapabilities.PACECapability> result = new LinkedList<>();
+	List<PACECapabilities.PACECapability> paceCapabilities = caps.getPACECapabilities();
 
-	if (PACECapabilities == null) {
+	if (paceCapabilities == null) {
 	    if (tryConnect()) {
 		if (supportsPace()) {
 		    int ctrlCode = getPaceCtrlCode();
@@ -304,12 +334,14 @@ public class TerminalInfo {
 			throw new SCIOException(msg, SCIOErrorCode.SCARD_F_UNKNOWN_ERROR);
 		    }
 		    PACECapabilities cap = new PACECapabilities(paceResponse.getData());
-		    PACECapabilities = cap.getFeaturesEnum();
-		    result.addAll(PACECapabilities);
+		    result.addAll(cap.getFeaturesEnum());
+		}
+		if (caps.getFeatureCodes() != null) {
+		    caps.setPACECapabilities(result);
 		}
 	    }
 	} else {
-	    result.addAll(PACECapabilities);
+	    result.addAll(paceCapabilities);
 	}
 
 	return Collections.unmodifiableList(result);
@@ -328,9 +360,60 @@ public class TerminalInfo {
 	return getPinCompareCtrlCode() != null;
     }
 
+    /**
+     * Gets the maximum size of the data part of an APDU supported by the terminal.
+     * The value is taken from the {@code dwMaxAPDUDataSize} entry of the TLV properties of the reader.
+     *
+     * @return The maximum size in bytes, or {@code null} if the terminal does not report it.
+     * @throws SCIOException Thrown in case the control command failed.
+     */
+    @Nullable
+    public Integer getMaxAPDUDataSize() throws SCIOException {
+	if (! caps.isTLVPropertiesRead()) {
+	    if (tryConnect()) {
+		Integer maxSize = null;
+		Map<Integer,Integer> features = getFeatureCodes();
+		if (features.containsKey(PCSCFeatures.GET_TLV_PROPERTIES)) {
+		    Integer tlvFeature = features.get(PCSCFeatures.GET_TLV_PROPERTIES);
+		    byte[] data = channel.transmitControlCommand(tlvFeature, new byte[0]);
+		    maxSize = getMaxAPDUDataSize(data);
+		}
+		// regardless whether the data has been successfully extracted, or not, the data has been read
+		if (caps.getFeatureCodes() != null) {
+		    caps.setMaxAPDUDataSize(maxSize);
+		}
+	    }
+	}
+	return caps.getMaxAPDUDataSize();
+    }
+
+    @Nullable
+    private static Integer getMaxAPDUDataSize(byte[] tlvProperties) {
+	// the properties are encoded as a sequence of tag, length and little endian value
+	int i = 0;
+	while (i + 2 <= tlvProperties.length) {
+	    int tag = tlvProperties[i] & 0xFF;
+	    int len = tlvProperties[i + 1] & 0xFF;
+	    i += 2;
+	    if (i + len > tlvProperties.length) {
+		break;
+	    }
+	    if (tag == TLV_MAX_APDU_DATA_SIZE) {
+		int value = 0;
+		for (int j = len - 1; j >= 0; j--) {
+		    value = (value << 8) | (tlvProperties[i + j] & 0xFF);
+		}
+		return value;
+	    }
+	    i += len;
+	}
+	return null;
+    }
+
     @Nonnull
     public Map<Integer, Integer> getFeatureCodes() throws SCIOException {
 	if (tryConnect()) {
+	    Map<Integer, Integer> featureCodes = caps.getFeatureCodes();
 	    if (featureCodes == null) {
 		int code = PCSCFeatures.GET_FEATURE_REQUEST_CTLCODE();
 		try {
@@ -344,6 +427,8 @@ public class TerminalInfo {
 		    logger.warn("Transmit control command failed due to missing card connection.", ex);
 		    return Collections.emptyMap();
 		}
+		caps.setFeatureCodes(featureCodes);
+		featureCodes = caps.getFeatureCodes();
 	    }
 
 	    return featureCodes;
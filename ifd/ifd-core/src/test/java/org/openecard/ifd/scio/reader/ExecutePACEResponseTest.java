@@ -0,0 +1,88 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.ifd.scio.reader;
+
+import org.openecard.common.ifd.PasswordRetryCounters;
+import org.openecard.common.util.StringUtils;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test the evaluation of the result of a PACE run performed by the reader.
+ *
+ * @author agent
+ */
+public class ExecutePACEResponseTest {
+
+    private static final byte PIN_ID = 3;
+
+    private PasswordRetryCounters counters;
+
+    @BeforeMethod
+    public void init() {
+	counters = new PasswordRetryCounters();
+	counters.setStatus(PIN_ID, new PasswordRetryCounters.Status(PasswordRetryCounters.NOT_REDUCED, false));
+    }
+
+    @Test
+    public void testWrongPIN() {
+	// result F00463C2 (little endian), no data
+	ExecutePACEResponse res = new ExecutePACEResponse(StringUtils.toByteArray("C26304F00000"));
+	assertTrue(res.isError());
+	res.updateRetryCounters(counters, PIN_ID);
+	assertEquals(counters.getStatus(PIN_ID).getRetryCounter(), 2);
+    }
+
+    @Test
+    public void testSuspendedPIN() {
+	// MSE:Set AT reported 63C1
+	ExecutePACEResponse res = new ExecutePACEResponse(StringUtils.toByteArray("C16302F00000"));
+	res.updateRetryCounters(counters, PIN_ID);
+	assertEquals(counters.getStatus(PIN_ID).getRetryCounter(), 1);
+    }
+
+    @Test
+    public void testUnknownOutcome() {
+	// authentication failed without telling the remaining tries
+	ExecutePACEResponse res = new ExecutePACEResponse(StringUtils.toByteArray("006304F00000"));
+	res.updateRetryCounters(counters, PIN_ID);
+	assertNull(counters.getStatus(PIN_ID), "The card may have lowered the counter.");
+
+	// aborted by the user
+	counters.setStatus(PIN_ID, new PasswordRetryCounters.Status(2, false));
+	res = new ExecutePACEResponse(StringUtils.toByteArray("010020F00000"));
+	res.updateRetryCounters(counters, PIN_ID);
+	assertNull(counters.getStatus(PIN_ID));
+    }
+
+    @Test
+    public void testSuccess() {
+	counters.setStatus(PIN_ID, new PasswordRetryCounters.Status(2, false));
+	ExecutePACEResponse res = new ExecutePACEResponse(StringUtils.toByteArray("000000000000"));
+	res.updateRetryCounters(counters, PIN_ID);
+	assertEquals(counters.getStatus(PIN_ID).getRetryCounter(), PasswordRetryCounters.NOT_REDUCED);
+    }
+
+}
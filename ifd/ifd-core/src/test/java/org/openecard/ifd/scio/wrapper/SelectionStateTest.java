@@ -0,0 +1,139 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.ifd.scio.wrapper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import org.openecard.common.ifd.Protocol;
+import org.openecard.common.ifd.scio.SCIOCard;
+import org.openecard.common.util.StringUtils;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ *
+ * @author agent
+ */
+public class SelectionStateTest {
+
+    private static final byte[] SELECT_APP = StringUtils.toByteArray("00A4040C06E80704007F00");
+    private static final byte[] SELECT_APP_FCP = StringUtils.toByteArray("00A4040406E80704007F0000");
+    private static final byte[] FCP = StringUtils.toByteArray("62038001019000");
+    private static final byte[] OK = StringUtils.toByteArray("9000");
+
+    private SelectionState state;
+
+    @BeforeMethod
+    public void init() {
+	state = new SelectionState(stub(SCIOCard.class));
+    }
+
+    @Test
+    public void testRepeatedSelect() {
+	assertNull(state.lookup(SELECT_APP_FCP, null));
+	state.update(SELECT_APP_FCP, FCP, null);
+	assertEquals(state.lookup(SELECT_APP_FCP, null), FCP);
+	// same target without response data is answered from the FCP select
+	assertEquals(state.lookup(SELECT_APP, null), OK);
+	// other commands are never answered
+	assertNull(state.lookup(StringUtils.toByteArray("00B0000000"), null));
+	state.update(StringUtils.toByteArray("00B0000000"), OK, null);
+	assertEquals(state.lookup(SELECT_APP_FCP, null), FCP);
+    }
+
+    @Test
+    public void testInvalidation() {
+	state.update(SELECT_APP, OK, null);
+	state.update(StringUtils.toByteArray("00B0810000"), OK, null);
+	assertNull(state.lookup(SELECT_APP, null), "Read with SFI changes the selected EF.");
+
+	state.update(SELECT_APP, OK, null);
+	state.update(StringUtils.toByteArray("00A4020C020101"), StringUtils.toByteArray("6A82"), null);
+	assertNull(state.lookup(SELECT_APP, null), "Failed SELECT leaves an unknown state.");
+
+	state.update(SELECT_APP, OK, null);
+	state.update(StringUtils.toByteArray("00B0000000"), StringUtils.toByteArray("6283"), null);
+	assertNull(state.lookup(SELECT_APP, null), "Selected file has been deactivated.");
+    }
+
+    @Test
+    public void testRepeatableSelects() {
+	String[] selects = {
+	    "00A4080C04DF010101", // absolute path
+	    "00A4020C020101", // EF under current DF
+	    "00A4000C023F00", // explicit file identifier
+	};
+	for (String select : selects) {
+	    byte[] cmd = StringUtils.toByteArray(select);
+	    state.update(cmd, OK, null);
+	    assertEquals(state.lookup(cmd, null), OK, select);
+	}
+    }
+
+    @Test
+    public void testMovingSelects() {
+	String[] selects = {
+	    "00A4030C", // parent DF
+	    "00A4010C02DF01", // child DF
+	    "00A4090C020101", // path relative to the current DF
+	    "00A4040E06E80704007F00", // next occurrence of a DF name
+	};
+	for (String select : selects) {
+	    byte[] cmd = StringUtils.toByteArray(select);
+	    state.update(SELECT_APP, OK, null);
+	    state.update(cmd, OK, null);
+	    assertNull(state.lookup(cmd, null), select);
+	    assertNull(state.lookup(SELECT_APP, null), select);
+	}
+	// next occurrence is not answered from a recorded first occurrence either
+	state.update(SELECT_APP, OK, null);
+	assertNull(state.lookup(StringUtils.toByteArray("00A4040E06E80704007F00"), null));
+    }
+
+    @Test
+    public void testCardAndSecureMessaging() {
+	state.update(SELECT_APP, OK, null);
+	assertNull(state.lookup(SELECT_APP, stub(Protocol.class)));
+	assertFalse(state.belongsTo(stub(SCIOCard.class)));
+    }
+
+    private static <T> T stub(Class<T> iface) {
+	Object stub = Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[] { iface },
+		new InvocationHandler() {
+		    @Override
+		    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if ("equals".equals(method.getName())) {
+			    return proxy == args[0];
+			} else if ("hashCode".equals(method.getName())) {
+			    return System.identityHashCode(proxy);
+			}
+			throw new UnsupportedOperationException(method.getName());
+		    }
+		});
+	return iface.cast(stub);
+    }
+
+}
@@ -0,0 +1,133 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.ifd.scio.wrapper;
+
+import iso.std.iso_iec._24727.tech.schema.SlotCapabilityType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openecard.common.ifd.scio.SCIOCard;
+import org.openecard.common.ifd.scio.SCIOChannel;
+import org.openecard.common.ifd.scio.SCIOException;
+import org.openecard.common.ifd.scio.SCIOTerminal;
+import org.openecard.common.ifd.scio.TerminalFactory;
+import org.openecard.common.util.StringUtils;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ *
+ * @author agent
+ */
+public class TerminalCapabilityRegistryTest {
+
+    @Test
+    public void testLifecycle() {
+	TerminalCapabilityRegistry reg = new TerminalCapabilityRegistry();
+	TerminalCapabilities caps = reg.get("Reader 1");
+	assertSame(reg.get("Reader 1"), caps);
+	assertNotSame(reg.get("Reader 2"), caps);
+
+	caps.setFeatureCodes(new HashMap<Integer, Integer>());
+	assertSame(reg.get("Reader 1").getFeatureCodes(), caps.getFeatureCodes());
+
+	// removed terminals must be inspected again
+	reg.remove("Reader 1");
+	assertNull(reg.get("Reader 1").getFeatureCodes());
+    }
+
+    @Test
+    public void testCompleteness() {
+	TerminalCapabilities caps = new TerminalCapabilityRegistry().get("Reader");
+	assertFalse(caps.isComplete());
+	caps.setFeatureCodes(new HashMap<Integer, Integer>());
+	caps.setSlotCapability(new SlotCapabilityType());
+	caps.setDisplayCapability(null);
+	caps.setKeypadCapability(null);
+	assertFalse(caps.isComplete());
+	// unsupported values count as read
+	caps.setMaxAPDUDataSize(null);
+	assertTrue(caps.isComplete());
+	assertNull(caps.getDisplayCapability());
+    }
+
+    @Test
+    public void testFeatureRequestSentOnce() throws SCIOException {
+	final AtomicInteger numRequests = new AtomicInteger();
+	final SCIOTerminal term = stub(SCIOTerminal.class, Collections.<String, Object>singletonMap("getName", "Reader"));
+	final SCIOCard card = stub(SCIOCard.class, Collections.<String, Object>singletonMap("getTerminal", term));
+	SCIOCard countingCard = (SCIOCard) Proxy.newProxyInstance(SCIOCard.class.getClassLoader(),
+		new Class<?>[] { SCIOCard.class }, new InvocationHandler() {
+		    @Override
+		    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if ("transmitControlCommand".equals(method.getName())) {
+			    numRequests.incrementAndGet();
+			    // FEATURE_VERIFY_PIN_DIRECT
+			    return StringUtils.toByteArray("060442000DB2");
+			}
+			return method.invoke(card, args);
+		    }
+		});
+	Map<String, Object> channelValues = new HashMap<>();
+	channelValues.put("getCard", countingCard);
+	channelValues.put("getChannelNumber", 0);
+	SCIOChannel channel = stub(SCIOChannel.class, channelValues);
+	TerminalFactory factory = stub(TerminalFactory.class, Collections.<String, Object>emptyMap());
+	ChannelManager cm = new ChannelManager(factory);
+	HandledChannel hChannel = new HandledChannel(ChannelManager.createSlotHandle(), channel);
+
+	// each IFD operation creates its own TerminalInfo
+	Map<Integer, Integer> first = new TerminalInfo(cm, hChannel).getFeatureCodes();
+	Map<Integer, Integer> second = new TerminalInfo(cm, hChannel).getFeatureCodes();
+	assertEquals(first.get(0x06), Integer.valueOf(0x42000DB2));
+	assertEquals(second, first);
+	assertEquals(numRequests.get(), 1);
+
+	// a reattached terminal must be asked again
+	cm.getCapabilityRegistry().remove("Reader");
+	new TerminalInfo(cm, hChannel).getFeatureCodes();
+	assertEquals(numRequests.get(), 2);
+    }
+
+    private static <T> T stub(Class<T> iface, final Map<String, Object> values) {
+	Object stub = Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[] { iface },
+		new InvocationHandler() {
+		    @Override
+		    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (values.containsKey(method.getName())) {
+			    return values.get(method.getName());
+			} else if ("terminals".equals(method.getName())) {
+			    return null;
+			}
+			throw new UnsupportedOperationException(method.getName());
+		    }
+		});
+	return iface.cast(stub);
+    }
+
+}
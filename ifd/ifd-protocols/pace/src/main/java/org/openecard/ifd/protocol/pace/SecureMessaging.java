@@ -36,6 +36,8 @@ import org.openecard.bouncycastle.crypto.engines.AESFastEngine;
 import org.openecard.bouncycastle.crypto.macs.CMac;
 import org.openecard.bouncycastle.crypto.params.KeyParameter;
 import org.openecard.common.apdu.common.CardCommandAPDU;
+import org.openecard.common.metrics.LatencyHistogram;
+import org.openecard.common.metrics.MetricsRegistry;
 import org.openecard.common.tlv.TLV;
 import org.openecard.common.util.ByteUtils;
 
@@ -47,6 +49,15 @@ import org.openecard.common.util.ByteUtils;
  */
 public class SecureMessaging {
 
+    private static final LatencyHistogram encryptMetric;
+    private static final LatencyHistogram decryptMetric;
+
+    static {
+	MetricsRegistry metrics = MetricsRegistry.getInstance();
+	encryptMetric = metrics.getHistogram("ifd.sm.encrypt");
+	decryptMetric = metrics.getHistogram("ifd.sm.decrypt");
+    }
+
     private static final byte[] NULL = new byte[]{0x00};
     // ISO/IEC 7816-4 padding tag
     private static final byte PAD = (byte) 0x80;
@@ -76,10 +87,12 @@ public class SecureMessaging {
      * @throws Exception
      */
     public byte[] encrypt(byte[] apdu) throws Exception {
+	long start = System.nanoTime();
 	incrementSSC(secureMessagingSSC);
 	byte[] commandAPDU = encrypt(apdu, secureMessagingSSC);
 	incrementSSC(secureMessagingSSC);
 
+	encryptMetric.recordSince(start);
 	return commandAPDU;
     }
 
@@ -184,7 +197,10 @@ public class SecureMessaging {
 	if (response.length < 12) {
 	    throw new IllegalArgumentException("Malformed Secure Messaging APDU.");
 	}
-	return decrypt(response, secureMessagingSSC);
+	long start = System.nanoTime();
+	byte[] result = decrypt(response, secureMessagingSSC);
+	decryptMetric.recordSince(start);
+	return result;
     }
 
     /**
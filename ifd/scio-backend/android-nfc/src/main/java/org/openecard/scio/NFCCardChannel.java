@@ -83,9 +83,14 @@ public class NFCCardChannel implements SCIOChannel {
 
     @Override
     public int transmit(ByteBuffer command, ByteBuffer response) throws SCIOException {
-	CardCommandAPDU cca = new CardCommandAPDU(command.array());
-	CardResponseAPDU cra = transmit(cca);
+	// the buffers may be direct buffers, so the backing array must not be used
+	byte[] apdu = new byte[command.remaining()];
+	command.get(apdu);
+	CardResponseAPDU cra = transmit(apdu);
 	byte[] data = cra.toByteArray();
+	if (response.remaining() < data.length) {
+	    throw new IllegalArgumentException("Not enough space in the response buffer.");
+	}
 	response.put(data);
 
 	return data.length;
@@ -121,4 +121,25 @@ public class PCSCCard implements SCIOCard {
 	}
     }
 
+    /**
+     * Checks whether both instances wrap the same card connection.
+     * The PC/SC layer hands out the same connection as long as the card stays in the terminal and is not reset, so
+     * equal instances refer to the same physical card state.
+     *
+     * @param obj Object to compare with.
+     * @return {@code true} if the other object is a PCSCCard wrapping the same connection, {@code false} otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+	if (obj instanceof PCSCCard) {
+	    return card == ((PCSCCard) obj).card;
+	}
+	return false;
+    }
+
+    @Override
+    public int hashCode() {
+	return System.identityHashCode(card);
+    }
+
 }
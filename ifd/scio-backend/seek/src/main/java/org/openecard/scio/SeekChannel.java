@@ -80,8 +80,16 @@ public class SeekChannel implements SCIOChannel {
     }
 
     @Override
-    public int transmit(ByteBuffer arg0, ByteBuffer arg1) throws SCIOException {
-	throw new SCIOException("not yet implemented");
+    public int transmit(ByteBuffer command, ByteBuffer response) throws SCIOException {
+	byte[] apdu = new byte[command.remaining()];
+	command.get(apdu);
+	CardResponseAPDU rapdu = transmit(apdu);
+	byte[] data = rapdu.toByteArray();
+	if (response.remaining() < data.length) {
+	    throw new IllegalArgumentException("Not enough space in the response buffer.");
+	}
+	response.put(data);
+	return data.length;
     }
 
 }
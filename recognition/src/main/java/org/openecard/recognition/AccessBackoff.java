@@ -0,0 +1,85 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.recognition;
+
+import java.util.Random;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Backoff used while waiting for exclusive access to a card.
+ * The delay between the attempts grows exponentially starting at {@value #INITIAL_BACKOFF} ms up to
+ * {@value #MAX_BACKOFF} ms. A random jitter is added, so that competing processes do not retry in lockstep. The user
+ * should be warned after {@value #WARNING_DELAY} ms of waiting, which is the same point as in the Fibonacci backoff
+ * used before (1, 2 and 3 seconds).
+ *
+ * @author agent
+ */
+final class AccessBackoff {
+
+    static final long INITIAL_BACKOFF = 50;
+    static final long MAX_BACKOFF = 2000;
+    static final long WARNING_DELAY = 6000;
+
+    private final Random jitter;
+    private long backoff = INITIAL_BACKOFF;
+    private long waited = 0;
+    private boolean warned = false;
+
+    AccessBackoff() {
+	this(new Random());
+    }
+
+    AccessBackoff(@Nonnull Random jitter) {
+	this.jitter = jitter;
+    }
+
+    /**
+     * Determines the time to wait before the next attempt.
+     * The returned time lies between half and one and a half of the current backoff.
+     *
+     * @return Time in milliseconds.
+     */
+    long nextWait() {
+	long waitTime = backoff / 2 + (long) (jitter.nextDouble() * backoff);
+	backoff = Math.min(backoff * 2, MAX_BACKOFF);
+	waited += waitTime;
+	return waitTime;
+    }
+
+    /**
+     * Checks whether the user should be warned now.
+     * This is the case exactly once, when the sum of all waiting times returned so far reaches
+     * {@value #WARNING_DELAY} ms.
+     *
+     * @return {@code true} if the warning should be shown, {@code false} otherwise.
+     */
+    boolean isWarningDue() {
+	if (! warned && waited >= WARNING_DELAY) {
+	    warned = true;
+	    return true;
+	}
+	return false;
+    }
+
+}
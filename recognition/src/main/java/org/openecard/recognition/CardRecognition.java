@@ -62,6 +62,8 @@ import oasis.names.tc.dss._1_0.core.schema.Result;
 import org.openecard.common.ECardConstants;
 import org.openecard.common.I18n;
 import org.openecard.common.apdu.common.CardResponseAPDU;
+import org.openecard.common.metrics.LatencyHistogram;
+import org.openecard.common.metrics.MetricsRegistry;
 import org.openecard.common.tlv.TLV;
 import org.openecard.common.tlv.TLVException;
 import org.openecard.common.util.ByteUtils;
@@ -89,6 +91,8 @@ public class CardRecognition {
 
     private static final Logger logger = LoggerFactory.getLogger(CardRecognition.class);
     private static final I18n lang = I18n.getTranslation("recognition");
+    private static final LatencyHistogram recognizeMetric =
+	    MetricsRegistry.getInstance().getHistogram("recognition.recognize_card");
     private static final String IMAGE_PROPERTIES = "/card-images/card-images.properties";
 
     private final FutureTask<RecognitionTree> tree;
@@ -313,12 +317,14 @@ public class CardRecognition {
      */
     @Nullable
     public RecognitionInfo recognizeCard(String ifdName, BigInteger slot) throws RecognitionException {
+	long start = System.nanoTime();
 	// connect card
 	byte[] slotHandle = connect(ifdName, slot);
 	// recognise card
 	String type = treeCalls(slotHandle, getTree().getCardCall());
 	// disconnect and return
 	disconnect(slotHandle);
+	recognizeMetric.recordSince(start);
 	// build result or throw exception if it is null
 	if (type == null) {
 	    return null;
@@ -349,20 +355,6 @@ public class CardRecognition {
 	}
     }
 
-    /**
-     * Returns the fibonacci number for a given index.
-     *
-     * @param idx index
-     * @return the fibonacci number for the given index
-     */
-    private long fibonacci(int idx) {
-	if (idx == 1 || idx == 2) {
-	    return 1;
-	} else {
-	    return fibonacci(idx - 1) + fibonacci(idx - 2);
-	}
-    }
-
     private byte[] connect(String ifdName, BigInteger slot) throws RecognitionException {
 	Connect c = new Connect();
 	c.setContextHandle(ctx);
@@ -372,21 +364,31 @@ public class CardRecognition {
 	ConnectResponse r = ifd.connect(c);
 	checkResult(r.getResult());
 
-	waitForExclusiveCardAccess(r.getSlotHandle(), ifdName);
+	try {
+	    waitForExclusiveCardAccess(r.getSlotHandle(), ifdName);
+	} catch (RecognitionException ex) {
+	    // release the card, there is no transaction to end
+	    Disconnect d = new Disconnect();
+	    d.setSlotHandle(r.getSlotHandle());
+	    ifd.disconnect(d);
+	    throw ex;
+	}
 
 	return r.getSlotHandle();
     }
 
     /**
      * This method tries to get exclusive card access until it is granted.
-     * The waiting delay between the attempts is determined by the fibonacci numbers.
+     * The waiting delay between the attempts is determined by an {@link AccessBackoff}.
      *
      * @param slotHandle slot handle specifying the card to get exclusive access for
      * @param ifdName Name of the IFD in which the card is inserted
+     * @throws RecognitionException Thrown in case the thread is interrupted while waiting, e.g. because the card has
+     *   been removed and the recognition is cancelled.
      */
-    private void waitForExclusiveCardAccess(byte[] slotHandle, String ifdName) {
+    private void waitForExclusiveCardAccess(byte[] slotHandle, String ifdName) throws RecognitionException {
 	String resultMajor;
-	int i = 2;
+	AccessBackoff backoff = new AccessBackoff();
 	do {
 	    // try to get exclusive card access for the recognition run
 	    BeginTransaction trans = new BeginTransaction();
@@ -396,19 +398,19 @@ public class CardRecognition {
 
 	    if (! resultMajor.equals(ECardConstants.Major.OK)) {
 		// could not get exclusive card access, wait in increasingly longer intervals and retry
+		if (backoff.isWarningDue() && gui != null) {
+		    MessageDialog dialog = gui.obtainMessageDialog();
+		    String message = lang.translationForKey("message", ifdName);
+		    String title = lang.translationForKey("error", ifdName);
+		    dialog.showMessageDialog(message, title, DialogType.WARNING_MESSAGE);
+		}
+		long waitTime = backoff.nextWait();
+		logger.debug("Could not get exclusive card access. Trying again in {} ms.", waitTime);
 		try {
-		    long waitInSeconds = fibonacci(i);
-		    i++;
-		    logger.debug("Could not get exclusive card access. Trying again in {} seconds.", waitInSeconds);
-		    if (i == 6 && gui != null) {
-			MessageDialog dialog = gui.obtainMessageDialog();
-			String message = lang.translationForKey("message", ifdName);
-			String title = lang.translationForKey("error", ifdName);
-			dialog.showMessageDialog(message, title, DialogType.WARNING_MESSAGE);
-		    }
-		    Thread.sleep(1000 * waitInSeconds);
-		} catch (InterruptedException e) {
-		    // ignore
+		    Thread.sleep(waitTime);
+		} catch (InterruptedException ex) {
+		    Thread.currentThread().interrupt();
+		    throw new RecognitionException("Waiting for exclusive card access has been interrupted.");
 		}
 	    }
 	} while (! resultMajor.equals(ECardConstants.Major.OK));
@@ -0,0 +1,95 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.recognition;
+
+import java.util.Random;
+import org.testng.annotations.Test;
+import static org.openecard.recognition.AccessBackoff.*;
+import static org.testng.Assert.*;
+
+
+/**
+ *
+ * @author agent
+ */
+public class AccessBackoffTest {
+
+    @Test
+    public void testGrowth() {
+	AccessBackoff backoff = new AccessBackoff(new FixedRandom(0.5));
+	long expected = INITIAL_BACKOFF;
+	for (int i = 0; i < 10; i++) {
+	    assertEquals(backoff.nextWait(), expected);
+	    expected = Math.min(expected * 2, MAX_BACKOFF);
+	}
+	assertEquals(backoff.nextWait(), MAX_BACKOFF);
+    }
+
+    @Test
+    public void testJitterBounds() {
+	AccessBackoff low = new AccessBackoff(new FixedRandom(0.0));
+	AccessBackoff high = new AccessBackoff(new FixedRandom(0.9999));
+	long backoff = INITIAL_BACKOFF;
+	for (int i = 0; i < 10; i++) {
+	    assertEquals(low.nextWait(), backoff / 2);
+	    long highWait = high.nextWait();
+	    assertTrue(highWait >= backoff && highWait < backoff + backoff / 2);
+	    backoff = Math.min(backoff * 2, MAX_BACKOFF);
+	}
+    }
+
+    @Test
+    public void testWarningDelay() {
+	AccessBackoff backoff = new AccessBackoff(new FixedRandom(0.5));
+	long waited = 0;
+	int warnings = 0;
+	for (int i = 0; i < 20; i++) {
+	    boolean due = backoff.isWarningDue();
+	    if (due) {
+		warnings++;
+		assertTrue(waited >= WARNING_DELAY);
+	    } else if (warnings == 0) {
+		assertTrue(waited < WARNING_DELAY);
+	    }
+	    waited += backoff.nextWait();
+	}
+	assertEquals(warnings, 1);
+    }
+
+
+    private static class FixedRandom extends Random {
+
+	private final double value;
+
+	FixedRandom(double value) {
+	    this.value = value;
+	}
+
+	@Override
+	public double nextDouble() {
+	    return value;
+	}
+
+    }
+
+}
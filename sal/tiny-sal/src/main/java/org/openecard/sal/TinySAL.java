@@ -26,6 +26,7 @@ import iso.std.iso_iec._24727.tech.schema.ACLList;
 import iso.std.iso_iec._24727.tech.schema.ACLListResponse;
 import iso.std.iso_iec._24727.tech.schema.ACLModify;
 import iso.std.iso_iec._24727.tech.schema.ACLModifyResponse;
+import iso.std.iso_iec._24727.tech.schema.ActionType;
 import iso.std.iso_iec._24727.tech.schema.AlgorithmInfoType;
 import iso.std.iso_iec._24727.tech.schema.AuthorizationServiceActionName;
 import iso.std.iso_iec._24727.tech.schema.CardApplicationConnect;
@@ -164,10 +165,14 @@ import org.openecard.common.apdu.WriteRecord;
 import org.openecard.common.apdu.common.CardCommandAPDU;
 import org.openecard.common.apdu.common.CardResponseAPDU;
 import org.openecard.common.apdu.utils.CardUtils;
+import org.openecard.common.ifd.RetryCounterSource;
+import org.openecard.common.interfaces.ApplicationResolver;
 import org.openecard.common.interfaces.DispatcherException;
 import org.openecard.common.interfaces.Environment;
 import org.openecard.common.interfaces.Publish;
 import org.openecard.common.sal.Assert;
+import org.openecard.common.sal.ResolveApplication;
+import org.openecard.common.sal.ResolveApplicationResponse;
 import org.openecard.common.sal.exception.InappropriateProtocolForActionException;
 import org.openecard.common.sal.exception.IncorrectParameterException;
 import org.openecard.common.sal.exception.NameExistsException;
@@ -184,8 +189,11 @@ import org.openecard.common.sal.util.SALUtils;
 import org.openecard.common.tlv.iso7816.DataElements;
 import org.openecard.common.tlv.iso7816.FCP;
 import org.openecard.common.util.ByteUtils;
+import org.openecard.common.util.HandlerUtils;
+import org.openecard.crypto.common.sal.CredentialCache;
 import org.openecard.crypto.common.sal.CryptoMarkerType;
 import org.openecard.gui.UserConsent;
+import org.openecard.ws.IFD;
 import org.openecard.ws.SAL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -202,7 +210,7 @@ import org.slf4j.LoggerFactory;
  * @author Antonio de la Piedra <a.delapiedra@cs.ru.nl>
  * @author Hans-Martin Haase <hans-martin.haase@ecsec.de>
  */
-public class TinySAL implements SAL {
+public class TinySAL implements SAL, ApplicationResolver {
 
     private static final Logger logger = LoggerFactory.getLogger(TinySAL.class);
     private static final byte[] MF = new byte[] {(byte) 0x3F, (byte) 0x00};
@@ -336,6 +344,7 @@ public class TinySAL implements SAL {
 
 	    // Connect to the card
 	    CardApplicationPathType cardApplicationPath = cardStateEntry.pathCopy();
+	    byte[] previousApplication = cardApplicationPath.getCardApplication();
 	    Connect connect = new Connect();
 	    connect.setContextHandle(cardApplicationPath.getContextHandle());
 	    connect.setIFDName(cardApplicationPath.getIFDName());
@@ -353,9 +362,18 @@ public class TinySAL implements SAL {
 		select = new Select.Application(applicationID);
 	    }
 	    select.transmit(env.getDispatcher(), connectResponse.getSlotHandle());
+	    if (previousApplication != null && ! Arrays.equals(previousApplication, applicationID)) {
+		// the security status of the card may be bound to the previously selected application
+		CredentialCache.getInstance().invalidateAuthentication(cardStateEntry.handleCopy());
+	    }
 
 	    cardStateEntry.setCurrentCardApplication(applicationID);
 	    cardStateEntry.setSlotHandle(connectResponse.getSlotHandle());
+	    IFD ifd = env.getIFD();
+	    if (ifd instanceof RetryCounterSource) {
+		RetryCounterSource src = (RetryCounterSource) ifd;
+		cardStateEntry.setRetryCounters(src.getRetryCounters(connectResponse.getSlotHandle()));
+	    }
 	    // reset the ef FCP
 	    cardStateEntry.unsetFCPOfSelectedEF();
 	    states.addEntry(cardStateEntry);
@@ -372,6 +390,72 @@ public class TinySAL implements SAL {
 	return response;
     }
 
+    /**
+     * Finds the card application containing the requested DataSet or DID and optionally connects to it.
+     * The application is looked up in the CardInfo indices of the card, so only one message is needed where otherwise
+     * the DataSet or DID list of each application would have to be requested. The security conditions of the list
+     * functions are checked for the resolved application, just as if the lists had been requested.
+     *
+     * @param request ResolveApplication
+     * @return ResolveApplicationResponse
+     */
+    @Override
+    public ResolveApplicationResponse resolveApplication(ResolveApplication request) {
+	ResolveApplicationResponse response = WSHelper.makeResponse(ResolveApplicationResponse.class,
+		WSHelper.makeResultOK());
+
+	try {
+	    ConnectionHandleType connectionHandle = SALUtils.getConnectionHandle(request);
+	    CardStateEntry cardStateEntry = SALUtils.getCardStateEntry(states, connectionHandle, false);
+	    TargetNameType target = request.getTargetName();
+	    Assert.assertIncorrectParameter(target, "The parameter TargetName is empty.");
+
+	    CardInfoWrapper cardInfoWrapper = cardStateEntry.getInfo();
+	    byte[] applicationID;
+	    String msg;
+	    if (target.getDataSetName() != null) {
+		applicationID = cardInfoWrapper.getApplicationIdByDataSetName(target.getDataSetName());
+		msg = "Failed to find the requested data set (%s) in any of the applications of the specified card.";
+		msg = String.format(msg, target.getDataSetName());
+		if (applicationID != null) {
+		    Assert.securityConditionApplication(cardStateEntry, applicationID,
+			    NamedDataServiceActionName.DATA_SET_LIST);
+		}
+	    } else if (target.getDIDName() != null) {
+		applicationID = cardInfoWrapper.getApplicationIdByDidName(target.getDIDName(), null);
+		msg = "Failed to find the requested DID (%s) in any of the applications of the specified card.";
+		msg = String.format(msg, target.getDIDName());
+		if (applicationID != null) {
+		    Assert.securityConditionApplication(cardStateEntry, applicationID,
+			    DifferentialIdentityServiceActionName.DID_LIST);
+		}
+	    } else {
+		throw new IncorrectParameterException("The TargetName contains neither a DataSetName nor a DIDName.");
+	    }
+	    if (applicationID == null) {
+		throw WSHelper.createException(WSHelper.makeResultError(ECardConstants.Minor.SAL.FILE_NOT_FOUND, msg));
+	    }
+	    response.setCardApplication(applicationID);
+
+	    if (request.isConnect()) {
+		CardApplicationConnect connect = new CardApplicationConnect();
+		CardApplicationPathType path = HandlerUtils.copyPath(connectionHandle);
+		path.setCardApplication(applicationID);
+		connect.setCardApplicationPath(path);
+		CardApplicationConnectResponse connectResponse = cardApplicationConnect(connect);
+		WSHelper.checkResult(connectResponse);
+		response.setConnectionHandle(connectResponse.getConnectionHandle());
+	    }
+	} catch (ECardException e) {
+	    response.setResult(e.getResult());
+	} catch (Exception e) {
+	    logger.error(e.getMessage(), e);
+	    response.setResult(WSHelper.makeResult(e));
+	}
+
+	return response;
+    }
+
     /**
      * The CardApplicationDisconnect function terminates the connection to a card application.
      * See BSI-TR-03112-4, version 1.1.2, section 3.2.2.
@@ -401,6 +485,12 @@ public class TinySAL implements SAL {
 	    }
 	    
 	    DisconnectResponse disconnectResponse = (DisconnectResponse) env.getDispatcher().deliver(disconnect);
+	    if (ActionType.RESET == request.getAction()) {
+		// the card forgets all authentications, but stays in the terminal, so there is no removal event
+		CardStateEntry entry = states.getEntry(connectionHandle, false);
+		ConnectionHandleType resetHandle = entry != null ? entry.handleCopy() : connectionHandle;
+		CredentialCache.getInstance().invalidateAuthentication(resetHandle);
+	    }
 
 	    // remove entries associated with this handle
 	    states.removeSlotHandleEntry(slotHandle);
@@ -448,11 +538,14 @@ public class TinySAL implements SAL {
 
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.CardApplicationStartSession)) {
-		response = protocol.cardApplicationStartSession(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("CardApplicationStartSession", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.CardApplicationStartSession)) {
+		    response = protocol.cardApplicationStartSession(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("CardApplicationStartSession", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -490,11 +583,14 @@ public class TinySAL implements SAL {
 
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.CardApplicationEndSession)) {
-		response = protocol.cardApplicationEndSession(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("CardApplicationEndSession", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.CardApplicationEndSession)) {
+		    response = protocol.cardApplicationEndSession(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("CardApplicationEndSession", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -1331,11 +1427,14 @@ public class TinySAL implements SAL {
 
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.Encipher)) {
-		response = protocol.encipher(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("Encipher", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.Encipher)) {
+		    response = protocol.encipher(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("Encipher", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -1383,12 +1482,14 @@ public class TinySAL implements SAL {
 	    Assert.assertNamedEntityNotFound(didStructure, "The given DIDName cannot be found.");
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    
-	    if (protocol.hasNextStep(FunctionType.Decipher)) {
-		response = protocol.decipher(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("Decipher", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.Decipher)) {
+		    response = protocol.decipher(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("Decipher", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -1436,11 +1537,14 @@ public class TinySAL implements SAL {
 
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.GetRandom)) {
-		response = protocol.getRandom(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("GetRandom", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.GetRandom)) {
+		    response = protocol.getRandom(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("GetRandom", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -1490,11 +1594,14 @@ public class TinySAL implements SAL {
 
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.Hash)) {
-		response = protocol.hash(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("Hash", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.Hash)) {
+		    response = protocol.hash(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("Hash", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -1543,11 +1650,14 @@ public class TinySAL implements SAL {
 
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.Sign)) {
-		response = protocol.sign(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("Sign", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.Sign)) {
+		    response = protocol.sign(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("Sign", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -1597,11 +1707,14 @@ public class TinySAL implements SAL {
 
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.VerifySignature)) {
-		response = protocol.verifySignature(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("VerifySignature", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.VerifySignature)) {
+		    response = protocol.verifySignature(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("VerifySignature", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -1659,11 +1772,14 @@ public class TinySAL implements SAL {
 
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.VerifyCertificate)) {
-		response = protocol.verifyCertificate(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("VerifyCertificate", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.VerifyCertificate)) {
+		    response = protocol.verifyCertificate(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("VerifyCertificate", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -1849,11 +1965,14 @@ public class TinySAL implements SAL {
 
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.DIDUpdate)) {
-		response = protocol.didUpdate(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("DIDUpdate", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.DIDUpdate)) {
+		    response = protocol.didUpdate(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("DIDUpdate", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -1892,11 +2011,14 @@ public class TinySAL implements SAL {
 
 	    String protocolURI = didStructure.getDIDMarker().getProtocol();
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.DIDDelete)) {
-		response = protocol.didDelete(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("DIDDelete", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.DIDDelete)) {
+		    response = protocol.didDelete(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("DIDDelete", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -1938,11 +2060,14 @@ public class TinySAL implements SAL {
 	    didAuthenticationData.setProtocol(protocolURI);
 
 	    SALProtocol protocol = getProtocol(connectionHandle, protocolURI);
-	    if (protocol.hasNextStep(FunctionType.DIDAuthenticate)) {
-		response = protocol.didAuthenticate(request);
-		removeFinishedProtocol(connectionHandle, protocolURI, protocol);
-	    } else {
-		throw new InappropriateProtocolForActionException("DIDAuthenticate", protocol.toString());
+	    try {
+		if (protocol.hasNextStep(FunctionType.DIDAuthenticate)) {
+		    response = protocol.didAuthenticate(request);
+		} else {
+		    throw new InappropriateProtocolForActionException("DIDAuthenticate", protocol.toString());
+		}
+	    } finally {
+		finishProtocolStep(connectionHandle, protocolURI, protocol);
 	    }
 	} catch (ECardException e) {
 	    response.setResult(e.getResult());
@@ -2033,20 +2158,35 @@ public class TinySAL implements SAL {
 
     /**
      * Removes a finished protocol from the SAL instance.
+     * The protocol instance is handed back to the add-on manager, so that it can be reused.
      *
      * @param handle Connection Handle
      * @param protocolURI Protocol URI
      * @param protocol Protocol
      * @throws UnknownConnectionHandleException
      */
-    private void removeFinishedProtocol(ConnectionHandleType handle, String protocolURI, SALProtocol protocol)
+    /**
+     * Ends a step of the protocol which has been obtained with {@link #getProtocol(ConnectionHandleType, String)}.
+     * A finished protocol is removed from the card state and given back to the add-on manager.
+     */
+    private void finishProtocolStep(ConnectionHandleType handle, String protocolURI, SALProtocol protocol)
 	    throws UnknownConnectionHandleException {
-	if (protocol.isFinished()) {
-	    CardStateEntry entry = SALUtils.getCardStateEntry(states, handle);
-	    entry.removeProtocol(protocolURI);
+	try {
+	    if (protocol.isFinished()) {
+		CardStateEntry entry = SALUtils.getCardStateEntry(states, handle);
+		entry.removeProtocol(protocolURI);
+		protocolSelector.returnSALProtocol(protocol);
+	    }
+	} finally {
+	    // releases the protocol if it has been dropped from the card state while the step was running
+	    states.protocolStepFinished(protocol);
 	}
     }
 
+    /**
+     * Gets the protocol object of the card for the given protocol and marks it as executing a step.
+     * {@link #finishProtocolStep(ConnectionHandleType, String, SALProtocol)} must be called when the step has returned.
+     */
     private SALProtocol getProtocol(ConnectionHandleType handle, String protocolURI)
 	    throws UnknownProtocolException, UnknownConnectionHandleException {
 	CardStateEntry entry = SALUtils.getCardStateEntry(states, handle);
@@ -2060,6 +2200,7 @@ public class TinySAL implements SAL {
 	    }
 	}
 	protocol.getInternalData().put("cardState", entry);
+	states.protocolStepStarted(protocol);
 
 	return protocol;
     }
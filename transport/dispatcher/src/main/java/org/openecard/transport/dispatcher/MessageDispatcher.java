@@ -30,10 +30,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.openecard.common.interfaces.Dispatchable;
 import org.openecard.common.interfaces.Dispatcher;
 import org.openecard.common.interfaces.DispatcherException;
 import org.openecard.common.interfaces.Environment;
+import org.openecard.common.metrics.LatencyHistogram;
+import org.openecard.common.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +52,8 @@ import org.slf4j.LoggerFactory;
 public class MessageDispatcher implements Dispatcher {
 
     private static final Logger logger = LoggerFactory.getLogger(MessageDispatcher.class);
+    /** Latency histograms per request class, cached to avoid the name lookup on each delivery. */
+    private static final ConcurrentMap<Class<?>, LatencyHistogram> deliverMetrics = new ConcurrentHashMap<>();
 
     private final Environment environment;
     /** Key is parameter classname */
@@ -88,8 +94,9 @@ public class MessageDispatcher implements Dispatcher {
 
     @Override
     public Object deliver(Object req) throws DispatcherException, InvocationTargetException {
+	long start = System.nanoTime();
+	Class<?> reqClass = req.getClass();
 	try {
-	    Class<?> reqClass = req.getClass();
 	    Service s = getService(reqClass);
 	    Object serviceImpl = getServiceImpl(s);
 
@@ -99,9 +106,20 @@ public class MessageDispatcher implements Dispatcher {
 	    return result;
 	} catch (IllegalAccessException | IllegalArgumentException ex) {
 	    throw new DispatcherException(ex);
+	} finally {
+	    getDeliverMetric(reqClass).recordSince(start);
 	}
     }
 
+    private static LatencyHistogram getDeliverMetric(Class<?> reqClass) {
+	LatencyHistogram h = deliverMetrics.get(reqClass);
+	if (h == null) {
+	    h = MetricsRegistry.getInstance().getHistogram("dispatcher.deliver." + reqClass.getSimpleName());
+	    deliverMetrics.putIfAbsent(reqClass, h);
+	}
+	return h;
+    }
+
     private Service getService(Class<?> reqClass) throws IllegalAccessException {
 	if (! serviceMap.containsKey(reqClass.getName())) {
 	    String msg = "No service with a method containing parameter type " + reqClass.getName() + " present.";
@@ -117,6 +135,10 @@ public class MessageDispatcher implements Dispatcher {
 	    throw new IllegalAccessException(msg);
 	}
 	Object impl = m.invoke(environment);
+	if (impl == null) {
+	    String msg = "The environment does not provide an implementation for " + s.getServiceInterface().getName();
+	    throw new IllegalAccessException(msg);
+	}
 	return impl;
     }
 
@@ -0,0 +1,316 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.transport.dispatcher;
+
+import iso.std.iso_iec._24727.tech.schema.InputAPDUInfoType;
+import iso.std.iso_iec._24727.tech.schema.Transmit;
+import iso.std.iso_iec._24727.tech.schema.TransmitResponse;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import org.openecard.common.OpenecardProperties;
+import org.openecard.ws.marshal.WSMarshaller;
+import org.openecard.ws.marshal.WSMarshallerException;
+import org.openecard.ws.marshal.WSMarshallerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Asynchronous trace pipeline for the messages passing the dispatcher.
+ * The calling thread only takes a snapshot of the message and puts it into a bounded buffer. Marshalling and writing
+ * the message to the log happens in a background thread. When the buffer is full, the message is dropped and counted,
+ * so that tracing never blocks the message exchange.
+ * <p>The tracer is configured with the following properties of the {@link OpenecardProperties}:
+ * <ul>
+ *   <li>{@code dispatcher.trace.buffer_size}: Number of messages the buffer can hold.</li>
+ *   <li>{@code dispatcher.trace.sampling}: Comma separated list of {@code RequestName=N} entries, e.g.
+ *     {@code Transmit=10}. Only every Nth request of the named type and its response is traced, 0 disables tracing
+ *     of the type. Responses follow their request, so entries naming a response type are ignored.</li>
+ *   <li>{@code dispatcher.trace.redact_apdus}: When {@code true}, which is the default, only the header of command
+ *     APDUs and the status word of response APDUs is written to the log.</li>
+ * </ul>
+ * </p>
+ *
+ * @author agent
+ */
+final class MessageTracer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageTracer.class);
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private static MessageTracer instance;
+
+    private final BlockingQueue<TraceEntry> buffer;
+    private final Map<String, Integer> sampleRates;
+    private final ConcurrentMap<String, AtomicLong> sampleCounters;
+    private final boolean redactApdus;
+    private final AtomicLong dropped;
+    private long reportedDrops = 0;
+
+    MessageTracer(int bufferSize, @Nonnull Map<String, Integer> sampleRates, boolean redactApdus) {
+	this.buffer = new ArrayBlockingQueue<>(bufferSize);
+	this.sampleRates = Collections.unmodifiableMap(new HashMap<>(sampleRates));
+	this.sampleCounters = new ConcurrentHashMap<>();
+	this.redactApdus = redactApdus;
+	this.dropped = new AtomicLong();
+    }
+
+    /**
+     * Gets the tracer shared by all services of the dispatcher.
+     * The tracer and its background thread are created when this method is called the first time.
+     *
+     * @return The shared tracer instance.
+     */
+    static synchronized MessageTracer getInstance() {
+	if (instance == null) {
+	    int size = DEFAULT_BUFFER_SIZE;
+	    String sizeStr = OpenecardProperties.getProperty("dispatcher.trace.buffer_size");
+	    if (sizeStr != null && ! sizeStr.trim().isEmpty()) {
+		try {
+		    size = Math.max(1, Integer.parseInt(sizeStr.trim()));
+		} catch (NumberFormatException ex) {
+		    logger.warn("Invalid trace buffer size '{}' configured, using the default value.", sizeStr);
+		}
+	    }
+	    Map<String, Integer> rates = parseSampleRates(OpenecardProperties.getProperty("dispatcher.trace.sampling"));
+	    String redact = OpenecardProperties.getProperty("dispatcher.trace.redact_apdus");
+	    boolean redactApdus = redact == null || Boolean.parseBoolean(redact.trim());
+
+	    instance = new MessageTracer(size, rates, redactApdus);
+	    instance.start();
+	}
+	return instance;
+    }
+
+    @Nonnull
+    static Map<String, Integer> parseSampleRates(@Nullable String value) {
+	HashMap<String, Integer> result = new HashMap<>();
+	if (value != null) {
+	    for (String entry : value.split(",")) {
+		String[] parts = entry.split("=");
+		if (parts.length == 2 && parts[0].trim().endsWith("Response")) {
+		    logger.warn("Ignoring trace sampling entry '{}', responses are sampled with their request.", entry);
+		} else if (parts.length == 2) {
+		    try {
+			result.put(parts[0].trim(), Math.max(0, Integer.parseInt(parts[1].trim())));
+		    } catch (NumberFormatException ex) {
+			logger.warn("Invalid trace sampling rate in entry '{}'.", entry);
+		    }
+		} else if (! entry.trim().isEmpty()) {
+		    logger.warn("Invalid trace sampling entry '{}'.", entry);
+		}
+	    }
+	}
+	return result;
+    }
+
+    /**
+     * Starts the thread writing the buffered messages to the log.
+     */
+    void start() {
+	Thread t = new Thread(new Runnable() {
+	    @Override
+	    public void run() {
+		WSMarshaller m;
+		try {
+		    m = WSMarshallerFactory.createInstance();
+		} catch (WSMarshallerException ex) {
+		    logger.error("Failed to create marshaller, message tracing is disabled.", ex);
+		    return;
+		}
+		try {
+		    while (true) {
+			write(m, buffer.take());
+		    }
+		} catch (InterruptedException ex) {
+		    logger.debug("Message trace thread interrupted.");
+		}
+	    }
+	}, "Dispatcher-Trace");
+	t.setDaemon(true);
+	t.start();
+    }
+
+    /**
+     * Decides whether the given request and its response should be traced.
+     *
+     * @param reqClass Class of the request.
+     * @return {@code true} if the message is part of the sample, {@code false} otherwise.
+     */
+    boolean isSampled(@Nonnull Class<?> reqClass) {
+	Integer rate = sampleRates.get(reqClass.getSimpleName());
+	if (rate == null || rate == 1) {
+	    return true;
+	} else if (rate == 0) {
+	    return false;
+	}
+
+	AtomicLong counter = sampleCounters.get(reqClass.getName());
+	if (counter == null) {
+	    AtomicLong newCounter = new AtomicLong();
+	    counter = sampleCounters.putIfAbsent(reqClass.getName(), newCounter);
+	    if (counter == null) {
+		counter = newCounter;
+	    }
+	}
+	return counter.getAndIncrement() % rate == 0;
+    }
+
+    /**
+     * Puts a snapshot of the message into the trace buffer.
+     * If the buffer is full, the message is dropped.
+     *
+     * @param target Logger the message is written to.
+     * @param msg Text preceding the message.
+     * @param msgObj The message to trace.
+     * @return {@code true} if the message has been added to the buffer, {@code false} if it has been dropped.
+     */
+    boolean trace(@Nonnull Logger target, @Nonnull String msg, @Nonnull Object msgObj) {
+	TraceEntry entry = new TraceEntry(target, msg, snapshot(msgObj), Thread.currentThread().getName());
+	if (buffer.offer(entry)) {
+	    return true;
+	} else {
+	    dropped.incrementAndGet();
+	    return false;
+	}
+    }
+
+    /**
+     * Gets the number of messages which have been dropped because the buffer was full.
+     *
+     * @return Number of dropped messages since the tracer has been created.
+     */
+    long getDroppedMessages() {
+	return dropped.get();
+    }
+
+    int getBufferedMessages() {
+	return buffer.size();
+    }
+
+    /**
+     * Creates a copy of messages containing APDUs.
+     * The copy protects the trace from later changes to the message and is redacted if configured. Other messages are
+     * JAXB objects without a generic copy facility. They are traced as they are when the background thread processes
+     * them, which is sufficient as messages are not modified after they are delivered.
+     */
+    @Nonnull
+    Object snapshot(@Nonnull Object msgObj) {
+	if (msgObj instanceof Transmit) {
+	    Transmit orig = (Transmit) msgObj;
+	    Transmit copy = new Transmit();
+	    copy.setSlotHandle(orig.getSlotHandle());
+	    for (InputAPDUInfoType next : orig.getInputAPDUInfo()) {
+		InputAPDUInfoType apdu = new InputAPDUInfoType();
+		apdu.setInputAPDU(redactCommand(next.getInputAPDU()));
+		apdu.getAcceptableStatusCode().addAll(next.getAcceptableStatusCode());
+		copy.getInputAPDUInfo().add(apdu);
+	    }
+	    return copy;
+	} else if (msgObj instanceof TransmitResponse) {
+	    TransmitResponse orig = (TransmitResponse) msgObj;
+	    TransmitResponse copy = new TransmitResponse();
+	    copy.setProfile(orig.getProfile());
+	    copy.setRequestID(orig.getRequestID());
+	    copy.setResult(orig.getResult());
+	    for (byte[] next : orig.getOutputAPDU()) {
+		copy.getOutputAPDU().add(redactResponse(next));
+	    }
+	    return copy;
+	} else {
+	    return msgObj;
+	}
+    }
+
+    @Nullable
+    private byte[] redactCommand(@Nullable byte[] apdu) {
+	if (apdu == null) {
+	    return null;
+	} else if (redactApdus && apdu.length > 4) {
+	    // CLA INS P1 P2
+	    return Arrays.copyOf(apdu, 4);
+	} else {
+	    return apdu.clone();
+	}
+    }
+
+    @Nullable
+    private byte[] redactResponse(@Nullable byte[] apdu) {
+	if (apdu == null) {
+	    return null;
+	} else if (redactApdus && apdu.length > 2) {
+	    // SW1 SW2
+	    return Arrays.copyOfRange(apdu, apdu.length - 2, apdu.length);
+	} else {
+	    return apdu.clone();
+	}
+    }
+
+    private void write(WSMarshaller m, TraceEntry entry) {
+	long drops = dropped.get();
+	if (drops > reportedDrops) {
+	    logger.warn("{} messages have been dropped from the trace, because the trace buffer was full.",
+		    drops - reportedDrops);
+	    reportedDrops = drops;
+	}
+
+	try {
+	    String msgObjStr = m.doc2str(m.marshal(entry.message));
+	    entry.target.trace("[{}] {}\n{}", entry.threadName, entry.msg, msgObjStr);
+	} catch (Exception ex) {
+	    // catch everything, the thread must survive messages which can not be serialized
+	    logger.error("Failed to log message.", ex);
+	}
+    }
+
+
+    @Immutable
+    private static final class TraceEntry {
+
+	private final Logger target;
+	private final String msg;
+	private final Object message;
+	private final String threadName;
+
+	TraceEntry(Logger target, String msg, Object message, String threadName) {
+	    this.target = target;
+	    this.msg = msg;
+	    this.message = message;
+	    this.threadName = threadName;
+	}
+
+    }
+
+}
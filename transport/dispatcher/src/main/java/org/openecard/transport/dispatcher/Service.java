@@ -32,12 +32,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.TreeMap;
 import javax.jws.WebMethod;
-import javax.xml.transform.TransformerException;
 import org.openecard.common.interfaces.DispatcherException;
 import org.openecard.common.interfaces.Publish;
-import org.openecard.ws.marshal.WSMarshaller;
-import org.openecard.ws.marshal.WSMarshallerException;
-import org.openecard.ws.marshal.WSMarshallerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -188,9 +184,11 @@ class Service implements Comparable<Service> {
 	    Class<?> reqClass = req.getClass();
 	    Method m = getMethod(reqClass.getName());
 	    // invoke method
-	    l.logRequest(req);
+	    boolean traced = l.logRequest(req);
 	    Object res = m.invoke(ifaceImpl, req);
-	    l.logResponse(res);
+	    if (traced) {
+		l.logResponse(res);
+	    }
 	    return res;
 	} catch (IllegalAccessException | NoSuchMethodException | IllegalArgumentException ex) {
 	    throw new DispatcherException(ex);
@@ -245,38 +243,48 @@ class Service implements Comparable<Service> {
     private class MessageLogger {
 
 	private final Logger l;
+	private final MessageTracer tracer;
 
 	private final String reqLogMsg;
 	private final String resLogMsg;
 
 	public MessageLogger(Class<?> receiverClass) {
 	    this.l = LoggerFactory.getLogger(receiverClass);
+	    this.tracer = MessageTracer.getInstance();
 
 	    this.reqLogMsg = String.format("Delivering request object to %s:", receiverClass.getName());
 	    this.resLogMsg = "Returning response object:";
 	}
 
-	public void logRequest(Object msgObj) {
-	    logObject(l, reqLogMsg, msgObj);
+	/**
+	 * Traces the request if it is part of the sample.
+	 *
+	 * @param msgObj The request object.
+	 * @return {@code true} if the request has been traced and the response should be traced as well.
+	 */
+	public boolean logRequest(Object msgObj) {
+	    Logger target = getTarget();
+	    if (target != null && tracer.isSampled(msgObj.getClass())) {
+		tracer.trace(target, reqLogMsg, msgObj);
+		return true;
+	    }
+	    return false;
 	}
 	public void logResponse(Object msgObj) {
-	    logObject(l, resLogMsg, msgObj);
+	    Logger target = getTarget();
+	    if (target != null && msgObj != null) {
+		tracer.trace(target, resLogMsg, msgObj);
+	    }
 	}
 
-	private void logObject(Logger l, String msg, Object msgObj) {
-	    try {
-		if (l.isTraceEnabled()) {
-		    WSMarshaller m = WSMarshallerFactory.createInstance();
-		    String msgObjStr = m.doc2str(m.marshal(msgObj));
-		    l.trace("{}\n{}", msg, msgObjStr);
-		} else if (logger.isTraceEnabled()) {
-		    // check if the message needs to be logged in the dispatcher class
-		    WSMarshaller m = WSMarshallerFactory.createInstance();
-		    String msgObjStr = m.doc2str(m.marshal(msgObj));
-		    logger.trace("{}\n{}", msg, msgObjStr);
-		}
-	    } catch (TransformerException | WSMarshallerException ex) {
-		logger.error("Failed to log message.", ex);
+	private Logger getTarget() {
+	    if (l.isTraceEnabled()) {
+		return l;
+	    } else if (logger.isTraceEnabled()) {
+		// check if the message needs to be logged in the dispatcher class
+		return logger;
+	    } else {
+		return null;
 	    }
 	}
 
@@ -0,0 +1,101 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.transport.dispatcher;
+
+import iso.std.iso_iec._24727.tech.schema.EstablishContext;
+import iso.std.iso_iec._24727.tech.schema.InputAPDUInfoType;
+import iso.std.iso_iec._24727.tech.schema.Transmit;
+import iso.std.iso_iec._24727.tech.schema.TransmitResponse;
+import java.util.Collections;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+
+/**
+ * Test of the buffering, sampling and redaction of the message tracer.
+ *
+ * @author agent
+ */
+public class MessageTracerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageTracerTest.class);
+
+    @Test
+    public void testDroppedMessages() {
+	// tracer is not started, so nothing is taken from the buffer
+	Map<String, Integer> rates = Collections.emptyMap();
+	MessageTracer tracer = new MessageTracer(2, rates, true);
+
+	assertTrue(tracer.trace(logger, "msg", new EstablishContext()));
+	assertTrue(tracer.trace(logger, "msg", new EstablishContext()));
+	assertFalse(tracer.trace(logger, "msg", new EstablishContext()));
+	assertEquals(tracer.getBufferedMessages(), 2);
+	assertEquals(tracer.getDroppedMessages(), 1);
+    }
+
+    @Test
+    public void testSampling() {
+	Map<String, Integer> rates = MessageTracer.parseSampleRates("Transmit=3, EstablishContext=0, TransmitResponse=5, invalid");
+	assertEquals(rates.size(), 2);
+	MessageTracer tracer = new MessageTracer(10, rates, true);
+
+	int sampled = 0;
+	for (int i = 0; i < 9; i++) {
+	    if (tracer.isSampled(Transmit.class)) {
+		sampled++;
+	    }
+	}
+	assertEquals(sampled, 3);
+	assertFalse(tracer.isSampled(EstablishContext.class));
+	assertTrue(tracer.isSampled(TransmitResponse.class));
+    }
+
+    @Test
+    public void testRedaction() {
+	Map<String, Integer> rates = Collections.emptyMap();
+	MessageTracer tracer = new MessageTracer(10, rates, true);
+
+	Transmit req = new Transmit();
+	InputAPDUInfoType apdu = new InputAPDUInfoType();
+	apdu.setInputAPDU(new byte[] { 0x00, 0x20, 0x00, 0x03, 0x06, 0x31, 0x32, 0x33, 0x34, 0x35, 0x36 });
+	req.getInputAPDUInfo().add(apdu);
+	Transmit reqCopy = (Transmit) tracer.snapshot(req);
+	assertEquals(reqCopy.getInputAPDUInfo().get(0).getInputAPDU(), new byte[] { 0x00, 0x20, 0x00, 0x03 });
+
+	TransmitResponse res = new TransmitResponse();
+	res.getOutputAPDU().add(new byte[] { 0x01, 0x02, 0x03, (byte) 0x90, 0x00 });
+	TransmitResponse resCopy = (TransmitResponse) tracer.snapshot(res);
+	assertEquals(resCopy.getOutputAPDU().get(0), new byte[] { (byte) 0x90, 0x00 });
+	// original is untouched
+	assertEquals(res.getOutputAPDU().get(0).length, 5);
+
+	tracer = new MessageTracer(10, rates, false);
+	reqCopy = (Transmit) tracer.snapshot(req);
+	assertEquals(reqCopy.getInputAPDUInfo().get(0).getInputAPDU(), apdu.getInputAPDU());
+	assertNotSame(reqCopy.getInputAPDUInfo().get(0).getInputAPDU(), apdu.getInputAPDU());
+    }
+
+}
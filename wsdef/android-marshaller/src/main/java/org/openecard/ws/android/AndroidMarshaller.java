@@ -123,6 +123,7 @@ import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import javax.xml.validation.Schema;
 import oasis.names.tc.dss._1_0.core.schema.InternationalStringType;
 import oasis.names.tc.dss._1_0.core.schema.Result;
 import org.openecard.addon.manifest.AddonSpecification;
@@ -137,6 +138,7 @@ import org.openecard.bouncycastle.crypto.RuntimeCryptoException;
 import org.openecard.common.util.ByteUtils;
 import org.openecard.common.util.StringUtils;
 import org.openecard.ws.marshal.MarshallingTypeException;
+import org.openecard.ws.marshal.UnmarshalResult;
 import org.openecard.ws.marshal.WSMarshaller;
 import org.openecard.ws.marshal.WSMarshallerException;
 import org.openecard.ws.marshal.WhitespaceFilter;
@@ -724,6 +726,12 @@ public class AndroidMarshaller implements WSMarshaller {
 	throw new MarshallingTypeException(String.format("Invalid type requested for unmarshalling: '%s'", c));
     }
 
+    @Override
+    public UnmarshalResult unmarshal(Node n, Schema schema) throws MarshallingTypeException, WSMarshallerException {
+	// XML Schema validation is not available on Android
+	return new UnmarshalResult(unmarshal(n));
+    }
+
     private Document createDoc(Node n) throws WSMarshallerException {
 	Document newDoc = null;
 	if (n instanceof Document) {
@@ -73,6 +73,7 @@ import javax.xml.bind.JAXB;
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.validation.Schema;
 import oasis.names.tc.dss._1_0.core.schema.InternationalStringType;
 import oasis.names.tc.dss._1_0.core.schema.Result;
 import org.openecard.addon.manifest.AddonSpecification;
@@ -81,6 +82,7 @@ import org.openecard.common.WSHelper;
 import org.openecard.common.anytype.AuthDataMap;
 import org.openecard.crypto.common.sal.CryptoMarkerType;
 import org.openecard.common.util.StringUtils;
+import org.openecard.ws.marshal.UnmarshalResult;
 import org.openecard.ws.marshal.WSMarshaller;
 import org.openecard.ws.soap.SOAPHeader;
 import org.openecard.ws.soap.SOAPMessage;
@@ -257,6 +259,16 @@ public class AndroidMarshallerTest {
 	assertEquals(d.getAction(), ActionType.EJECT);
     }
 
+    @Test
+    public void testUnmarshalWithSchema() throws Exception {
+	WSMarshaller m = new AndroidMarshaller();
+	UnmarshalResult result = m.unmarshal(m.str2doc(disconnect), (Schema) null);
+
+	assertTrue(result.getObject() instanceof Disconnect);
+	assertFalse(result.isValidated());
+	assertFalse(result.isValid());
+    }
+
     @Test
     public void testConversionOfDisconnectResponse() throws Exception {
 	WSMarshaller m = new AndroidMarshaller();
@@ -27,9 +27,12 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import javax.xml.bind.annotation.XmlRegistry;
 import org.apache.maven.plugin.AbstractMojo;
@@ -45,6 +48,9 @@ import org.apache.maven.plugins.annotations.Parameter;
  * parameter {@code outputDirectory}. The contents of the file are entries of fully qualified class names with all JAXB
  * ObjectFactory classes found below the directory named by the {@code classDirectory} parameter. The {@code excludes}
  * list can contain fully qualified class names which should not occur in the list.
+ * <p>In addition a partition of the listed classes by XML namespace is written to the file named in the
+ * {@code partitionFileName} parameter. Each line contains a namespace followed by the ObjectFactory classes needed
+ * to process documents in this namespace, so that the marshaller can create small JAXB contexts on demand.</p>
  * <p>The plugin is executed in the {@code process-classes} phase. The goal is named {@code class-list}.</p>
  *
  * @author Tobias Wich
@@ -62,6 +68,11 @@ public class ClassList extends AbstractMojo {
      */
     @Parameter(defaultValue = "classes.lst")
     private String fileName;
+    /**
+     * Name of the file containing the partitions by namespace.
+     */
+    @Parameter(defaultValue = "classes-partitions.lst")
+    private String partitionFileName;
     /**
      * List of excluded classes.
      */
@@ -91,14 +102,55 @@ public class ClassList extends AbstractMojo {
 	}
 	File touch = new File(f, fileName);
 
+	Set<String> factories = getClassFiles();
 	try (PrintWriter pw = new PrintWriter(touch, "UTF-8")) {
 	    // get list of all class files
-	    for (String next : getClassFiles()) {
+	    for (String next : factories) {
 		pw.println(next);
 	    }
 	} catch (IOException e) {
 	    throw new MojoExecutionException("Error creating file " + touch, e);
 	}
+
+	writePartitions(new File(f, partitionFileName), factories);
+    }
+
+    private void writePartitions(File partitionFile, Set<String> factories) throws MojoExecutionException {
+	Map<String, List<String>> packageClasses = new TreeMap<>();
+	collectClassNames(classDirectory, "", packageClasses);
+
+	try (PrintWriter pw = new PrintWriter(partitionFile, "UTF-8")) {
+	    URL url = classDirectory.toURI().toURL();
+	    URLClassLoader cl = new URLClassLoader(new URL[] {url}, getClass().getClassLoader());
+	    PartitionIndex index = new PartitionIndex(cl, factories, packageClasses);
+	    index.write(pw);
+	    getLog().info("Wrote " + index.getPartitions().size() + " namespace partitions to " + partitionFile);
+	} catch (IOException | ClassNotFoundException | LinkageError e) {
+	    throw new MojoExecutionException("Error creating file " + partitionFile, e);
+	}
+    }
+
+    private void collectClassNames(File dir, String pkg, Map<String, List<String>> result) {
+	File[] files = dir.listFiles();
+	for (File f : files) {
+	    String name = f.getName();
+	    if (f.isDirectory()) {
+		collectClassNames(f, pkg.isEmpty() ? name : pkg + "." + name, result);
+	    } else if (name.endsWith(".class")) {
+		String className = name.substring(0, name.length() - 6);
+		if (! pkg.isEmpty()) {
+		    className = pkg + "." + className;
+		}
+		if (! excludes.contains(className)) {
+		    List<String> classes = result.get(pkg);
+		    if (classes == null) {
+			classes = new ArrayList<>();
+			result.put(pkg, classes);
+		    }
+		    classes.add(className);
+		}
+	    }
+	}
     }
 
     private Set<String> getClassFiles() {
@@ -0,0 +1,223 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.maven.classlist;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.xml.bind.annotation.XmlElementDecl;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSeeAlso;
+import javax.xml.bind.annotation.XmlType;
+
+
+/**
+ * Computes the partition of the JAXB ObjectFactory classes by XML namespace.
+ * Each namespace used by the types and elements of a package is mapped to the ObjectFactory of that package, together
+ * with the ObjectFactory classes of all packages whose types are referenced directly or indirectly by the package. A
+ * JAXBContext created from the classes of one entry is therefore able to handle all documents whose root element is in
+ * that namespace.
+ * <p>Content of {@code xs:any} elements is not part of the dependency closure, as it can not be derived from the
+ * schema.</p>
+ *
+ * @author agent
+ */
+class PartitionIndex {
+
+    private static final String DEFAULT_NS = "##default";
+
+    private final ClassLoader cl;
+    /** Key is package name, value is ObjectFactory class name */
+    private final Map<String, String> factories = new HashMap<>();
+    /** Key is package name, value is set of referenced package names */
+    private final Map<String, Set<String>> dependencies = new HashMap<>();
+    /** Key is namespace, value is set of package names */
+    private final Map<String, Set<String>> namespaces = new HashMap<>();
+
+    /**
+     * Creates the index for the given factories.
+     *
+     * @param cl Class loader used to load the classes.
+     * @param factoryClasses Names of the ObjectFactory classes.
+     * @param packageClasses Names of all classes in a package, keyed by the package name.
+     * @throws ClassNotFoundException Thrown in case one of the classes can not be loaded.
+     */
+    PartitionIndex(ClassLoader cl, Collection<String> factoryClasses, Map<String, List<String>> packageClasses)
+	    throws ClassNotFoundException {
+	this.cl = cl;
+	for (String next : factoryClasses) {
+	    factories.put(getPackage(next), next);
+	}
+	for (Map.Entry<String, String> next : factories.entrySet()) {
+	    String pkg = next.getKey();
+	    Set<String> deps = new HashSet<>();
+	    List<String> classes = packageClasses.get(pkg);
+	    if (classes != null) {
+		for (String className : classes) {
+		    inspect(pkg, cl.loadClass(className), deps);
+		}
+	    }
+	    inspect(pkg, cl.loadClass(next.getValue()), deps);
+	    deps.remove(pkg);
+	    dependencies.put(pkg, deps);
+	}
+    }
+
+    /**
+     * Gets the partitions of the index.
+     *
+     * @return Map with the namespaces as keys and the ObjectFactory classes of the partition as values.
+     */
+    SortedMap<String, SortedSet<String>> getPartitions() {
+	SortedMap<String, SortedSet<String>> result = new TreeMap<>();
+	for (Map.Entry<String, Set<String>> next : namespaces.entrySet()) {
+	    SortedSet<String> classes = new TreeSet<>();
+	    for (String pkg : closure(next.getValue())) {
+		classes.add(factories.get(pkg));
+	    }
+	    result.put(next.getKey(), classes);
+	}
+	return result;
+    }
+
+    /**
+     * Writes the index.
+     * Each line consists of the namespace followed by the ObjectFactory classes of the partition, separated by
+     * whitespace.
+     *
+     * @param pw Writer receiving the index.
+     */
+    void write(PrintWriter pw) {
+	for (Map.Entry<String, SortedSet<String>> next : getPartitions().entrySet()) {
+	    pw.print(next.getKey());
+	    for (String className : next.getValue()) {
+		pw.print(' ');
+		pw.print(className);
+	    }
+	    pw.println();
+	}
+    }
+
+    private Set<String> closure(Set<String> start) {
+	Set<String> result = new TreeSet<>();
+	Deque<String> todo = new ArrayDeque<>(start);
+	while (! todo.isEmpty()) {
+	    String pkg = todo.pop();
+	    if (result.add(pkg)) {
+		todo.addAll(dependencies.get(pkg));
+	    }
+	}
+	return result;
+    }
+
+    private void inspect(String pkg, Class<?> c, Set<String> deps) {
+	// namespaces defined by this package
+	XmlType type = c.getAnnotation(XmlType.class);
+	if (type != null) {
+	    addNamespace(type.namespace(), pkg);
+	}
+	XmlRootElement root = c.getAnnotation(XmlRootElement.class);
+	if (root != null) {
+	    addNamespace(root.namespace(), pkg);
+	}
+
+	// referenced types
+	addDependency(c.getGenericSuperclass(), deps);
+	XmlSeeAlso seeAlso = c.getAnnotation(XmlSeeAlso.class);
+	if (seeAlso != null) {
+	    for (Class<?> next : seeAlso.value()) {
+		addDependency(next, deps);
+	    }
+	}
+	for (Field f : c.getDeclaredFields()) {
+	    addDependency(f.getGenericType(), deps);
+	}
+	for (Method m : c.getDeclaredMethods()) {
+	    XmlElementDecl decl = m.getAnnotation(XmlElementDecl.class);
+	    if (decl != null) {
+		addNamespace(decl.namespace(), pkg);
+		addDependency(m.getGenericReturnType(), deps);
+	    }
+	}
+    }
+
+    private void addNamespace(String ns, String pkg) {
+	if (! DEFAULT_NS.equals(ns)) {
+	    Set<String> pkgs = namespaces.get(ns);
+	    if (pkgs == null) {
+		pkgs = new TreeSet<>();
+		namespaces.put(ns, pkgs);
+	    }
+	    pkgs.add(pkg);
+	}
+    }
+
+    private void addDependency(Type t, Set<String> deps) {
+	if (t instanceof Class) {
+	    Class<?> c = (Class<?>) t;
+	    while (c.isArray()) {
+		c = c.getComponentType();
+	    }
+	    if (! c.isPrimitive()) {
+		String pkg = getPackage(c.getName());
+		if (factories.containsKey(pkg)) {
+		    deps.add(pkg);
+		}
+	    }
+	} else if (t instanceof ParameterizedType) {
+	    ParameterizedType pt = (ParameterizedType) t;
+	    addDependency(pt.getRawType(), deps);
+	    for (Type next : pt.getActualTypeArguments()) {
+		addDependency(next, deps);
+	    }
+	} else if (t instanceof GenericArrayType) {
+	    addDependency(((GenericArrayType) t).getGenericComponentType(), deps);
+	} else if (t instanceof WildcardType) {
+	    for (Type next : ((WildcardType) t).getUpperBounds()) {
+		addDependency(next, deps);
+	    }
+	}
+    }
+
+    private static String getPackage(String className) {
+	int idx = className.lastIndexOf('.');
+	return idx < 0 ? "" : className.substring(0, idx);
+    }
+
+}
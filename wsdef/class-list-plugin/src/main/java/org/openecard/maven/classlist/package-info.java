@@ -25,7 +25,8 @@
  * The plugin creates a file named in the {@code fileName} parameter and places it into the the directory named by the
  * parameter {@code outputDirectory}. The contents of the file are entries of fully qualified class names with all JAXB
  * element classes found below the directory named by the {@code classDirectory} parameter. The {@code excludes} list
- * can contain fully qualified class names which should not occur in the list.
+ * can contain fully qualified class names which should not occur in the list. Additionally the classes are
+ * partitioned by XML namespace and written to the file named in the {@code partitionFileName} parameter.
  * <p>
  * The plugin is executed in the {@code process-classes} phase. The execution goal is named {@code class-list}.
  */
@@ -0,0 +1,219 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.ws.jaxb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Lazily created JAXB contexts for the namespace partitions of the classes.lst file.
+ * The partitions are read from the classpath resource classes-partitions.lst which is generated by the class-list
+ * plugin. Each partition contains the ObjectFactory classes needed for the documents of one namespace. The context of
+ * a partition is created when it is needed the first time, partitions with the same classes share one context.
+ *
+ * @author agent
+ */
+final class ContextPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContextPartitions.class);
+
+    static final String PARTITION_FILE = "classes-partitions.lst";
+
+    /**
+     * Namespaces used in almost every message exchange. The contexts for these namespaces are created eagerly.
+     */
+    static final List<String> EAGER_NAMESPACES = Collections.unmodifiableList(Arrays.asList(
+	    "urn:iso:std:iso-iec:24727:tech:schema",
+	    "http://www.bsi.bund.de/ecard/api/1.1",
+	    "urn:oasis:names:tc:dss:1.0:core:schema"));
+
+    private final ClassLoader cl;
+    private final Map<String, List<String>> partitions;
+    private final ConcurrentMap<List<String>, FutureTask<JAXBContext>> contexts;
+
+    private ContextPartitions(ClassLoader cl, Map<String, List<String>> partitions) {
+	this.cl = cl;
+	this.partitions = partitions;
+	this.contexts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Loads the partitions from the classpath.
+     *
+     * @param cl Class loader used to load the partition file and the classes.
+     * @return The partitions or {@code null} if there is no partition file available.
+     */
+    @Nullable
+    static ContextPartitions load(@Nonnull ClassLoader cl) {
+	InputStream in = cl.getResourceAsStream(PARTITION_FILE);
+	if (in == null) {
+	    logger.debug("No JAXB partition file available.");
+	    return null;
+	}
+
+	Map<String, List<String>> partitions = new HashMap<>();
+	try (LineNumberReader r = new LineNumberReader(new InputStreamReader(in, Charset.forName("UTF-8")))) {
+	    String next;
+	    while ((next = r.readLine()) != null) {
+		String[] tokens = next.trim().split("\\s+");
+		if (tokens.length > 1) {
+		    List<String> classes = new ArrayList<>(Arrays.asList(tokens).subList(1, tokens.length));
+		    partitions.put(tokens[0], Collections.unmodifiableList(classes));
+		}
+	    }
+	} catch (IOException ex) {
+	    logger.error("Failed to read JAXB partition file.", ex);
+	    return null;
+	}
+
+	return new ContextPartitions(cl, partitions);
+    }
+
+    /**
+     * Gets the context for documents in the given namespace.
+     * The context is created in the calling thread if it does not exist yet.
+     *
+     * @param namespace Namespace of the root element of the document.
+     * @return The context, or {@code null} if there is no partition for the namespace.
+     * @throws JAXBException Thrown in case the context could not be created.
+     */
+    @Nullable
+    JAXBContext getContext(@Nullable String namespace) throws JAXBException {
+	List<String> classes = namespace != null ? partitions.get(namespace) : null;
+	if (classes == null) {
+	    return null;
+	}
+
+	FutureTask<JAXBContext> task = getTask(classes);
+	// no-op if the context is already created or being created by another thread
+	task.run();
+	try {
+	    return task.get();
+	} catch (ExecutionException ex) {
+	    Throwable cause = ex.getCause();
+	    if (cause instanceof JAXBException) {
+		throw (JAXBException) cause;
+	    }
+	    throw new JAXBException("Failed to create JAXBContext for namespace " + namespace + ".", cause);
+	} catch (InterruptedException ex) {
+	    Thread.currentThread().interrupt();
+	    throw new JAXBException("Interrupted while waiting for the JAXBContext of namespace " + namespace + ".");
+	}
+    }
+
+    /**
+     * Checks whether the partition of a namespace can also handle content of other namespaces.
+     * A namespace is covered if all classes of its own partition are part of the partition in question. Namespaces
+     * without a partition are never covered.
+     *
+     * @param namespace Namespace of the root element of the document.
+     * @param others Namespaces of the content of the document.
+     * @return {@code true} if the partition of {@code namespace} covers all other namespaces, {@code false} otherwise.
+     */
+    boolean covers(@Nullable String namespace, @Nonnull Collection<String> others) {
+	List<String> classes = namespace != null ? partitions.get(namespace) : null;
+	if (classes == null) {
+	    return false;
+	}
+	for (String next : others) {
+	    List<String> otherClasses = partitions.get(next);
+	    if (otherClasses == null || ! classes.containsAll(otherClasses)) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    /**
+     * Creates the contexts of the given namespaces in a background thread.
+     *
+     * @param namespaces Namespaces whose contexts should be created.
+     */
+    void warmUp(@Nonnull Collection<String> namespaces) {
+	final List<FutureTask<JAXBContext>> tasks = new ArrayList<>();
+	for (String ns : namespaces) {
+	    List<String> classes = partitions.get(ns);
+	    if (classes != null) {
+		tasks.add(getTask(classes));
+	    }
+	}
+	Thread t = new Thread(new Runnable() {
+	    @Override
+	    public void run() {
+		for (FutureTask<JAXBContext> next : tasks) {
+		    next.run();
+		}
+	    }
+	}, "JAXB-Classload");
+	t.setDaemon(true);
+	t.start();
+    }
+
+    private FutureTask<JAXBContext> getTask(final List<String> classNames) {
+	FutureTask<JAXBContext> task = contexts.get(classNames);
+	if (task == null) {
+	    FutureTask<JAXBContext> newTask = new FutureTask<>(new Callable<JAXBContext>() {
+		@Override
+		public JAXBContext call() throws Exception {
+		    long start = System.currentTimeMillis();
+		    Class<?>[] classes = new Class<?>[classNames.size()];
+		    for (int i = 0; i < classes.length; i++) {
+			classes[i] = cl.loadClass(classNames.get(i));
+		    }
+		    JAXBContext ctx = JAXBContext.newInstance(classes);
+		    logger.debug("Created JAXBContext for {} in {} ms.", classNames,
+			    System.currentTimeMillis() - start);
+		    return ctx;
+		}
+	    });
+	    task = contexts.putIfAbsent(classNames, newTask);
+	    if (task == null) {
+		task = newTask;
+	    }
+	}
+	return task;
+    }
+
+}
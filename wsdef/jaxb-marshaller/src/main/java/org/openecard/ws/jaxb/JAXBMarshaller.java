@@ -27,8 +27,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.ValidationEvent;
+import javax.xml.bind.ValidationEventHandler;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -39,7 +48,9 @@ import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import javax.xml.validation.Schema;
 import org.openecard.ws.marshal.MarshallingTypeException;
+import org.openecard.ws.marshal.UnmarshalResult;
 import org.openecard.ws.marshal.WSMarshaller;
 import org.openecard.ws.marshal.WSMarshallerException;
 import org.openecard.ws.marshal.WhitespaceFilter;
@@ -177,7 +188,13 @@ public final class JAXBMarshaller implements WSMarshaller {
 	Document newDoc = createDoc(n);
 	Object result;
 	try {
-	    result = marshaller.getUnmarshaller().unmarshal(newDoc); //NOI18N
+	    Unmarshaller um = getUnmarshaller(newDoc);
+	    try {
+		result = um.unmarshal(newDoc); //NOI18N
+	    } catch (JAXBException ex) {
+		Unmarshaller fullUm = getFallbackUnmarshaller(um, ex);
+		result = fullUm.unmarshal(newDoc); //NOI18N
+	    }
 	} catch (JAXBException ex) {
 	    throw new MarshallingTypeException(ex);
 	}
@@ -190,13 +207,115 @@ public final class JAXBMarshaller implements WSMarshaller {
 	Document newDoc = createDoc(n);
 	JAXBElement<T> result;
 	try {
-	    result = marshaller.getUnmarshaller().unmarshal(newDoc, c); //NOI18N
+	    Unmarshaller um = getUnmarshaller(newDoc);
+	    try {
+		result = um.unmarshal(newDoc, c); //NOI18N
+	    } catch (JAXBException ex) {
+		Unmarshaller fullUm = getFallbackUnmarshaller(um, ex);
+		result = fullUm.unmarshal(newDoc, c); //NOI18N
+	    }
 	} catch (JAXBException ex) {
 	    throw new MarshallingTypeException(ex);
 	}
 	return result;
     }
 
+    @Override
+    public synchronized UnmarshalResult unmarshal(Node n, Schema schema) throws MarshallingTypeException,
+	    WSMarshallerException {
+	Document newDoc = createDoc(n);
+	try {
+	    Unmarshaller um = getUnmarshaller(newDoc);
+	    try {
+		return unmarshal(um, newDoc, schema);
+	    } catch (JAXBException ex) {
+		Unmarshaller fullUm = getFallbackUnmarshaller(um, ex);
+		return unmarshal(fullUm, newDoc, schema);
+	    }
+	} catch (JAXBException ex) {
+	    throw new MarshallingTypeException(ex);
+	}
+    }
+
+    private static UnmarshalResult unmarshal(Unmarshaller um, Document newDoc, Schema schema) throws JAXBException {
+	final List<String> errors = new ArrayList<>();
+	um.setSchema(schema);
+	um.setEventHandler(new ValidationEventHandler() {
+	    @Override
+	    public boolean handleEvent(ValidationEvent event) {
+		// record the problem and go on, so that the caller gets the object in any case
+		errors.add(event.getMessage());
+		return true;
+	    }
+	});
+	try {
+	    Object result = um.unmarshal(newDoc); //NOI18N
+	    return new UnmarshalResult(result, errors);
+	} finally {
+	    // the unmarshaller is shared, so restore its default behaviour
+	    um.setSchema(null);
+	    um.setEventHandler(null);
+	}
+    }
+
+    /**
+     * Gets the unmarshaller of the full context after an unmarshaller of a partition failed.
+     *
+     * @param um The unmarshaller which failed.
+     * @param ex The exception of the failed unmarshaller.
+     * @return The unmarshaller of the full context.
+     * @throws JAXBException Thrown in case the failed unmarshaller is already the one of the full context.
+     */
+    private Unmarshaller getFallbackUnmarshaller(Unmarshaller um, JAXBException ex) throws JAXBException {
+	Unmarshaller fullUm = marshaller.getUnmarshaller();
+	if (fullUm == um) {
+	    throw ex;
+	}
+	logger.debug("Unmarshalling with partitioned JAXBContext failed, retrying with full context.", ex);
+	return fullUm;
+    }
+
+    /**
+     * Gets the unmarshaller for the given document.
+     * The unmarshaller of a partition is only used if the partition covers the namespaces of all elements and xsi:type
+     * attributes in the document. Otherwise lax wildcard content of other namespaces would stay DOM without an error.
+     *
+     * @param doc The document to unmarshal.
+     * @return The unmarshaller for the document.
+     * @throws JAXBException Thrown in case the unmarshaller could not be created.
+     */
+    private Unmarshaller getUnmarshaller(Document doc) throws JAXBException {
+	Element root = doc.getDocumentElement();
+	if (root == null) {
+	    return marshaller.getUnmarshaller();
+	}
+	String ns = root.getNamespaceURI();
+	Set<String> contentNamespaces = new HashSet<>();
+	collectNamespaces(root, contentNamespaces);
+	return marshaller.getUnmarshaller(ns != null ? ns : "", contentNamespaces);
+    }
+
+    private static void collectNamespaces(Element e, Set<String> namespaces) {
+	// elements without namespace are local elements of unqualified schemas and belong to their parent's type
+	String ns = e.getNamespaceURI();
+	if (ns != null && ! ns.isEmpty()) {
+	    namespaces.add(ns);
+	}
+	if (e.hasAttributeNS(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "type")) {
+	    String type = e.getAttributeNS(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "type").trim();
+	    int idx = type.indexOf(':');
+	    String typeNs = e.lookupNamespaceURI(idx > 0 ? type.substring(0, idx) : null);
+	    if (typeNs != null && ! typeNs.isEmpty()) {
+		namespaces.add(typeNs);
+	    }
+	}
+	for (Node next = e.getFirstChild(); next != null; next = next.getNextSibling()) {
+	    if (next.getNodeType() == Node.ELEMENT_NODE) {
+		collectNamespaces((Element) next, namespaces);
+	    }
+	}
+    }
+
     private Document createDoc(Node n) throws WSMarshallerException {
 	Document newDoc = null;
 	if (n instanceof Document) {
@@ -215,7 +334,18 @@ public final class JAXBMarshaller implements WSMarshaller {
     public synchronized Document marshal(Object o) throws MarshallingTypeException {
 	try {
 	    Document d = w3Builder.newDocument();
-	    marshaller.getMarshaller().marshal(o, d);
+	    Marshaller m = marshaller.getMarshaller(o);
+	    try {
+		m.marshal(o, d);
+	    } catch (JAXBException ex) {
+		Marshaller fullM = marshaller.getMarshaller();
+		if (fullM == m) {
+		    throw ex;
+		}
+		logger.debug("Marshalling with partitioned JAXBContext failed, retrying with full context.", ex);
+		d = w3Builder.newDocument();
+		fullM.marshal(o, d);
+	    }
 	    return d;
 	} catch (JAXBException ex) {
 	    throw new MarshallingTypeException(ex);
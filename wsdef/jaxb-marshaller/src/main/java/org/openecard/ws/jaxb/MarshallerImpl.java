@@ -32,7 +32,10 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.TreeSet;
@@ -40,11 +43,15 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlRegistry;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSchema;
 import javax.xml.bind.annotation.XmlType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,12 +69,15 @@ public class MarshallerImpl {
     private static final ArrayList<Class<?>> baseXmlElementClasses;
     private static final FutureTask<JAXBContext> baseJaxbContext;
     private static final HashMap<String, JAXBContext> specificContexts;
+    private static final ContextPartitions partitions;
 
     private boolean userOverride;
     private final TreeSet<Class<?>> userClasses;
 
     private Marshaller marshaller;
     private Unmarshaller unmarshaller;
+    private final IdentityHashMap<JAXBContext, Marshaller> partitionMarshallers;
+    private final IdentityHashMap<JAXBContext, Unmarshaller> partitionUnmarshallers;
 
     static {
 	// load predefined classes
@@ -86,9 +96,15 @@ public class MarshallerImpl {
 		}
 	    }
 	});
-	new Thread(baseJaxbContext, "JAXB-Classload").start();
-
 	specificContexts = new HashMap<>();
+
+	partitions = ContextPartitions.load(Thread.currentThread().getContextClassLoader());
+	if (partitions != null) {
+	    // the full context is only created when a document can not be handled by a partition
+	    partitions.warmUp(ContextPartitions.EAGER_NAMESPACES);
+	} else {
+	    new Thread(baseJaxbContext, "JAXB-Classload").start();
+	}
     }
 
 
@@ -98,6 +114,8 @@ public class MarshallerImpl {
     public MarshallerImpl() {
 	userOverride = false;
 	userClasses = new TreeSet<>(new ClassComparator());
+	partitionMarshallers = new IdentityHashMap<>();
+	partitionUnmarshallers = new IdentityHashMap<>();
     }
 
 
@@ -138,6 +156,7 @@ public class MarshallerImpl {
 
     /**
      * Gets the wrapped JAXB marshaller instance.
+     * The marshaller is based on the context of all classes, respectively the user defined classes.
      *
      * @return The wrapped JAXB marshaller instance.
      * @throws JAXBException If the marshaller could not be created.
@@ -151,6 +170,7 @@ public class MarshallerImpl {
 
     /**
      * Gets the wrapped JAXB unmarshaller instance.
+     * The unmarshaller is based on the context of all classes, respectively the user defined classes.
      *
      * @return The wrapped JAXB unmarshaller instance.
      * @throws JAXBException If the unmarshaller could not be created.
@@ -163,6 +183,93 @@ public class MarshallerImpl {
     }
 
 
+    /**
+     * Gets a JAXB marshaller for the given object.
+     * The marshaller is based on the context of the namespace partition of the object if available and no user
+     * defined classes are set. Otherwise the marshaller of {@link #getMarshaller()} is returned.
+     *
+     * @param o The object which should be marshalled.
+     * @return The JAXB marshaller instance.
+     * @throws JAXBException If the marshaller could not be created.
+     */
+    public synchronized Marshaller getMarshaller(@Nonnull Object o) throws JAXBException {
+	JAXBContext ctx = getPartitionContext(getNamespace(o));
+	if (ctx == null) {
+	    return getMarshaller();
+	}
+	Marshaller m = partitionMarshallers.get(ctx);
+	if (m == null) {
+	    m = ctx.createMarshaller();
+	    partitionMarshallers.put(ctx, m);
+	}
+	return m;
+    }
+
+    /**
+     * Gets a JAXB unmarshaller for documents with a root element in the given namespace.
+     * The unmarshaller is based on the context of the namespace partition if available and no user defined classes
+     * are set. Otherwise the unmarshaller of {@link #getUnmarshaller()} is returned.
+     *
+     * @param namespace Namespace of the root element of the document.
+     * @return The JAXB unmarshaller instance.
+     * @throws JAXBException If the unmarshaller could not be created.
+     */
+    public Unmarshaller getUnmarshaller(@Nullable String namespace) throws JAXBException {
+	return getUnmarshaller(namespace, Collections.<String>emptySet());
+    }
+
+    /**
+     * Gets a JAXB unmarshaller for documents with a root element in the given namespace and content in the other
+     * namespaces.
+     * The unmarshaller is based on the context of the namespace partition if available, the partition covers all
+     * content namespaces and no user defined classes are set. Otherwise the unmarshaller of {@link #getUnmarshaller()}
+     * is returned.
+     *
+     * @param namespace Namespace of the root element of the document.
+     * @param contentNamespaces Namespaces of the elements and types contained in the document.
+     * @return The JAXB unmarshaller instance.
+     * @throws JAXBException If the unmarshaller could not be created.
+     */
+    public synchronized Unmarshaller getUnmarshaller(@Nullable String namespace,
+	    @Nonnull Collection<String> contentNamespaces) throws JAXBException {
+	JAXBContext ctx = getPartitionContext(namespace);
+	if (ctx == null || ! partitions.covers(namespace, contentNamespaces)) {
+	    return getUnmarshaller();
+	}
+	Unmarshaller um = partitionUnmarshallers.get(ctx);
+	if (um == null) {
+	    um = ctx.createUnmarshaller();
+	    partitionUnmarshallers.put(ctx, um);
+	}
+	return um;
+    }
+
+    @Nullable
+    private JAXBContext getPartitionContext(@Nullable String namespace) throws JAXBException {
+	if (userOverride || partitions == null) {
+	    return null;
+	}
+	return partitions.getContext(namespace);
+    }
+
+    @Nullable
+    static String getNamespace(@Nonnull Object o) {
+	if (o instanceof JAXBElement) {
+	    return ((JAXBElement<?>) o).getName().getNamespaceURI();
+	}
+	XmlRootElement root = o.getClass().getAnnotation(XmlRootElement.class);
+	if (root == null) {
+	    return null;
+	} else if (! "##default".equals(root.namespace())) {
+	    return root.namespace();
+	} else {
+	    Package pkg = o.getClass().getPackage();
+	    XmlSchema schema = pkg != null ? pkg.getAnnotation(XmlSchema.class) : null;
+	    return schema != null ? schema.namespace() : "";
+	}
+    }
+
+
     private void resetMarshaller() {
 	marshaller = null;
 	unmarshaller = null;
@@ -182,6 +289,8 @@ public class MarshallerImpl {
 	    }
 	} else {
 	    try {
+		// no-op if the context is already created or being created by another thread
+		baseJaxbContext.run();
 		jaxbCtx = baseJaxbContext.get();
 	    } catch (ExecutionException ex) {
 		logger.error("Failed to create JAXBContext instance.", ex);
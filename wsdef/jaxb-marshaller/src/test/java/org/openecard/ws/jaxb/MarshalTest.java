@@ -24,22 +24,31 @@ package org.openecard.ws.jaxb;
 
 import de.bund.bsi.ecard.api._1.InitializeFrameworkResponse;
 import de.bund.bsi.ecard.api._1.InitializeFrameworkResponse.Version;
+import iso.std.iso_iec._24727.tech.schema.ConnectionHandleType;
 import iso.std.iso_iec._24727.tech.schema.DIDAuthenticateResponse;
 import iso.std.iso_iec._24727.tech.schema.EAC2OutputType;
+import iso.std.iso_iec._24727.tech.schema.StartPAOS;
 import java.math.BigInteger;
+import java.util.Collections;
+import javax.xml.bind.JAXBElement;
+import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
 import oasis.names.tc.dss._1_0.core.schema.InternationalStringType;
 import oasis.names.tc.dss._1_0.core.schema.Result;
 import org.openecard.ws.marshal.MarshallingTypeException;
+import org.openecard.ws.marshal.UnmarshalResult;
 import org.openecard.ws.soap.MessageFactory;
 import org.openecard.ws.soap.SOAPBody;
 import org.openecard.ws.soap.SOAPException;
 import org.openecard.ws.soap.SOAPMessage;
 import org.testng.annotations.Test;
+import org.w3._2000._09.xmldsig_.KeyInfoType;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -111,6 +120,58 @@ public class MarshalTest {
 	//System.out.println(m.doc2str(doc));
     }
 
+    @Test
+    public void testPartitionedContext() throws Exception {
+	String isoNs = "urn:iso:std:iso-iec:24727:tech:schema";
+	assertEquals(MarshallerImpl.getNamespace(new StartPAOS()), isoNs);
+	assertNotNull(ContextPartitions.load(MarshalTest.class.getClassLoader()), "Partition file is missing.");
+
+	MarshallerImpl impl = new MarshallerImpl();
+	assertNotSame(impl.getUnmarshaller(isoNs), impl.getUnmarshaller());
+	assertSame(impl.getUnmarshaller(isoNs), impl.getUnmarshaller(isoNs));
+	// unknown namespaces use the full context
+	assertSame(impl.getUnmarshaller("urn:unknown"), impl.getUnmarshaller());
+
+	// round trip with the partitioned context, the result type references the TR-03112 namespace
+	JAXBMarshaller m = new JAXBMarshaller();
+	InitializeFrameworkResponse res = new InitializeFrameworkResponse();
+	Version v = new Version();
+	v.setMajor(BigInteger.ONE);
+	v.setMinor(BigInteger.ONE);
+	res.setVersion(v);
+	res.setResult(new Result());
+	res.getResult().setResultMajor("http://www.bsi.bund.de/ecard/api/1.1/resultmajor#ok");
+	Object o = m.unmarshal(m.marshal(res));
+	assertTrue(o instanceof InitializeFrameworkResponse);
+	assertEquals(((InitializeFrameworkResponse) o).getVersion().getMajor(), BigInteger.ONE);
+    }
+
+    @Test
+    public void testPartitionedContextWithForeignContent() throws Exception {
+	// the xmldsig partition does not know the DSS Result in the lax wildcard of KeyInfo
+	String xml
+	    = "<ds:KeyInfo xmlns:ds=\"http://www.w3.org/2000/09/xmldsig#\">"
+	    + "<dss:Result xmlns:dss=\"urn:oasis:names:tc:dss:1.0:core:schema\">"
+	    + "<dss:ResultMajor>http://www.bsi.bund.de/ecard/api/1.1/resultmajor#ok</dss:ResultMajor>"
+	    + "</dss:Result>"
+	    + "</ds:KeyInfo>";
+	String dsigNs = "http://www.w3.org/2000/09/xmldsig#";
+	String dssNs = "urn:oasis:names:tc:dss:1.0:core:schema";
+	MarshallerImpl impl = new MarshallerImpl();
+	assertNotSame(impl.getUnmarshaller(dsigNs), impl.getUnmarshaller());
+	assertSame(impl.getUnmarshaller(dsigNs, Collections.singleton(dssNs)), impl.getUnmarshaller());
+	assertNotSame(impl.getUnmarshaller(dssNs, Collections.singleton(dsigNs)), impl.getUnmarshaller());
+
+	JAXBMarshaller m = new JAXBMarshaller();
+	Object o = m.unmarshal(m.str2doc(xml));
+	Object expected = impl.getUnmarshaller().unmarshal(m.str2doc(xml));
+	assertEquals(m.doc2str(m.marshal(o)), m.doc2str(m.marshal(expected)));
+
+	KeyInfoType keyInfo = (KeyInfoType) ((JAXBElement<?>) o).getValue();
+	assertEquals(keyInfo.getContent().size(), 1);
+	assertTrue(keyInfo.getContent().get(0) instanceof Result, "Foreign content was not unmarshalled.");
+    }
+
     @Test
     public void testSOAPMarshal() throws Exception {
 	JAXBMarshaller m = new JAXBMarshaller();
@@ -126,6 +187,42 @@ public class MarshalTest {
 	//soapMsg.writeTo(System.out);
     }
 
+    @Test
+    public void testValidatingUnmarshal() throws Exception {
+	JAXBMarshaller m = new JAXBMarshaller();
+	SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+	Schema schema = sf.newSchema(MarshalTest.class.getResource("/ISO24727-Protocols.xsd"));
+
+	StartPAOS startPAOS = new StartPAOS();
+	startPAOS.setSessionIdentifier("0123456789");
+	startPAOS.getConnectionHandle().add(new ConnectionHandleType());
+	StartPAOS.UserAgent ua = new StartPAOS.UserAgent();
+	ua.setName("Test");
+	ua.setVersionMajor(BigInteger.ONE);
+	ua.setVersionMinor(BigInteger.ZERO);
+	startPAOS.setUserAgent(ua);
+	StartPAOS.SupportedAPIVersions version = new StartPAOS.SupportedAPIVersions();
+	version.setMajor(BigInteger.ONE);
+	startPAOS.getSupportedAPIVersions().add(version);
+
+	Element content = m.marshal(startPAOS).getDocumentElement();
+	UnmarshalResult result = m.unmarshal(content, schema);
+	assertTrue(result.isValid(), "Validation errors: " + result.getValidationErrors());
+	assertTrue(result.getObject() instanceof StartPAOS);
+
+	// the sample message lacks the mandatory UserAgent, but the object is created nevertheless
+	Document doc = m.str2doc(xmlStr);
+	SOAPMessage msg = m.doc2soap(doc);
+	content = msg.getSOAPBody().getChildElements().get(0);
+	result = m.unmarshal(content, schema);
+	assertFalse(result.isValid());
+	assertFalse(result.getValidationErrors().isEmpty());
+	assertTrue(result.getObject() instanceof StartPAOS);
+
+	// the marshaller must not validate in the regular case
+	assertTrue(m.unmarshal(content) instanceof StartPAOS);
+    }
+
     @Test
     public void testConversionOfDIDAuthenticatResponseAndInitializeFrameworkResponse() throws MarshallingTypeException, TransformerException, SOAPException, ParserConfigurationException {
 	JAXBMarshaller m = new JAXBMarshaller();
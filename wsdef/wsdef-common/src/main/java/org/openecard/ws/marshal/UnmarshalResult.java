@@ -0,0 +1,101 @@
+/****************************************************************************
+ * Copyright (C) 2026 ecsec GmbH.
+ * All rights reserved.
+ * Contact: ecsec GmbH (info@ecsec.de)
+ *
+ * This file is part of the Open eCard App.
+ *
+ * GNU General Public License Usage
+ * This file may be used under the terms of the GNU General Public
+ * License version 3.0 as published by the Free Software Foundation
+ * and appearing in the file LICENSE.GPL included in the packaging of
+ * this file. Please review the following information to ensure the
+ * GNU General Public License version 3.0 requirements will be met:
+ * http://www.gnu.org/copyleft/gpl.html.
+ *
+ * Other Usage
+ * Alternatively, this file may be used in accordance with the terms
+ * and conditions contained in a signed written agreement between
+ * you and ecsec GmbH.
+ *
+ ***************************************************************************/
+
+package org.openecard.ws.marshal;
+
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+
+/**
+ * Result of an unmarshalling operation which validated the document against a schema in the same pass.
+ * Marshallers which are not capable of schema validation return an unvalidated result, which is never valid.
+ *
+ * @see WSMarshaller#unmarshal(org.w3c.dom.Node, javax.xml.validation.Schema)
+ * @author agent
+ */
+@Immutable
+public final class UnmarshalResult {
+
+    private final Object object;
+    private final boolean validated;
+    private final List<String> validationErrors;
+
+    public UnmarshalResult(@Nonnull Object object, @Nonnull List<String> validationErrors) {
+	this.object = object;
+	this.validated = true;
+	this.validationErrors = Collections.unmodifiableList(validationErrors);
+    }
+
+    /**
+     * Creates a result for a document which has been unmarshalled without validating it.
+     *
+     * @param object The unmarshalled object.
+     */
+    public UnmarshalResult(@Nonnull Object object) {
+	this.object = object;
+	this.validated = false;
+	this.validationErrors = Collections.emptyList();
+    }
+
+    /**
+     * Gets the JAXB object representing the unmarshalled document.
+     *
+     * @return The unmarshalled object.
+     */
+    @Nonnull
+    public Object getObject() {
+	return object;
+    }
+
+    /**
+     * Indicates whether the document has been validated while unmarshalling.
+     *
+     * @return {@code true} if the document has been validated, {@code false} if the marshaller does not support
+     *   schema validation.
+     */
+    public boolean isValidated() {
+	return validated;
+    }
+
+    /**
+     * Indicates whether the document is valid according to the schema used while unmarshalling.
+     *
+     * @return {@code true} if the document has been validated and is valid, {@code false} otherwise.
+     */
+    public boolean isValid() {
+	return validated && validationErrors.isEmpty();
+    }
+
+    /**
+     * Gets the messages of all errors and warnings the validation yielded.
+     *
+     * @return Unmodifiable list of validation messages. The list is empty if the document is valid.
+     */
+    @Nonnull
+    public List<String> getValidationErrors() {
+	return validationErrors;
+    }
+
+}
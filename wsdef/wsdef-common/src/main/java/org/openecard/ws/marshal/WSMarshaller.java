@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import javax.xml.bind.JAXBElement;
 import javax.xml.transform.TransformerException;
+import javax.xml.validation.Schema;
 import org.openecard.ws.soap.SOAPException;
 import org.openecard.ws.soap.SOAPMessage;
 import org.w3c.dom.Document;
@@ -110,6 +111,20 @@ public interface WSMarshaller {
      *   org.w3c.dom.Element}.
      */
     <T> JAXBElement<T> unmarshal(Node n, Class<T> c) throws MarshallingTypeException, WSMarshallerException;
+    /**
+     * Unmarshal the given document node and validate it against the given schema in the same pass.
+     * In contrast to validating the resulting object afterwards, the object does not need to be serialized again.
+     * Validation errors do not abort the unmarshalling, they are reported in the result instead. Implementations which
+     * do not support schema validation unmarshal the node without validating it and say so in the result.
+     *
+     * @param n The DOM node to unmarshal.
+     * @param schema Compiled schema the document is validated against.
+     * @return The result containing the JAXB object representing the given DOM node and the validation outcome.
+     * @throws MarshallingTypeException If the given node represents an unsupported JAXB type.
+     * @throws WSMarshallerException If the given node is neither a {@link org.w3c.dom.Document}, nor an {@link
+     *   org.w3c.dom.Element}.
+     */
+    UnmarshalResult unmarshal(Node n, Schema schema) throws MarshallingTypeException, WSMarshallerException;
     /**
      * Marshal the given JAXB object.
      *